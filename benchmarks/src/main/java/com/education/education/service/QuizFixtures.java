@@ -0,0 +1,76 @@
+package com.education.education.service;
+
+import com.education.education.dto.QuizSubmissionDto;
+import com.education.education.entity.Quiz;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Seeded quizzes and submissions shaped like the aptitude quiz from QuizDataInitializer
+ */
+final class QuizFixtures {
+
+    private static final String[] CATEGORIES = { "mathematical", "verbal", "analytical", "technical" };
+    private static final String[] OPTIONS = { "A", "B", "C", "D" };
+
+    private QuizFixtures() {
+    }
+
+    static Quiz quiz(int questionCount, long seed) throws Exception {
+        Random random = new Random(seed);
+        List<Map<String, Object>> questions = new ArrayList<>();
+        for (int id = 1; id <= questionCount; id++) {
+            Map<String, Object> question = new HashMap<>();
+            question.put("id", id);
+            question.put("category", CATEGORIES[(id - 1) % CATEGORIES.length]);
+            question.put("question", "Question " + id);
+            question.put("options", Map.of("A", "Option A", "B", "Option B", "C", "Option C", "D", "Option D"));
+            question.put("correctAnswer", OPTIONS[random.nextInt(OPTIONS.length)]);
+            question.put("points", 2 + random.nextInt(2));
+            questions.add(question);
+        }
+
+        Quiz quiz = new Quiz("Benchmark Aptitude Quiz (" + questionCount + ")", "Generated for benchmarks",
+                new ObjectMapper().writeValueAsString(questions), "all");
+        quiz.setQuizId((long) questionCount);
+        return quiz;
+    }
+
+    /**
+     * Submissions from students with a per-category skill drawn from the seed:
+     * each answer is correct with that probability, otherwise a random option.
+     * A few questions are left unanswered, as real submissions do.
+     */
+    static QuizSubmissionDto[] submissions(Quiz quiz, int count, long seed) throws Exception {
+        Random random = new Random(seed);
+        List<Map<String, Object>> questions = new ObjectMapper().readValue(quiz.getQuestionsJson(), List.class);
+
+        QuizSubmissionDto[] submissions = new QuizSubmissionDto[count];
+        for (int s = 0; s < count; s++) {
+            double[] skill = new double[CATEGORIES.length];
+            for (int c = 0; c < skill.length; c++) {
+                skill[c] = 0.25 + 0.7 * random.nextDouble();
+            }
+
+            List<QuizSubmissionDto.QuizAnswerDto> answers = new ArrayList<>(questions.size());
+            for (int q = 0; q < questions.size(); q++) {
+                if (random.nextDouble() < 0.05) {
+                    continue;
+                }
+                Map<String, Object> question = questions.get(q);
+                String option = random.nextDouble() < skill[q % CATEGORIES.length]
+                        ? (String) question.get("correctAnswer")
+                        : OPTIONS[random.nextInt(OPTIONS.length)];
+                answers.add(new QuizSubmissionDto.QuizAnswerDto((Integer) question.get("id"), option,
+                        5 + random.nextInt(60)));
+            }
+            submissions[s] = new QuizSubmissionDto(quiz.getQuizId(), answers);
+        }
+        return submissions;
+    }
+}
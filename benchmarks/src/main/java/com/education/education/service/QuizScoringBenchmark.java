@@ -0,0 +1,106 @@
+package com.education.education.service;
+
+import com.education.education.dto.QuizResultDto;
+import com.education.education.dto.QuizSubmissionDto;
+import com.education.education.entity.Quiz;
+import com.education.education.entity.QuizAttempt;
+import com.education.education.service.scoring.CompiledQuiz;
+import com.education.education.service.scoring.ScoreCard;
+import com.education.education.service.scoring.StreamScoringModel;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.*;
+
+import java.lang.reflect.Field;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of the quiz scoring path: scoring a submission, turning the
+ * scores into stream recommendations and building the result DTO.
+ * Run with -prof gc (BenchmarkRunner adds it) for allocation rates.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class QuizScoringBenchmark {
+
+    private static final int SUBMISSIONS = 256;
+    private static final long SEED = 42L;
+
+    @Param({ "12", "50", "200" })
+    public int questionCount;
+
+    private QuizService quizService;
+    private Quiz quiz;
+    private CompiledQuiz compiledQuiz;
+    private QuizSubmissionDto[] submissions;
+    private ScoreCard[] scoreCards;
+    private List<String>[] streams;
+    private QuizAttempt attempt;
+    private int next;
+
+    @Setup(Level.Trial)
+    @SuppressWarnings("unchecked")
+    public void setUp() throws Exception {
+        StreamScoringModel streamScoringModel = new StreamScoringModel();
+        streamScoringModel.init();
+
+        quizService = new QuizService();
+        inject(quizService, "streamScoringModel", streamScoringModel);
+
+        quiz = QuizFixtures.quiz(questionCount, SEED);
+        compiledQuiz = CompiledQuiz.compile(quiz, new ObjectMapper());
+        submissions = QuizFixtures.submissions(quiz, SUBMISSIONS, SEED + questionCount);
+
+        // Precomputed inputs for the downstream stages
+        scoreCards = new ScoreCard[SUBMISSIONS];
+        streams = new List[SUBMISSIONS];
+        for (int i = 0; i < SUBMISSIONS; i++) {
+            scoreCards[i] = quizService.calculateScores(submissions[i], compiledQuiz);
+            streams[i] = quizService.generateStreamRecommendations(scoreCards[i]);
+        }
+
+        attempt = new QuizAttempt(null, quiz, "[]", 0, "[]");
+        attempt.setAttemptId(1L);
+        attempt.setTimestamp(LocalDateTime.now());
+    }
+
+    private int nextIndex() {
+        int index = next;
+        next = (index + 1) & (SUBMISSIONS - 1);
+        return index;
+    }
+
+    @Benchmark
+    public ScoreCard calculateScores() {
+        return quizService.calculateScores(submissions[nextIndex()], compiledQuiz);
+    }
+
+    @Benchmark
+    public List<String> generateStreamRecommendations() {
+        return quizService.generateStreamRecommendations(scoreCards[nextIndex()]);
+    }
+
+    @Benchmark
+    public QuizResultDto createQuizResultDto() {
+        int index = nextIndex();
+        return quizService.createQuizResultDto(attempt, compiledQuiz, scoreCards[index], streams[index]);
+    }
+
+    @Benchmark
+    public QuizResultDto scoreAndRecommend() {
+        ScoreCard scoreCard = quizService.calculateScores(submissions[nextIndex()], compiledQuiz);
+        List<String> recommendedStreams = quizService.generateStreamRecommendations(scoreCard);
+        return quizService.createQuizResultDto(attempt, compiledQuiz, scoreCard, recommendedStreams);
+    }
+
+    private static void inject(Object target, String fieldName, Object value) throws Exception {
+        Field field = target.getClass().getDeclaredField(fieldName);
+        field.setAccessible(true);
+        field.set(target, value);
+    }
+}
@@ -109,19 +109,14 @@ export const quizService = {
   getAvailableQuiz: async (): Promise<Quiz> => {
     const response = await api.get('/quiz/available');
     
-    // The API returns: { data: [{ quizId, title, description, questionsJson }] }
-    // We need to transform it to the expected Quiz format
+    // The catalog returns summaries: { data: [{ quizId, title, description, questionCount, contentVersion }] }
+    // The questions are fetched separately for the chosen quiz
     if (response.data && response.data.data && response.data.data.length > 0) {
-      const quizData = response.data.data[0];
-      
-      // Parse the questionsJson string into an array
-      let questions = [];
-      try {
-        questions = JSON.parse(quizData.questionsJson || '[]');
-      } catch (error) {
-        console.error('Failed to parse questions JSON:', error);
-        questions = [];
-      }
+      const summary = response.data.data[0];
+      // Versioned content is immutable and served without answer keys
+      const quizResponse = await api.get(`/quiz/${summary.quizId}/content/${summary.contentVersion}`);
+      const quizData = quizResponse.data;
+      const questions = quizData.questions || [];
       
       // Transform to expected Quiz format
       const quiz: Quiz = {
@@ -132,7 +127,6 @@ export const quizService = {
           id: q.id,
           questionText: q.question,
           options: q.options,
-          correctAnswer: q.correctAnswer,
           points: q.points,
           category: q.category
         })),
@@ -62,7 +62,7 @@ export interface Question {
     C: string;
     D: string;
   };
-  correctAnswer: string;
+  correctAnswer?: string;
   points: number;
   category: string;
 }
@@ -109,6 +109,8 @@ export interface QuizResult {
   recommendedColleges: string[];
   collegeTier: string;
   performanceLevel: string;
+  percentile?: number;
+  categoryPercentiles?: Record<string, number>;
 }
 
 // AI Recommendation Types
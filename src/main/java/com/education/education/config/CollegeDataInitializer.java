@@ -2,6 +2,7 @@ package com.education.education.config;
 
 import com.education.education.entity.College;
 import com.education.education.repository.CollegeRepository;
+import com.education.education.repository.CollegeStreamRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.CommandLineRunner;
 import org.springframework.core.annotation.Order;
@@ -16,11 +17,18 @@ public class CollegeDataInitializer implements CommandLineRunner {
     @Autowired
     private CollegeRepository collegeRepository;
 
+    @Autowired
+    private CollegeStreamRepository collegeStreamRepository;
+
     @Override
     public void run(String... args) throws Exception {
+        // Keep college_streams in sync with streams_offered, including the sample data below
+        collegeStreamRepository.installSyncTrigger();
+
         // Check if colleges already exist
         if (collegeRepository.count() > 0) {
             System.out.println("College data already exists. Skipping initialization.");
+            backfillStreams();
             return;
         }
 
@@ -158,6 +166,16 @@ public class CollegeDataInitializer implements CommandLineRunner {
         System.out.println("Successfully initialized " + colleges.size() + " sample colleges!");
     }
 
+    /**
+     * Split streams_offered into college_streams for colleges saved before the trigger existed
+     */
+    private void backfillStreams() {
+        if (collegeStreamRepository.needsBackfill()) {
+            int rows = collegeStreamRepository.backfillMissing();
+            System.out.println("Backfilled " + rows + " college stream mappings");
+        }
+    }
+
     private College createCollege(String name, String district, String state, String pincode,
             String address, String type, String tier, String streams,
             Integer year, String website, String phone, String email,
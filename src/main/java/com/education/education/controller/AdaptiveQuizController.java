@@ -0,0 +1,131 @@
+package com.education.education.controller;
+
+import com.education.education.config.JwtTokenUtil;
+import com.education.education.dto.AdaptiveStepDto;
+import com.education.education.dto.QuizSubmissionDto;
+import com.education.education.service.AdaptiveQuizService;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/quiz/adaptive")
+@CrossOrigin(origins = "*")
+public class AdaptiveQuizController {
+
+    @Autowired
+    private AdaptiveQuizService adaptiveQuizService;
+
+    @Autowired
+    private JwtTokenUtil jwtTokenUtil;
+
+    /**
+     * Start an adaptive quiz and get the first question
+     * POST /api/quiz/adaptive/start/{quizId}
+     */
+    @PostMapping("/start/{quizId}")
+    public ResponseEntity<?> startSession(@PathVariable Long quizId, HttpServletRequest request) {
+        try {
+            if (!isAuthenticated(request)) {
+                return ResponseEntity.badRequest()
+                        .body(Map.of("success", false, "message", "Authentication required"));
+            }
+
+            Long userId = getUserIdFromToken(request); // Can be null for guests
+            AdaptiveStepDto step = adaptiveQuizService.startSession(userId, quizId);
+
+            return ResponseEntity.ok(Map.of(
+                    "success", true,
+                    "message", "Adaptive quiz started",
+                    "data", step));
+        } catch (Exception e) {
+            return ResponseEntity.internalServerError()
+                    .body(Map.of("success", false, "message", "Error starting adaptive quiz: " + e.getMessage()));
+        }
+    }
+
+    /**
+     * Answer the current question; returns the next question or the final result
+     * POST /api/quiz/adaptive/{sessionId}/answer
+     */
+    @PostMapping("/{sessionId}/answer")
+    public ResponseEntity<?> answer(@PathVariable String sessionId,
+            @RequestBody QuizSubmissionDto.QuizAnswerDto answer,
+            HttpServletRequest request) {
+        try {
+            Long userId = getUserIdFromToken(request);
+            AdaptiveStepDto step = adaptiveQuizService.answer(userId, sessionId, answer);
+
+            return ResponseEntity.ok(Map.of(
+                    "success", true,
+                    "message", Boolean.TRUE.equals(step.getFinished())
+                            ? "Quiz submitted successfully. Stream recommendations generated!"
+                            : "Answer recorded",
+                    "data", step));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest()
+                    .body(Map.of("success", false, "message", "Error recording answer: " + e.getMessage()));
+        }
+    }
+
+    /**
+     * Get the state of an adaptive quiz
+     * GET /api/quiz/adaptive/{sessionId}
+     */
+    @GetMapping("/{sessionId}")
+    public ResponseEntity<?> getSession(@PathVariable String sessionId, HttpServletRequest request) {
+        try {
+            Long userId = getUserIdFromToken(request);
+            AdaptiveStepDto step = adaptiveQuizService.getSessionStatus(userId, sessionId);
+
+            return ResponseEntity.ok(Map.of(
+                    "success", true,
+                    "message", "Adaptive quiz retrieved successfully",
+                    "data", step));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest()
+                    .body(Map.of("success", false, "message", "Error retrieving adaptive quiz: " + e.getMessage()));
+        }
+    }
+
+    /**
+     * Extract user ID from JWT token
+     * Returns null for guest users
+     */
+    private Long getUserIdFromToken(HttpServletRequest request) {
+        try {
+            String authHeader = request.getHeader("Authorization");
+            if (authHeader != null && authHeader.startsWith("Bearer ")) {
+                String token = authHeader.substring(7);
+
+                if (jwtTokenUtil.isGuestToken(token)) {
+                    return null;
+                }
+
+                return jwtTokenUtil.getUserIdFromToken(token);
+            }
+        } catch (Exception e) {
+            // Log error but don't expose details
+        }
+        return null;
+    }
+
+    /**
+     * Check if user is authenticated (including guest)
+     */
+    private boolean isAuthenticated(HttpServletRequest request) {
+        try {
+            String authHeader = request.getHeader("Authorization");
+            if (authHeader != null && authHeader.startsWith("Bearer ")) {
+                String token = authHeader.substring(7);
+                return jwtTokenUtil.isGuestToken(token) || jwtTokenUtil.getUserIdFromToken(token) != null;
+            }
+        } catch (Exception e) {
+            // Log error but don't expose details
+        }
+        return false;
+    }
+}
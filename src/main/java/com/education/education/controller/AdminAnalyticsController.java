@@ -0,0 +1,100 @@
+package com.education.education.controller;
+
+import com.education.education.service.analytics.CohortAnalyticsService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/admin/analytics")
+@CrossOrigin(origins = "*")
+public class AdminAnalyticsController {
+
+    @Autowired
+    private CohortAnalyticsService cohortAnalyticsService;
+
+    /**
+     * Cohort statistics filtered by user attributes and grouped by dimensions
+     * GET /api/admin/analytics/cohorts?district=&classLevel=&preferredLanguage=&isGuest=&stream=&groupBy=district,classLevel,stream
+     */
+    @GetMapping("/cohorts")
+    public ResponseEntity<?> getCohorts(
+            @RequestParam(required = false) String district,
+            @RequestParam(required = false) String classLevel,
+            @RequestParam(required = false) String preferredLanguage,
+            @RequestParam(required = false) Boolean isGuest,
+            @RequestParam(required = false) String stream,
+            @RequestParam(required = false) String groupBy) {
+        try {
+            Map<String, String> filters = new LinkedHashMap<>();
+            if (district != null) {
+                filters.put("district", district);
+            }
+            if (classLevel != null) {
+                filters.put("classLevel", classLevel);
+            }
+            if (preferredLanguage != null) {
+                filters.put("preferredLanguage", preferredLanguage);
+            }
+            if (isGuest != null) {
+                filters.put("isGuest", isGuest.toString());
+            }
+            if (stream != null) {
+                filters.put("stream", stream);
+            }
+            List<String> groups = groupBy == null || groupBy.isBlank()
+                    ? List.of()
+                    : Arrays.stream(groupBy.split(",")).filter(s -> !s.isBlank()).toList();
+
+            return ResponseEntity.ok(Map.of(
+                    "success", true,
+                    "message", "Cohort statistics retrieved successfully",
+                    "data", cohortAnalyticsService.query(filters, groups)));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body(Map.of(
+                    "success", false,
+                    "message", "Error retrieving cohort statistics: " + e.getMessage()));
+        }
+    }
+
+    /**
+     * Indexed values of each dimension with user counts
+     * GET /api/admin/analytics/dimensions
+     */
+    @GetMapping("/dimensions")
+    public ResponseEntity<?> getDimensions() {
+        try {
+            return ResponseEntity.ok(Map.of(
+                    "success", true,
+                    "message", "Cohort dimensions retrieved successfully",
+                    "data", cohortAnalyticsService.dimensions()));
+        } catch (Exception e) {
+            return ResponseEntity.internalServerError().body(Map.of(
+                    "success", false,
+                    "message", "Error retrieving cohort dimensions: " + e.getMessage()));
+        }
+    }
+
+    /**
+     * Apply new users and attempts now instead of waiting for the next refresh
+     * POST /api/admin/analytics/refresh
+     */
+    @PostMapping("/refresh")
+    public ResponseEntity<?> refresh() {
+        try {
+            cohortAnalyticsService.refresh();
+            return ResponseEntity.ok(Map.of(
+                    "success", true,
+                    "message", "Cohort analytics refreshed"));
+        } catch (Exception e) {
+            return ResponseEntity.internalServerError().body(Map.of(
+                    "success", false,
+                    "message", "Error refreshing cohort analytics: " + e.getMessage()));
+        }
+    }
+}
@@ -2,6 +2,7 @@ package com.education.education.controller;
 
 import com.education.education.dto.college.CollegeSearchDto;
 import com.education.education.dto.college.CollegeDetailsDto;
+import com.education.education.dto.college.CollegePageDto;
 import com.education.education.service.CollegeService;
 import com.education.education.service.RecommendationService;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -29,17 +30,27 @@ public class CollegeController {
 
     /**
      * Search colleges by district
-     * GET /api/college/search/district/{district}
+     * GET /api/college/search/district/{district}?sort=S&direction=D&cursor=C&limit=N
      */
     @GetMapping("/search/district/{district}")
-    public ResponseEntity<?> searchByDistrict(@PathVariable String district) {
+    public ResponseEntity<?> searchByDistrict(@PathVariable String district,
+            @RequestParam(required = false) String sort,
+            @RequestParam(required = false) String direction,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int limit) {
         try {
-            List<CollegeSearchDto> colleges = collegeService.findCollegesByDistrict(district);
+            CollegePageDto colleges = collegeService.findCollegesByDistrict(district, sort, direction, cursor,
+                    Math.min(Math.max(limit, 1), 100));
 
             return ResponseEntity.ok(Map.of(
                     "success", true,
                     "message", "Colleges found successfully for district: " + district,
                     "data", colleges));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest()
+                    .body(Map.of(
+                            "success", false,
+                            "message", e.getMessage()));
         } catch (Exception e) {
             return ResponseEntity.internalServerError()
                     .body(Map.of(
@@ -50,17 +61,27 @@ public class CollegeController {
 
     /**
      * Search colleges by state
-     * GET /api/college/search/state/{state}
+     * GET /api/college/search/state/{state}?sort=S&direction=D&cursor=C&limit=N
      */
     @GetMapping("/search/state/{state}")
-    public ResponseEntity<?> searchByState(@PathVariable String state) {
+    public ResponseEntity<?> searchByState(@PathVariable String state,
+            @RequestParam(required = false) String sort,
+            @RequestParam(required = false) String direction,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int limit) {
         try {
-            List<CollegeSearchDto> colleges = collegeService.findCollegesByState(state);
+            CollegePageDto colleges = collegeService.findCollegesByState(state, sort, direction, cursor,
+                    Math.min(Math.max(limit, 1), 100));
 
             return ResponseEntity.ok(Map.of(
                     "success", true,
                     "message", "Colleges found successfully for state: " + state,
                     "data", colleges));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest()
+                    .body(Map.of(
+                            "success", false,
+                            "message", e.getMessage()));
         } catch (Exception e) {
             return ResponseEntity.internalServerError()
                     .body(Map.of(
@@ -69,6 +90,82 @@ public class CollegeController {
         }
     }
 
+    /**
+     * Search colleges by name, tolerating typos ("st josephs", "vishveshwaraya")
+     * GET /api/college/search/name?q=X&limit=N
+     */
+    @GetMapping("/search/name")
+    public ResponseEntity<?> searchByName(@RequestParam("q") String query,
+            @RequestParam(defaultValue = "20") int limit) {
+        try {
+            List<CollegeSearchDto> colleges = collegeService.findCollegesByName(query, Math.max(1, Math.min(limit, 100)));
+
+            return ResponseEntity.ok(Map.of(
+                    "success", true,
+                    "message", "Colleges found successfully for name: " + query,
+                    "data", colleges));
+        } catch (Exception e) {
+            return ResponseEntity.internalServerError()
+                    .body(Map.of(
+                            "success", false,
+                            "message", "Error searching colleges by name: " + e.getMessage()));
+        }
+    }
+
+    /**
+     * Search box suggestions (colleges, districts, states) for a typed prefix
+     * GET /api/college/autocomplete?q=X&limit=N
+     */
+    @GetMapping("/autocomplete")
+    public ResponseEntity<?> autocomplete(@RequestParam("q") String query,
+            @RequestParam(defaultValue = "8") int limit) {
+        try {
+            List<Map<String, Object>> suggestions = collegeService.autocomplete(query, limit);
+
+            return ResponseEntity.ok(Map.of(
+                    "success", true,
+                    "message", "Suggestions found successfully for: " + query,
+                    "data", suggestions));
+        } catch (Exception e) {
+            return ResponseEntity.internalServerError()
+                    .body(Map.of(
+                            "success", false,
+                            "message", "Error getting suggestions: " + e.getMessage()));
+        }
+    }
+
+    /**
+     * Nearest colleges to a point, optionally within a radius and filtered by
+     * stream, type and tier; without lat/lon the district's centre is used
+     * GET /api/college/nearby?lat=X&lon=Y&radiusKm=R&limit=N&stream=S&type=T&tier=U
+     */
+    @GetMapping("/nearby")
+    public ResponseEntity<?> findNearby(
+            @RequestParam(required = false) Double lat,
+            @RequestParam(required = false) Double lon,
+            @RequestParam(required = false) String district,
+            @RequestParam(required = false) Double radiusKm,
+            @RequestParam(defaultValue = "20") int limit,
+            @RequestParam(required = false) String stream,
+            @RequestParam(required = false) String type,
+            @RequestParam(required = false) String tier) {
+        try {
+            Double radius = radiusKm != null ? Math.max(0.0, Math.min(radiusKm, 1000.0)) : null;
+            List<CollegeSearchDto> colleges = collegeService.findNearbyColleges(lat, lon, district, radius,
+                    Math.max(1, Math.min(limit, 100)), stream, type, tier);
+
+            return ResponseEntity.ok(Map.of(
+                    "success", true,
+                    "message", "Nearby colleges found successfully",
+                    "data", colleges));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest()
+                    .body(Map.of(
+                            "success", false,
+                            "message", "Error finding nearby colleges: " + e.getMessage()));
+        }
+    }
+
     /**
      * Search government colleges by district
      * GET /api/college/government/district/{district}
@@ -92,17 +189,27 @@ public class CollegeController {
 
     /**
      * Search colleges by stream (Science, Commerce, Arts)
-     * GET /api/college/search/stream/{stream}
+     * GET /api/college/search/stream/{stream}?sort=S&direction=D&cursor=C&limit=N
      */
     @GetMapping("/search/stream/{stream}")
-    public ResponseEntity<?> searchByStream(@PathVariable String stream) {
+    public ResponseEntity<?> searchByStream(@PathVariable String stream,
+            @RequestParam(required = false) String sort,
+            @RequestParam(required = false) String direction,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int limit) {
         try {
-            List<CollegeSearchDto> colleges = collegeService.findCollegesByStream(stream);
+            CollegePageDto colleges = collegeService.findCollegesByStream(stream, sort, direction, cursor,
+                    Math.min(Math.max(limit, 1), 100));
 
             return ResponseEntity.ok(Map.of(
                     "success", true,
                     "message", "Colleges found successfully for stream: " + stream,
                     "data", colleges));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest()
+                    .body(Map.of(
+                            "success", false,
+                            "message", e.getMessage()));
         } catch (Exception e) {
             return ResponseEntity.internalServerError()
                     .body(Map.of(
@@ -112,20 +219,29 @@ public class CollegeController {
     }
 
     /**
-     * Advanced search with multiple parameters
-     * GET /api/college/search?district=X&state=Y&type=Z&stream=W
+     * Advanced search with multiple parameters, one page at a time, with
+     * type, tier, stream and district counts in data.facets. sort is tier
+     * (default), placementRate, name or establishmentYear; pass the returned
+     * nextCursor back as cursor for the following page
+     * GET /api/college/search?district=X&state=Y&type=Z&stream=W&tier=T&sort=S&direction=D&cursor=C&limit=N
      */
     @GetMapping("/search")
     public ResponseEntity<?> advancedSearch(
             @RequestParam(required = false) String district,
             @RequestParam(required = false) String state,
             @RequestParam(required = false) String type,
-            @RequestParam(required = false) String stream) {
+            @RequestParam(required = false) String stream,
+            @RequestParam(required = false) String tier,
+            @RequestParam(required = false) String sort,
+            @RequestParam(required = false) String direction,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int limit) {
         try {
-            List<CollegeSearchDto> colleges = collegeService.searchColleges(district, state, type, stream);
+            CollegePageDto colleges = collegeService.searchColleges(district, state, type, stream, tier,
+                    sort, direction, cursor, Math.min(Math.max(limit, 1), 100));
 
             String message = "Colleges found successfully";
-            if (district != null || state != null || type != null || stream != null) {
+            if (district != null || state != null || type != null || stream != null || tier != null) {
                 message += " with filters applied";
             }
 
@@ -133,6 +249,11 @@ public class CollegeController {
                     "success", true,
                     "message", message,
                     "data", colleges));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest()
+                    .body(Map.of(
+                            "success", false,
+                            "message", e.getMessage()));
         } catch (Exception e) {
             return ResponseEntity.internalServerError()
                     .body(Map.of(
@@ -1,10 +1,14 @@
 package com.education.education.controller;
 
+import com.education.education.dto.QuizSubmissionDto;
 import com.education.education.entity.QuizAttempt;
 import com.education.education.entity.User;
 import com.education.education.repository.QuizAttemptRepository;
+import com.education.education.repository.QuizStatsRollupRepository;
 import com.education.education.service.GeminiAIService;
 import com.education.education.service.UserService;
+import com.education.education.service.codec.AnswerCodec;
+import com.education.education.service.codec.StreamCodec;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -28,6 +32,9 @@ public class PublicTestController {
     @Autowired
     private QuizAttemptRepository quizAttemptRepository;
 
+    @Autowired
+    private QuizStatsRollupRepository quizStatsRollupRepository;
+
     /**
      * Process quiz results and provide personalized AI recommendations
      */
@@ -80,10 +87,16 @@ public class PublicTestController {
                         // Save quiz attempt
                         QuizAttempt attempt = new QuizAttempt();
                         attempt.setUser(user);
-                        attempt.setAnswersJson(String.join(",", quizAnswers));
+                        List<QuizSubmissionDto.QuizAnswerDto> answers = new ArrayList<>(quizAnswers.size());
+                        for (int i = 0; i < quizAnswers.size(); i++) {
+                            answers.add(new QuizSubmissionDto.QuizAnswerDto(i + 1, quizAnswers.get(i), null));
+                        }
+                        attempt.setAnswersBin(AnswerCodec.encode(answers));
                         attempt.setScore(analysis.score);
-                        attempt.setRecommendedStreams("[\"" + analysis.primaryStream + "\"]");
-                        quizAttemptRepository.save(attempt);
+                        attempt.setStreamsBin(StreamCodec.encode(List.of(analysis.primaryStream)));
+                        attempt.setPrimaryStream(analysis.primaryStream);
+                        attempt = quizAttemptRepository.save(attempt);
+                        quizStatsRollupRepository.record(attempt);
                         authMessage = "Quiz results saved for user: " + user.getName();
                     }
                 } catch (Exception e) {
@@ -1,24 +1,38 @@
 package com.education.education.controller;
 
 import com.education.education.config.JwtTokenUtil;
+import com.education.education.dto.QuizBatchResultDto;
+import com.education.education.dto.QuizBatchSubmissionDto;
+import com.education.education.dto.QuizQuestionDto;
 import com.education.education.dto.QuizResultDto;
 import com.education.education.dto.QuizSubmissionDto;
-import com.education.education.entity.Quiz;
+import com.education.education.dto.QuizSummaryDto;
 import com.education.education.entity.User;
 import com.education.education.repository.UserRepository;
+import com.education.education.service.QuestionBankService;
+import com.education.education.service.QuizContentService;
 import com.education.education.service.QuizService;
 import com.education.education.service.GeminiAIService;
 import com.education.education.service.UserService;
+import com.education.education.service.leaderboard.LeaderboardService;
+import com.education.education.service.percentile.PercentileService;
+import com.education.education.service.scoring.StreamScoringModel;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
 
 @RestController
 @RequestMapping("/api/quiz")
@@ -40,6 +54,21 @@ public class QuizController {
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private StreamScoringModel streamScoringModel;
+
+    @Autowired
+    private QuestionBankService questionBankService;
+
+    @Autowired
+    private QuizContentService quizContentService;
+
+    @Autowired
+    private PercentileService percentileService;
+
+    @Autowired
+    private LeaderboardService leaderboardService;
+
     /**
      * Get available quizzes for current user based on their class level
      */
@@ -56,12 +85,24 @@ public class QuizController {
 
             // For now, default to "12th" - this should come from user profile
             String classLevel = "12th"; // TODO: Get from user profile
-            List<Quiz> quizzes = quizService.getAvailableQuizzes(classLevel);
+            List<QuizSummaryDto> quizzes = quizService.getQuizCatalog(classLevel);
+            String eTag = quizService.getCatalogETag(quizzes);
+
+            // Unchanged catalog: answer 304 without serializing the listing
+            if (matchesETag(request, eTag)) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                        .eTag(eTag)
+                        .cacheControl(CacheControl.noCache().cachePrivate())
+                        .build();
+            }
 
-            return ResponseEntity.ok(Map.of(
-                    "success", true,
-                    "message", "Available quizzes retrieved successfully",
-                    "data", quizzes));
+            return ResponseEntity.ok()
+                    .eTag(eTag)
+                    .cacheControl(CacheControl.noCache().cachePrivate())
+                    .body(Map.of(
+                            "success", true,
+                            "message", "Available quizzes retrieved successfully",
+                            "data", quizzes));
         } catch (Exception e) {
             return ResponseEntity.internalServerError()
                     .body(Map.of("success", false, "message", "Error retrieving quizzes: " + e.getMessage()));
@@ -69,26 +110,186 @@ public class QuizController {
     }
 
     /**
-     * Get specific quiz by ID
+     * Get specific quiz by ID, for taking it: the same answer-free content as
+     * /{quizId}/content, never the stored questions with their answer keys
+     * GET /api/quiz/{quizId}
      */
     @GetMapping("/{quizId}")
     public ResponseEntity<?> getQuizById(@PathVariable Long quizId, HttpServletRequest request) {
+        // Allow both authenticated users and guests
+        if (!isAuthenticated(request)) {
+            return ResponseEntity.badRequest()
+                    .body(Map.of("success", false, "message", "Authentication required"));
+        }
+        return getQuizContent(quizId, request);
+    }
+
+    /**
+     * Get the current version of a quiz for taking it (no answer keys).
+     * Revalidated with the ETag on each load; Content-Location names the
+     * immutable versioned URL of the same bytes.
+     */
+    @GetMapping("/{quizId}/content")
+    public ResponseEntity<?> getQuizContent(@PathVariable Long quizId, HttpServletRequest request) {
+        try {
+            QuizContentService.QuizContent content = quizContentService.getCurrentContent(quizId);
+            if (matchesETag(request, content.getETag())) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                        .eTag(content.getETag())
+                        .cacheControl(CacheControl.noCache())
+                        .build();
+            }
+            return contentResponse(content, CacheControl.noCache(), request);
+        } catch (Exception e) {
+            return ResponseEntity.internalServerError()
+                    .body(Map.of("success", false, "message", "Error retrieving quiz: " + e.getMessage()));
+        }
+    }
+
+    /**
+     * Get a specific version of a quiz. The bytes of a version never change,
+     * so the response may be cached by any proxy or CDN for a year.
+     */
+    @GetMapping("/{quizId}/content/{version}")
+    public ResponseEntity<?> getQuizContentVersion(@PathVariable Long quizId, @PathVariable String version,
+            HttpServletRequest request) {
+        try {
+            QuizContentService.QuizContent content = quizContentService.getContent(quizId, version);
+            if (content == null) {
+                return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                        .body(Map.of("success", false, "message", "Quiz version is no longer available"));
+            }
+            if (matchesETag(request, content.getETag())) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                        .eTag(content.getETag())
+                        .cacheControl(CacheControl.maxAge(365, TimeUnit.DAYS).cachePublic().immutable())
+                        .build();
+            }
+            return contentResponse(content, CacheControl.maxAge(365, TimeUnit.DAYS).cachePublic().immutable(),
+                    request);
+        } catch (Exception e) {
+            return ResponseEntity.internalServerError()
+                    .body(Map.of("success", false, "message", "Error retrieving quiz: " + e.getMessage()));
+        }
+    }
+
+    /**
+     * Get one page of a quiz's questions, optionally filtered by category
+     */
+    @GetMapping("/{quizId}/questions")
+    public ResponseEntity<?> getQuizQuestions(@PathVariable Long quizId,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(required = false) String category,
+            HttpServletRequest request) {
         try {
-            // Allow both authenticated users and guests
             if (!isAuthenticated(request)) {
                 return ResponseEntity.badRequest()
                         .body(Map.of("success", false, "message", "Authentication required"));
             }
 
-            Quiz quiz = quizService.getQuizById(quizId);
+            Page<QuizQuestionDto> questions = questionBankService.getQuestions(quizId, category, page, size);
+
+            Map<String, Object> data = new HashMap<>();
+            data.put("content", questions.getContent());
+            data.put("page", questions.getNumber());
+            data.put("size", questions.getSize());
+            data.put("totalElements", questions.getTotalElements());
+            data.put("totalPages", questions.getTotalPages());
 
             return ResponseEntity.ok(Map.of(
                     "success", true,
-                    "message", "Quiz retrieved successfully",
-                    "data", quiz));
+                    "message", "Questions retrieved successfully",
+                    "data", data));
         } catch (Exception e) {
             return ResponseEntity.internalServerError()
-                    .body(Map.of("success", false, "message", "Error retrieving quiz: " + e.getMessage()));
+                    .body(Map.of("success", false, "message", "Error retrieving questions: " + e.getMessage()));
+        }
+    }
+
+    /**
+     * Percentile ranks among recorded attempts of a quiz: the full tables, or
+     * the rank of one raw score in "total" or a category
+     */
+    @GetMapping("/{quizId}/percentiles")
+    public ResponseEntity<?> getQuizPercentiles(@PathVariable Long quizId,
+            @RequestParam(required = false) Integer score,
+            @RequestParam(defaultValue = PercentileService.TOTAL) String category) {
+        try {
+            Map<String, Object> data = new HashMap<>();
+            data.put("quizId", quizId);
+            if (score != null) {
+                data.put("category", category);
+                data.put("score", score);
+                data.put("percentile", percentileService.percentile(quizId, category, score));
+            } else {
+                data.put("percentiles", percentileService.percentileTables(quizId));
+            }
+
+            return ResponseEntity.ok(Map.of(
+                    "success", true,
+                    "message", "Percentiles retrieved successfully",
+                    "data", data));
+        } catch (Exception e) {
+            return ResponseEntity.internalServerError()
+                    .body(Map.of("success", false, "message", "Error retrieving percentiles: " + e.getMessage()));
+        }
+    }
+
+    /**
+     * Top scores of a quiz, quiz-wide or within a district
+     * GET /api/quiz/{quizId}/leaderboard?district=&limit=
+     */
+    @GetMapping("/{quizId}/leaderboard")
+    public ResponseEntity<?> getLeaderboard(@PathVariable Long quizId,
+            @RequestParam(required = false) String district,
+            @RequestParam(defaultValue = "10") int limit) {
+        try {
+            Map<String, Object> data = new HashMap<>();
+            data.put("quizId", quizId);
+            data.put("district", district);
+            data.put("entries", leaderboardService.top(quizId, district, limit));
+
+            return ResponseEntity.ok(Map.of(
+                    "success", true,
+                    "message", "Leaderboard retrieved successfully",
+                    "data", data));
+        } catch (Exception e) {
+            return ResponseEntity.internalServerError()
+                    .body(Map.of("success", false, "message", "Error retrieving leaderboard: " + e.getMessage()));
+        }
+    }
+
+    /**
+     * The current user's rank on a quiz, in their district and quiz-wide
+     * GET /api/quiz/{quizId}/leaderboard/me
+     */
+    @GetMapping("/{quizId}/leaderboard/me")
+    public ResponseEntity<?> getMyLeaderboardRank(@PathVariable Long quizId, HttpServletRequest request) {
+        try {
+            Long userId = getUserIdFromToken(request);
+            if (userId == null) {
+                return ResponseEntity.badRequest()
+                        .body(Map.of("success", false, "message", "Authentication required"));
+            }
+            User user = userService.findById(userId);
+
+            Map<String, Object> data = new HashMap<>();
+            data.put("quizId", quizId);
+            data.put("overall", leaderboardService.rank(quizId, null, userId));
+            String district = leaderboardService.districtOf(user);
+            if (district != null) {
+                data.put("district", district);
+                data.put("districtRank", leaderboardService.rank(quizId, district, userId));
+            }
+
+            return ResponseEntity.ok(Map.of(
+                    "success", true,
+                    "message", "Leaderboard rank retrieved successfully",
+                    "data", data));
+        } catch (Exception e) {
+            return ResponseEntity.internalServerError()
+                    .body(Map.of("success", false, "message", "Error retrieving leaderboard rank: " + e.getMessage()));
         }
     }
 
@@ -121,6 +322,35 @@ public class QuizController {
         }
     }
 
+    /**
+     * Submit a whole class worth of quizzes at once (offline sync)
+     * Each item gets its own result; failed items do not fail the batch.
+     * Items for other users' ids are rejected unless the caller is an admin.
+     */
+    @PostMapping("/submit-batch")
+    public ResponseEntity<?> submitQuizBatch(@RequestBody QuizBatchSubmissionDto batch,
+            HttpServletRequest request) {
+        try {
+            if (!isAuthenticated(request)) {
+                return ResponseEntity.badRequest()
+                        .body(Map.of("success", false, "message", "Authentication required"));
+            }
+
+            Long userId = getUserIdFromToken(request); // Can be null for guests
+
+            QuizBatchResultDto result = quizService.submitQuizBatch(userId, batch.getSubmissions());
+
+            return ResponseEntity.ok(Map.of(
+                    "success", result.getFailureCount() == 0,
+                    "message", result.getSuccessCount() + " of " + result.getTotalCount()
+                            + " quizzes submitted successfully",
+                    "data", result));
+        } catch (Exception e) {
+            return ResponseEntity.internalServerError()
+                    .body(Map.of("success", false, "message", "Error submitting quiz batch: " + e.getMessage()));
+        }
+    }
+
     /**
      * Enhanced quiz submission with AI recommendations
      */
@@ -211,7 +441,9 @@ public class QuizController {
      * Get user's quiz history and past recommendations
      */
     @GetMapping("/history")
-    public ResponseEntity<?> getQuizHistory(HttpServletRequest request) {
+    public ResponseEntity<?> getQuizHistory(@RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int limit,
+            HttpServletRequest request) {
         try {
             Long userId = getUserIdFromToken(request);
             if (userId == null) {
@@ -219,12 +451,19 @@ public class QuizController {
                         .body(Map.of("success", false, "message", "Authentication required"));
             }
 
-            List<QuizResultDto> history = quizService.getUserQuizHistory(userId);
+            limit = Math.min(Math.max(limit, 1), 100);
+            List<QuizResultDto> history = quizService.getUserQuizHistoryPage(userId, cursor, limit);
+
+            // Pass nextCursor back to get the following page; null when this page is not full
+            Map<String, Object> data = new HashMap<>();
+            data.put("items", history);
+            data.put("nextCursor", history.size() < limit ? null
+                    : quizService.getHistoryCursor(history.get(history.size() - 1)));
 
             return ResponseEntity.ok(Map.of(
                     "success", true,
                     "message", "Quiz history retrieved successfully",
-                    "data", history));
+                    "data", data));
         } catch (Exception e) {
             return ResponseEntity.internalServerError()
                     .body(Map.of("success", false, "message", "Error retrieving quiz history: " + e.getMessage()));
@@ -244,9 +483,9 @@ public class QuizController {
                         .body(Map.of("success", false, "message", "Authentication required"));
             }
 
-            List<QuizResultDto> history = quizService.getUserQuizHistory(userId);
+            Optional<QuizResultDto> latest = quizService.getLatestResult(userId);
 
-            if (history.isEmpty()) {
+            if (latest.isEmpty()) {
                 return ResponseEntity.ok(Map.of(
                         "success", true,
                         "message", "No quiz attempts found. Please take a quiz first.",
@@ -256,7 +495,7 @@ public class QuizController {
             }
 
             // Get latest quiz result for recommendations
-            QuizResultDto latestResult = history.get(0);
+            QuizResultDto latestResult = latest.get();
 
             Map<String, Object> recommendations = new HashMap<>();
             recommendations.put("hasAttempts", true);
@@ -284,7 +523,7 @@ public class QuizController {
      * Get quiz statistics for analytics
      */
     @GetMapping("/stats")
-    public ResponseEntity<?> getQuizStats(HttpServletRequest request) {
+    public ResponseEntity<?> getQuizStats(@RequestParam(required = false) Long quizId, HttpServletRequest request) {
         try {
             Long userId = getUserIdFromToken(request);
             if (userId == null) {
@@ -292,36 +531,8 @@ public class QuizController {
                         .body(Map.of("success", false, "message", "Authentication required"));
             }
 
-            List<QuizResultDto> history = quizService.getUserQuizHistory(userId);
-
-            Map<String, Object> stats = new HashMap<>();
-            stats.put("totalQuizzes", history.size());
-
-            if (!history.isEmpty()) {
-                // Calculate average score
-                double avgScore = history.stream()
-                        .mapToDouble(QuizResultDto::getPercentage)
-                        .average()
-                        .orElse(0.0);
-
-                // Find best performance
-                QuizResultDto bestResult = history.stream()
-                        .max((a, b) -> Double.compare(a.getPercentage(), b.getPercentage()))
-                        .orElse(null);
-
-                stats.put("averageScore", Math.round(avgScore * 100.0) / 100.0);
-                stats.put("bestScore", bestResult != null ? bestResult.getPercentage() : 0);
-                stats.put("latestScore", history.get(0).getPercentage());
-                stats.put("improvement",
-                        history.size() > 1
-                                ? history.get(0).getPercentage() - history.get(history.size() - 1).getPercentage()
-                                : 0);
-            } else {
-                stats.put("averageScore", 0);
-                stats.put("bestScore", 0);
-                stats.put("latestScore", 0);
-                stats.put("improvement", 0);
-            }
+            // Read from the per-user (or per-user-per-quiz) rollup
+            Map<String, Object> stats = quizService.getUserStats(userId, quizId);
 
             return ResponseEntity.ok(Map.of(
                     "success", true,
@@ -355,10 +566,7 @@ public class QuizController {
 
         categories.put("aptitudeTypes", aptitudeTypes);
         categories.put("streamInformation", streamInfo);
-        categories.put("scoringInfo", Map.of(
-                "Science", "40% Mathematical + 40% Technical + 20% Analytical",
-                "Commerce", "30% Mathematical + 40% Analytical + 30% Verbal",
-                "Arts", "60% Verbal + 40% Analytical"));
+        categories.put("scoringInfo", streamScoringModel.describe());
 
         return ResponseEntity.ok(Map.of(
                 "success", true,
@@ -405,4 +613,45 @@ public class QuizController {
         }
         return false;
     }
-}
\ No newline at end of file
+
+    /**
+     * Check an If-None-Match header (possibly a list, or weak tags) against an ETag
+     */
+    private boolean matchesETag(HttpServletRequest request, String eTag) {
+        String ifNoneMatch = request.getHeader(HttpHeaders.IF_NONE_MATCH);
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.startsWith("W/")) {
+                tag = tag.substring(2);
+            }
+            if (tag.equals("*") || tag.equals(eTag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Write pre-serialized quiz content, gzipped when the client accepts it
+     */
+    private ResponseEntity<byte[]> contentResponse(QuizContentService.QuizContent content, CacheControl cacheControl,
+            HttpServletRequest request) {
+        String acceptEncoding = request.getHeader(HttpHeaders.ACCEPT_ENCODING);
+        boolean gzip = acceptEncoding != null && acceptEncoding.contains("gzip");
+
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .eTag(content.getETag())
+                .cacheControl(cacheControl)
+                .varyBy(HttpHeaders.ACCEPT_ENCODING)
+                .header(HttpHeaders.CONTENT_LOCATION,
+                        "/api/quiz/" + content.getQuizId() + "/content/" + content.getVersion());
+        if (gzip) {
+            return response.header(HttpHeaders.CONTENT_ENCODING, "gzip").body(content.getGzipped());
+        }
+        return response.body(content.getJson());
+    }
+}
@@ -0,0 +1,151 @@
+package com.education.education.controller;
+
+import com.education.education.config.JwtTokenUtil;
+import com.education.education.dto.QuizResultDto;
+import com.education.education.dto.QuizSessionDto;
+import com.education.education.dto.QuizSubmissionDto;
+import com.education.education.service.QuizSessionService;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/quiz/session")
+@CrossOrigin(origins = "*")
+public class QuizSessionController {
+
+    @Autowired
+    private QuizSessionService quizSessionService;
+
+    @Autowired
+    private JwtTokenUtil jwtTokenUtil;
+
+    /**
+     * Start a server-side quiz session
+     * POST /api/quiz/session/start/{quizId}
+     */
+    @PostMapping("/start/{quizId}")
+    public ResponseEntity<?> startSession(@PathVariable Long quizId, HttpServletRequest request) {
+        try {
+            if (!isAuthenticated(request)) {
+                return ResponseEntity.badRequest()
+                        .body(Map.of("success", false, "message", "Authentication required"));
+            }
+
+            Long userId = getUserIdFromToken(request); // Can be null for guests
+            QuizSessionDto session = quizSessionService.startSession(userId, quizId);
+
+            return ResponseEntity.ok(Map.of(
+                    "success", true,
+                    "message", "Quiz session started",
+                    "data", session));
+        } catch (Exception e) {
+            return ResponseEntity.internalServerError()
+                    .body(Map.of("success", false, "message", "Error starting quiz session: " + e.getMessage()));
+        }
+    }
+
+    /**
+     * Record one answer or a small chunk of answers
+     * POST /api/quiz/session/{sessionId}/answers
+     */
+    @PostMapping("/{sessionId}/answers")
+    public ResponseEntity<?> submitAnswers(@PathVariable String sessionId,
+            @RequestBody List<QuizSubmissionDto.QuizAnswerDto> answers,
+            HttpServletRequest request) {
+        try {
+            Long userId = getUserIdFromToken(request);
+            QuizSessionDto session = quizSessionService.submitAnswers(userId, sessionId, answers);
+
+            return ResponseEntity.ok(Map.of(
+                    "success", true,
+                    "message", "Answers recorded",
+                    "data", session));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest()
+                    .body(Map.of("success", false, "message", "Error recording answers: " + e.getMessage()));
+        }
+    }
+
+    /**
+     * Get the state of a quiz session
+     * GET /api/quiz/session/{sessionId}
+     */
+    @GetMapping("/{sessionId}")
+    public ResponseEntity<?> getSession(@PathVariable String sessionId, HttpServletRequest request) {
+        try {
+            Long userId = getUserIdFromToken(request);
+            QuizSessionDto session = quizSessionService.getSessionStatus(userId, sessionId);
+
+            return ResponseEntity.ok(Map.of(
+                    "success", true,
+                    "message", "Quiz session retrieved successfully",
+                    "data", session));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest()
+                    .body(Map.of("success", false, "message", "Error retrieving quiz session: " + e.getMessage()));
+        }
+    }
+
+    /**
+     * Finish the session and get stream recommendations
+     * POST /api/quiz/session/{sessionId}/finish
+     */
+    @PostMapping("/{sessionId}/finish")
+    public ResponseEntity<?> finishSession(@PathVariable String sessionId, HttpServletRequest request) {
+        try {
+            Long userId = getUserIdFromToken(request);
+            QuizResultDto result = quizSessionService.finishSession(userId, sessionId);
+
+            return ResponseEntity.ok(Map.of(
+                    "success", true,
+                    "message", "Quiz submitted successfully. Stream recommendations generated!",
+                    "data", result));
+        } catch (Exception e) {
+            return ResponseEntity.internalServerError()
+                    .body(Map.of("success", false, "message", "Error finishing quiz session: " + e.getMessage()));
+        }
+    }
+
+    /**
+     * Extract user ID from JWT token
+     * Returns null for guest users
+     */
+    private Long getUserIdFromToken(HttpServletRequest request) {
+        try {
+            String authHeader = request.getHeader("Authorization");
+            if (authHeader != null && authHeader.startsWith("Bearer ")) {
+                String token = authHeader.substring(7);
+
+                if (jwtTokenUtil.isGuestToken(token)) {
+                    return null;
+                }
+
+                return jwtTokenUtil.getUserIdFromToken(token);
+            }
+        } catch (Exception e) {
+            // Log error but don't expose details
+        }
+        return null;
+    }
+
+    /**
+     * Check if user is authenticated (including guest)
+     */
+    private boolean isAuthenticated(HttpServletRequest request) {
+        try {
+            String authHeader = request.getHeader("Authorization");
+            if (authHeader != null && authHeader.startsWith("Bearer ")) {
+                String token = authHeader.substring(7);
+                return jwtTokenUtil.isGuestToken(token) || jwtTokenUtil.getUserIdFromToken(token) != null;
+            }
+        } catch (Exception e) {
+            // Log error but don't expose details
+        }
+        return false;
+    }
+}
@@ -2,17 +2,18 @@ package com.education.education.controller;
 
 import com.education.education.entity.QuizAttempt;
 import com.education.education.entity.User;
-import com.education.education.repository.QuizAttemptRepository;
 import com.education.education.service.GeminiAIService;
+import com.education.education.service.QuizService;
 import com.education.education.service.UserService;
+import com.education.education.service.codec.StreamCodec;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.HashMap;
-import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 
 @RestController
 @RequestMapping("/api/recommendations")
@@ -26,7 +27,7 @@ public class RecommendationController {
     private UserService userService;
 
     @Autowired
-    private QuizAttemptRepository quizAttemptRepository;
+    private QuizService quizService;
 
     /**
      * Get AI-powered college recommendations based on latest quiz attempt
@@ -45,16 +46,15 @@ public class RecommendationController {
             }
 
             // Get user's latest quiz attempt
-            List<QuizAttempt> attempts = quizAttemptRepository
-                    .findByUserUserIdOrderByTimestampDesc(user.getUserId());
+            Optional<QuizAttempt> latestAttempt = quizService.getLatestAttempt(user.getUserId());
 
-            if (attempts.isEmpty()) {
+            if (latestAttempt.isEmpty()) {
                 return ResponseEntity.badRequest().body(Map.of(
                         "success", false,
                         "message", "No quiz attempts found. Please take a quiz first."));
             }
 
-            QuizAttempt attempt = attempts.get(0); // Get the latest attempt
+            QuizAttempt attempt = latestAttempt.get();
 
             // Build user profile for Gemini AI
             Map<String, Object> userProfile = buildUserProfile(user, attempt);
@@ -69,7 +69,7 @@ public class RecommendationController {
                             "name", user.getName(),
                             "location", user.getDistrict(),
                             "quizScore", attempt.getScore(),
-                            "recommendedStreams", attempt.getRecommendedStreams())));
+                            "recommendedStreams", quizService.getRecommendedStreams(attempt))));
 
         } catch (Exception e) {
             System.err.println("Error getting college recommendations: " + e.getMessage());
@@ -95,16 +95,15 @@ public class RecommendationController {
             }
 
             // Get user's latest quiz attempt
-            List<QuizAttempt> attempts = quizAttemptRepository
-                    .findByUserUserIdOrderByTimestampDesc(user.getUserId());
+            Optional<QuizAttempt> latestAttempt = quizService.getLatestAttempt(user.getUserId());
 
-            if (attempts.isEmpty()) {
+            if (latestAttempt.isEmpty()) {
                 return ResponseEntity.badRequest().body(Map.of(
                         "success", false,
                         "message", "No quiz attempts found. Please take a quiz first."));
             }
 
-            QuizAttempt attempt = attempts.get(0);
+            QuizAttempt attempt = latestAttempt.get();
 
             // Build user profile for career guidance
             Map<String, Object> userProfile = buildUserProfile(user, attempt);
@@ -146,16 +145,15 @@ public class RecommendationController {
             }
 
             // Get user's latest quiz attempt
-            List<QuizAttempt> attempts = quizAttemptRepository
-                    .findByUserUserIdOrderByTimestampDesc(user.getUserId());
+            Optional<QuizAttempt> latestAttempt = quizService.getLatestAttempt(user.getUserId());
 
-            if (attempts.isEmpty()) {
+            if (latestAttempt.isEmpty()) {
                 return ResponseEntity.badRequest().body(Map.of(
                         "success", false,
                         "message", "No quiz attempts found. Please take a quiz first."));
             }
 
-            QuizAttempt attempt = attempts.get(0);
+            QuizAttempt attempt = latestAttempt.get();
 
             // Build enhanced user profile with preferences
             Map<String, Object> userProfile = buildUserProfile(user, attempt);
@@ -222,7 +220,7 @@ public class RecommendationController {
         Map<String, Object> profile = new HashMap<>();
 
         profile.put("totalScore", attempt.getScore());
-        profile.put("recommendedStream", extractPrimaryStream(attempt.getRecommendedStreams()));
+        profile.put("recommendedStream", extractPrimaryStream(attempt));
         profile.put("district", user.getDistrict());
         profile.put("state", user.getDistrict()); // Using district as state since User doesn't have getState()
         profile.put("name", user.getName());
@@ -234,24 +232,10 @@ public class RecommendationController {
         return profile;
     }
 
-    private String extractPrimaryStream(String recommendedStreams) {
-        if (recommendedStreams == null || recommendedStreams.isEmpty()) {
-            return "Science"; // Default fallback
-        }
-
-        try {
-            // Parse JSON and extract first stream
-            if (recommendedStreams.contains("Science")) {
-                return "Science";
-            } else if (recommendedStreams.contains("Commerce")) {
-                return "Commerce";
-            } else if (recommendedStreams.contains("Arts")) {
-                return "Arts";
-            }
-        } catch (Exception e) {
-            System.err.println("Error parsing recommended streams: " + e.getMessage());
-        }
-
-        return "Science"; // Default fallback
+    private String extractPrimaryStream(QuizAttempt attempt) {
+        String stream = attempt.getPrimaryStream() != null
+                ? attempt.getPrimaryStream()
+                : StreamCodec.primaryStreamFromLegacy(attempt.getRecommendedStreams());
+        return stream != null && !stream.isEmpty() ? stream : "Science"; // Default fallback
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,158 @@
+package com.education.education.dto;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * State of an adaptive quiz after a step: the next question to show, or the
+ * result once the stopping rule is met
+ */
+public class AdaptiveStepDto {
+
+    private String sessionId;
+    private Long quizId;
+    private Boolean finished;
+    private Integer answeredCount;
+    private Integer bankSize;
+    private QuizQuestionDto nextQuestion;
+    private List<CategoryEstimateDto> estimates;
+    private QuizResultDto result;
+    @JsonFormat(shape = JsonFormat.Shape.STRING, pattern = "yyyy-MM-dd'T'HH:mm:ss")
+    private LocalDateTime expiresAt;
+
+    public AdaptiveStepDto() {
+    }
+
+    public String getSessionId() {
+        return sessionId;
+    }
+
+    public void setSessionId(String sessionId) {
+        this.sessionId = sessionId;
+    }
+
+    public Long getQuizId() {
+        return quizId;
+    }
+
+    public void setQuizId(Long quizId) {
+        this.quizId = quizId;
+    }
+
+    public Boolean getFinished() {
+        return finished;
+    }
+
+    public void setFinished(Boolean finished) {
+        this.finished = finished;
+    }
+
+    public Integer getAnsweredCount() {
+        return answeredCount;
+    }
+
+    public void setAnsweredCount(Integer answeredCount) {
+        this.answeredCount = answeredCount;
+    }
+
+    public Integer getBankSize() {
+        return bankSize;
+    }
+
+    public void setBankSize(Integer bankSize) {
+        this.bankSize = bankSize;
+    }
+
+    public QuizQuestionDto getNextQuestion() {
+        return nextQuestion;
+    }
+
+    public void setNextQuestion(QuizQuestionDto nextQuestion) {
+        this.nextQuestion = nextQuestion;
+    }
+
+    public List<CategoryEstimateDto> getEstimates() {
+        return estimates;
+    }
+
+    public void setEstimates(List<CategoryEstimateDto> estimates) {
+        this.estimates = estimates;
+    }
+
+    public QuizResultDto getResult() {
+        return result;
+    }
+
+    public void setResult(QuizResultDto result) {
+        this.result = result;
+    }
+
+    public LocalDateTime getExpiresAt() {
+        return expiresAt;
+    }
+
+    public void setExpiresAt(LocalDateTime expiresAt) {
+        this.expiresAt = expiresAt;
+    }
+
+    public static class CategoryEstimateDto {
+        private String category;
+        private Double ability;
+        private Double standardError;
+        private Integer itemsAnswered;
+        private Boolean converged;
+
+        public CategoryEstimateDto() {
+        }
+
+        public CategoryEstimateDto(String category, Double ability, Double standardError, Integer itemsAnswered,
+                Boolean converged) {
+            this.category = category;
+            this.ability = ability;
+            this.standardError = standardError;
+            this.itemsAnswered = itemsAnswered;
+            this.converged = converged;
+        }
+
+        public String getCategory() {
+            return category;
+        }
+
+        public void setCategory(String category) {
+            this.category = category;
+        }
+
+        public Double getAbility() {
+            return ability;
+        }
+
+        public void setAbility(Double ability) {
+            this.ability = ability;
+        }
+
+        public Double getStandardError() {
+            return standardError;
+        }
+
+        public void setStandardError(Double standardError) {
+            this.standardError = standardError;
+        }
+
+        public Integer getItemsAnswered() {
+            return itemsAnswered;
+        }
+
+        public void setItemsAnswered(Integer itemsAnswered) {
+            this.itemsAnswered = itemsAnswered;
+        }
+
+        public Boolean getConverged() {
+            return converged;
+        }
+
+        public void setConverged(Boolean converged) {
+            this.converged = converged;
+        }
+    }
+}
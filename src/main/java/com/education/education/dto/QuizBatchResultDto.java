@@ -0,0 +1,123 @@
+package com.education.education.dto;
+
+import java.util.List;
+
+public class QuizBatchResultDto {
+
+    private Integer totalCount;
+    private Integer successCount;
+    private Integer failureCount;
+    private List<ItemResultDto> results;
+
+    public QuizBatchResultDto() {
+    }
+
+    public QuizBatchResultDto(List<ItemResultDto> results) {
+        this.results = results;
+        this.totalCount = results.size();
+        this.successCount = (int) results.stream().filter(ItemResultDto::getSuccess).count();
+        this.failureCount = totalCount - successCount;
+    }
+
+    public Integer getTotalCount() {
+        return totalCount;
+    }
+
+    public void setTotalCount(Integer totalCount) {
+        this.totalCount = totalCount;
+    }
+
+    public Integer getSuccessCount() {
+        return successCount;
+    }
+
+    public void setSuccessCount(Integer successCount) {
+        this.successCount = successCount;
+    }
+
+    public Integer getFailureCount() {
+        return failureCount;
+    }
+
+    public void setFailureCount(Integer failureCount) {
+        this.failureCount = failureCount;
+    }
+
+    public List<ItemResultDto> getResults() {
+        return results;
+    }
+
+    public void setResults(List<ItemResultDto> results) {
+        this.results = results;
+    }
+
+    public static class ItemResultDto {
+        private Integer index;
+        private String clientRef;
+        private Boolean success;
+        private String message;
+        private QuizResultDto result;
+
+        public ItemResultDto() {
+        }
+
+        public static ItemResultDto success(int index, String clientRef, QuizResultDto result) {
+            ItemResultDto item = new ItemResultDto();
+            item.index = index;
+            item.clientRef = clientRef;
+            item.success = true;
+            item.message = "Quiz submitted successfully";
+            item.result = result;
+            return item;
+        }
+
+        public static ItemResultDto failure(int index, String clientRef, String message) {
+            ItemResultDto item = new ItemResultDto();
+            item.index = index;
+            item.clientRef = clientRef;
+            item.success = false;
+            item.message = message;
+            return item;
+        }
+
+        public Integer getIndex() {
+            return index;
+        }
+
+        public void setIndex(Integer index) {
+            this.index = index;
+        }
+
+        public String getClientRef() {
+            return clientRef;
+        }
+
+        public void setClientRef(String clientRef) {
+            this.clientRef = clientRef;
+        }
+
+        public Boolean getSuccess() {
+            return success;
+        }
+
+        public void setSuccess(Boolean success) {
+            this.success = success;
+        }
+
+        public String getMessage() {
+            return message;
+        }
+
+        public void setMessage(String message) {
+            this.message = message;
+        }
+
+        public QuizResultDto getResult() {
+            return result;
+        }
+
+        public void setResult(QuizResultDto result) {
+            this.result = result;
+        }
+    }
+}
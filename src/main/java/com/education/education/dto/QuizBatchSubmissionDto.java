@@ -0,0 +1,51 @@
+package com.education.education.dto;
+
+import java.util.List;
+
+public class QuizBatchSubmissionDto {
+
+    private List<BatchItemDto> submissions;
+
+    public QuizBatchSubmissionDto() {
+    }
+
+    public QuizBatchSubmissionDto(List<BatchItemDto> submissions) {
+        this.submissions = submissions;
+    }
+
+    public List<BatchItemDto> getSubmissions() {
+        return submissions;
+    }
+
+    public void setSubmissions(List<BatchItemDto> submissions) {
+        this.submissions = submissions;
+    }
+
+    /**
+     * One collected submission. userId identifies the student the answers belong
+     * to; when omitted the attempt is recorded for the uploading user.
+     */
+    public static class BatchItemDto extends QuizSubmissionDto {
+        private String clientRef; // Client-side id for matching results back
+        private Long userId;
+
+        public BatchItemDto() {
+        }
+
+        public String getClientRef() {
+            return clientRef;
+        }
+
+        public void setClientRef(String clientRef) {
+            this.clientRef = clientRef;
+        }
+
+        public Long getUserId() {
+            return userId;
+        }
+
+        public void setUserId(Long userId) {
+            this.userId = userId;
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package com.education.education.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * One row of a user's quiz history, read with the quiz title in a single query
+ */
+public class QuizHistoryItemDto {
+
+    private Long attemptId;
+    private Long quizId;
+    private String quizTitle;
+    private Integer score;
+    private String recommendedStreams; // legacy JSON array, for attempts without streamsBin
+    private byte[] streamsBin;
+    private LocalDateTime timestamp;
+
+    public QuizHistoryItemDto() {
+    }
+
+    public QuizHistoryItemDto(Long attemptId, Long quizId, String quizTitle, Integer score,
+            String recommendedStreams, byte[] streamsBin, LocalDateTime timestamp) {
+        this.attemptId = attemptId;
+        this.quizId = quizId;
+        this.quizTitle = quizTitle;
+        this.score = score;
+        this.recommendedStreams = recommendedStreams;
+        this.streamsBin = streamsBin;
+        this.timestamp = timestamp;
+    }
+
+    public Long getAttemptId() {
+        return attemptId;
+    }
+
+    public void setAttemptId(Long attemptId) {
+        this.attemptId = attemptId;
+    }
+
+    public Long getQuizId() {
+        return quizId;
+    }
+
+    public void setQuizId(Long quizId) {
+        this.quizId = quizId;
+    }
+
+    public String getQuizTitle() {
+        return quizTitle;
+    }
+
+    public void setQuizTitle(String quizTitle) {
+        this.quizTitle = quizTitle;
+    }
+
+    public Integer getScore() {
+        return score;
+    }
+
+    public void setScore(Integer score) {
+        this.score = score;
+    }
+
+    public String getRecommendedStreams() {
+        return recommendedStreams;
+    }
+
+    public void setRecommendedStreams(String recommendedStreams) {
+        this.recommendedStreams = recommendedStreams;
+    }
+
+    public byte[] getStreamsBin() {
+        return streamsBin;
+    }
+
+    public void setStreamsBin(byte[] streamsBin) {
+        this.streamsBin = streamsBin;
+    }
+
+    public LocalDateTime getTimestamp() {
+        return timestamp;
+    }
+
+    public void setTimestamp(LocalDateTime timestamp) {
+        this.timestamp = timestamp;
+    }
+}
@@ -0,0 +1,67 @@
+package com.education.education.dto;
+
+import java.util.Map;
+
+/**
+ * A question as shown to students; the answer key is not included
+ */
+public class QuizQuestionDto {
+
+    private Integer id;
+    private String category;
+    private String question;
+    private Map<String, String> options;
+    private Integer points;
+
+    public QuizQuestionDto() {
+    }
+
+    public QuizQuestionDto(Integer id, String category, String question, Map<String, String> options,
+            Integer points) {
+        this.id = id;
+        this.category = category;
+        this.question = question;
+        this.options = options;
+        this.points = points;
+    }
+
+    public Integer getId() {
+        return id;
+    }
+
+    public void setId(Integer id) {
+        this.id = id;
+    }
+
+    public String getCategory() {
+        return category;
+    }
+
+    public void setCategory(String category) {
+        this.category = category;
+    }
+
+    public String getQuestion() {
+        return question;
+    }
+
+    public void setQuestion(String question) {
+        this.question = question;
+    }
+
+    public Map<String, String> getOptions() {
+        return options;
+    }
+
+    public void setOptions(Map<String, String> options) {
+        this.options = options;
+    }
+
+    public Integer getPoints() {
+        return points;
+    }
+
+    public void setPoints(Integer points) {
+        this.points = points;
+    }
+}
@@ -3,6 +3,7 @@ package com.education.education.dto;
 import com.fasterxml.jackson.annotation.JsonFormat;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 
 public class QuizResultDto {
 
@@ -24,6 +25,10 @@ public class QuizResultDto {
     private String collegeTier;
     private String performanceLevel;
 
+    // Percentile rank (0-100) among recorded attempts of the quiz, overall and per category
+    private Double percentile;
+    private Map<String, Double> categoryPercentiles;
+
     public QuizResultDto() {
     }
 
@@ -171,6 +176,22 @@ public class QuizResultDto {
         this.performanceLevel = performanceLevel;
     }
 
+    public Double getPercentile() {
+        return percentile;
+    }
+
+    public void setPercentile(Double percentile) {
+        this.percentile = percentile;
+    }
+
+    public Map<String, Double> getCategoryPercentiles() {
+        return categoryPercentiles;
+    }
+
+    public void setCategoryPercentiles(Map<String, Double> categoryPercentiles) {
+        this.categoryPercentiles = categoryPercentiles;
+    }
+
     public static class ScoreBreakdown {
         private Integer mathematicalScore;
         private Integer verbalScore;
@@ -0,0 +1,84 @@
+package com.education.education.dto;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import java.time.LocalDateTime;
+
+public class QuizSessionDto {
+
+    private String sessionId;
+    private Long quizId;
+    private Integer questionCount;
+    private Integer answeredCount;
+    private Integer timedOutCount;
+    private Integer timeLimitSeconds;
+    private Integer maxSecondsPerQuestion;
+    @JsonFormat(shape = JsonFormat.Shape.STRING, pattern = "yyyy-MM-dd'T'HH:mm:ss")
+    private LocalDateTime expiresAt;
+
+    public QuizSessionDto() {
+    }
+
+    public String getSessionId() {
+        return sessionId;
+    }
+
+    public void setSessionId(String sessionId) {
+        this.sessionId = sessionId;
+    }
+
+    public Long getQuizId() {
+        return quizId;
+    }
+
+    public void setQuizId(Long quizId) {
+        this.quizId = quizId;
+    }
+
+    public Integer getQuestionCount() {
+        return questionCount;
+    }
+
+    public void setQuestionCount(Integer questionCount) {
+        this.questionCount = questionCount;
+    }
+
+    public Integer getAnsweredCount() {
+        return answeredCount;
+    }
+
+    public void setAnsweredCount(Integer answeredCount) {
+        this.answeredCount = answeredCount;
+    }
+
+    public Integer getTimedOutCount() {
+        return timedOutCount;
+    }
+
+    public void setTimedOutCount(Integer timedOutCount) {
+        this.timedOutCount = timedOutCount;
+    }
+
+    public Integer getTimeLimitSeconds() {
+        return timeLimitSeconds;
+    }
+
+    public void setTimeLimitSeconds(Integer timeLimitSeconds) {
+        this.timeLimitSeconds = timeLimitSeconds;
+    }
+
+    public Integer getMaxSecondsPerQuestion() {
+        return maxSecondsPerQuestion;
+    }
+
+    public void setMaxSecondsPerQuestion(Integer maxSecondsPerQuestion) {
+        this.maxSecondsPerQuestion = maxSecondsPerQuestion;
+    }
+
+    public LocalDateTime getExpiresAt() {
+        return expiresAt;
+    }
+
+    public void setExpiresAt(LocalDateTime expiresAt) {
+        this.expiresAt = expiresAt;
+    }
+}
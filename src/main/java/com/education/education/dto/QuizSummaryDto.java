@@ -0,0 +1,88 @@
+package com.education.education.dto;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import java.time.LocalDateTime;
+
+/**
+ * Catalog entry for a quiz, without its questions
+ */
+public class QuizSummaryDto {
+
+    private Long quizId;
+    private String title;
+    private String description;
+    private String targetClass;
+    private Long questionCount;
+    @JsonFormat(shape = JsonFormat.Shape.STRING, pattern = "yyyy-MM-dd'T'HH:mm:ss.SSSSSS")
+    private LocalDateTime version;
+    private String contentVersion; // Version token for /api/quiz/{quizId}/content/{contentVersion}
+
+    public QuizSummaryDto() {
+    }
+
+    public QuizSummaryDto(Long quizId, String title, String description, String targetClass, Long questionCount,
+            LocalDateTime version) {
+        this.quizId = quizId;
+        this.title = title;
+        this.description = description;
+        this.targetClass = targetClass;
+        this.questionCount = questionCount;
+        this.version = version;
+    }
+
+    public Long getQuizId() {
+        return quizId;
+    }
+
+    public void setQuizId(Long quizId) {
+        this.quizId = quizId;
+    }
+
+    public String getTitle() {
+        return title;
+    }
+
+    public void setTitle(String title) {
+        this.title = title;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    public void setDescription(String description) {
+        this.description = description;
+    }
+
+    public String getTargetClass() {
+        return targetClass;
+    }
+
+    public void setTargetClass(String targetClass) {
+        this.targetClass = targetClass;
+    }
+
+    public Long getQuestionCount() {
+        return questionCount;
+    }
+
+    public void setQuestionCount(Long questionCount) {
+        this.questionCount = questionCount;
+    }
+
+    public LocalDateTime getVersion() {
+        return version;
+    }
+
+    public void setVersion(LocalDateTime version) {
+        this.version = version;
+    }
+
+    public String getContentVersion() {
+        return contentVersion;
+    }
+
+    public void setContentVersion(String contentVersion) {
+        this.contentVersion = contentVersion;
+    }
+}
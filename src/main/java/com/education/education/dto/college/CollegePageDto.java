@@ -0,0 +1,54 @@
+package com.education.education.dto.college;
+
+import java.util.List;
+import java.util.Map;
+
+public class CollegePageDto {
+    private List<CollegeSearchDto> items;
+    private String nextCursor; // Pass back as cursor for the following page; null on the last page
+    private int total; // Matching colleges across all pages
+    private Map<String, Map<String, Integer>> facets; // Facet name -> value -> count; null when not faceted
+
+    // Constructors
+    public CollegePageDto() {
+    }
+
+    public CollegePageDto(List<CollegeSearchDto> items, String nextCursor, int total) {
+        this.items = items;
+        this.nextCursor = nextCursor;
+        this.total = total;
+    }
+
+    // Getters and Setters
+    public List<CollegeSearchDto> getItems() {
+        return items;
+    }
+
+    public void setItems(List<CollegeSearchDto> items) {
+        this.items = items;
+    }
+
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    public void setNextCursor(String nextCursor) {
+        this.nextCursor = nextCursor;
+    }
+
+    public int getTotal() {
+        return total;
+    }
+
+    public void setTotal(int total) {
+        this.total = total;
+    }
+
+    public Map<String, Map<String, Integer>> getFacets() {
+        return facets;
+    }
+
+    public void setFacets(Map<String, Map<String, Integer>> facets) {
+        this.facets = facets;
+    }
+}
@@ -11,6 +11,8 @@ public class CollegeSearchDto {
     private Integer establishmentYear;
     private String website;
     private Double placementRate;
+    private Double matchScore; // Name search similarity (0-1); null for other searches
+    private Double distanceKm; // Nearby search distance; null for other searches
 
     // Constructors
     public CollegeSearchDto() {
@@ -107,4 +109,20 @@ public class CollegeSearchDto {
     public void setPlacementRate(Double placementRate) {
         this.placementRate = placementRate;
     }
-}
\ No newline at end of file
+
+    public Double getMatchScore() {
+        return matchScore;
+    }
+
+    public void setMatchScore(Double matchScore) {
+        this.matchScore = matchScore;
+    }
+
+    public Double getDistanceKm() {
+        return distanceKm;
+    }
+
+    public void setDistanceKm(Double distanceKm) {
+        this.distanceKm = distanceKm;
+    }
+}
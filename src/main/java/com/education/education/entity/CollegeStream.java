@@ -0,0 +1,83 @@
+package com.education.education.entity;
+
+import jakarta.persistence.*;
+
+import java.io.Serializable;
+import java.util.Objects;
+
+/**
+ * One stream offered by a college: the normalized form of an entry of
+ * College.streamsOffered (trimmed, lower case), kept in sync by a trigger
+ * on colleges so stream filters are index lookups instead of LIKE scans
+ */
+@Entity
+@Table(name = "college_streams", indexes = {
+        @Index(name = "idx_college_streams_stream", columnList = "stream, college_id")
+})
+@IdClass(CollegeStream.Key.class)
+public class CollegeStream {
+
+    @Id
+    @Column(name = "college_id")
+    private Long collegeId;
+
+    @Id
+    @Column(name = "stream", length = 64)
+    private String stream;
+
+    // Constructors
+    public CollegeStream() {
+    }
+
+    public CollegeStream(Long collegeId, String stream) {
+        this.collegeId = collegeId;
+        this.stream = stream;
+    }
+
+    // Getters and Setters
+    public Long getCollegeId() {
+        return collegeId;
+    }
+
+    public void setCollegeId(Long collegeId) {
+        this.collegeId = collegeId;
+    }
+
+    public String getStream() {
+        return stream;
+    }
+
+    public void setStream(String stream) {
+        this.stream = stream;
+    }
+
+    public static class Key implements Serializable {
+        private Long collegeId;
+        private String stream;
+
+        public Key() {
+        }
+
+        public Key(Long collegeId, String stream) {
+            this.collegeId = collegeId;
+            this.stream = stream;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            Key key = (Key) o;
+            return Objects.equals(collegeId, key.collegeId) && Objects.equals(stream, key.stream);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(collegeId, stream);
+        }
+    }
+}
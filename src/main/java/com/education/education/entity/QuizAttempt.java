@@ -6,7 +6,9 @@ import org.hibernate.annotations.CreationTimestamp;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "quiz_attempts")
+@Table(name = "quiz_attempts", indexes = {
+        @Index(name = "idx_quiz_attempts_user_time", columnList = "user_id, timestamp, attempt_id")
+})
 public class QuizAttempt {
 
     @Id
@@ -21,6 +23,7 @@ public class QuizAttempt {
     @JoinColumn(name = "quiz_id")
     private Quiz quiz;
 
+    // Legacy JSON columns; new attempts are stored in the binary columns below
     @Column(columnDefinition = "TEXT")
     private String answersJson;
 
@@ -29,6 +32,20 @@ public class QuizAttempt {
     @Column(name = "recommended_streams", columnDefinition = "TEXT")
     private String recommendedStreams;
 
+    // AnswerCodec encoding of the answers
+    @Column(name = "answers_bin")
+    private byte[] answersBin;
+
+    // StreamCodec encoding of the recommended stream labels
+    @Column(name = "streams_bin")
+    private byte[] streamsBin;
+
+    @Column(name = "primary_stream", length = 64)
+    private String primaryStream;
+
+    @Column(name = "primary_match")
+    private Short primaryMatch;
+
     @CreationTimestamp
     private LocalDateTime timestamp;
 
@@ -93,6 +110,38 @@ public class QuizAttempt {
         this.recommendedStreams = recommendedStreams;
     }
 
+    public byte[] getAnswersBin() {
+        return answersBin;
+    }
+
+    public void setAnswersBin(byte[] answersBin) {
+        this.answersBin = answersBin;
+    }
+
+    public byte[] getStreamsBin() {
+        return streamsBin;
+    }
+
+    public void setStreamsBin(byte[] streamsBin) {
+        this.streamsBin = streamsBin;
+    }
+
+    public String getPrimaryStream() {
+        return primaryStream;
+    }
+
+    public void setPrimaryStream(String primaryStream) {
+        this.primaryStream = primaryStream;
+    }
+
+    public Short getPrimaryMatch() {
+        return primaryMatch;
+    }
+
+    public void setPrimaryMatch(Short primaryMatch) {
+        this.primaryMatch = primaryMatch;
+    }
+
     public LocalDateTime getTimestamp() {
         return timestamp;
     }
@@ -0,0 +1,151 @@
+package com.education.education.entity;
+
+import jakarta.persistence.*;
+
+@Entity
+@Table(name = "quiz_questions",
+        uniqueConstraints = @UniqueConstraint(name = "uk_quiz_questions_quiz_number",
+                columnNames = { "quiz_id", "question_number" }),
+        indexes = {
+                @Index(name = "idx_quiz_questions_quiz_order", columnList = "quiz_id, display_order"),
+                @Index(name = "idx_quiz_questions_quiz_category", columnList = "quiz_id, category, display_order")
+        })
+public class QuizQuestion {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long questionId;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "quiz_id", nullable = false)
+    private Quiz quiz;
+
+    @Column(name = "question_number", nullable = false)
+    private Integer questionNumber; // Id used by clients when answering
+
+    @Column(nullable = false)
+    private String category; // Stored lower-case
+
+    @Column(name = "question_text", columnDefinition = "TEXT")
+    private String questionText;
+
+    @Column(name = "options_json", columnDefinition = "TEXT")
+    private String optionsJson;
+
+    @Column(name = "correct_answer")
+    private String correctAnswer;
+
+    private Integer points = 1;
+
+    @Column(name = "display_order", nullable = false)
+    private Integer displayOrder;
+
+    private Double difficulty; // Item response difficulty (b); null until calibrated
+
+    private Double discrimination; // Item response discrimination (a); null until calibrated
+
+    // Constructors
+    public QuizQuestion() {
+    }
+
+    public QuizQuestion(Quiz quiz, Integer questionNumber, String category, String questionText,
+            String optionsJson, String correctAnswer, Integer points, Integer displayOrder) {
+        this.quiz = quiz;
+        this.questionNumber = questionNumber;
+        this.category = category;
+        this.questionText = questionText;
+        this.optionsJson = optionsJson;
+        this.correctAnswer = correctAnswer;
+        this.points = points;
+        this.displayOrder = displayOrder;
+    }
+
+    // Getters and Setters
+    public Long getQuestionId() {
+        return questionId;
+    }
+
+    public void setQuestionId(Long questionId) {
+        this.questionId = questionId;
+    }
+
+    public Quiz getQuiz() {
+        return quiz;
+    }
+
+    public void setQuiz(Quiz quiz) {
+        this.quiz = quiz;
+    }
+
+    public Integer getQuestionNumber() {
+        return questionNumber;
+    }
+
+    public void setQuestionNumber(Integer questionNumber) {
+        this.questionNumber = questionNumber;
+    }
+
+    public String getCategory() {
+        return category;
+    }
+
+    public void setCategory(String category) {
+        this.category = category;
+    }
+
+    public String getQuestionText() {
+        return questionText;
+    }
+
+    public void setQuestionText(String questionText) {
+        this.questionText = questionText;
+    }
+
+    public String getOptionsJson() {
+        return optionsJson;
+    }
+
+    public void setOptionsJson(String optionsJson) {
+        this.optionsJson = optionsJson;
+    }
+
+    public String getCorrectAnswer() {
+        return correctAnswer;
+    }
+
+    public void setCorrectAnswer(String correctAnswer) {
+        this.correctAnswer = correctAnswer;
+    }
+
+    public Integer getPoints() {
+        return points;
+    }
+
+    public void setPoints(Integer points) {
+        this.points = points;
+    }
+
+    public Integer getDisplayOrder() {
+        return displayOrder;
+    }
+
+    public void setDisplayOrder(Integer displayOrder) {
+        this.displayOrder = displayOrder;
+    }
+
+    public Double getDifficulty() {
+        return difficulty;
+    }
+
+    public void setDifficulty(Double difficulty) {
+        this.difficulty = difficulty;
+    }
+
+    public Double getDiscrimination() {
+        return discrimination;
+    }
+
+    public void setDiscrimination(Double discrimination) {
+        this.discrimination = discrimination;
+    }
+}
@@ -0,0 +1,103 @@
+package com.education.education.entity;
+
+import jakarta.persistence.*;
+
+import java.io.Serializable;
+import java.util.Objects;
+
+/**
+ * One bin of a quiz's score histogram: how many attempts scored a given
+ * percentage (0-100) overall (dimension 0) or in an aptitude category
+ * (dimension 1 + AptitudeCategory ordinal). Counts are only ever added to,
+ * so checkpoints from several instances merge.
+ */
+@Entity
+@Table(name = "quiz_score_histogram_bins")
+@IdClass(QuizScoreHistogramBin.Key.class)
+public class QuizScoreHistogramBin {
+
+    @Id
+    @Column(name = "quiz_id")
+    private Long quizId;
+
+    @Id
+    @Column(name = "dimension")
+    private Short dimension;
+
+    @Id
+    @Column(name = "bin")
+    private Short bin;
+
+    @Column(name = "attempt_count", nullable = false)
+    private Long attemptCount;
+
+    // Constructors
+    public QuizScoreHistogramBin() {
+    }
+
+    // Getters and Setters
+    public Long getQuizId() {
+        return quizId;
+    }
+
+    public void setQuizId(Long quizId) {
+        this.quizId = quizId;
+    }
+
+    public Short getDimension() {
+        return dimension;
+    }
+
+    public void setDimension(Short dimension) {
+        this.dimension = dimension;
+    }
+
+    public Short getBin() {
+        return bin;
+    }
+
+    public void setBin(Short bin) {
+        this.bin = bin;
+    }
+
+    public Long getAttemptCount() {
+        return attemptCount;
+    }
+
+    public void setAttemptCount(Long attemptCount) {
+        this.attemptCount = attemptCount;
+    }
+
+    public static class Key implements Serializable {
+        private Long quizId;
+        private Short dimension;
+        private Short bin;
+
+        public Key() {
+        }
+
+        public Key(Long quizId, Short dimension, Short bin) {
+            this.quizId = quizId;
+            this.dimension = dimension;
+            this.bin = bin;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            Key key = (Key) o;
+            return Objects.equals(quizId, key.quizId) && Objects.equals(dimension, key.dimension)
+                    && Objects.equals(bin, key.bin);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(quizId, dimension, bin);
+        }
+    }
+}
@@ -0,0 +1,112 @@
+package com.education.education.entity;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Per-user rollup of quiz attempts, kept current by an upsert on every
+ * recorded attempt so reading stats never touches the attempt history
+ */
+@Entity
+@Table(name = "user_quiz_stats")
+public class UserQuizStats {
+
+    @Id
+    @Column(name = "user_id")
+    private Long userId;
+
+    @Column(name = "attempt_count", nullable = false)
+    private Long attemptCount;
+
+    @Column(name = "score_sum", nullable = false)
+    private Long scoreSum;
+
+    @Column(name = "best_score")
+    private Integer bestScore;
+
+    @Column(name = "first_score")
+    private Integer firstScore;
+
+    @Column(name = "first_at")
+    private LocalDateTime firstAt;
+
+    @Column(name = "latest_score")
+    private Integer latestScore;
+
+    @Column(name = "latest_at")
+    private LocalDateTime latestAt;
+
+    // Constructors
+    public UserQuizStats() {
+    }
+
+    public double getAverageScore() {
+        return attemptCount != null && attemptCount > 0 ? (double) scoreSum / attemptCount : 0.0;
+    }
+
+    // Getters and Setters
+    public Long getUserId() {
+        return userId;
+    }
+
+    public void setUserId(Long userId) {
+        this.userId = userId;
+    }
+
+    public Long getAttemptCount() {
+        return attemptCount;
+    }
+
+    public void setAttemptCount(Long attemptCount) {
+        this.attemptCount = attemptCount;
+    }
+
+    public Long getScoreSum() {
+        return scoreSum;
+    }
+
+    public void setScoreSum(Long scoreSum) {
+        this.scoreSum = scoreSum;
+    }
+
+    public Integer getBestScore() {
+        return bestScore;
+    }
+
+    public void setBestScore(Integer bestScore) {
+        this.bestScore = bestScore;
+    }
+
+    public Integer getFirstScore() {
+        return firstScore;
+    }
+
+    public void setFirstScore(Integer firstScore) {
+        this.firstScore = firstScore;
+    }
+
+    public LocalDateTime getFirstAt() {
+        return firstAt;
+    }
+
+    public void setFirstAt(LocalDateTime firstAt) {
+        this.firstAt = firstAt;
+    }
+
+    public Integer getLatestScore() {
+        return latestScore;
+    }
+
+    public void setLatestScore(Integer latestScore) {
+        this.latestScore = latestScore;
+    }
+
+    public LocalDateTime getLatestAt() {
+        return latestAt;
+    }
+
+    public void setLatestAt(LocalDateTime latestAt) {
+        this.latestAt = latestAt;
+    }
+}
@@ -0,0 +1,156 @@
+package com.education.education.entity;
+
+import jakarta.persistence.*;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+import java.util.Objects;
+
+/**
+ * Per-user, per-quiz rollup of quiz attempts; see UserQuizStats
+ */
+@Entity
+@Table(name = "user_quiz_stats_by_quiz")
+@IdClass(UserQuizStatsByQuiz.Key.class)
+public class UserQuizStatsByQuiz {
+
+    @Id
+    @Column(name = "user_id")
+    private Long userId;
+
+    @Id
+    @Column(name = "quiz_id")
+    private Long quizId;
+
+    @Column(name = "attempt_count", nullable = false)
+    private Long attemptCount;
+
+    @Column(name = "score_sum", nullable = false)
+    private Long scoreSum;
+
+    @Column(name = "best_score")
+    private Integer bestScore;
+
+    @Column(name = "first_score")
+    private Integer firstScore;
+
+    @Column(name = "first_at")
+    private LocalDateTime firstAt;
+
+    @Column(name = "latest_score")
+    private Integer latestScore;
+
+    @Column(name = "latest_at")
+    private LocalDateTime latestAt;
+
+    // Constructors
+    public UserQuizStatsByQuiz() {
+    }
+
+    public double getAverageScore() {
+        return attemptCount != null && attemptCount > 0 ? (double) scoreSum / attemptCount : 0.0;
+    }
+
+    // Getters and Setters
+    public Long getUserId() {
+        return userId;
+    }
+
+    public void setUserId(Long userId) {
+        this.userId = userId;
+    }
+
+    public Long getQuizId() {
+        return quizId;
+    }
+
+    public void setQuizId(Long quizId) {
+        this.quizId = quizId;
+    }
+
+    public Long getAttemptCount() {
+        return attemptCount;
+    }
+
+    public void setAttemptCount(Long attemptCount) {
+        this.attemptCount = attemptCount;
+    }
+
+    public Long getScoreSum() {
+        return scoreSum;
+    }
+
+    public void setScoreSum(Long scoreSum) {
+        this.scoreSum = scoreSum;
+    }
+
+    public Integer getBestScore() {
+        return bestScore;
+    }
+
+    public void setBestScore(Integer bestScore) {
+        this.bestScore = bestScore;
+    }
+
+    public Integer getFirstScore() {
+        return firstScore;
+    }
+
+    public void setFirstScore(Integer firstScore) {
+        this.firstScore = firstScore;
+    }
+
+    public LocalDateTime getFirstAt() {
+        return firstAt;
+    }
+
+    public void setFirstAt(LocalDateTime firstAt) {
+        this.firstAt = firstAt;
+    }
+
+    public Integer getLatestScore() {
+        return latestScore;
+    }
+
+    public void setLatestScore(Integer latestScore) {
+        this.latestScore = latestScore;
+    }
+
+    public LocalDateTime getLatestAt() {
+        return latestAt;
+    }
+
+    public void setLatestAt(LocalDateTime latestAt) {
+        this.latestAt = latestAt;
+    }
+
+    public static class Key implements Serializable {
+        private Long userId;
+        private Long quizId;
+
+        public Key() {
+        }
+
+        public Key(Long userId, Long quizId) {
+            this.userId = userId;
+            this.quizId = quizId;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            Key key = (Key) o;
+            return Objects.equals(userId, key.userId) && Objects.equals(quizId, key.quizId);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(userId, quizId);
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package com.education.education.entity;
+
+import jakarta.persistence.*;
+
+/**
+ * Last journal sequence number whose attempt is stored in quiz_attempts.
+ * Written in the same transaction as the attempts, so a journal replay
+ * never inserts an attempt twice.
+ */
+@Entity
+@Table(name = "write_behind_checkpoints")
+public class WriteBehindCheckpoint {
+
+    @Id
+    @Column(name = "journal_name")
+    private String journalName;
+
+    @Column(name = "last_seq", nullable = false)
+    private Long lastSeq;
+
+    // Constructors
+    public WriteBehindCheckpoint() {
+    }
+
+    // Getters and Setters
+    public String getJournalName() {
+        return journalName;
+    }
+
+    public void setJournalName(String journalName) {
+        this.journalName = journalName;
+    }
+
+    public Long getLastSeq() {
+        return lastSeq;
+    }
+
+    public void setLastSeq(Long lastSeq) {
+        this.lastSeq = lastSeq;
+    }
+}
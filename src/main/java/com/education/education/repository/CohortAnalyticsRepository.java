@@ -0,0 +1,43 @@
+package com.education.education.repository;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+
+/**
+ * Incremental feeds for the cohort analytics engine: users changed since a
+ * time and attempts after an id, read in bounded chunks
+ */
+@Repository
+public class CohortAnalyticsRepository {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    /**
+     * Users created or updated at or after a time (all users for null), oldest change first
+     */
+    public void streamUsersChangedSince(LocalDateTime since, RowCallbackHandler handler) {
+        if (since == null) {
+            jdbcTemplate.query("SELECT user_id, district, class_level, preferred_language, is_guest, "
+                    + "COALESCE(updated_at, created_at) AS changed_at FROM users", handler);
+        } else {
+            jdbcTemplate.query("SELECT user_id, district, class_level, preferred_language, is_guest, "
+                    + "COALESCE(updated_at, created_at) AS changed_at FROM users "
+                    + "WHERE COALESCE(updated_at, created_at) >= ?", handler, Timestamp.valueOf(since));
+        }
+    }
+
+    /**
+     * Up to limit attempts with ids above afterId, in id order
+     */
+    public void streamAttemptsAfter(long afterId, int limit, RowCallbackHandler handler) {
+        jdbcTemplate.query("SELECT attempt_id, user_id, quiz_id, score, primary_stream, recommended_streams, timestamp "
+                + "FROM quiz_attempts WHERE attempt_id > ? AND user_id IS NOT NULL "
+                + "ORDER BY attempt_id LIMIT ?", handler, afterId, limit);
+    }
+}
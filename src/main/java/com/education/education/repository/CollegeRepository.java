@@ -6,6 +6,7 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 @Repository
@@ -32,16 +33,19 @@ public interface CollegeRepository extends JpaRepository<College, Long> {
     // Find colleges by state and type
     List<College> findByStateIgnoreCaseAndCollegeTypeIgnoreCaseAndIsActiveTrue(String state, String collegeType);
 
+    // Stream filters go through the college_streams mapping (index on stream, college_id)
+    String OFFERS_STREAM = "EXISTS (SELECT 1 FROM CollegeStream s WHERE s.stream = LOWER(TRIM(:stream)) AND s.collegeId = c.collegeId)";
+
     // Find colleges offering specific stream
-    @Query("SELECT c FROM College c WHERE c.streamsOffered LIKE %:stream% AND c.isActive = true")
+    @Query("SELECT c FROM College c WHERE " + OFFERS_STREAM + " AND c.isActive = true")
     List<College> findByStreamOffered(@Param("stream") String stream);
 
     // Find colleges by district and stream
-    @Query("SELECT c FROM College c WHERE c.district LIKE %:district% AND c.streamsOffered LIKE %:stream% AND c.isActive = true")
+    @Query("SELECT c FROM College c WHERE c.district LIKE %:district% AND " + OFFERS_STREAM + " AND c.isActive = true")
     List<College> findByDistrictAndStreamOffered(@Param("district") String district, @Param("stream") String stream);
 
     // Find colleges by state and stream
-    @Query("SELECT c FROM College c WHERE c.state LIKE %:state% AND c.streamsOffered LIKE %:stream% AND c.isActive = true")
+    @Query("SELECT c FROM College c WHERE c.state LIKE %:state% AND " + OFFERS_STREAM + " AND c.isActive = true")
     List<College> findByStateAndStreamOffered(@Param("state") String state, @Param("stream") String stream);
 
     // Search colleges by name
@@ -64,12 +68,24 @@ public interface CollegeRepository extends JpaRepository<College, Long> {
     @Query("SELECT c FROM College c WHERE c.district LIKE %:district% AND c.collegeTier IN ('Premier', 'Excellent') AND c.isActive = true ORDER BY c.collegeTier ASC")
     List<College> findTopCollegesByDistrict(@Param("district") String district);
 
+    // Catalog snapshot for the in-memory search index
+    List<College> findByIsActiveTrue();
+
+    // Rows changed since the index was built (including deactivated ones)
+    List<College> findByUpdatedAtGreaterThanEqual(LocalDateTime since);
+
+    @Query("SELECT COUNT(c) FROM College c WHERE c.isActive = true")
+    long countActive();
+
+    @Query("SELECT MAX(c.updatedAt) FROM College c")
+    LocalDateTime findLatestUpdate();
+
     // Advanced search combining multiple criteria
     @Query("SELECT c FROM College c WHERE " +
             "(:district IS NULL OR c.district LIKE %:district%) AND " +
             "(:state IS NULL OR c.state LIKE %:state%) AND " +
             "(:collegeType IS NULL OR c.collegeType LIKE %:collegeType%) AND " +
-            "(:stream IS NULL OR c.streamsOffered LIKE %:stream%) AND " +
+            "(:stream IS NULL OR " + OFFERS_STREAM + ") AND " +
             "c.isActive = true " +
             "ORDER BY " +
             "CASE c.collegeTier " +
@@ -0,0 +1,64 @@
+package com.education.education.repository;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Maintenance of college_streams, the normalized form of colleges.streams_offered.
+ * A trigger rewrites a college's rows whenever streams_offered is inserted or
+ * changed; the backfill covers rows written before the trigger existed.
+ */
+@Repository
+public class CollegeStreamRepository {
+
+    // Same normalization as CollegeIndex: trimmed, inner spaces collapsed, lower case
+    private static final String NORMALIZED_STREAMS = "SELECT DISTINCT lower(regexp_replace(trim(s), '\\s+', ' ', 'g')) "
+            + "FROM unnest(string_to_array(%s, ',')) AS s WHERE trim(s) <> ''";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    /**
+     * Create or replace the sync trigger on colleges
+     */
+    @Transactional
+    public void installSyncTrigger() {
+        jdbcTemplate.execute("CREATE OR REPLACE FUNCTION college_streams_sync() RETURNS trigger AS $$ "
+                + "BEGIN "
+                + "DELETE FROM college_streams WHERE college_id = NEW.college_id; "
+                + "INSERT INTO college_streams (college_id, stream) "
+                + "SELECT NEW.college_id, st FROM (" + String.format(NORMALIZED_STREAMS, "NEW.streams_offered")
+                + ") AS x(st) ON CONFLICT DO NOTHING; "
+                + "RETURN NEW; "
+                + "END $$ LANGUAGE plpgsql");
+        jdbcTemplate.execute("DROP TRIGGER IF EXISTS trg_college_streams_sync ON colleges");
+        jdbcTemplate.execute("CREATE TRIGGER trg_college_streams_sync "
+                + "AFTER INSERT OR UPDATE OF streams_offered ON colleges "
+                + "FOR EACH ROW EXECUTE FUNCTION college_streams_sync()");
+    }
+
+    /**
+     * Whether some college with streams has no college_streams rows
+     */
+    public boolean needsBackfill() {
+        Boolean missing = jdbcTemplate.queryForObject("SELECT EXISTS (SELECT 1 FROM colleges c "
+                + "WHERE c.streams_offered IS NOT NULL AND trim(c.streams_offered) <> '' "
+                + "AND NOT EXISTS (SELECT 1 FROM college_streams s WHERE s.college_id = c.college_id))",
+                Boolean.class);
+        return Boolean.TRUE.equals(missing);
+    }
+
+    /**
+     * Split streams_offered of colleges without college_streams rows; returns rows inserted
+     */
+    @Transactional
+    public int backfillMissing() {
+        return jdbcTemplate.update("INSERT INTO college_streams (college_id, stream) "
+                + "SELECT c.college_id, st FROM colleges c CROSS JOIN LATERAL ("
+                + String.format(NORMALIZED_STREAMS, "c.streams_offered") + ") AS x(st) "
+                + "WHERE NOT EXISTS (SELECT 1 FROM college_streams s WHERE s.college_id = c.college_id) "
+                + "ON CONFLICT DO NOTHING");
+    }
+}
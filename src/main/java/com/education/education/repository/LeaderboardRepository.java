@@ -0,0 +1,23 @@
+package com.education.education.repository;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Source rows for rebuilding the leaderboards: each registered user's best
+ * score per quiz from the user_quiz_stats_by_quiz rollup
+ */
+@Repository
+public class LeaderboardRepository {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    public void streamBestScores(RowCallbackHandler handler) {
+        jdbcTemplate.query("SELECT s.quiz_id, s.user_id, s.best_score, u.name, u.district "
+                + "FROM user_quiz_stats_by_quiz s JOIN users u ON u.user_id = s.user_id "
+                + "WHERE s.best_score IS NOT NULL AND COALESCE(u.is_guest, FALSE) = FALSE", handler);
+    }
+}
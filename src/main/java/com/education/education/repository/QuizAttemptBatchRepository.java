@@ -0,0 +1,110 @@
+package com.education.education.repository;
+
+import com.education.education.entity.QuizAttempt;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Inserts quiz attempts with JDBC batching. QuizAttempt uses IDENTITY ids,
+ * which stops Hibernate from batching inserts, so bulk writes go through here.
+ */
+@Repository
+public class QuizAttemptBatchRepository {
+
+    private static final String INSERT_SQL = "INSERT INTO quiz_attempts "
+            + "(user_id, quiz_id, answers_json, score, recommended_streams, answers_bin, streams_bin, "
+            + "primary_stream, primary_match, timestamp) "
+            + "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private static final String CHECKPOINT_SQL = "INSERT INTO write_behind_checkpoints AS c "
+            + "(journal_name, last_seq) VALUES (?, ?) "
+            + "ON CONFLICT (journal_name) DO UPDATE SET last_seq = GREATEST(c.last_seq, EXCLUDED.last_seq)";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private QuizStatsRollupRepository quizStatsRollupRepository;
+
+    /**
+     * Insert attempts in one JDBC batch and its own transaction, filling in
+     * the generated attempt ids and updating the stats rollups
+     */
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void insertAll(List<QuizAttempt> attempts) {
+        insert(attempts);
+    }
+
+    /**
+     * Like insertAll, and advance a write-behind journal checkpoint in the
+     * same transaction
+     */
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void insertAllWithCheckpoint(List<QuizAttempt> attempts, String journalName, long lastSeq) {
+        insert(attempts);
+        jdbcTemplate.update(CHECKPOINT_SQL, journalName, lastSeq);
+    }
+
+    private void insert(List<QuizAttempt> attempts) {
+        if (attempts.isEmpty()) {
+            return;
+        }
+
+        KeyHolder keyHolder = new GeneratedKeyHolder();
+        jdbcTemplate.batchUpdate(
+                connection -> connection.prepareStatement(INSERT_SQL, new String[] { "attempt_id" }),
+                new BatchPreparedStatementSetter() {
+                    @Override
+                    public void setValues(PreparedStatement ps, int i) throws SQLException {
+                        QuizAttempt attempt = attempts.get(i);
+                        ps.setLong(1, attempt.getUser().getUserId());
+                        ps.setLong(2, attempt.getQuiz().getQuizId());
+                        ps.setString(3, attempt.getAnswersJson());
+                        if (attempt.getScore() != null) {
+                            ps.setInt(4, attempt.getScore());
+                        } else {
+                            ps.setNull(4, Types.INTEGER);
+                        }
+                        ps.setString(5, attempt.getRecommendedStreams());
+                        ps.setBytes(6, attempt.getAnswersBin());
+                        ps.setBytes(7, attempt.getStreamsBin());
+                        ps.setString(8, attempt.getPrimaryStream());
+                        if (attempt.getPrimaryMatch() != null) {
+                            ps.setShort(9, attempt.getPrimaryMatch());
+                        } else {
+                            ps.setNull(9, Types.SMALLINT);
+                        }
+                        ps.setTimestamp(10, Timestamp.valueOf(attempt.getTimestamp()));
+                    }
+
+                    @Override
+                    public int getBatchSize() {
+                        return attempts.size();
+                    }
+                },
+                keyHolder);
+
+        List<Map<String, Object>> keys = keyHolder.getKeyList();
+        for (int i = 0; i < attempts.size() && i < keys.size(); i++) {
+            Object id = keys.get(i).get("attempt_id");
+            if (id instanceof Number) {
+                attempts.get(i).setAttemptId(((Number) id).longValue());
+            }
+        }
+
+        quizStatsRollupRepository.recordAll(attempts);
+    }
+}
@@ -0,0 +1,286 @@
+package com.education.education.repository;
+
+import com.education.education.dto.QuizHistoryItemDto;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * PostgreSQL DDL for the monthly range partitions of quiz_attempts and the
+ * archive table that old partitions are moved into. Partitions are named
+ * quiz_attempts_pYYYYMM; rows outside every monthly partition land in
+ * quiz_attempts_default.
+ */
+@Repository
+public class QuizAttemptPartitionRepository {
+
+    private static final String PARTITION_PREFIX = "quiz_attempts_p";
+    private static final int ARCHIVE_BATCH_SIZE = 500;
+
+    private static final String ARCHIVE_INSERT_SQL = "INSERT INTO quiz_attempts_archive "
+            + "(attempt_id, user_id, quiz_id, score, recommended_streams, timestamp, answers_gz, "
+            + "answers_bin, streams_bin, primary_stream, primary_match) "
+            + "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?) ON CONFLICT (attempt_id) DO NOTHING";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    /**
+     * Whether quiz_attempts is already a partitioned table
+     */
+    public boolean isPartitioned() {
+        List<String> kinds = jdbcTemplate.queryForList(
+                "SELECT c.relkind::text FROM pg_class c JOIN pg_namespace n ON n.oid = c.relnamespace "
+                        + "WHERE c.relname = 'quiz_attempts' AND n.nspname = current_schema()",
+                String.class);
+        return !kinds.isEmpty() && "p".equals(kinds.get(0));
+    }
+
+    /**
+     * Replace the plain quiz_attempts table created by Hibernate with a table
+     * partitioned by month on timestamp, copying existing rows across
+     */
+    @Transactional
+    public void convertToPartitioned(int monthsAhead) {
+        jdbcTemplate.execute("LOCK TABLE quiz_attempts IN ACCESS EXCLUSIVE MODE");
+        jdbcTemplate.execute("ALTER TABLE quiz_attempts RENAME TO quiz_attempts_unpartitioned");
+        jdbcTemplate.execute("ALTER TABLE quiz_attempts_unpartitioned RENAME CONSTRAINT quiz_attempts_pkey "
+                + "TO quiz_attempts_unpartitioned_pkey");
+        jdbcTemplate.execute("ALTER INDEX IF EXISTS idx_quiz_attempts_user_time "
+                + "RENAME TO idx_quiz_attempts_unpartitioned_user_time");
+
+        // Own sequence: the old identity sequence is dropped with the old table
+        jdbcTemplate.execute("CREATE SEQUENCE IF NOT EXISTS quiz_attempts_id_seq");
+        jdbcTemplate.queryForObject("SELECT setval('quiz_attempts_id_seq', "
+                + "COALESCE((SELECT MAX(attempt_id) FROM quiz_attempts_unpartitioned), 0) + 1, false)", Long.class);
+
+        // The partition key has to be part of the primary key
+        jdbcTemplate.execute("CREATE TABLE quiz_attempts ("
+                + "attempt_id BIGINT NOT NULL DEFAULT nextval('quiz_attempts_id_seq'), "
+                + "user_id BIGINT REFERENCES users (user_id), "
+                + "quiz_id BIGINT REFERENCES quizzes (quiz_id), "
+                + "answers_json TEXT, "
+                + "score INTEGER, "
+                + "recommended_streams TEXT, "
+                + "answers_bin BYTEA, "
+                + "streams_bin BYTEA, "
+                + "primary_stream VARCHAR(64), "
+                + "primary_match SMALLINT, "
+                + "timestamp TIMESTAMP(6) NOT NULL DEFAULT now(), "
+                + "PRIMARY KEY (attempt_id, timestamp)"
+                + ") PARTITION BY RANGE (timestamp)");
+        jdbcTemplate.execute("ALTER SEQUENCE quiz_attempts_id_seq OWNED BY quiz_attempts.attempt_id");
+        jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS quiz_attempts_default PARTITION OF quiz_attempts DEFAULT");
+
+        Timestamp oldest = jdbcTemplate.queryForObject(
+                "SELECT MIN(timestamp) FROM quiz_attempts_unpartitioned", Timestamp.class);
+        YearMonth from = oldest != null ? YearMonth.from(oldest.toLocalDateTime()) : YearMonth.now();
+        ensurePartitions(from, YearMonth.now().plusMonths(monthsAhead));
+
+        jdbcTemplate.execute("CREATE INDEX idx_quiz_attempts_user_time ON quiz_attempts (user_id, timestamp, attempt_id)");
+
+        // Hibernate has already added any newer entity columns to the old table
+        jdbcTemplate.update("INSERT INTO quiz_attempts "
+                + "(attempt_id, user_id, quiz_id, answers_json, score, recommended_streams, "
+                + "answers_bin, streams_bin, primary_stream, primary_match, timestamp) "
+                + "SELECT attempt_id, user_id, quiz_id, answers_json, score, recommended_streams, "
+                + "answers_bin, streams_bin, primary_stream, primary_match, "
+                + "COALESCE(timestamp, now()) FROM quiz_attempts_unpartitioned");
+        jdbcTemplate.execute("DROP TABLE quiz_attempts_unpartitioned");
+    }
+
+    /**
+     * Create any missing monthly partitions from one month to another,
+     * inclusive. Rows of a month that landed in the default partition are
+     * moved into the new partition, since PostgreSQL refuses to create a
+     * partition whose range the default partition already holds rows of.
+     */
+    @Transactional
+    public void ensurePartitions(YearMonth from, YearMonth to) {
+        for (YearMonth month = from; !month.isAfter(to); month = month.plusMonths(1)) {
+            String partition = partitionName(month);
+            if (jdbcTemplate.queryForObject("SELECT to_regclass(?) IS NOT NULL", Boolean.class, partition)) {
+                continue;
+            }
+            LocalDate startDay = month.atDay(1);
+            LocalDate endDay = month.plusMonths(1).atDay(1);
+            String bounds = " FOR VALUES FROM ('" + startDay + "') TO ('" + endDay + "')";
+            Timestamp start = Timestamp.valueOf(startDay.atStartOfDay());
+            Timestamp end = Timestamp.valueOf(endDay.atStartOfDay());
+
+            Boolean stranded = jdbcTemplate.queryForObject("SELECT EXISTS (SELECT 1 FROM quiz_attempts_default "
+                    + "WHERE timestamp >= ? AND timestamp < ?)", Boolean.class, start, end);
+            if (!Boolean.TRUE.equals(stranded)) {
+                jdbcTemplate.execute("CREATE TABLE " + partition + " PARTITION OF quiz_attempts" + bounds);
+                continue;
+            }
+            jdbcTemplate.execute("CREATE TABLE " + partition + " (LIKE quiz_attempts INCLUDING DEFAULTS)");
+            jdbcTemplate.update("WITH moved AS (DELETE FROM quiz_attempts_default "
+                    + "WHERE timestamp >= ? AND timestamp < ? RETURNING *) "
+                    + "INSERT INTO " + partition + " SELECT * FROM moved", start, end);
+            jdbcTemplate.execute("ALTER TABLE quiz_attempts ATTACH PARTITION " + partition + bounds);
+        }
+    }
+
+    /**
+     * Months that have rows in the default partition, oldest first
+     */
+    public List<YearMonth> listDefaultPartitionMonths() {
+        List<Timestamp> starts = jdbcTemplate.queryForList("SELECT DISTINCT date_trunc('month', timestamp) "
+                + "FROM quiz_attempts_default ORDER BY 1", Timestamp.class);
+        List<YearMonth> months = new ArrayList<>(starts.size());
+        for (Timestamp start : starts) {
+            months.add(YearMonth.from(start.toLocalDateTime()));
+        }
+        return months;
+    }
+
+    /**
+     * Archived attempts of a user older than (beforeTime, beforeId), or all of
+     * them when beforeTime is null; newest first, at most limit (0 for all)
+     */
+    public List<QuizHistoryItemDto> findArchivedHistory(Long userId, LocalDateTime beforeTime, Long beforeId,
+            int limit) {
+        String sql = "SELECT a.attempt_id, a.quiz_id, q.title, a.score, a.recommended_streams, a.streams_bin, "
+                + "a.timestamp FROM quiz_attempts_archive a LEFT JOIN quizzes q ON q.quiz_id = a.quiz_id "
+                + "WHERE a.user_id = ? "
+                + (beforeTime != null ? "AND (a.timestamp < ? OR (a.timestamp = ? AND a.attempt_id < ?)) " : "")
+                + "ORDER BY a.timestamp DESC, a.attempt_id DESC"
+                + (limit > 0 ? " LIMIT " + limit : "");
+        Object[] args = beforeTime != null
+                ? new Object[] { userId, Timestamp.valueOf(beforeTime), Timestamp.valueOf(beforeTime), beforeId }
+                : new Object[] { userId };
+        return jdbcTemplate.query(sql, (rs, rowNum) -> new QuizHistoryItemDto(
+                rs.getLong("attempt_id"),
+                rs.getObject("quiz_id", Long.class),
+                rs.getString("title"),
+                rs.getObject("score", Integer.class),
+                rs.getString("recommended_streams"),
+                rs.getBytes("streams_bin"),
+                rs.getTimestamp("timestamp").toLocalDateTime()), args);
+    }
+
+    /**
+     * Create the archive table (legacy JSON answers stored gzipped) if missing
+     */
+    public void ensureArchiveTable() {
+        jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS quiz_attempts_archive ("
+                + "attempt_id BIGINT PRIMARY KEY, "
+                + "user_id BIGINT, "
+                + "quiz_id BIGINT, "
+                + "score INTEGER, "
+                + "recommended_streams TEXT, "
+                + "timestamp TIMESTAMP(6) NOT NULL, "
+                + "answers_gz BYTEA)");
+        // Binary answer/stream encoding (already compact, stored as is)
+        jdbcTemplate.execute("ALTER TABLE quiz_attempts_archive "
+                + "ADD COLUMN IF NOT EXISTS answers_bin BYTEA, "
+                + "ADD COLUMN IF NOT EXISTS streams_bin BYTEA, "
+                + "ADD COLUMN IF NOT EXISTS primary_stream VARCHAR(64), "
+                + "ADD COLUMN IF NOT EXISTS primary_match SMALLINT");
+        jdbcTemplate.execute("CREATE INDEX IF NOT EXISTS idx_quiz_attempts_archive_user_time "
+                + "ON quiz_attempts_archive (user_id, timestamp)");
+    }
+
+    /**
+     * Months that currently have a partition, oldest first
+     */
+    public List<YearMonth> listPartitionMonths() {
+        List<String> names = jdbcTemplate.queryForList(
+                "SELECT c.relname::text FROM pg_inherits i "
+                        + "JOIN pg_class c ON c.oid = i.inhrelid JOIN pg_class p ON p.oid = i.inhparent "
+                        + "WHERE p.relname = 'quiz_attempts' AND c.relname LIKE 'quiz\\_attempts\\_p%'",
+                String.class);
+        List<YearMonth> months = new ArrayList<>(names.size());
+        for (String name : names) {
+            String digits = name.substring(PARTITION_PREFIX.length());
+            months.add(YearMonth.of(Integer.parseInt(digits.substring(0, 4)), Integer.parseInt(digits.substring(4))));
+        }
+        months.sort(null);
+        return months;
+    }
+
+    /**
+     * Copy one month into the archive table with gzipped answers, then detach
+     * and drop its partition. Returns the number of archived attempts.
+     */
+    @Transactional
+    public int archivePartition(YearMonth month) {
+        String partition = partitionName(month);
+        List<Object[]> rows = new ArrayList<>(ARCHIVE_BATCH_SIZE);
+        int[] archived = { 0 };
+
+        // Stream the partition with a cursor instead of loading the whole month
+        jdbcTemplate.query(con -> {
+            PreparedStatement ps = con.prepareStatement("SELECT attempt_id, user_id, quiz_id, score, "
+                    + "recommended_streams, timestamp, answers_json, answers_bin, streams_bin, primary_stream, "
+                    + "primary_match FROM " + partition);
+            ps.setFetchSize(ARCHIVE_BATCH_SIZE);
+            return ps;
+        }, (RowCallbackHandler) rs -> {
+            rows.add(new Object[] {
+                    rs.getLong("attempt_id"),
+                    rs.getObject("user_id"),
+                    rs.getObject("quiz_id"),
+                    rs.getObject("score"),
+                    rs.getString("recommended_streams"),
+                    rs.getTimestamp("timestamp"),
+                    gzip(rs.getString("answers_json")),
+                    rs.getBytes("answers_bin"),
+                    rs.getBytes("streams_bin"),
+                    rs.getString("primary_stream"),
+                    rs.getObject("primary_match") });
+            if (rows.size() == ARCHIVE_BATCH_SIZE) {
+                archived[0] += flush(rows);
+            }
+        });
+        archived[0] += flush(rows);
+
+        jdbcTemplate.execute("ALTER TABLE quiz_attempts DETACH PARTITION " + partition);
+        jdbcTemplate.execute("DROP TABLE " + partition);
+        return archived[0];
+    }
+
+    private int flush(List<Object[]> rows) {
+        if (rows.isEmpty()) {
+            return 0;
+        }
+        int count = rows.size();
+        jdbcTemplate.batchUpdate(ARCHIVE_INSERT_SQL, rows);
+        rows.clear();
+        return count;
+    }
+
+    private static byte[] gzip(String text) {
+        if (text == null) {
+            return null;
+        }
+        try {
+            ByteArrayOutputStream out = new ByteArrayOutputStream(text.length() / 4 + 64);
+            try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+                gzip.write(text.getBytes(StandardCharsets.UTF_8));
+            }
+            return out.toByteArray();
+        } catch (IOException e) {
+            throw new RuntimeException("Error compressing quiz answers: " + e.getMessage());
+        }
+    }
+
+    private static String partitionName(YearMonth month) {
+        return PARTITION_PREFIX + String.format("%04d%02d", month.getYear(), month.getMonthValue());
+    }
+}
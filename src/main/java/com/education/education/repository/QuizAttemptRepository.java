@@ -1,20 +1,47 @@
 package com.education.education.repository;
 
+import com.education.education.dto.QuizHistoryItemDto;
 import com.education.education.entity.QuizAttempt;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface QuizAttemptRepository extends JpaRepository<QuizAttempt, Long> {
 
+    String HISTORY_SELECT = "SELECT new com.education.education.dto.QuizHistoryItemDto(qa.attemptId, q.quizId, "
+            + "q.title, qa.score, qa.recommendedStreams, qa.streamsBin, qa.timestamp) "
+            + "FROM QuizAttempt qa JOIN qa.quiz q WHERE qa.user.userId = :userId AND qa.timestamp >= :since ";
+
     // Find all attempts by user
     List<QuizAttempt> findByUserUserIdOrderByTimestampDesc(Long userId);
 
+    // First page of a user's history since a time (bounds the partitions scanned), newest first
+    @Query(HISTORY_SELECT + "ORDER BY qa.timestamp DESC, qa.attemptId DESC")
+    List<QuizHistoryItemDto> findHistoryByUser(@Param("userId") Long userId, @Param("since") LocalDateTime since,
+            Pageable pageable);
+
+    // Next page of a user's history: attempts older than the (timestamp, attemptId) cursor
+    @Query(HISTORY_SELECT + "AND (qa.timestamp < :beforeTime "
+            + "OR (qa.timestamp = :beforeTime AND qa.attemptId < :beforeId)) "
+            + "ORDER BY qa.timestamp DESC, qa.attemptId DESC")
+    List<QuizHistoryItemDto> findHistoryByUserBefore(@Param("userId") Long userId,
+            @Param("since") LocalDateTime since, @Param("beforeTime") LocalDateTime beforeTime,
+            @Param("beforeId") Long beforeId, Pageable pageable);
+
+    // Latest attempt by user
+    Optional<QuizAttempt> findFirstByUserUserIdOrderByTimestampDescAttemptIdDesc(Long userId);
+
+    // Latest attempt by user since a time (bounds the partitions scanned)
+    Optional<QuizAttempt> findFirstByUserUserIdAndTimestampGreaterThanEqualOrderByTimestampDescAttemptIdDesc(
+            Long userId, LocalDateTime since);
+
     // Find attempts by user and quiz
     List<QuizAttempt> findByUserUserIdAndQuizQuizIdOrderByTimestampDesc(Long userId, Long quizId);
 
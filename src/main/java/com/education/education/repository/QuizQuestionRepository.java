@@ -0,0 +1,55 @@
+package com.education.education.repository;
+
+import com.education.education.entity.QuizQuestion;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface QuizQuestionRepository extends JpaRepository<QuizQuestion, Long> {
+
+    // Page through a quiz's questions in display order
+    Page<QuizQuestion> findByQuizQuizIdOrderByDisplayOrderAsc(Long quizId, Pageable pageable);
+
+    // Page through one category of a quiz's questions
+    Page<QuizQuestion> findByQuizQuizIdAndCategoryOrderByDisplayOrderAsc(Long quizId, String category,
+            Pageable pageable);
+
+    // All of a quiz's questions in display order
+    List<QuizQuestion> findByQuizQuizIdOrderByDisplayOrderAsc(Long quizId);
+
+    // Answer key only (no question text or options) for scoring
+    List<AnswerKeyView> findAnswerKeyByQuizQuizIdOrderByDisplayOrderAsc(Long quizId);
+
+    // Number of questions in a quiz
+    long countByQuizQuizId(Long quizId);
+
+    // Serialize bank writes of one quiz until the end of the transaction
+    @Query(value = "SELECT 1 FROM (SELECT pg_advisory_xact_lock(:quizId)) l", nativeQuery = true)
+    Integer lockQuizBank(@Param("quizId") Long quizId);
+
+    // Drop a quiz's bank rows before writing them again
+    @Modifying
+    @Query("DELETE FROM QuizQuestion qq WHERE qq.quiz.quizId = :quizId")
+    int deleteByQuizId(@Param("quizId") Long quizId);
+
+    interface AnswerKeyView {
+        Integer getQuestionNumber();
+
+        String getCategory();
+
+        String getCorrectAnswer();
+
+        Integer getPoints();
+
+        Double getDifficulty();
+
+        Double getDiscrimination();
+    }
+}
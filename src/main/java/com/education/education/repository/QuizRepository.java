@@ -1,12 +1,16 @@
 package com.education.education.repository;
 
+import com.education.education.dto.QuizSummaryDto;
 import com.education.education.entity.Quiz;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface QuizRepository extends JpaRepository<Quiz, Long> {
@@ -21,6 +25,38 @@ public interface QuizRepository extends JpaRepository<Quiz, Long> {
     @Query("SELECT q FROM Quiz q WHERE q.isActive = true AND (q.targetClass = :targetClass OR q.targetClass = 'all')")
     List<Quiz> findQuizzesForClass(@Param("targetClass") String targetClass);
 
+    // Catalog summaries for a class, without the questions JSON
+    @Query("SELECT new com.education.education.dto.QuizSummaryDto(q.quizId, q.title, q.description, q.targetClass, "
+            + "(SELECT COUNT(qq) FROM QuizQuestion qq WHERE qq.quiz = q), q.updatedAt) "
+            + "FROM Quiz q WHERE q.isActive = true AND (q.targetClass = :targetClass OR q.targetClass = 'all') "
+            + "ORDER BY q.quizId")
+    List<QuizSummaryDto> findQuizSummariesForClass(@Param("targetClass") String targetClass);
+
     // Find quiz by title
     Quiz findByTitleAndIsActiveTrue(String title);
+
+    // Quizzes whose questions still live in the legacy questions JSON
+    @Query("SELECT q.quizId FROM Quiz q WHERE q.questionsJson IS NOT NULL ORDER BY q.quizId")
+    List<Long> findQuizIdsWithQuestionsJson();
+
+    // Move a quiz to a new version after its bank rows changed
+    @Modifying
+    @Query("UPDATE Quiz q SET q.updatedAt = :updatedAt WHERE q.quizId = :quizId")
+    int touch(@Param("quizId") Long quizId, @Param("updatedAt") LocalDateTime updatedAt);
+
+    // Drop the legacy questions JSON once it has been moved into the bank
+    @Modifying
+    @Query("UPDATE Quiz q SET q.questionsJson = NULL, q.updatedAt = :updatedAt WHERE q.quizId = :quizId")
+    int clearQuestionsJson(@Param("quizId") Long quizId, @Param("updatedAt") LocalDateTime updatedAt);
+
+    // Id, title and version only, without the questions JSON
+    Optional<QuizHeader> findHeaderByQuizId(Long quizId);
+
+    interface QuizHeader {
+        Long getQuizId();
+
+        String getTitle();
+
+        LocalDateTime getUpdatedAt();
+    }
 }
\ No newline at end of file
@@ -0,0 +1,78 @@
+package com.education.education.repository;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Checkpoints of the per-quiz score histograms (quiz_score_histogram_bins).
+ * Histograms travel as flat arrays of dimensions x bins counts; checkpoints
+ * add counts with an upsert, so nothing is overwritten.
+ */
+@Repository
+public class QuizScoreHistogramRepository {
+
+    private static final String ADD_SQL = "INSERT INTO quiz_score_histogram_bins AS h "
+            + "(quiz_id, dimension, bin, attempt_count) VALUES (?, ?, ?, ?) "
+            + "ON CONFLICT (quiz_id, dimension, bin) DO UPDATE SET attempt_count = h.attempt_count + EXCLUDED.attempt_count";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    /**
+     * Add the non-zero counts of each quiz's flat array to the stored bins
+     */
+    @Transactional
+    public void addCounts(Map<Long, long[]> countsByQuiz, int bins) {
+        List<Object[]> rows = new ArrayList<>();
+        for (Map.Entry<Long, long[]> entry : countsByQuiz.entrySet()) {
+            long[] counts = entry.getValue();
+            for (int i = 0; i < counts.length; i++) {
+                if (counts[i] != 0) {
+                    rows.add(new Object[] { entry.getKey(), (short) (i / bins), (short) (i % bins), counts[i] });
+                }
+            }
+        }
+        if (!rows.isEmpty()) {
+            jdbcTemplate.batchUpdate(ADD_SQL, rows);
+        }
+    }
+
+    /**
+     * Stored counts of every quiz as flat arrays of the given shape
+     */
+    public Map<Long, long[]> loadAll(int dimensions, int bins) {
+        Map<Long, long[]> countsByQuiz = new HashMap<>();
+        jdbcTemplate.query("SELECT quiz_id, dimension, bin, attempt_count FROM quiz_score_histogram_bins", rs -> {
+            int dimension = rs.getInt("dimension");
+            int bin = rs.getInt("bin");
+            if (dimension < dimensions && bin < bins) {
+                countsByQuiz.computeIfAbsent(rs.getLong("quiz_id"), id -> new long[dimensions * bins])
+                        [dimension * bins + bin] = rs.getLong("attempt_count");
+            }
+        });
+        return countsByQuiz;
+    }
+
+    public boolean isEmpty() {
+        Boolean exists = jdbcTemplate.queryForObject(
+                "SELECT EXISTS (SELECT 1 FROM quiz_score_histogram_bins)", Boolean.class);
+        return !Boolean.TRUE.equals(exists);
+    }
+
+    /**
+     * Attempt counts per quiz and total score, for seeding the overall
+     * histograms from attempts recorded before histograms existed
+     */
+    public List<long[]> countAttemptScores() {
+        return jdbcTemplate.query("SELECT quiz_id, score, COUNT(*) AS attempts FROM quiz_attempts "
+                + "WHERE quiz_id IS NOT NULL AND score IS NOT NULL GROUP BY quiz_id, score",
+                (rs, rowNum) -> new long[] { rs.getLong("quiz_id"), rs.getLong("score"), rs.getLong("attempts") });
+    }
+}
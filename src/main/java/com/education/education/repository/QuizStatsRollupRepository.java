@@ -0,0 +1,134 @@
+package com.education.education.repository;
+
+import com.education.education.entity.QuizAttempt;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Maintains the user_quiz_stats and user_quiz_stats_by_quiz rollups with
+ * atomic upserts (INSERT ... ON CONFLICT DO UPDATE). Runs in the caller's
+ * transaction so a rollup never disagrees with the attempts it summarizes.
+ */
+@Repository
+public class QuizStatsRollupRepository {
+
+    // Columns after the key: attempt_count, score_sum, best_score, first_score, first_at, latest_score, latest_at
+    private static final String UPDATE_CLAUSE = " DO UPDATE SET "
+            + "attempt_count = s.attempt_count + 1, "
+            + "score_sum = s.score_sum + EXCLUDED.score_sum, "
+            + "best_score = GREATEST(s.best_score, EXCLUDED.best_score), "
+            + "first_score = CASE WHEN EXCLUDED.first_at < s.first_at THEN EXCLUDED.first_score ELSE s.first_score END, "
+            + "first_at = LEAST(s.first_at, EXCLUDED.first_at), "
+            + "latest_score = CASE WHEN EXCLUDED.latest_at >= s.latest_at "
+            + "THEN EXCLUDED.latest_score ELSE s.latest_score END, "
+            + "latest_at = GREATEST(s.latest_at, EXCLUDED.latest_at)";
+
+    private static final String UPSERT_USER_SQL = "INSERT INTO user_quiz_stats AS s "
+            + "(user_id, attempt_count, score_sum, best_score, first_score, first_at, latest_score, latest_at) "
+            + "VALUES (?, 1, ?, ?, ?, ?, ?, ?) ON CONFLICT (user_id)" + UPDATE_CLAUSE;
+
+    private static final String UPSERT_USER_QUIZ_SQL = "INSERT INTO user_quiz_stats_by_quiz AS s "
+            + "(user_id, quiz_id, attempt_count, score_sum, best_score, first_score, first_at, latest_score, latest_at) "
+            + "VALUES (?, ?, 1, ?, ?, ?, ?, ?, ?) ON CONFLICT (user_id, quiz_id)" + UPDATE_CLAUSE;
+
+    private static final String REBUILD_USER_SQL = "INSERT INTO user_quiz_stats "
+            + "(user_id, attempt_count, score_sum, best_score, first_score, first_at, latest_score, latest_at) "
+            + "SELECT user_id, COUNT(*), SUM(COALESCE(score, 0)), MAX(score), "
+            + "(ARRAY_AGG(score ORDER BY timestamp, attempt_id))[1], MIN(timestamp), "
+            + "(ARRAY_AGG(score ORDER BY timestamp DESC, attempt_id DESC))[1], MAX(timestamp) "
+            + "FROM quiz_attempts WHERE user_id IS NOT NULL GROUP BY user_id "
+            + "ON CONFLICT (user_id) DO NOTHING";
+
+    private static final String REBUILD_USER_QUIZ_SQL = "INSERT INTO user_quiz_stats_by_quiz "
+            + "(user_id, quiz_id, attempt_count, score_sum, best_score, first_score, first_at, latest_score, latest_at) "
+            + "SELECT user_id, quiz_id, COUNT(*), SUM(COALESCE(score, 0)), MAX(score), "
+            + "(ARRAY_AGG(score ORDER BY timestamp, attempt_id))[1], MIN(timestamp), "
+            + "(ARRAY_AGG(score ORDER BY timestamp DESC, attempt_id DESC))[1], MAX(timestamp) "
+            + "FROM quiz_attempts WHERE user_id IS NOT NULL AND quiz_id IS NOT NULL GROUP BY user_id, quiz_id "
+            + "ON CONFLICT (user_id, quiz_id) DO NOTHING";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    /**
+     * Fold one attempt into the user and user-quiz rollups
+     */
+    public void record(QuizAttempt attempt) {
+        recordAll(List.of(attempt));
+    }
+
+    /**
+     * Fold attempts into the rollups with one JDBC batch per table
+     */
+    public void recordAll(List<QuizAttempt> attempts) {
+        List<Object[]> userRows = new ArrayList<>(attempts.size());
+        List<Object[]> userQuizRows = new ArrayList<>(attempts.size());
+        for (QuizAttempt attempt : attempts) {
+            if (attempt.getUser() == null || attempt.getUser().getUserId() == null) {
+                continue;
+            }
+            int score = attempt.getScore() != null ? attempt.getScore() : 0;
+            Timestamp at = Timestamp.valueOf(
+                    attempt.getTimestamp() != null ? attempt.getTimestamp() : LocalDateTime.now());
+            Long userId = attempt.getUser().getUserId();
+
+            userRows.add(new Object[] { userId, score, score, score, at, score, at });
+            if (attempt.getQuiz() != null) {
+                userQuizRows.add(new Object[] { userId, attempt.getQuiz().getQuizId(), score, score, score, at,
+                        score, at });
+            }
+        }
+
+        batch(UPSERT_USER_SQL, userRows);
+        batch(UPSERT_USER_QUIZ_SQL, userQuizRows);
+    }
+
+    private void batch(String sql, List<Object[]> rows) {
+        if (rows.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate(sql, new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement ps, int i) throws SQLException {
+                Object[] row = rows.get(i);
+                for (int c = 0; c < row.length; c++) {
+                    ps.setObject(c + 1, row[c]);
+                }
+            }
+
+            @Override
+            public int getBatchSize() {
+                return rows.size();
+            }
+        });
+    }
+
+    /**
+     * Create rollup rows from the attempt history for users that have none yet
+     */
+    public int rebuildMissing() {
+        int users = jdbcTemplate.update(REBUILD_USER_SQL);
+        jdbcTemplate.update(REBUILD_USER_QUIZ_SQL);
+        return users;
+    }
+
+    /**
+     * Whether the rollup has no rows while attempts exist (e.g. first start after upgrade)
+     */
+    public boolean needsRebuild() {
+        Boolean missing = jdbcTemplate.queryForObject(
+                "SELECT NOT EXISTS (SELECT 1 FROM user_quiz_stats) "
+                        + "AND EXISTS (SELECT 1 FROM quiz_attempts WHERE user_id IS NOT NULL)",
+                Boolean.class);
+        return Boolean.TRUE.equals(missing);
+    }
+}
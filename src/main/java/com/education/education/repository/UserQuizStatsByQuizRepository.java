@@ -0,0 +1,14 @@
+package com.education.education.repository;
+
+import com.education.education.entity.UserQuizStatsByQuiz;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface UserQuizStatsByQuizRepository extends JpaRepository<UserQuizStatsByQuiz, UserQuizStatsByQuiz.Key> {
+
+    // Rollup for one user and quiz
+    Optional<UserQuizStatsByQuiz> findByUserIdAndQuizId(Long userId, Long quizId);
+}
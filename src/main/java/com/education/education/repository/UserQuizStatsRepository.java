@@ -0,0 +1,9 @@
+package com.education.education.repository;
+
+import com.education.education.entity.UserQuizStats;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface UserQuizStatsRepository extends JpaRepository<UserQuizStats, Long> {
+}
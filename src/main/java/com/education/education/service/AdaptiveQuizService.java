@@ -0,0 +1,218 @@
+package com.education.education.service;
+
+import com.education.education.dto.AdaptiveStepDto;
+import com.education.education.dto.QuizQuestionDto;
+import com.education.education.dto.QuizResultDto;
+import com.education.education.dto.QuizSubmissionDto;
+import com.education.education.service.adaptive.AdaptiveSession;
+import com.education.education.service.adaptive.ItemBank;
+import com.education.education.service.scoring.AptitudeCategory;
+import com.education.education.service.scoring.CompiledQuiz;
+import com.education.education.service.session.TimingWheel;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Adaptive quizzes: questions are served one at a time, each chosen for the
+ * most information about the least certain category, until every category
+ * estimate is precise enough. The result goes through the same score
+ * breakdown and stream recommendations as a fixed-form attempt.
+ */
+@Service
+public class AdaptiveQuizService {
+
+    @Autowired
+    private QuizService quizService;
+
+    @Autowired
+    private QuestionBankService questionBankService;
+
+    @Value("${quiz.adaptive.target-standard-error:0.6}")
+    private double targetStandardError;
+
+    @Value("${quiz.adaptive.min-items-per-category:2}")
+    private int minItemsPerCategory;
+
+    @Value("${quiz.adaptive.max-items-per-category:8}")
+    private int maxItemsPerCategory;
+
+    @Value("${quiz.session.seconds-per-question:120}")
+    private int secondsPerQuestion;
+
+    @Value("${quiz.session.grace-seconds:60}")
+    private int graceSeconds;
+
+    @Value("${quiz.session.max-active:100000}")
+    private int maxActiveSessions;
+
+    private final Map<Long, ItemBank> itemBanks = new ConcurrentHashMap<>();
+    private final Map<String, AdaptiveSession> sessions = new ConcurrentHashMap<>();
+
+    private TimingWheel<String> expiryWheel;
+
+    @PostConstruct
+    public void init() {
+        expiryWheel = new TimingWheel<>("adaptive-session-expiry", 1000, 512, this::expire);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        expiryWheel.shutdown();
+    }
+
+    /**
+     * Start an adaptive session and return its first question; userId is null for guests
+     */
+    public AdaptiveStepDto startSession(Long userId, Long quizId) {
+        ItemBank bank = getItemBank(quizId);
+
+        int maxItems = 0;
+        for (int c = 0; c < AptitudeCategory.COUNT; c++) {
+            maxItems += Math.min(bank.categorySize(c), maxItemsPerCategory);
+        }
+        if (sessions.size() >= maxActiveSessions) {
+            throw new RuntimeException("Too many active adaptive quiz sessions, please try again later");
+        }
+
+        long now = System.currentTimeMillis();
+        long deadline = now + (long) maxItems * secondsPerQuestion * 1000;
+        AdaptiveSession session = new AdaptiveSession(UUID.randomUUID().toString(), userId, bank, now, deadline,
+                targetStandardError, minItemsPerCategory, maxItemsPerCategory);
+
+        sessions.put(session.getSessionId(), session);
+        expiryWheel.schedule(session.getSessionId(), deadline + graceSeconds * 1000L);
+
+        return toDto(session, session.nextItem(), null);
+    }
+
+    /**
+     * Answer the current question. Returns the next question, or the recorded
+     * result once the stopping rule is met.
+     */
+    public AdaptiveStepDto answer(Long userId, String sessionId, QuizSubmissionDto.QuizAnswerDto answer) {
+        AdaptiveSession session = getSession(userId, sessionId);
+        if (session.isExpired(System.currentTimeMillis())) {
+            throw new RuntimeException("Quiz session time limit exceeded");
+        }
+        // Nothing left to ask: an earlier attempt to record the result failed, retry it
+        if (session.nextItem() < 0) {
+            return toDto(session, -1, finish(userId, session));
+        }
+        if (!session.answer(answer)) {
+            throw new RuntimeException("Answer does not match the current question");
+        }
+
+        int next = session.nextItem();
+        if (next >= 0) {
+            return toDto(session, next, null);
+        }
+        return toDto(session, -1, finish(userId, session));
+    }
+
+    /**
+     * Current state of a session, including the question awaiting an answer
+     */
+    public AdaptiveStepDto getSessionStatus(Long userId, String sessionId) {
+        AdaptiveSession session = getSession(userId, sessionId);
+        return toDto(session, session.nextItem(), null);
+    }
+
+    private QuizResultDto finish(Long userId, AdaptiveSession session) {
+        if (!session.finish()) {
+            throw new RuntimeException("Quiz session already finished");
+        }
+        try {
+            QuizResultDto result = quizService.recordResult(userId, session.getBank().getQuiz(),
+                    session.toScoreCard(), session.toAnswers());
+            sessions.remove(session.getSessionId());
+            return result;
+        } catch (RuntimeException e) {
+            // Let the client retry by sending the last answer again
+            session.reopen();
+            throw e;
+        }
+    }
+
+    /**
+     * Item bank of the current version of a quiz, rebuilt when the quiz changes
+     */
+    private ItemBank getItemBank(Long quizId) {
+        CompiledQuiz compiledQuiz = quizService.getCompiledQuiz(quizId);
+        ItemBank bank = itemBanks.get(quizId);
+        if (bank != null && bank.getQuiz() == compiledQuiz) {
+            return bank;
+        }
+
+        List<QuizQuestionDto> questions = questionBankService.getAllQuestions(quizId);
+        if (questions.isEmpty()) {
+            throw new RuntimeException("Quiz has no question bank for adaptive mode: " + quizId);
+        }
+        bank = ItemBank.build(compiledQuiz, questions);
+        itemBanks.put(quizId, bank);
+        return bank;
+    }
+
+    private AdaptiveSession getSession(Long userId, String sessionId) {
+        AdaptiveSession session = sessions.get(sessionId);
+        if (session == null) {
+            throw new RuntimeException("Quiz session not found or expired: " + sessionId);
+        }
+        if (!Objects.equals(session.getUserId(), userId)) {
+            throw new RuntimeException("Quiz session belongs to another user");
+        }
+        return session;
+    }
+
+    private void expire(String sessionId) {
+        long now = System.currentTimeMillis();
+        sessions.computeIfPresent(sessionId, (id, session) -> {
+            long expiresAt = session.getDeadlineMillis() + graceSeconds * 1000L;
+            if (now >= expiresAt) {
+                return null;
+            }
+            expiryWheel.schedule(id, expiresAt); // Fired early; check again on its own tick
+            return session;
+        });
+    }
+
+    private AdaptiveStepDto toDto(AdaptiveSession session, int nextItem, QuizResultDto result) {
+        ItemBank bank = session.getBank();
+
+        List<AdaptiveStepDto.CategoryEstimateDto> estimates = new ArrayList<>(AptitudeCategory.COUNT);
+        for (AptitudeCategory category : AptitudeCategory.VALUES) {
+            int c = category.ordinal();
+            if (bank.categorySize(c) > 0) {
+                estimates.add(new AdaptiveStepDto.CategoryEstimateDto(category.getDisplayName(),
+                        Math.round(session.theta(c) * 100) / 100.0,
+                        Math.round(session.standardError(c) * 100) / 100.0,
+                        session.itemsAnswered(c), session.isConverged(c)));
+            }
+        }
+
+        AdaptiveStepDto dto = new AdaptiveStepDto();
+        dto.setSessionId(session.getSessionId());
+        dto.setQuizId(bank.getQuiz().getQuizId());
+        dto.setFinished(result != null);
+        dto.setAnsweredCount(session.getAnsweredCount());
+        dto.setBankSize(bank.getQuiz().size());
+        dto.setNextQuestion(nextItem >= 0 ? bank.question(nextItem) : null);
+        dto.setEstimates(estimates);
+        dto.setResult(result);
+        dto.setExpiresAt(LocalDateTime.ofInstant(Instant.ofEpochMilli(session.getDeadlineMillis()),
+                ZoneId.systemDefault()));
+        return dto;
+    }
+}
@@ -3,11 +3,18 @@ package com.education.education.service;
 import com.education.education.entity.College;
 import com.education.education.repository.CollegeRepository;
 import com.education.education.dto.college.CollegeDetailsDto;
+import com.education.education.dto.college.CollegePageDto;
 import com.education.education.dto.college.CollegeSearchDto;
+import com.education.education.service.collegesearch.CollegeIndex;
+import com.education.education.service.collegesearch.CollegePage;
+import com.education.education.service.collegesearch.CollegeSearchService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
+import java.util.ArrayList;
+import java.util.BitSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.stream.Collectors;
 
@@ -17,115 +24,154 @@ public class CollegeService {
     @Autowired
     private CollegeRepository collegeRepository;
 
+    @Autowired
+    private CollegeSearchService collegeSearchService;
+
     /**
-     * Search colleges by district
+     * Search colleges by district, one page in the given sort
      */
-    public List<CollegeSearchDto> findCollegesByDistrict(String district) {
-        List<College> colleges = collegeRepository.findByDistrictIgnoreCaseAndIsActiveTrue(district);
-        return colleges.stream()
-                .map(this::convertToSearchDto)
-                .collect(Collectors.toList());
+    public CollegePageDto findCollegesByDistrict(String district, String sort, String direction, String cursor,
+            int limit) {
+        CollegeIndex index = collegeSearchService.index();
+        return toPageDto(collegeSearchService.page(index, index.equalTo(CollegeIndex.Field.DISTRICT, district),
+                sort, direction, cursor, limit));
     }
 
     /**
-     * Search colleges by state
+     * Search colleges by state, one page in the given sort
      */
-    public List<CollegeSearchDto> findCollegesByState(String state) {
-        List<College> colleges = collegeRepository.findByStateIgnoreCaseAndIsActiveTrue(state);
-        return colleges.stream()
-                .map(this::convertToSearchDto)
-                .collect(Collectors.toList());
+    public CollegePageDto findCollegesByState(String state, String sort, String direction, String cursor,
+            int limit) {
+        CollegeIndex index = collegeSearchService.index();
+        return toPageDto(collegeSearchService.page(index, index.equalTo(CollegeIndex.Field.STATE, state),
+                sort, direction, cursor, limit));
     }
 
     /**
      * Search colleges by district and state
      */
     public List<CollegeSearchDto> findCollegesByLocation(String district, String state) {
-        List<College> colleges = collegeRepository.findByDistrictIgnoreCaseAndStateIgnoreCaseAndIsActiveTrue(district,
-                state);
-        return colleges.stream()
-                .map(this::convertToSearchDto)
-                .collect(Collectors.toList());
+        CollegeIndex index = collegeSearchService.index();
+        BitSet matches = index.equalTo(CollegeIndex.Field.DISTRICT, district);
+        matches.and(index.equalTo(CollegeIndex.Field.STATE, state));
+        return toSearchDtos(index, matches);
     }
 
     /**
      * Search colleges by type (Government, Private, etc.)
      */
     public List<CollegeSearchDto> findCollegesByType(String collegeType) {
-        List<College> colleges = collegeRepository.findByCollegeTypeIgnoreCaseAndIsActiveTrue(collegeType);
-        return colleges.stream()
-                .map(this::convertToSearchDto)
-                .collect(Collectors.toList());
+        CollegeIndex index = collegeSearchService.index();
+        return toSearchDtos(index, index.equalTo(CollegeIndex.Field.TYPE, collegeType));
     }
 
     /**
      * Search government colleges by district
      */
     public List<CollegeSearchDto> findGovernmentCollegesByDistrict(String district) {
-        List<College> colleges = collegeRepository.findGovernmentCollegesByDistrict(district);
-        return colleges.stream()
-                .map(this::convertToSearchDto)
-                .collect(Collectors.toList());
+        CollegeIndex index = collegeSearchService.index();
+        BitSet matches = index.containing(CollegeIndex.Field.DISTRICT, district);
+        matches.and(index.equalTo(CollegeIndex.Field.TYPE, "Government"));
+        return toSearchDtos(index, matches);
     }
 
     /**
      * Search government colleges by state
      */
     public List<CollegeSearchDto> findGovernmentCollegesByState(String state) {
-        List<College> colleges = collegeRepository.findGovernmentCollegesByState(state);
-        return colleges.stream()
-                .map(this::convertToSearchDto)
-                .collect(Collectors.toList());
+        CollegeIndex index = collegeSearchService.index();
+        BitSet matches = index.containing(CollegeIndex.Field.STATE, state);
+        matches.and(index.equalTo(CollegeIndex.Field.TYPE, "Government"));
+        return toSearchDtos(index, matches);
     }
 
     /**
-     * Search colleges by stream (Science, Commerce, Arts)
+     * Search colleges by stream (Science, Commerce, Arts), one page in the given sort
      */
-    public List<CollegeSearchDto> findCollegesByStream(String stream) {
-        List<College> colleges = collegeRepository.findByStreamOffered(stream);
-        return colleges.stream()
-                .map(this::convertToSearchDto)
-                .collect(Collectors.toList());
+    public CollegePageDto findCollegesByStream(String stream, String sort, String direction, String cursor,
+            int limit) {
+        CollegeIndex index = collegeSearchService.index();
+        return toPageDto(collegeSearchService.page(index, index.equalTo(CollegeIndex.Field.STREAM, stream),
+                sort, direction, cursor, limit));
     }
 
     /**
      * Search colleges by district and stream
      */
     public List<CollegeSearchDto> findCollegesByDistrictAndStream(String district, String stream) {
-        List<College> colleges = collegeRepository.findByDistrictAndStreamOffered(district, stream);
-        return colleges.stream()
-                .map(this::convertToSearchDto)
-                .collect(Collectors.toList());
+        CollegeIndex index = collegeSearchService.index();
+        BitSet matches = index.containing(CollegeIndex.Field.DISTRICT, district);
+        matches.and(index.equalTo(CollegeIndex.Field.STREAM, stream));
+        return toSearchDtos(index, matches);
     }
 
     /**
      * Search colleges by state and stream
      */
     public List<CollegeSearchDto> findCollegesByStateAndStream(String state, String stream) {
-        List<College> colleges = collegeRepository.findByStateAndStreamOffered(state, stream);
-        return colleges.stream()
-                .map(this::convertToSearchDto)
-                .collect(Collectors.toList());
+        CollegeIndex index = collegeSearchService.index();
+        BitSet matches = index.containing(CollegeIndex.Field.STATE, state);
+        matches.and(index.equalTo(CollegeIndex.Field.STREAM, stream));
+        return toSearchDtos(index, matches);
     }
 
     /**
-     * Advanced search with multiple criteria
+     * Advanced search with multiple criteria, one page in the given sort
+     * together with type, tier, stream and district facet counts
      */
-    public List<CollegeSearchDto> searchColleges(String district, String state, String collegeType, String stream) {
-        List<College> colleges = collegeRepository.findCollegesByCriteria(district, state, collegeType, stream);
-        return colleges.stream()
-                .map(this::convertToSearchDto)
-                .collect(Collectors.toList());
+    public CollegePageDto searchColleges(String district, String state, String collegeType, String stream,
+            String tier, String sort, String direction, String cursor, int limit) {
+        return toPageDto(collegeSearchService.facetedSearch(district, state, collegeType, stream, tier,
+                sort, direction, cursor, limit));
     }
 
     /**
-     * Find colleges by name (partial match)
+     * Find colleges by name, tolerating typos and spelling variants; best
+     * matches first, each with its match score
      */
-    public List<CollegeSearchDto> findCollegesByName(String name) {
-        List<College> colleges = collegeRepository.findByNameContainingIgnoreCase(name);
-        return colleges.stream()
-                .map(this::convertToSearchDto)
-                .collect(Collectors.toList());
+    public List<CollegeSearchDto> findCollegesByName(String name, int limit) {
+        List<CollegeSearchDto> results = new ArrayList<>();
+        for (Map.Entry<College, Double> match : collegeSearchService.searchByName(name, limit).entrySet()) {
+            CollegeSearchDto dto = convertToSearchDto(match.getKey());
+            dto.setMatchScore(match.getValue());
+            results.add(dto);
+        }
+        return results;
+    }
+
+    /**
+     * Autocomplete suggestions for a typed prefix, answered from memory
+     */
+    public List<Map<String, Object>> autocomplete(String prefix, int limit) {
+        return collegeSearchService.autocomplete(prefix, limit);
+    }
+
+    /**
+     * Colleges nearest to a point (or to the centre of a district's colleges
+     * when no point is given), nearest first, each with its distance
+     */
+    public List<CollegeSearchDto> findNearbyColleges(Double latitude, Double longitude, String district,
+            Double radiusKm, int limit, String stream, String collegeType, String tier) {
+        if (latitude == null || longitude == null) {
+            double[] centre = district != null ? collegeSearchService.districtCentre(district) : null;
+            if (centre == null) {
+                throw new RuntimeException("Location required: pass lat and lon, or a district with mapped colleges");
+            }
+            latitude = centre[0];
+            longitude = centre[1];
+        }
+        if (latitude < -90 || latitude > 90 || longitude < -180 || longitude > 180) {
+            throw new RuntimeException("Invalid coordinates: " + latitude + ", " + longitude);
+        }
+
+        List<CollegeSearchDto> results = new ArrayList<>();
+        for (Map.Entry<College, Double> hit : collegeSearchService.nearby(latitude, longitude, radiusKm, limit,
+                stream, collegeType, tier).entrySet()) {
+            CollegeSearchDto dto = convertToSearchDto(hit.getKey());
+            dto.setDistanceKm(hit.getValue());
+            results.add(dto);
+        }
+        return results;
     }
 
     /**
@@ -140,7 +186,7 @@ public class CollegeService {
      * Get top colleges by district (Premier and Excellent tier)
      */
     public List<CollegeSearchDto> getTopCollegesByDistrict(String district) {
-        List<College> colleges = collegeRepository.findTopCollegesByDistrict(district);
+        List<College> colleges = collegeSearchService.topInDistrict(district);
         return colleges.stream()
                 .map(this::convertToSearchDto)
                 .collect(Collectors.toList());
@@ -150,7 +196,7 @@ public class CollegeService {
      * Get colleges with high placement rates
      */
     public List<CollegeSearchDto> getHighPlacementColleges(Double minPlacementRate) {
-        List<College> colleges = collegeRepository.findCollegesWithHighPlacementRate(minPlacementRate);
+        List<College> colleges = collegeSearchService.withPlacementRate(minPlacementRate);
         return colleges.stream()
                 .map(this::convertToSearchDto)
                 .collect(Collectors.toList());
@@ -162,13 +208,17 @@ public class CollegeService {
      */
     public List<CollegeSearchDto> getRecommendedColleges(String recommendedStream, String userDistrict,
             String performanceLevel) {
-        // Start with colleges in user's district that offer the recommended stream
-        List<College> colleges = collegeRepository.findByDistrictAndStreamOffered(userDistrict, recommendedStream);
+        // Start with colleges in user's district that offer the recommended stream (best tiers first)
+        CollegeIndex index = collegeSearchService.index();
+        BitSet offering = index.equalTo(CollegeIndex.Field.STREAM, recommendedStream);
+        BitSet local = (BitSet) offering.clone();
+        local.and(index.containing(CollegeIndex.Field.DISTRICT, userDistrict));
+        List<College> colleges = index.collect(local);
 
         // If no colleges found in district, expand to state
         if (colleges.isEmpty() && userDistrict != null) {
             // We need to get state from district - for now use generic search
-            colleges = collegeRepository.findByStreamOffered(recommendedStream);
+            colleges = index.collect(offering);
         }
 
         // Filter by performance level if specified
@@ -189,6 +239,21 @@ public class CollegeService {
                 .collect(Collectors.toList());
     }
 
+    private List<CollegeSearchDto> toSearchDtos(CollegeIndex index, BitSet matches) {
+        return index.collect(matches).stream()
+                .map(this::convertToSearchDto)
+                .collect(Collectors.toList());
+    }
+
+    private CollegePageDto toPageDto(CollegePage page) {
+        List<CollegeSearchDto> items = page.getItems().stream()
+                .map(this::convertToSearchDto)
+                .collect(Collectors.toList());
+        CollegePageDto dto = new CollegePageDto(items, page.getNextCursor(), page.getTotal());
+        dto.setFacets(page.getFacets());
+        return dto;
+    }
+
     /**
      * Convert College entity to CollegeSearchDto
      */
@@ -0,0 +1,169 @@
+package com.education.education.service;
+
+import com.education.education.dto.QuizQuestionDto;
+import com.education.education.entity.Quiz;
+import com.education.education.entity.QuizQuestion;
+import com.education.education.repository.QuizQuestionRepository;
+import com.education.education.repository.QuizRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Question bank (quiz_questions), the source of truth for a quiz's questions.
+ * Every write of a quiz's questions replaces its bank rows and moves the quiz
+ * to a new version (updatedAt), which is what the compiled answer keys and
+ * delivery payloads are keyed on. The old questions JSON is only read once,
+ * to migrate quizzes that predate the bank.
+ */
+@Service
+@Transactional
+public class QuestionBankService {
+
+    private static final int MAX_PAGE_SIZE = 100;
+
+    @Autowired
+    private QuizQuestionRepository quizQuestionRepository;
+
+    @Autowired
+    private QuizRepository quizRepository;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    /**
+     * Get one page of a quiz's questions, optionally limited to a category
+     */
+    @Transactional(readOnly = true)
+    public Page<QuizQuestionDto> getQuestions(Long quizId, String category, int page, int size) {
+        PageRequest pageRequest = PageRequest.of(Math.max(page, 0), Math.min(Math.max(size, 1), MAX_PAGE_SIZE));
+
+        Page<QuizQuestion> questions = category == null || category.isBlank()
+                ? quizQuestionRepository.findByQuizQuizIdOrderByDisplayOrderAsc(quizId, pageRequest)
+                : quizQuestionRepository.findByQuizQuizIdAndCategoryOrderByDisplayOrderAsc(quizId,
+                        category.trim().toLowerCase(), pageRequest);
+
+        return questions.map(this::convertToDto);
+    }
+
+    /**
+     * Get all of a quiz's questions in display order
+     */
+    @Transactional(readOnly = true)
+    public List<QuizQuestionDto> getAllQuestions(Long quizId) {
+        List<QuizQuestion> questions = quizQuestionRepository.findByQuizQuizIdOrderByDisplayOrderAsc(quizId);
+        List<QuizQuestionDto> dtos = new ArrayList<>(questions.size());
+        for (QuizQuestion question : questions) {
+            dtos.add(convertToDto(question));
+        }
+        return dtos;
+    }
+
+    /**
+     * Number of questions in a quiz's bank
+     */
+    @Transactional(readOnly = true)
+    public long countQuestions(Long quizId) {
+        return quizQuestionRepository.countByQuizQuizId(quizId);
+    }
+
+    /**
+     * Replace a quiz's questions and move the quiz to a new version. Takes
+     * an array of question objects (id, category, question, options,
+     * correctAnswer, points and, if calibrated, difficulty and discrimination).
+     */
+    public int replaceQuestions(Long quizId, JsonNode questionsNode) {
+        // Held until commit, so concurrent writers of one quiz (here or on another instance) take turns
+        quizQuestionRepository.lockQuizBank(quizId);
+        Quiz quiz = quizRepository.findById(quizId)
+                .orElseThrow(() -> new RuntimeException("Quiz not found with ID: " + quizId));
+        int written = writeQuestions(quiz, questionsNode);
+        quizRepository.touch(quizId, LocalDateTime.now());
+        return written;
+    }
+
+    /**
+     * Move the questions JSON of quizzes that predate the question bank into
+     * quiz_questions and clear it, so the bank rows are all that is left.
+     * The JSON was authoritative until then, so it replaces any rows an
+     * earlier sync copied from it.
+     */
+    public int migrateLegacyQuestions() {
+        int imported = 0;
+        for (Long quizId : quizRepository.findQuizIdsWithQuestionsJson()) {
+            quizQuestionRepository.lockQuizBank(quizId);
+            Quiz quiz = quizRepository.findById(quizId).orElse(null);
+            if (quiz == null || quiz.getQuestionsJson() == null) {
+                continue; // Migrated by another instance meanwhile
+            }
+            try {
+                imported += writeQuestions(quiz, objectMapper.readTree(quiz.getQuestionsJson()));
+            } catch (JsonProcessingException e) {
+                throw new RuntimeException("Error processing quiz data: " + e.getMessage());
+            }
+            quizRepository.clearQuestionsJson(quizId, LocalDateTime.now());
+        }
+        return imported;
+    }
+
+    private int writeQuestions(Quiz quiz, JsonNode questionsNode) {
+        quizQuestionRepository.deleteByQuizId(quiz.getQuizId());
+        quizQuestionRepository.flush(); // Free the (quiz, number) keys before re-inserting
+        if (questionsNode == null || !questionsNode.isArray()) {
+            return 0;
+        }
+
+        try {
+            List<QuizQuestion> questions = new ArrayList<>(questionsNode.size());
+            int order = 0;
+            for (JsonNode questionNode : questionsNode) {
+                QuizQuestion question = new QuizQuestion(
+                        quiz,
+                        questionNode.get("id").asInt(),
+                        questionNode.get("category").asText().toLowerCase(),
+                        questionNode.path("question").asText(null),
+                        questionNode.has("options") ? objectMapper.writeValueAsString(questionNode.get("options"))
+                                : null,
+                        questionNode.get("correctAnswer").asText(),
+                        questionNode.has("points") ? questionNode.get("points").asInt() : 1,
+                        order++);
+                // Calibrated item parameters, if given
+                if (questionNode.has("difficulty")) {
+                    question.setDifficulty(questionNode.get("difficulty").asDouble());
+                }
+                if (questionNode.has("discrimination")) {
+                    question.setDiscrimination(questionNode.get("discrimination").asDouble());
+                }
+                questions.add(question);
+            }
+            quizQuestionRepository.saveAll(questions);
+            return questions.size();
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException("Error processing quiz data: " + e.getMessage());
+        }
+    }
+
+    private QuizQuestionDto convertToDto(QuizQuestion question) {
+        Map<String, String> options = null;
+        if (question.getOptionsJson() != null) {
+            try {
+                options = objectMapper.readValue(question.getOptionsJson(), new TypeReference<Map<String, String>>() {
+                });
+            } catch (JsonProcessingException e) {
+                throw new RuntimeException("Error processing question options: " + e.getMessage());
+            }
+        }
+        return new QuizQuestionDto(question.getQuestionNumber(), question.getCategory(), question.getQuestionText(),
+                options, question.getPoints());
+    }
+}
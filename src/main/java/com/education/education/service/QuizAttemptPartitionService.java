@@ -0,0 +1,134 @@
+package com.education.education.service;
+
+import com.education.education.dto.QuizHistoryItemDto;
+import com.education.education.repository.QuizAttemptPartitionRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.core.annotation.Order;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Keeps quiz_attempts partitioned by month (quiz.partitioning.enabled, off
+ * by default): converts the table on the first start with it on (locking and
+ * rewriting quiz_attempts, so plan it as a migration), keeps partitions created a few months
+ * ahead, and moves partitions older than the archive age into
+ * quiz_attempts_archive. Reads of live attempts are bounded by
+ * {@link #recentSince()}, which follows the partitions that actually remain
+ * rather than the calendar, so nothing is hidden before it is archived.
+ */
+@Service
+@Order(0)
+public class QuizAttemptPartitionService implements CommandLineRunner {
+
+    private static final LocalDateTime UNBOUNDED = LocalDateTime.of(1970, 1, 1, 0, 0);
+
+    @Value("${quiz.partitioning.enabled:false}")
+    private boolean enabled;
+
+    @Value("${quiz.partitioning.months-ahead:3}")
+    private int monthsAhead;
+
+    @Value("${quiz.partitioning.archive-after-months:12}")
+    private int archiveAfterMonths;
+
+    @Autowired
+    private QuizAttemptPartitionRepository quizAttemptPartitionRepository;
+
+    // Start of the oldest month still held in quiz_attempts
+    private volatile LocalDateTime liveSince = UNBOUNDED;
+
+    @Override
+    public void run(String... args) {
+        if (!enabled) {
+            return;
+        }
+        try {
+            if (!quizAttemptPartitionRepository.isPartitioned()) {
+                quizAttemptPartitionRepository.convertToPartitioned(monthsAhead);
+                System.out.println("Converted quiz_attempts to monthly partitions");
+            }
+            quizAttemptPartitionRepository.ensureArchiveTable();
+            maintain();
+        } catch (Exception e) {
+            System.err.println("Error setting up quiz_attempts partitions: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Create upcoming partitions and archive expired ones
+     */
+    @Scheduled(cron = "${quiz.partitioning.maintenance-cron:0 15 3 * * *}")
+    public void maintain() {
+        if (!enabled) {
+            return;
+        }
+        YearMonth now = YearMonth.now();
+        quizAttemptPartitionRepository.ensurePartitions(now, now.plusMonths(monthsAhead));
+        // Give rows that fell outside every partition one of their own, so they get archived too
+        for (YearMonth month : quizAttemptPartitionRepository.listDefaultPartitionMonths()) {
+            quizAttemptPartitionRepository.ensurePartitions(month, month);
+        }
+
+        YearMonth oldestKept = now.minusMonths(archiveAfterMonths);
+        for (YearMonth month : quizAttemptPartitionRepository.listPartitionMonths()) {
+            if (!month.isBefore(oldestKept)) {
+                break;
+            }
+            try {
+                int archived = quizAttemptPartitionRepository.archivePartition(month);
+                System.out.println("Archived " + archived + " quiz attempts from " + month);
+            } catch (Exception e) {
+                System.err.println("Error archiving quiz attempts from " + month + ": " + e.getMessage());
+                break;
+            }
+        }
+        // A stale, older bound only costs a scan of months that are already gone
+        refreshLiveSince();
+    }
+
+    /**
+     * Move the live-read bound to the oldest month left in quiz_attempts,
+     * counting rows still waiting in the default partition; unbounded if that
+     * cannot be read
+     */
+    private void refreshLiveSince() {
+        try {
+            List<YearMonth> months = new ArrayList<>(quizAttemptPartitionRepository.listPartitionMonths());
+            months.addAll(quizAttemptPartitionRepository.listDefaultPartitionMonths());
+            liveSince = months.isEmpty() ? UNBOUNDED : Collections.min(months).atDay(1).atStartOfDay();
+        } catch (Exception e) {
+            liveSince = UNBOUNDED;
+            System.err.println("Error reading quiz_attempts partitions: " + e.getMessage());
+        }
+    }
+
+    /**
+     * A user's archived attempts older than (beforeTime, beforeId), all when
+     * beforeTime is null; newest first, at most limit (0 for all). Empty
+     * when partitioning is off, as nothing is ever archived then.
+     */
+    public List<QuizHistoryItemDto> archivedHistory(Long userId, LocalDateTime beforeTime, Long beforeId, int limit) {
+        if (!enabled) {
+            return List.of();
+        }
+        return quizAttemptPartitionRepository.findArchivedHistory(userId, beforeTime, beforeId, limit);
+    }
+
+    /**
+     * Lower bound for reads of live attempts: the start of the oldest month
+     * that has not been archived, as of the last maintenance run (no bound
+     * when partitioning is off or before the first run). Archiving moves it
+     * only after a month has left quiz_attempts.
+     */
+    public LocalDateTime recentSince() {
+        return enabled ? liveSince : UNBOUNDED;
+    }
+}
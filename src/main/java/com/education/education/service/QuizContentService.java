@@ -0,0 +1,155 @@
+package com.education.education.service;
+
+import com.education.education.dto.QuizQuestionDto;
+import com.education.education.entity.Quiz;
+import com.education.education.repository.QuizRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Quiz delivery payloads: the questions of a quiz without answer keys,
+ * serialized and gzipped once per quiz version. A version's bytes never
+ * change, so they can be cached by browsers, proxies and CDNs indefinitely.
+ */
+@Service
+public class QuizContentService {
+
+    @Autowired
+    private QuizRepository quizRepository;
+
+    @Autowired
+    private QuestionBankService questionBankService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private final Map<Long, QuizContent> cache = new ConcurrentHashMap<>();
+
+    /**
+     * Get the payload of the current version of a quiz
+     */
+    public QuizContent getCurrentContent(Long quizId) {
+        QuizRepository.QuizHeader header = quizRepository.findHeaderByQuizId(quizId)
+                .orElseThrow(() -> new RuntimeException("Quiz not found with ID: " + quizId));
+        String version = versionOf(header.getUpdatedAt());
+
+        QuizContent content = cache.get(quizId);
+        if (content != null && content.getVersion().equals(version)) {
+            return content;
+        }
+
+        Quiz quiz = quizRepository.findById(quizId)
+                .orElseThrow(() -> new RuntimeException("Quiz not found with ID: " + quizId));
+        content = build(quiz);
+        cache.put(quizId, content);
+        return content;
+    }
+
+    /**
+     * Get the payload of a specific quiz version, or null if that version is no longer current
+     */
+    public QuizContent getContent(Long quizId, String version) {
+        QuizContent content = getCurrentContent(quizId);
+        return content.getVersion().equals(version) ? content : null;
+    }
+
+    /**
+     * Version token of a quiz, derived from its updatedAt timestamp
+     */
+    public static String versionOf(LocalDateTime updatedAt) {
+        if (updatedAt == null) {
+            return "0";
+        }
+        long micros = ChronoUnit.MICROS.between(LocalDateTime.ofEpochSecond(0, 0, ZoneOffset.UTC), updatedAt);
+        return Long.toString(micros, 36);
+    }
+
+    private QuizContent build(Quiz quiz) {
+        String version = versionOf(quiz.getUpdatedAt());
+
+        ObjectNode root = objectMapper.createObjectNode();
+        root.put("quizId", quiz.getQuizId());
+        root.put("version", version);
+        root.put("title", quiz.getTitle());
+        root.put("description", quiz.getDescription());
+        root.put("targetClass", quiz.getTargetClass());
+
+        try {
+            ArrayNode questions = root.putArray("questions");
+            for (QuizQuestionDto question : questionBankService.getAllQuestions(quiz.getQuizId())) {
+                questions.add(objectMapper.valueToTree(question));
+            }
+
+            byte[] json = objectMapper.writeValueAsBytes(root);
+            return new QuizContent(quiz.getQuizId(), version, json, gzip(json));
+        } catch (IOException e) {
+            throw new RuntimeException("Error processing quiz data: " + e.getMessage());
+        }
+    }
+
+    private static byte[] gzip(byte[] data) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(data.length / 4 + 64);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(data);
+        }
+        return out.toByteArray();
+    }
+
+    /**
+     * Drop the cached payload of a quiz
+     */
+    public void invalidate(Long quizId) {
+        cache.remove(quizId);
+    }
+
+    /**
+     * Serialized payload of one quiz version
+     */
+    public static final class QuizContent {
+        private final Long quizId;
+        private final String version;
+        private final String eTag;
+        private final byte[] json;
+        private final byte[] gzipped;
+
+        QuizContent(Long quizId, String version, byte[] json, byte[] gzipped) {
+            this.quizId = quizId;
+            this.version = version;
+            this.eTag = "\"" + quizId + "-" + version + "\"";
+            this.json = json;
+            this.gzipped = gzipped;
+        }
+
+        public Long getQuizId() {
+            return quizId;
+        }
+
+        public String getVersion() {
+            return version;
+        }
+
+        public String getETag() {
+            return eTag;
+        }
+
+        public byte[] getJson() {
+            return json;
+        }
+
+        public byte[] getGzipped() {
+            return gzipped;
+        }
+    }
+}
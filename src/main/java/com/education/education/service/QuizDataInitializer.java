@@ -2,6 +2,7 @@ package com.education.education.service;
 
 import com.education.education.entity.Quiz;
 import com.education.education.repository.QuizRepository;
+import com.education.education.repository.QuizStatsRollupRepository;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.CommandLineRunner;
@@ -18,6 +19,12 @@ public class QuizDataInitializer implements CommandLineRunner {
     @Autowired
     private QuizRepository quizRepository;
 
+    @Autowired
+    private QuestionBankService questionBankService;
+
+    @Autowired
+    private QuizStatsRollupRepository quizStatsRollupRepository;
+
     private final ObjectMapper objectMapper = new ObjectMapper();
 
     @Override
@@ -28,6 +35,18 @@ public class QuizDataInitializer implements CommandLineRunner {
             initializeInterestQuiz();
             System.out.println("Sample quiz data initialized successfully!");
         }
+
+        // One-time move of quizzes still holding a questions JSON into the question bank
+        int imported = questionBankService.migrateLegacyQuestions();
+        if (imported > 0) {
+            System.out.println("Migrated " + imported + " questions into the question bank");
+        }
+
+        // Build stats rollups for attempts recorded before the rollup existed
+        if (quizStatsRollupRepository.needsRebuild()) {
+            int users = quizStatsRollupRepository.rebuildMissing();
+            System.out.println("Built quiz stats rollups for " + users + " users");
+        }
     }
 
     /**
@@ -83,15 +102,14 @@ public class QuizDataInitializer implements CommandLineRunner {
                         "Control Processing Unit" },
                 "A", 2));
 
-        String questionsJson = objectMapper.writeValueAsString(questions);
-
         Quiz aptitudeQuiz = new Quiz(
                 "General Aptitude Assessment",
                 "This quiz assesses your mathematical, verbal, analytical, and technical aptitude to recommend suitable academic streams.",
-                questionsJson,
+                null,
                 "12th");
 
-        quizRepository.save(aptitudeQuiz);
+        aptitudeQuiz = quizRepository.save(aptitudeQuiz);
+        questionBankService.replaceQuestions(aptitudeQuiz.getQuizId(), objectMapper.valueToTree(questions));
     }
 
     /**
@@ -140,15 +158,14 @@ public class QuizDataInitializer implements CommandLineRunner {
                         "Solving real-world problems", "Building successful ventures" },
                 "A", 3));
 
-        String questionsJson = objectMapper.writeValueAsString(questions);
-
         Quiz interestQuiz = new Quiz(
                 "Career Interest Assessment",
                 "This quiz helps identify your interests and preferences to suggest the most suitable academic stream and career path.",
-                questionsJson,
+                null,
                 "12th");
 
-        quizRepository.save(interestQuiz);
+        interestQuiz = quizRepository.save(interestQuiz);
+        questionBankService.replaceQuestions(interestQuiz.getQuizId(), objectMapper.valueToTree(questions));
     }
 
     /**
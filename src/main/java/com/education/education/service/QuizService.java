@@ -1,26 +1,62 @@
 package com.education.education.service;
 
+import com.education.education.dto.QuizBatchResultDto;
+import com.education.education.dto.QuizBatchSubmissionDto;
+import com.education.education.dto.QuizHistoryItemDto;
 import com.education.education.dto.QuizResultDto;
 import com.education.education.dto.QuizSubmissionDto;
+import com.education.education.dto.QuizSummaryDto;
 import com.education.education.entity.Quiz;
 import com.education.education.entity.QuizAttempt;
 import com.education.education.entity.User;
+import com.education.education.entity.UserQuizStats;
+import com.education.education.entity.UserQuizStatsByQuiz;
+import com.education.education.repository.QuizAttemptBatchRepository;
 import com.education.education.repository.QuizAttemptRepository;
 import com.education.education.repository.QuizRepository;
+import com.education.education.repository.QuizStatsRollupRepository;
+import com.education.education.repository.UserQuizStatsByQuizRepository;
+import com.education.education.repository.UserQuizStatsRepository;
 import com.education.education.repository.UserRepository;
+import com.education.education.service.codec.AnswerCodec;
+import com.education.education.service.codec.StreamCodec;
+import com.education.education.service.leaderboard.LeaderboardService;
+import com.education.education.service.percentile.PercentileService;
+import com.education.education.service.scoring.AptitudeCategory;
+import com.education.education.service.scoring.CompiledQuiz;
+import com.education.education.service.scoring.CompiledQuizCache;
+import com.education.education.service.scoring.ScoreCard;
+import com.education.education.service.scoring.ScoringKernel;
+import com.education.education.service.scoring.StreamScoringModel;
+import com.education.education.service.writebehind.AttemptWriteBehind;
 import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
-
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
 import java.util.*;
+import java.util.stream.IntStream;
 
 @Service
 @Transactional
 public class QuizService {
 
+    private static final int MAX_HISTORY_PAGE_SIZE = 100;
+
     @Autowired
     private QuizRepository quizRepository;
 
@@ -30,6 +66,42 @@ public class QuizService {
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private CompiledQuizCache compiledQuizCache;
+
+    @Autowired
+    private QuizAttemptBatchRepository quizAttemptBatchRepository;
+
+    @Autowired
+    private StreamScoringModel streamScoringModel;
+
+    @Autowired
+    private QuizStatsRollupRepository quizStatsRollupRepository;
+
+    @Autowired
+    private AttemptWriteBehind attemptWriteBehind;
+
+    @Autowired
+    private UserQuizStatsRepository userQuizStatsRepository;
+
+    @Autowired
+    private UserQuizStatsByQuizRepository userQuizStatsByQuizRepository;
+
+    @Autowired
+    private QuizAttemptPartitionService quizAttemptPartitionService;
+
+    @Autowired
+    private PercentileService percentileService;
+
+    @Autowired
+    private LeaderboardService leaderboardService;
+
+    @Value("${quiz.batch.max-size:1000}")
+    private int batchMaxSize;
+
+    @Value("${quiz.batch.jdbc-batch-size:100}")
+    private int jdbcBatchSize;
+
     private final ObjectMapper objectMapper = new ObjectMapper();
 
     /**
@@ -39,6 +111,34 @@ public class QuizService {
         return quizRepository.findQuizzesForClass(classLevel);
     }
 
+    /**
+     * Get catalog summaries of the quizzes available for a class level
+     */
+    public List<QuizSummaryDto> getQuizCatalog(String classLevel) {
+        List<QuizSummaryDto> catalog = quizRepository.findQuizSummariesForClass(classLevel);
+        for (QuizSummaryDto summary : catalog) {
+            summary.setContentVersion(QuizContentService.versionOf(summary.getVersion()));
+        }
+        return catalog;
+    }
+
+    /**
+     * Strong ETag for a catalog listing; changes whenever a quiz is added,
+     * removed, edited or its question count changes
+     */
+    public String getCatalogETag(List<QuizSummaryDto> catalog) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            for (QuizSummaryDto summary : catalog) {
+                digest.update((summary.getQuizId() + ":" + summary.getVersion() + ":" + summary.getQuestionCount()
+                        + ";").getBytes(StandardCharsets.UTF_8));
+            }
+            return "\"" + HexFormat.of().formatHex(digest.digest(), 0, 16) + "\"";
+        } catch (NoSuchAlgorithmException e) {
+            throw new RuntimeException("Error computing catalog ETag: " + e.getMessage());
+        }
+    }
+
     /**
      * Get quiz by ID
      */
@@ -51,279 +151,364 @@ public class QuizService {
      * Submit quiz and calculate results with stream recommendation
      */
     public QuizResultDto submitQuiz(Long userId, QuizSubmissionDto submission) {
-        try {
-            Quiz quiz = getQuizById(submission.getQuizId());
+        // Compiled answer key, built once per quiz version from the question bank
+        CompiledQuiz compiledQuiz = getCompiledQuiz(submission.getQuizId());
+
+        // Calculate scores
+        ScoreCard scoreResult = calculateScores(submission, compiledQuiz);
+
+        return recordResult(userId, compiledQuiz, scoreResult, submission.getAnswers());
+    }
+
+    /**
+     * Compiled answer key of a quiz
+     */
+    public CompiledQuiz getCompiledQuiz(Long quizId) {
+        if (quizId == null) {
+            throw new RuntimeException("Quiz ID is required");
+        }
+        return compiledQuizCache.get(quizId);
+    }
 
-            // Parse quiz questions from JSON
-            JsonNode questionsNode = objectMapper.readTree(quiz.getQuestionsJson());
+    /**
+     * Turn an already computed score into a result: generate recommendations and,
+     * for authenticated users, save the attempt
+     */
+    public QuizResultDto recordResult(Long userId, CompiledQuiz quiz, ScoreCard scoreResult,
+            List<QuizSubmissionDto.QuizAnswerDto> answers) {
+        // Generate stream recommendations
+        List<String> recommendedStreams = generateStreamRecommendations(scoreResult);
+
+        // If user is authenticated, save to database and get user location for college
+        // recommendations
+        if (userId != null) {
+            User user = userRepository.findById(userId)
+                    .orElseThrow(() -> new RuntimeException("User not found"));
+
+            // Generate college recommendations based on score and user location
+            List<String> recommendedColleges = generateCollegeRecommendations(scoreResult.getTotalScore(),
+                    user.getDistrict());
+
+            // Save quiz attempt; reference only, the attempt needs the foreign key, not the quiz row
+            Quiz quizRef = quizRepository.getReferenceById(quiz.getQuizId());
+            QuizAttempt attempt = newAttempt(user, quizRef, answers, scoreResult.getTotalScore(),
+                    recommendedStreams);
+
+            // Write-behind: journal now, insert later; the attempt id is not known yet
+            attempt.setTimestamp(LocalDateTime.now());
+            if (!attemptWriteBehind.submit(attempt)) {
+                attempt = quizAttemptRepository.save(attempt);
+                quizStatsRollupRepository.record(attempt);
+            }
+            afterCommit(() -> {
+                percentileService.record(quiz.getQuizId(), scoreResult);
+                leaderboardService.record(user, quiz.getQuizId(), scoreResult.getTotalScore());
+            });
+
+            // Create result DTO
+            QuizResultDto result = createQuizResultDto(attempt, quiz, scoreResult, recommendedStreams);
+            result.setRecommendedColleges(recommendedColleges);
+            setPercentiles(result, quiz, scoreResult);
+            return result;
+        } else {
+            // For guest users, return results without saving to database
+            List<String> recommendedColleges = generateCollegeRecommendations(scoreResult.getTotalScore(), "Unknown");
 
-            // Calculate scores
-            ScoreCalculationResult scoreResult = calculateScores(submission, questionsNode);
+            // Create result DTO for guest
+            QuizResultDto result = new QuizResultDto(
+                    null, // No attempt ID for guests
+                    quiz.getQuizId(),
+                    quiz.getTitle(),
+                    scoreResult.getTotalScore(),
+                    scoreResult.getMaxScore(),
+                    java.time.LocalDateTime.now());
+
+            // Set detailed breakdown
+            result.setScoreBreakdown(createScoreBreakdown(scoreResult));
+            result.setRecommendedStreams(recommendedStreams);
+            result.setRecommendedColleges(recommendedColleges);
+            setPercentiles(result, quiz, scoreResult);
+
+            return result;
+        }
+    }
+
+    /**
+     * Run an in-memory update once the current transaction commits, so a
+     * rollback leaves no trace of it; right away outside a transaction
+     */
+    private void afterCommit(Runnable update) {
+        if (!TransactionSynchronizationManager.isActualTransactionActive()
+                || !TransactionSynchronizationManager.isSynchronizationActive()) {
+            update.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                update.run();
+            }
+        });
+    }
+
+    /**
+     * Submit many quizzes at once (classroom upload / offline sync).
+     * Items are scored in parallel and attempts are written in JDBC batches;
+     * a failing item is reported in its result without failing the others.
+     * Items naming another user's id fail unless the uploader is an admin.
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public QuizBatchResultDto submitQuizBatch(Long uploaderId, List<QuizBatchSubmissionDto.BatchItemDto> items) {
+        if (items == null || items.isEmpty()) {
+            throw new RuntimeException("No submissions provided");
+        }
+        if (items.size() > batchMaxSize) {
+            throw new RuntimeException("Batch too large: " + items.size() + " submissions (max " + batchMaxSize + ")");
+        }
 
-            // Generate stream recommendations
-            List<String> recommendedStreams = generateStreamRecommendations(scoreResult);
+        int count = items.size();
+        QuizBatchResultDto.ItemResultDto[] results = new QuizBatchResultDto.ItemResultDto[count];
 
-            // If user is authenticated, save to database and get user location for college
-            // recommendations
+        // Load every referenced quiz and user once
+        Set<Long> quizIds = new HashSet<>();
+        Set<Long> userIds = new HashSet<>();
+        for (QuizBatchSubmissionDto.BatchItemDto item : items) {
+            if (item == null) {
+                continue;
+            }
+            if (item.getQuizId() != null) {
+                quizIds.add(item.getQuizId());
+            }
+            Long userId = item.getUserId() != null ? item.getUserId() : uploaderId;
             if (userId != null) {
-                User user = userRepository.findById(userId)
-                        .orElseThrow(() -> new RuntimeException("User not found"));
+                userIds.add(userId);
+            }
+        }
+        Map<Long, CompiledQuiz> quizzes = new HashMap<>();
+        Map<Long, Quiz> quizRefs = new HashMap<>();
+        for (Long quizId : quizIds) {
+            try {
+                quizzes.put(quizId, compiledQuizCache.get(quizId));
+                quizRefs.put(quizId, quizRepository.getReferenceById(quizId));
+            } catch (RuntimeException e) {
+                // Reported per item below
+            }
+        }
+        if (uploaderId != null) {
+            userIds.add(uploaderId);
+        }
+        Map<Long, User> users = new HashMap<>();
+        for (User user : userRepository.findAllById(userIds)) {
+            users.put(user.getUserId(), user);
+        }
+        // Only admins may upload attempts on behalf of other users
+        User uploader = uploaderId != null ? users.get(uploaderId) : null;
+        boolean mayActForOthers = uploader != null && (uploader.getRole() == User.UserRole.ADMIN
+                || uploader.getRole() == User.UserRole.SUPER_ADMIN);
+
+        // Score in parallel; each slot is written by exactly one task
+        QuizAttempt[] attempts = new QuizAttempt[count];
+        ScoreCard[] scoreCards = new ScoreCard[count];
+        CompiledQuiz[] compiledQuizzes = new CompiledQuiz[count];
+        List<List<String>> streams = new ArrayList<>(Collections.nCopies(count, null));
+        LocalDateTime submittedAt = LocalDateTime.now();
+
+        IntStream.range(0, count).parallel().forEach(i -> {
+            QuizBatchSubmissionDto.BatchItemDto item = items.get(i);
+            String clientRef = item != null ? item.getClientRef() : null;
+            try {
+                if (item == null) {
+                    throw new RuntimeException("Empty submission");
+                }
+                CompiledQuiz quiz = quizzes.get(item.getQuizId());
+                if (quiz == null) {
+                    throw new RuntimeException("Quiz not found with ID: " + item.getQuizId());
+                }
+                Long userId = item.getUserId() != null ? item.getUserId() : uploaderId;
+                if (userId != null && !userId.equals(uploaderId) && !mayActForOthers) {
+                    throw new RuntimeException("Not allowed to submit for user ID: " + userId);
+                }
+                User user = userId != null ? users.get(userId) : null;
+                if (userId != null && user == null) {
+                    throw new RuntimeException("User not found with ID: " + userId);
+                }
 
-                // Generate college recommendations based on score and user location
-                List<String> recommendedColleges = generateCollegeRecommendations(scoreResult.totalScore,
-                        user.getDistrict());
+                ScoreCard scoreResult = calculateScores(item, quiz);
+                List<String> recommendedStreams = generateStreamRecommendations(scoreResult);
+
+                if (user == null) {
+                    // Guest items are scored but not stored, as with single submissions
+                    QuizResultDto result = new QuizResultDto(null, quiz.getQuizId(), quiz.getTitle(),
+                            scoreResult.getTotalScore(), scoreResult.getMaxScore(), submittedAt);
+                    result.setScoreBreakdown(createScoreBreakdown(scoreResult));
+                    result.setRecommendedStreams(recommendedStreams);
+                    result.setRecommendedColleges(
+                            generateCollegeRecommendations(scoreResult.getTotalScore(), "Unknown"));
+                    setPercentiles(result, quiz, scoreResult);
+                    results[i] = QuizBatchResultDto.ItemResultDto.success(i, clientRef, result);
+                    return;
+                }
 
-                // Save quiz attempt
-                String answersJson = objectMapper.writeValueAsString(submission.getAnswers());
-                String streamsJson = objectMapper.writeValueAsString(recommendedStreams);
+                QuizAttempt attempt = newAttempt(user, quizRefs.get(quiz.getQuizId()), item.getAnswers(),
+                        scoreResult.getTotalScore(), recommendedStreams);
+                attempt.setTimestamp(submittedAt);
+                attempts[i] = attempt;
+                scoreCards[i] = scoreResult;
+                compiledQuizzes[i] = quiz;
+                streams.set(i, recommendedStreams);
+            } catch (RuntimeException e) {
+                results[i] = QuizBatchResultDto.ItemResultDto.failure(i, clientRef, e.getMessage());
+            }
+        });
 
-                QuizAttempt attempt = new QuizAttempt(user, quiz, answersJson, scoreResult.totalScore, streamsJson);
-                attempt = quizAttemptRepository.save(attempt);
+        // Persist scored attempts chunk by chunk; a failed chunk only fails its own items
+        List<Integer> pending = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            if (attempts[i] != null) {
+                pending.add(i);
+            }
+        }
+        int chunkSize = Math.max(1, jdbcBatchSize);
+        for (int from = 0; from < pending.size(); from += chunkSize) {
+            List<Integer> chunk = pending.subList(from, Math.min(from + chunkSize, pending.size()));
+            List<QuizAttempt> chunkAttempts = new ArrayList<>(chunk.size());
+            for (int i : chunk) {
+                chunkAttempts.add(attempts[i]);
+            }
 
-                // Create result DTO
-                QuizResultDto result = createQuizResultDto(attempt, quiz, scoreResult, recommendedStreams);
-                result.setRecommendedColleges(recommendedColleges);
-                return result;
-            } else {
-                // For guest users, return results without saving to database
-                List<String> recommendedColleges = generateCollegeRecommendations(scoreResult.totalScore, "Unknown");
-
-                // Create result DTO for guest
-                QuizResultDto result = new QuizResultDto(
-                        null, // No attempt ID for guests
-                        quiz.getQuizId(),
-                        quiz.getTitle(),
-                        scoreResult.totalScore,
-                        scoreResult.maxScore,
-                        java.time.LocalDateTime.now());
-
-                // Set detailed breakdown
-                QuizResultDto.ScoreBreakdown breakdown = new QuizResultDto.ScoreBreakdown(
-                        scoreResult.mathematicalScore,
-                        scoreResult.verbalScore,
-                        scoreResult.analyticalScore,
-                        scoreResult.technicalScore);
-                result.setScoreBreakdown(breakdown);
-                result.setRecommendedStreams(recommendedStreams);
-                result.setRecommendedColleges(recommendedColleges);
-
-                return result;
+            try {
+                quizAttemptBatchRepository.insertAll(chunkAttempts);
+            } catch (DataAccessException e) {
+                for (int i : chunk) {
+                    results[i] = QuizBatchResultDto.ItemResultDto.failure(i, items.get(i).getClientRef(),
+                            "Error saving quiz attempt: " + e.getMostSpecificCause().getMessage());
+                }
+                continue;
             }
 
-        } catch (JsonProcessingException e) {
-            throw new RuntimeException("Error processing quiz data: " + e.getMessage());
+            for (int i : chunk) {
+                percentileService.record(compiledQuizzes[i].getQuizId(), scoreCards[i]);
+                leaderboardService.record(attempts[i].getUser(), compiledQuizzes[i].getQuizId(),
+                        scoreCards[i].getTotalScore());
+            }
+            for (int i : chunk) {
+                QuizAttempt attempt = attempts[i];
+                QuizResultDto result = createQuizResultDto(attempt, compiledQuizzes[i], scoreCards[i],
+                        streams.get(i));
+                setPercentiles(result, compiledQuizzes[i], scoreCards[i]);
+                result.setRecommendedColleges(generateCollegeRecommendations(scoreCards[i].getTotalScore(),
+                        attempt.getUser().getDistrict()));
+                results[i] = QuizBatchResultDto.ItemResultDto.success(i, items.get(i).getClientRef(), result);
+            }
         }
+
+        return new QuizBatchResultDto(Arrays.asList(results));
+    }
+
+    /**
+     * New attempt with answers and streams in their binary encodings and the
+     * top stream in its typed columns
+     */
+    static QuizAttempt newAttempt(User user, Quiz quiz, List<QuizSubmissionDto.QuizAnswerDto> answers, int score,
+            List<String> recommendedStreams) {
+        QuizAttempt attempt = new QuizAttempt();
+        attempt.setUser(user);
+        attempt.setQuiz(quiz);
+        attempt.setScore(score);
+        attempt.setAnswersBin(AnswerCodec.encode(answers));
+        attempt.setStreamsBin(StreamCodec.encode(recommendedStreams));
+        attempt.setPrimaryStream(StreamCodec.primaryStream(recommendedStreams));
+        Integer match = StreamCodec.primaryMatch(recommendedStreams);
+        attempt.setPrimaryMatch(match != null ? match.shortValue() : null);
+        return attempt;
     }
 
     /**
      * Helper method to create QuizResultDto from QuizAttempt
+     * (package-private so the benchmarks module can measure it)
      */
-    private QuizResultDto createQuizResultDto(QuizAttempt attempt, Quiz quiz, ScoreCalculationResult scoreResult,
+    QuizResultDto createQuizResultDto(QuizAttempt attempt, CompiledQuiz quiz, ScoreCard scoreResult,
             List<String> recommendedStreams) {
         QuizResultDto result = new QuizResultDto(
                 attempt.getAttemptId(),
                 quiz.getQuizId(),
                 quiz.getTitle(),
-                scoreResult.totalScore,
-                scoreResult.maxScore,
+                scoreResult.getTotalScore(),
+                scoreResult.getMaxScore(),
                 attempt.getTimestamp());
 
         // Set detailed breakdown
-        QuizResultDto.ScoreBreakdown breakdown = new QuizResultDto.ScoreBreakdown(
-                scoreResult.mathematicalScore,
-                scoreResult.verbalScore,
-                scoreResult.analyticalScore,
-                scoreResult.technicalScore);
-        result.setScoreBreakdown(breakdown);
+        result.setScoreBreakdown(createScoreBreakdown(scoreResult));
         result.setRecommendedStreams(recommendedStreams);
 
         return result;
     }
 
     /**
-     * Calculate scores based on quiz answers
+     * Where the result stands among recorded attempts of the quiz
      */
-    private ScoreCalculationResult calculateScores(QuizSubmissionDto submission, JsonNode questionsNode) {
-        int totalScore = 0;
-        int maxScore = 0;
-        int mathematicalScore = 0, verbalScore = 0, analyticalScore = 0, technicalScore = 0;
-        int mathMax = 0, verbalMax = 0, analyticalMax = 0, technicalMax = 0;
-
-        // Create answer map for quick lookup
-        Map<Integer, String> answerMap = new HashMap<>();
-        for (QuizSubmissionDto.QuizAnswerDto answer : submission.getAnswers()) {
-            answerMap.put(answer.getQuestionId(), answer.getSelectedOption());
-        }
-
-        // Process each question
-        if (questionsNode.isArray()) {
-            for (JsonNode questionNode : questionsNode) {
-                int questionId = questionNode.get("id").asInt();
-                String correctAnswer = questionNode.get("correctAnswer").asText();
-                String category = questionNode.get("category").asText();
-                int points = questionNode.has("points") ? questionNode.get("points").asInt() : 1;
-
-                maxScore += points;
-
-                // Categorize max scores
-                switch (category.toLowerCase()) {
-                    case "mathematical":
-                    case "mathematics":
-                    case "numerical":
-                        mathMax += points;
-                        break;
-                    case "verbal":
-                    case "language":
-                    case "english":
-                        verbalMax += points;
-                        break;
-                    case "analytical":
-                    case "logical":
-                    case "reasoning":
-                        analyticalMax += points;
-                        break;
-                    case "technical":
-                    case "science":
-                    case "physics":
-                    case "chemistry":
-                        technicalMax += points;
-                        break;
-                }
+    private void setPercentiles(QuizResultDto result, CompiledQuiz quiz, ScoreCard scoreResult) {
+        Map<String, Double> percentiles = percentileService.percentiles(quiz.getQuizId(), scoreResult);
+        result.setPercentile(percentiles.remove(PercentileService.TOTAL));
+        result.setCategoryPercentiles(percentiles);
+    }
 
-                // Check if answer is correct
-                String userAnswer = answerMap.get(questionId);
-                if (userAnswer != null && userAnswer.equalsIgnoreCase(correctAnswer)) {
-                    totalScore += points;
-
-                    // Add to category scores
-                    switch (category.toLowerCase()) {
-                        case "mathematical":
-                        case "mathematics":
-                        case "numerical":
-                            mathematicalScore += points;
-                            break;
-                        case "verbal":
-                        case "language":
-                        case "english":
-                            verbalScore += points;
-                            break;
-                        case "analytical":
-                        case "logical":
-                        case "reasoning":
-                            analyticalScore += points;
-                            break;
-                        case "technical":
-                        case "science":
-                        case "physics":
-                        case "chemistry":
-                            technicalScore += points;
-                            break;
-                    }
-                }
-            }
-        }
+    /**
+     * Build the per-category breakdown shown with a result
+     */
+    private QuizResultDto.ScoreBreakdown createScoreBreakdown(ScoreCard scoreResult) {
+        return new QuizResultDto.ScoreBreakdown(
+                scoreResult.score(AptitudeCategory.MATHEMATICAL),
+                scoreResult.score(AptitudeCategory.VERBAL),
+                scoreResult.score(AptitudeCategory.ANALYTICAL),
+                scoreResult.score(AptitudeCategory.TECHNICAL));
+    }
 
-        return new ScoreCalculationResult(totalScore, maxScore, mathematicalScore, verbalScore,
-                analyticalScore, technicalScore, mathMax, verbalMax,
-                analyticalMax, technicalMax);
+    /**
+     * Calculate scores based on quiz answers
+     */
+    ScoreCard calculateScores(QuizSubmissionDto submission, CompiledQuiz compiledQuiz) {
+        return ScoringKernel.score(compiledQuiz, submission.getAnswers());
     }
 
     /**
      * Generate stream recommendations based on SIH requirements
-     * Focus: Arts, Science, Commerce streams
+     * Streams and their category weights come from StreamScoringModel
      */
-    private List<String> generateStreamRecommendations(ScoreCalculationResult scores) {
-        List<StreamScore> streamScores = new ArrayList<>();
-
-        // Calculate stream scores based on aptitude
-        double scienceScore = calculateScienceAptitude(scores);
-        double commerceScore = calculateCommerceAptitude(scores);
-        double artsScore = calculateArtsAptitude(scores);
-
-        streamScores.add(new StreamScore("Science", scienceScore));
-        streamScores.add(new StreamScore("Commerce", commerceScore));
-        streamScores.add(new StreamScore("Arts", artsScore));
-
-        // Sort by score (highest first)
-        streamScores.sort((a, b) -> Double.compare(b.score, a.score));
+    List<String> generateStreamRecommendations(ScoreCard scores) {
+        // Category percentages are computed once and shared by all streams
+        double[] percents = StreamScoringModel.percentVector(scores);
 
         List<String> recommendations = new ArrayList<>();
 
         // Add recommendations with detailed explanations
-        for (int i = 0; i < Math.min(2, streamScores.size()); i++) {
-            StreamScore stream = streamScores.get(i);
-            if (stream.score > 0.4) { // Minimum threshold
-                recommendations.add(stream.stream + " (" + Math.round(stream.score * 100) + "% match)");
+        for (StreamScoringModel.StreamMatch stream : streamScoringModel.topMatches(percents, 2)) {
+            if (stream.getScore() > 0.4) { // Minimum threshold
+                recommendations.add(stream.getStream() + " (" + Math.round(stream.getScore() * 100) + "% match)");
             }
         }
 
         // If no strong match, recommend based on highest single aptitude
         if (recommendations.isEmpty()) {
-            String strongestAptitude = findStrongestAptitude(scores);
+            String strongestAptitude = findStrongestAptitude(percents);
             recommendations.add(getDefaultStreamForAptitude(strongestAptitude));
         }
 
         return recommendations;
     }
 
-    /**
-     * Calculate Science stream aptitude (Math + Technical)
-     */
-    private double calculateScienceAptitude(ScoreCalculationResult scores) {
-        double mathPercent = scores.mathMax > 0 ? (double) scores.mathematicalScore / scores.mathMax : 0;
-        double techPercent = scores.technicalMax > 0 ? (double) scores.technicalScore / scores.technicalMax : 0;
-        double analyticalPercent = scores.analyticalMax > 0 ? (double) scores.analyticalScore / scores.analyticalMax
-                : 0;
-
-        // Science = 40% Math + 40% Technical + 20% Analytical
-        return (mathPercent * 0.4) + (techPercent * 0.4) + (analyticalPercent * 0.2);
-    }
-
-    /**
-     * Calculate Commerce stream aptitude (Math + Analytical + Verbal)
-     */
-    private double calculateCommerceAptitude(ScoreCalculationResult scores) {
-        double mathPercent = scores.mathMax > 0 ? (double) scores.mathematicalScore / scores.mathMax : 0;
-        double analyticalPercent = scores.analyticalMax > 0 ? (double) scores.analyticalScore / scores.analyticalMax
-                : 0;
-        double verbalPercent = scores.verbalMax > 0 ? (double) scores.verbalScore / scores.verbalMax : 0;
-
-        // Commerce = 30% Math + 40% Analytical + 30% Verbal
-        return (mathPercent * 0.3) + (analyticalPercent * 0.4) + (verbalPercent * 0.3);
-    }
-
-    /**
-     * Calculate Arts stream aptitude (Verbal + Analytical)
-     */
-    private double calculateArtsAptitude(ScoreCalculationResult scores) {
-        double verbalPercent = scores.verbalMax > 0 ? (double) scores.verbalScore / scores.verbalMax : 0;
-        double analyticalPercent = scores.analyticalMax > 0 ? (double) scores.analyticalScore / scores.analyticalMax
-                : 0;
-
-        // Arts = 60% Verbal + 40% Analytical
-        return (verbalPercent * 0.6) + (analyticalPercent * 0.4);
-    }
-
     /**
      * Find strongest aptitude area
      */
-    private String findStrongestAptitude(ScoreCalculationResult scores) {
-        double mathPercent = scores.mathMax > 0 ? (double) scores.mathematicalScore / scores.mathMax : 0;
-        double verbalPercent = scores.verbalMax > 0 ? (double) scores.verbalScore / scores.verbalMax : 0;
-        double analyticalPercent = scores.analyticalMax > 0 ? (double) scores.analyticalScore / scores.analyticalMax
-                : 0;
-        double technicalPercent = scores.technicalMax > 0 ? (double) scores.technicalScore / scores.technicalMax : 0;
-
-        double max = Math.max(Math.max(mathPercent, verbalPercent),
-                Math.max(analyticalPercent, technicalPercent));
-
-        if (max == mathPercent)
-            return "Mathematical";
-        if (max == verbalPercent)
-            return "Verbal";
-        if (max == analyticalPercent)
-            return "Analytical";
-        return "Technical";
+    private String findStrongestAptitude(double[] percents) {
+        // First category wins ties, as in the breakdown's dominant aptitude
+        AptitudeCategory strongest = AptitudeCategory.VALUES[0];
+        for (AptitudeCategory category : AptitudeCategory.VALUES) {
+            if (percents[category.ordinal()] > percents[strongest.ordinal()]) {
+                strongest = category;
+            }
+        }
+        return strongest.getDisplayName();
     }
 
     /**
@@ -369,55 +554,169 @@ public class QuizService {
     }
 
     /**
-     * Get user's quiz history
+     * Get a user's quiz statistics from the rollup, optionally for one quiz.
+     * A single-row read regardless of how many attempts the user has.
+     */
+    @Transactional(readOnly = true)
+    public Map<String, Object> getUserStats(Long userId, Long quizId) {
+        Map<String, Object> stats = new HashMap<>();
+        if (quizId != null) {
+            Optional<UserQuizStatsByQuiz> rollup = userQuizStatsByQuizRepository.findByUserIdAndQuizId(userId, quizId);
+            stats.put("quizId", quizId);
+            if (rollup.isPresent()) {
+                UserQuizStatsByQuiz row = rollup.get();
+                putStats(stats, row.getAttemptCount(), row.getAverageScore(), row.getBestScore(),
+                        row.getLatestScore(), row.getFirstScore(), row.getLatestAt());
+                return stats;
+            }
+        } else {
+            Optional<UserQuizStats> rollup = userQuizStatsRepository.findById(userId);
+            if (rollup.isPresent()) {
+                UserQuizStats row = rollup.get();
+                putStats(stats, row.getAttemptCount(), row.getAverageScore(), row.getBestScore(),
+                        row.getLatestScore(), row.getFirstScore(), row.getLatestAt());
+                return stats;
+            }
+        }
+
+        stats.put("totalQuizzes", 0);
+        stats.put("averageScore", 0);
+        stats.put("bestScore", 0);
+        stats.put("latestScore", 0);
+        stats.put("improvement", 0);
+        return stats;
+    }
+
+    private void putStats(Map<String, Object> stats, Long attemptCount, double averageScore, Integer bestScore,
+            Integer latestScore, Integer firstScore, LocalDateTime latestAt) {
+        // Scores are stored against the default max score of 100, so they read as percentages
+        int best = bestScore != null ? bestScore : 0;
+        int latest = latestScore != null ? latestScore : 0;
+        int first = firstScore != null ? firstScore : 0;
+
+        stats.put("totalQuizzes", attemptCount);
+        stats.put("averageScore", Math.round(averageScore * 100.0) / 100.0);
+        stats.put("bestScore", (double) best);
+        stats.put("latestScore", (double) latest);
+        stats.put("improvement", attemptCount > 1 ? (double) (latest - first) : 0);
+        stats.put("lastAttemptAt", latestAt);
+    }
+
+    /**
+     * Get a user's complete quiz history, newest first, archived attempts included
      */
     public List<QuizResultDto> getUserQuizHistory(Long userId) {
-        List<QuizAttempt> attempts = quizAttemptRepository.findByUserUserIdOrderByTimestampDesc(userId);
-        List<QuizResultDto> results = new ArrayList<>();
+        List<QuizHistoryItemDto> items = new ArrayList<>(quizAttemptRepository.findHistoryByUser(userId,
+                quizAttemptPartitionService.recentSince(), Pageable.unpaged()));
+        items.addAll(quizAttemptPartitionService.archivedHistory(userId, null, null, 0));
+        return toHistoryResults(items);
+    }
+
+    /**
+     * Get one page of a user's quiz history, newest first. The cursor is the
+     * value returned by getHistoryCursor for the last item of the previous
+     * page, or null for the first page. Pages continue into archived attempts
+     * once the live ones run out.
+     */
+    public List<QuizResultDto> getUserQuizHistoryPage(Long userId, String cursor, int limit) {
+        int pageSize = Math.min(Math.max(limit, 1), MAX_HISTORY_PAGE_SIZE);
+        PageRequest page = PageRequest.of(0, pageSize);
+        LocalDateTime beforeTime = null;
+        Long beforeId = null;
+        List<QuizHistoryItemDto> items;
+        if (cursor == null || cursor.isBlank()) {
+            items = new ArrayList<>(
+                    quizAttemptRepository.findHistoryByUser(userId, quizAttemptPartitionService.recentSince(), page));
+        } else {
+            int separator = cursor.lastIndexOf('_');
+            if (separator < 0) {
+                throw new RuntimeException("Invalid history cursor: " + cursor);
+            }
+            try {
+                beforeTime = LocalDateTime.parse(cursor.substring(0, separator));
+                beforeId = Long.parseLong(cursor.substring(separator + 1));
+            } catch (DateTimeParseException | NumberFormatException e) {
+                throw new RuntimeException("Invalid history cursor: " + cursor);
+            }
+            items = new ArrayList<>(quizAttemptRepository.findHistoryByUserBefore(userId,
+                    quizAttemptPartitionService.recentSince(), beforeTime, beforeId, page));
+        }
+
+        // Archived attempts are all older than the live ones
+        if (items.size() < pageSize) {
+            if (!items.isEmpty()) {
+                QuizHistoryItemDto last = items.get(items.size() - 1);
+                beforeTime = last.getTimestamp();
+                beforeId = last.getAttemptId();
+            }
+            items.addAll(quizAttemptPartitionService.archivedHistory(userId, beforeTime, beforeId,
+                    pageSize - items.size()));
+        }
+        return toHistoryResults(items);
+    }
 
-        for (QuizAttempt attempt : attempts) {
+    /**
+     * Keyset cursor pointing just past a history item
+     */
+    public String getHistoryCursor(QuizResultDto item) {
+        return item.getCompletedAt() + "_" + item.getAttemptId();
+    }
+
+    /**
+     * Get a user's most recent quiz result, if any
+     */
+    public Optional<QuizResultDto> getLatestResult(Long userId) {
+        List<QuizResultDto> latest = toHistoryResults(
+                quizAttemptRepository.findHistoryByUser(userId, quizAttemptPartitionService.recentSince(),
+                        PageRequest.of(0, 1)));
+        return latest.isEmpty() ? Optional.empty() : Optional.of(latest.get(0));
+    }
+
+    /**
+     * Get a user's most recent quiz attempt entity, if any
+     */
+    public Optional<QuizAttempt> getLatestAttempt(Long userId) {
+        return quizAttemptRepository.findFirstByUserUserIdAndTimestampGreaterThanEqualOrderByTimestampDescAttemptIdDesc(
+                userId, quizAttemptPartitionService.recentSince());
+    }
+
+    private List<QuizResultDto> toHistoryResults(List<QuizHistoryItemDto> items) {
+        List<QuizResultDto> results = new ArrayList<>(items.size());
+        for (QuizHistoryItemDto item : items) {
             QuizResultDto result = new QuizResultDto(
-                    attempt.getAttemptId(),
-                    attempt.getQuiz().getQuizId(),
-                    attempt.getQuiz().getTitle(),
-                    attempt.getScore(),
+                    item.getAttemptId(),
+                    item.getQuizId(),
+                    item.getQuizTitle(),
+                    item.getScore(),
                     100, // Default max score - should be calculated
-                    attempt.getTimestamp());
+                    item.getTimestamp());
+            result.setRecommendedStreams(item.getStreamsBin() != null
+                    ? StreamCodec.decode(item.getStreamsBin())
+                    : parseStreams(item.getRecommendedStreams()));
             results.add(result);
         }
-
         return results;
     }
 
-    // Helper classes
-    private static class ScoreCalculationResult {
-        int totalScore, maxScore;
-        int mathematicalScore, verbalScore, analyticalScore, technicalScore;
-        int mathMax, verbalMax, analyticalMax, technicalMax;
-
-        ScoreCalculationResult(int totalScore, int maxScore, int mathematicalScore,
-                int verbalScore, int analyticalScore, int technicalScore,
-                int mathMax, int verbalMax, int analyticalMax, int technicalMax) {
-            this.totalScore = totalScore;
-            this.maxScore = maxScore;
-            this.mathematicalScore = mathematicalScore;
-            this.verbalScore = verbalScore;
-            this.analyticalScore = analyticalScore;
-            this.technicalScore = technicalScore;
-            this.mathMax = mathMax;
-            this.verbalMax = verbalMax;
-            this.analyticalMax = analyticalMax;
-            this.technicalMax = technicalMax;
-        }
+    /**
+     * Recommended stream labels of an attempt, from the binary column or, for
+     * attempts stored before it existed, the legacy JSON column
+     */
+    public List<String> getRecommendedStreams(QuizAttempt attempt) {
+        return attempt.getStreamsBin() != null
+                ? StreamCodec.decode(attempt.getStreamsBin())
+                : parseStreams(attempt.getRecommendedStreams());
     }
 
-    private static class StreamScore {
-        String stream;
-        double score;
-
-        StreamScore(String stream, double score) {
-            this.stream = stream;
-            this.score = score;
+    private List<String> parseStreams(String streamsJson) {
+        if (streamsJson == null || streamsJson.isEmpty()) {
+            return new ArrayList<>();
+        }
+        try {
+            return objectMapper.readValue(streamsJson, new TypeReference<List<String>>() {
+            });
+        } catch (JsonProcessingException e) {
+            return new ArrayList<>();
         }
     }
-}
\ No newline at end of file
+}
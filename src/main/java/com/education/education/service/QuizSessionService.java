@@ -0,0 +1,163 @@
+package com.education.education.service;
+
+import com.education.education.dto.QuizResultDto;
+import com.education.education.dto.QuizSessionDto;
+import com.education.education.dto.QuizSubmissionDto;
+import com.education.education.service.scoring.CompiledQuiz;
+import com.education.education.service.session.QuizSession;
+import com.education.education.service.session.TimingWheel;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Incremental quiz sessions: answers are scored as they arrive (start, answer,
+ * finish) so the final submit only turns running totals into a result.
+ * Abandoned sessions are dropped by a timing wheel.
+ */
+@Service
+public class QuizSessionService {
+
+    @Autowired
+    private QuizService quizService;
+
+    @Value("${quiz.session.seconds-per-question:120}")
+    private int secondsPerQuestion;
+
+    @Value("${quiz.session.grace-seconds:60}")
+    private int graceSeconds;
+
+    @Value("${quiz.session.max-active:100000}")
+    private int maxActiveSessions;
+
+    private final Map<String, QuizSession> sessions = new ConcurrentHashMap<>();
+
+    private TimingWheel<String> expiryWheel;
+
+    @PostConstruct
+    public void init() {
+        expiryWheel = new TimingWheel<>("quiz-session-expiry", 1000, 512, this::expire);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        expiryWheel.shutdown();
+    }
+
+    /**
+     * Start a session for a quiz; userId is null for guests
+     */
+    public QuizSessionDto startSession(Long userId, Long quizId) {
+        CompiledQuiz compiledQuiz = quizService.getCompiledQuiz(quizId);
+
+        if (sessions.size() >= maxActiveSessions) {
+            throw new RuntimeException("Too many active quiz sessions, please try again later");
+        }
+
+        long now = System.currentTimeMillis();
+        long deadline = now + (long) compiledQuiz.size() * secondsPerQuestion * 1000;
+        QuizSession session = new QuizSession(UUID.randomUUID().toString(), userId, compiledQuiz, now, deadline,
+                secondsPerQuestion);
+
+        sessions.put(session.getSessionId(), session);
+        expiryWheel.schedule(session.getSessionId(), deadline + graceSeconds * 1000L);
+
+        return toDto(session);
+    }
+
+    /**
+     * Record one or more answers. Answers after the time limit are rejected.
+     */
+    public QuizSessionDto submitAnswers(Long userId, String sessionId, List<QuizSubmissionDto.QuizAnswerDto> answers) {
+        QuizSession session = getSession(userId, sessionId);
+        if (session.isExpired(System.currentTimeMillis())) {
+            throw new RuntimeException("Quiz session time limit exceeded");
+        }
+        if (session.isFinished()) {
+            throw new RuntimeException("Quiz session already finished");
+        }
+
+        if (answers != null) {
+            for (QuizSubmissionDto.QuizAnswerDto answer : answers) {
+                session.answer(answer);
+            }
+        }
+        return toDto(session);
+    }
+
+    /**
+     * Finish the session and produce the result from its running totals
+     */
+    public QuizResultDto finishSession(Long userId, String sessionId) {
+        QuizSession session = getSession(userId, sessionId);
+        if (!session.finish()) {
+            throw new RuntimeException("Quiz session already finished");
+        }
+
+        try {
+            QuizResultDto result = quizService.recordResult(userId, session.getQuiz(), session.toScoreCard(),
+                    session.toAnswers());
+            sessions.remove(sessionId);
+            return result;
+        } catch (RuntimeException e) {
+            // Let the client retry the finish
+            session.reopen();
+            throw e;
+        }
+    }
+
+    /**
+     * Current state of a session
+     */
+    public QuizSessionDto getSessionStatus(Long userId, String sessionId) {
+        return toDto(getSession(userId, sessionId));
+    }
+
+    private QuizSession getSession(Long userId, String sessionId) {
+        QuizSession session = sessions.get(sessionId);
+        if (session == null) {
+            throw new RuntimeException("Quiz session not found or expired: " + sessionId);
+        }
+        if (!Objects.equals(session.getUserId(), userId)) {
+            throw new RuntimeException("Quiz session belongs to another user");
+        }
+        return session;
+    }
+
+    private void expire(String sessionId) {
+        long now = System.currentTimeMillis();
+        sessions.computeIfPresent(sessionId, (id, session) -> {
+            long expiresAt = session.getDeadlineMillis() + graceSeconds * 1000L;
+            if (now >= expiresAt) {
+                return null;
+            }
+            expiryWheel.schedule(id, expiresAt); // Fired early; check again on its own tick
+            return session;
+        });
+    }
+
+    private QuizSessionDto toDto(QuizSession session) {
+        QuizSessionDto dto = new QuizSessionDto();
+        dto.setSessionId(session.getSessionId());
+        dto.setQuizId(session.getQuiz().getQuizId());
+        dto.setQuestionCount(session.getQuiz().size());
+        dto.setAnsweredCount(session.getAnsweredCount());
+        dto.setTimedOutCount(session.getTimedOutCount());
+        dto.setTimeLimitSeconds((int) ((session.getDeadlineMillis() - session.getStartedAtMillis()) / 1000));
+        dto.setMaxSecondsPerQuestion(secondsPerQuestion);
+        dto.setExpiresAt(LocalDateTime.ofInstant(Instant.ofEpochMilli(session.getDeadlineMillis()),
+                ZoneId.systemDefault()));
+        return dto;
+    }
+}
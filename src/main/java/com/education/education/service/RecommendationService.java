@@ -5,10 +5,9 @@ import com.education.education.dto.college.CollegeDetailsDto;
 import com.education.education.entity.College;
 import com.education.education.entity.QuizAttempt;
 import com.education.education.repository.CollegeRepository;
+import com.education.education.service.codec.StreamCodec;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
-import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.ObjectMapper;
 
 import java.util.*;
 import java.util.stream.Collectors;
@@ -48,17 +47,12 @@ public class RecommendationService {
     }
 
     private String determineRecommendedStream(QuizAttempt quizAttempt) {
-        // Parse the recommended streams JSON from quiz attempt
-        try {
-            ObjectMapper mapper = new ObjectMapper();
-            JsonNode streamsNode = mapper.readTree(quizAttempt.getRecommendedStreams());
-
-            if (streamsNode.isArray() && streamsNode.size() > 0) {
-                return streamsNode.get(0).asText(); // Return the top recommended stream
-            }
-        } catch (Exception e) {
-            // If parsing fails, fallback to default logic based on score
-            System.err.println("Error parsing recommended streams: " + e.getMessage());
+        // Top stream is a typed column; older attempts only have the JSON labels
+        String stream = quizAttempt.getPrimaryStream() != null
+                ? quizAttempt.getPrimaryStream()
+                : StreamCodec.primaryStreamFromLegacy(quizAttempt.getRecommendedStreams());
+        if (stream != null && !stream.isEmpty()) {
+            return stream;
         }
 
         // Fallback: Determine stream based on total score distribution
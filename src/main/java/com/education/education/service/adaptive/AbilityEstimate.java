@@ -0,0 +1,73 @@
+package com.education.education.service.adaptive;
+
+/**
+ * Expected a posteriori (EAP) ability estimate for one category. The
+ * log-posterior is kept on a fixed quadrature grid with a standard normal
+ * prior, so each response is an O(grid) update and the estimate stays finite
+ * even when every answer so far is right (or wrong).
+ */
+public class AbilityEstimate {
+
+    private static final int POINTS = 41;
+    private static final double[] NODES = new double[POINTS];
+
+    static {
+        for (int q = 0; q < POINTS; q++) {
+            NODES[q] = -4.0 + q * 0.2;
+        }
+    }
+
+    private final double[] logPosterior = new double[POINTS];
+    private double theta;
+    private double standardError;
+    private int responses;
+
+    public AbilityEstimate() {
+        for (int q = 0; q < POINTS; q++) {
+            logPosterior[q] = -0.5 * NODES[q] * NODES[q];
+        }
+        recompute();
+    }
+
+    /**
+     * Apply one scored response to an item with the given 2PL parameters
+     */
+    public void update(double discrimination, double difficulty, boolean correct) {
+        for (int q = 0; q < POINTS; q++) {
+            double p = 1.0 / (1.0 + Math.exp(-discrimination * (NODES[q] - difficulty)));
+            logPosterior[q] += Math.log(correct ? p : 1 - p);
+        }
+        responses++;
+        recompute();
+    }
+
+    private void recompute() {
+        double max = Double.NEGATIVE_INFINITY;
+        for (double value : logPosterior) {
+            max = Math.max(max, value);
+        }
+
+        double total = 0, mean = 0, square = 0;
+        for (int q = 0; q < POINTS; q++) {
+            double weight = Math.exp(logPosterior[q] - max);
+            total += weight;
+            mean += weight * NODES[q];
+            square += weight * NODES[q] * NODES[q];
+        }
+        mean /= total;
+        this.theta = mean;
+        this.standardError = Math.sqrt(Math.max(square / total - mean * mean, 0));
+    }
+
+    public double getTheta() {
+        return theta;
+    }
+
+    public double getStandardError() {
+        return standardError;
+    }
+
+    public int getResponses() {
+        return responses;
+    }
+}
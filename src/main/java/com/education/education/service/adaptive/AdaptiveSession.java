@@ -0,0 +1,203 @@
+package com.education.education.service.adaptive;
+
+import com.education.education.dto.QuizSubmissionDto;
+import com.education.education.service.scoring.AptitudeCategory;
+import com.education.education.service.scoring.CompiledQuiz;
+import com.education.education.service.scoring.ScoreCard;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * State of an adaptive quiz: one ability estimate per category and the item
+ * currently awaiting an answer. The next item always comes from the least
+ * certain category that has not yet met the stopping rule.
+ */
+public class AdaptiveSession {
+
+    private final String sessionId;
+    private final Long userId;
+    private final ItemBank bank;
+    private final long startedAtMillis;
+    private final long deadlineMillis;
+    private final double targetStandardError;
+    private final int minItemsPerCategory;
+    private final int maxItemsPerCategory;
+
+    private final AbilityEstimate[] estimates = new AbilityEstimate[AptitudeCategory.COUNT];
+    private final int[] itemsAnswered = new int[AptitudeCategory.COUNT];
+    private final boolean[] exhausted = new boolean[AptitudeCategory.COUNT];
+    private final long[] used;
+    private final List<QuizSubmissionDto.QuizAnswerDto> answers = new ArrayList<>();
+
+    private int currentItem = -1;
+    private boolean finished;
+
+    public AdaptiveSession(String sessionId, Long userId, ItemBank bank, long startedAtMillis, long deadlineMillis,
+            double targetStandardError, int minItemsPerCategory, int maxItemsPerCategory) {
+        this.sessionId = sessionId;
+        this.userId = userId;
+        this.bank = bank;
+        this.startedAtMillis = startedAtMillis;
+        this.deadlineMillis = deadlineMillis;
+        this.targetStandardError = targetStandardError;
+        this.minItemsPerCategory = minItemsPerCategory;
+        this.maxItemsPerCategory = maxItemsPerCategory;
+        this.used = new long[(bank.getQuiz().size() + 63) >>> 6];
+        for (int c = 0; c < AptitudeCategory.COUNT; c++) {
+            estimates[c] = new AbilityEstimate();
+        }
+    }
+
+    /**
+     * The item awaiting an answer, choosing one if needed; -1 once the
+     * stopping rule is met for every category
+     */
+    public synchronized int nextItem() {
+        if (currentItem >= 0 || finished) {
+            return finished ? -1 : currentItem;
+        }
+
+        int category = -1;
+        double widest = -1;
+        for (int c = 0; c < AptitudeCategory.COUNT; c++) {
+            if (!isConverged(c) && estimates[c].getStandardError() > widest) {
+                widest = estimates[c].getStandardError();
+                category = c;
+            }
+        }
+        if (category < 0) {
+            return -1;
+        }
+
+        currentItem = bank.nextItem(category, estimates[category].getTheta(), used);
+        if (currentItem < 0) {
+            // No unused item left in the category; stop asking it
+            exhausted[category] = true;
+            return nextItem();
+        }
+        used[currentItem >>> 6] |= 1L << currentItem;
+        return currentItem;
+    }
+
+    /**
+     * Score the answer to the current item and update its category estimate.
+     * Returns false if the answer is not for the item that was asked.
+     */
+    public synchronized boolean answer(QuizSubmissionDto.QuizAnswerDto answer) {
+        if (currentItem < 0 || answer == null || answer.getQuestionId() == null) {
+            return false;
+        }
+        CompiledQuiz quiz = bank.getQuiz();
+        if (quiz.questionId(currentItem) != answer.getQuestionId()) {
+            return false;
+        }
+
+        int category = quiz.categoryCode(currentItem);
+        estimates[category].update(quiz.discrimination(currentItem), quiz.difficulty(currentItem),
+                quiz.isCorrect(currentItem, answer.getSelectedOption()));
+        itemsAnswered[category]++;
+        answers.add(answer);
+        currentItem = -1;
+        return true;
+    }
+
+    /**
+     * A category stops once its estimate is precise enough (after a minimum
+     * number of items), it hits the item cap, or it runs out of items
+     */
+    public synchronized boolean isConverged(int category) {
+        int answered = itemsAnswered[category];
+        return exhausted[category]
+                || answered >= bank.categorySize(category)
+                || answered >= maxItemsPerCategory
+                || (answered >= minItemsPerCategory && estimates[category].getStandardError() <= targetStandardError);
+    }
+
+    /**
+     * Expected score over the whole bank at the current ability estimates, so
+     * the result is on the same scale as a fixed-form attempt
+     */
+    public synchronized ScoreCard toScoreCard() {
+        CompiledQuiz quiz = bank.getQuiz();
+        double[] expected = new double[AptitudeCategory.COUNT];
+        for (int i = 0; i < quiz.size(); i++) {
+            int category = quiz.categoryCode(i);
+            if (category != CompiledQuiz.CATEGORY_NONE) {
+                expected[category] += quiz.points(i) * bank.probability(i, estimates[category].getTheta());
+            }
+        }
+
+        int total = 0;
+        int[] categoryScores = new int[AptitudeCategory.COUNT];
+        int[] categoryMax = new int[AptitudeCategory.COUNT];
+        for (int c = 0; c < AptitudeCategory.COUNT; c++) {
+            categoryScores[c] = (int) Math.round(expected[c]);
+            categoryMax[c] = quiz.categoryMax(c);
+            total += categoryScores[c];
+        }
+        return new ScoreCard(total, quiz.getMaxScore(), categoryScores, categoryMax);
+    }
+
+    public synchronized List<QuizSubmissionDto.QuizAnswerDto> toAnswers() {
+        return new ArrayList<>(answers);
+    }
+
+    public synchronized double theta(int category) {
+        return estimates[category].getTheta();
+    }
+
+    public synchronized double standardError(int category) {
+        return estimates[category].getStandardError();
+    }
+
+    public synchronized int itemsAnswered(int category) {
+        return itemsAnswered[category];
+    }
+
+    public synchronized int getAnsweredCount() {
+        return answers.size();
+    }
+
+    /**
+     * Mark the session finished; returns false if it already was
+     */
+    public synchronized boolean finish() {
+        if (finished) {
+            return false;
+        }
+        finished = true;
+        return true;
+    }
+
+    /**
+     * Undo finish() after a failed attempt to record the result
+     */
+    public synchronized void reopen() {
+        finished = false;
+    }
+
+    public boolean isExpired(long nowMillis) {
+        return nowMillis > deadlineMillis;
+    }
+
+    public String getSessionId() {
+        return sessionId;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public ItemBank getBank() {
+        return bank;
+    }
+
+    public long getStartedAtMillis() {
+        return startedAtMillis;
+    }
+
+    public long getDeadlineMillis() {
+        return deadlineMillis;
+    }
+}
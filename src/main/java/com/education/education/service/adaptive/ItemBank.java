@@ -0,0 +1,133 @@
+package com.education.education.service.adaptive;
+
+import com.education.education.dto.QuizQuestionDto;
+import com.education.education.service.scoring.AptitudeCategory;
+import com.education.education.service.scoring.CompiledQuiz;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Items of a quiz prepared for adaptive testing under a two-parameter
+ * logistic (2PL) model. For every category the items are pre-ranked by
+ * Fisher information at each point of a fixed ability grid, so picking the
+ * most informative unused item is a binary search on the grid followed by
+ * a walk down a short ranked list, never a scan of the bank.
+ */
+public final class ItemBank {
+
+    // Ability points at which item information is ranked
+    private static final double[] THETA_GRID = new double[33];
+
+    static {
+        for (int g = 0; g < THETA_GRID.length; g++) {
+            THETA_GRID[g] = -4.0 + g * 0.25;
+        }
+    }
+
+    private final CompiledQuiz quiz;
+    private final QuizQuestionDto[] questions;
+
+    // [category][grid point] -> item indexes by descending information
+    private final int[][][] rankedItems;
+    private final int[] categorySizes;
+
+    private ItemBank(CompiledQuiz quiz, QuizQuestionDto[] questions, int[][][] rankedItems, int[] categorySizes) {
+        this.quiz = quiz;
+        this.questions = questions;
+        this.rankedItems = rankedItems;
+        this.categorySizes = categorySizes;
+    }
+
+    /**
+     * Build the bank from a compiled quiz and the questions shown to students
+     */
+    public static ItemBank build(CompiledQuiz quiz, List<QuizQuestionDto> questionList) {
+        QuizQuestionDto[] questions = new QuizQuestionDto[quiz.size()];
+        for (QuizQuestionDto question : questionList) {
+            int index = question.getId() != null ? quiz.indexOf(question.getId()) : -1;
+            if (index >= 0) {
+                questions[index] = question;
+            }
+        }
+
+        int[] categorySizes = new int[AptitudeCategory.COUNT];
+        for (int i = 0; i < quiz.size(); i++) {
+            if (quiz.categoryCode(i) != CompiledQuiz.CATEGORY_NONE && questions[i] != null) {
+                categorySizes[quiz.categoryCode(i)]++;
+            }
+        }
+
+        int[][][] rankedItems = new int[AptitudeCategory.COUNT][THETA_GRID.length][];
+        for (int c = 0; c < AptitudeCategory.COUNT; c++) {
+            Integer[] items = new Integer[categorySizes[c]];
+            int n = 0;
+            for (int i = 0; i < quiz.size(); i++) {
+                if (quiz.categoryCode(i) == c && questions[i] != null) {
+                    items[n++] = i;
+                }
+            }
+            for (int g = 0; g < THETA_GRID.length; g++) {
+                double theta = THETA_GRID[g];
+                Integer[] ranked = items.clone();
+                Arrays.sort(ranked, (x, y) -> Double.compare(information(quiz, y, theta), information(quiz, x, theta)));
+                rankedItems[c][g] = Arrays.stream(ranked).mapToInt(Integer::intValue).toArray();
+            }
+        }
+
+        return new ItemBank(quiz, questions, rankedItems, categorySizes);
+    }
+
+    /**
+     * Probability of a correct answer to an item at the given ability
+     */
+    public double probability(int item, double theta) {
+        return probability(quiz, item, theta);
+    }
+
+    private static double probability(CompiledQuiz quiz, int item, double theta) {
+        return 1.0 / (1.0 + Math.exp(-quiz.discrimination(item) * (theta - quiz.difficulty(item))));
+    }
+
+    private static double information(CompiledQuiz quiz, int item, double theta) {
+        double p = probability(quiz, item, theta);
+        double a = quiz.discrimination(item);
+        return a * a * p * (1 - p);
+    }
+
+    /**
+     * Most informative item of a category at the given ability that is not
+     * marked in the used bitset, or -1 if the category is exhausted
+     */
+    public int nextItem(int category, double theta, long[] used) {
+        int found = Arrays.binarySearch(THETA_GRID, theta);
+        int g;
+        if (found >= 0) {
+            g = found;
+        } else {
+            // Nearest grid point to theta
+            int upper = Math.min(-found - 1, THETA_GRID.length - 1);
+            int lower = Math.max(upper - 1, 0);
+            g = theta - THETA_GRID[lower] <= THETA_GRID[upper] - theta ? lower : upper;
+        }
+
+        for (int item : rankedItems[category][g]) {
+            if ((used[item >>> 6] & (1L << item)) == 0) {
+                return item;
+            }
+        }
+        return -1;
+    }
+
+    public int categorySize(int category) {
+        return categorySizes[category];
+    }
+
+    public QuizQuestionDto question(int item) {
+        return questions[item];
+    }
+
+    public CompiledQuiz getQuiz() {
+        return quiz;
+    }
+}
@@ -0,0 +1,268 @@
+package com.education.education.service.analytics;
+
+import com.education.education.repository.CohortAnalyticsRepository;
+import com.education.education.service.codec.StreamCodec;
+import com.education.education.service.scoring.CompiledQuizCache;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Cohort breakdowns for admins (e.g. average score by district x class level x
+ * recommended stream) answered from an in-memory CohortIndex instead of
+ * GROUP BYs over users and quiz_attempts. The index is loaded at startup and
+ * refreshed incrementally: users changed since the last refresh and attempts
+ * with ids above the last applied one. Attempts from archived partitions are
+ * not loaded, so statistics cover the retained months.
+ */
+@Service
+public class CohortAnalyticsService implements CommandLineRunner {
+
+    // Attempt ids are assigned before commit, so a lower id can appear after
+    // a higher one; re-read this many ids below the high-water mark
+    private static final long ID_OVERLAP = 10_000;
+    private static final long USER_OVERLAP_SECONDS = 60;
+
+    @Autowired
+    private CohortAnalyticsRepository cohortAnalyticsRepository;
+
+    @Autowired
+    private CompiledQuizCache compiledQuizCache;
+
+    @Value("${quiz.analytics.chunk-size:5000}")
+    private int chunkSize;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final CohortIndex index = new CohortIndex();
+    private final Map<Long, Integer> quizMaxScores = new HashMap<>();
+    private final Set<Long> recentAttemptIds = new HashSet<>();
+    private LocalDateTime usersChangedSince;
+    private long maxAttemptId;
+    private volatile LocalDateTime refreshedAt;
+
+    @Override
+    public void run(String... args) {
+        refresh();
+        System.out.println("Cohort analytics loaded: " + index.size() + " users, "
+                + (index.sizeInBytes() / 1024) + " KB");
+    }
+
+    /**
+     * Apply users and attempts changed since the last refresh
+     */
+    @Scheduled(fixedDelayString = "${quiz.analytics.refresh-interval-ms:30000}",
+            initialDelayString = "${quiz.analytics.refresh-interval-ms:30000}")
+    public synchronized void refresh() {
+        try {
+            refreshUsers();
+            refreshAttempts();
+            refreshedAt = LocalDateTime.now();
+        } catch (Exception e) {
+            System.err.println("Error refreshing cohort analytics: " + e.getMessage());
+        }
+    }
+
+    private void refreshUsers() {
+        LocalDateTime[] newest = { usersChangedSince };
+        cohortAnalyticsRepository.streamUsersChangedSince(usersChangedSince, rs -> {
+            Boolean isGuest = rs.getObject("is_guest") != null ? rs.getBoolean("is_guest") : null;
+            lock.writeLock().lock();
+            try {
+                index.setUser(rs.getLong("user_id"), rs.getString("district"), rs.getString("class_level"),
+                        rs.getString("preferred_language"), isGuest);
+            } finally {
+                lock.writeLock().unlock();
+            }
+            Timestamp changedAt = rs.getTimestamp("changed_at");
+            if (changedAt != null && (newest[0] == null || changedAt.toLocalDateTime().isAfter(newest[0]))) {
+                newest[0] = changedAt.toLocalDateTime();
+            }
+        });
+        // Reapplying a user is harmless, so overlap to catch slow commits
+        if (newest[0] != null) {
+            usersChangedSince = newest[0].minusSeconds(USER_OVERLAP_SECONDS);
+        }
+    }
+
+    private void refreshAttempts() {
+        long cursor = Math.max(0, maxAttemptId - ID_OVERLAP);
+        while (true) {
+            long[] last = { cursor };
+            int[] read = { 0 };
+            List<Object[]> batch = new ArrayList<>();
+            cohortAnalyticsRepository.streamAttemptsAfter(cursor, chunkSize, rs -> {
+                long attemptId = rs.getLong("attempt_id");
+                last[0] = attemptId;
+                read[0]++;
+                if (recentAttemptIds.contains(attemptId)) {
+                    return;
+                }
+                String stream = rs.getString("primary_stream");
+                if (stream == null) {
+                    stream = StreamCodec.primaryStreamFromLegacy(rs.getString("recommended_streams"));
+                }
+                Timestamp timestamp = rs.getTimestamp("timestamp");
+                batch.add(new Object[] { rs.getLong("user_id"), attemptId,
+                        timestamp != null ? timestamp.getTime() : 0L,
+                        rs.getObject("quiz_id"), rs.getObject("score"), stream });
+            });
+
+            // Quiz maxima are looked up outside the row callback, which holds a connection
+            List<Float> percents = new ArrayList<>(batch.size());
+            for (Object[] row : batch) {
+                percents.add(row[3] != null && row[4] != null
+                        ? percent(((Number) row[3]).longValue(), ((Number) row[4]).intValue())
+                        : null);
+            }
+            lock.writeLock().lock();
+            try {
+                for (int i = 0; i < batch.size(); i++) {
+                    Object[] row = batch.get(i);
+                    index.addAttempt((Long) row[0], (Long) row[1], (Long) row[2], percents.get(i), (String) row[5]);
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+            for (Object[] row : batch) {
+                long attemptId = (Long) row[1];
+                recentAttemptIds.add(attemptId);
+                maxAttemptId = Math.max(maxAttemptId, attemptId);
+            }
+            long floor = maxAttemptId - ID_OVERLAP;
+            recentAttemptIds.removeIf(id -> id <= floor);
+            if (read[0] < chunkSize) {
+                break;
+            }
+            cursor = last[0];
+        }
+    }
+
+    private Float percent(long quizId, int score) {
+        Integer max = quizMaxScores.get(quizId);
+        if (max == null) {
+            try {
+                max = compiledQuizCache.get(quizId).getMaxScore();
+            } catch (RuntimeException e) {
+                max = 0; // Deleted quiz: count the attempt without a score
+            }
+            quizMaxScores.put(quizId, max);
+        }
+        return max > 0 ? (float) (score * 100.0 / max) : null;
+    }
+
+    /**
+     * Cohort statistics: users matching every filter (dimension param name to
+     * value), broken down by the groupBy dimensions in order. Empty groups are
+     * left out.
+     */
+    public Map<String, Object> query(Map<String, String> filters, List<String> groupBy) {
+        List<CohortIndex.Dimension> groups = new ArrayList<>();
+        for (String name : groupBy) {
+            CohortIndex.Dimension dimension = CohortIndex.Dimension.fromParamName(name);
+            if (!groups.contains(dimension)) {
+                groups.add(dimension);
+            }
+        }
+
+        List<Map<String, Object>> rows = new ArrayList<>();
+        Map<String, Object> overall;
+        lock.readLock().lock();
+        try {
+            CompressedBitmap cohort = index.all();
+            for (Map.Entry<String, String> filter : filters.entrySet()) {
+                CohortIndex.Dimension dimension = CohortIndex.Dimension.fromParamName(filter.getKey());
+                cohort = CompressedBitmap.and(cohort, index.bitmap(dimension, filter.getValue()));
+            }
+            overall = toMap(new LinkedHashMap<>(), index.aggregate(cohort));
+            breakdown(cohort, groups, 0, new LinkedHashMap<>(), rows);
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("filters", filters);
+        result.put("groupBy", groups.stream().map(CohortIndex.Dimension::getParamName).toList());
+        result.put("overall", overall);
+        result.put("groups", rows);
+        result.put("refreshedAt", refreshedAt);
+        return result;
+    }
+
+    /**
+     * Intersect the cohort with each value of the next dimension, skipping
+     * empty intersections, and aggregate at the leaves
+     */
+    private void breakdown(CompressedBitmap cohort, List<CohortIndex.Dimension> groups, int depth,
+            Map<String, Object> keys, List<Map<String, Object>> rows) {
+        if (depth == groups.size()) {
+            if (!groups.isEmpty()) {
+                rows.add(toMap(new LinkedHashMap<>(keys), index.aggregate(cohort)));
+            }
+            return;
+        }
+        CohortIndex.Dimension dimension = groups.get(depth);
+        Map<String, CompressedBitmap> byValue = new TreeMap<>(index.bitmaps(dimension));
+        for (Map.Entry<String, CompressedBitmap> entry : byValue.entrySet()) {
+            CompressedBitmap subset = CompressedBitmap.and(cohort, entry.getValue());
+            if (subset.isEmpty()) {
+                continue;
+            }
+            keys.put(dimension.getParamName(), entry.getKey());
+            breakdown(subset, groups, depth + 1, keys, rows);
+        }
+        keys.remove(dimension.getParamName());
+    }
+
+    private static Map<String, Object> toMap(Map<String, Object> row, CohortIndex.CohortStats stats) {
+        row.put("users", stats.users);
+        row.put("usersWithAttempts", stats.usersWithAttempts);
+        row.put("attempts", stats.attempts);
+        row.put("averageScorePercent", stats.scoredAttempts > 0
+                ? round(stats.percentSum / stats.scoredAttempts) : null);
+        row.put("averageLatestScorePercent", stats.usersWithLatestScore > 0
+                ? round(stats.latestPercentSum / stats.usersWithLatestScore) : null);
+        return row;
+    }
+
+    private static double round(double value) {
+        return Math.round(value * 100.0) / 100.0;
+    }
+
+    /**
+     * Values of each dimension with their user counts
+     */
+    public Map<String, Object> dimensions() {
+        Map<String, Object> result = new LinkedHashMap<>();
+        lock.readLock().lock();
+        try {
+            for (CohortIndex.Dimension dimension : CohortIndex.Dimension.VALUES) {
+                Map<String, Long> counts = new TreeMap<>();
+                for (Map.Entry<String, CompressedBitmap> entry : index.bitmaps(dimension).entrySet()) {
+                    counts.put(entry.getKey(), entry.getValue().cardinality());
+                }
+                result.put(dimension.getParamName(), counts);
+            }
+            result.put("users", index.size());
+            result.put("indexBytes", index.sizeInBytes());
+        } finally {
+            lock.readLock().unlock();
+        }
+        result.put("refreshedAt", refreshedAt);
+        return result;
+    }
+}
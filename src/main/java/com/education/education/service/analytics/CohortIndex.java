@@ -0,0 +1,240 @@
+package com.education.education.service.analytics;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Users as dense rows: one compressed bitmap per value of each dimension,
+ * and attempt statistics in parallel column arrays indexed by row. A cohort
+ * is the intersection of value bitmaps, and its statistics are sums over the
+ * columns at the rows of that bitmap. Not thread-safe; the owning service
+ * guards it with a read-write lock.
+ */
+final class CohortIndex {
+
+    static final String UNKNOWN = "(unknown)";
+
+    /**
+     * Indexed user attributes; STREAM is the primary stream of the user's latest attempt
+     */
+    enum Dimension {
+        DISTRICT("district"),
+        CLASS_LEVEL("classLevel"),
+        LANGUAGE("preferredLanguage"),
+        GUEST("isGuest"),
+        STREAM("stream");
+
+        static final Dimension[] VALUES = values();
+
+        private final String paramName;
+
+        Dimension(String paramName) {
+            this.paramName = paramName;
+        }
+
+        String getParamName() {
+            return paramName;
+        }
+
+        static Dimension fromParamName(String name) {
+            for (Dimension dimension : VALUES) {
+                if (dimension.paramName.equalsIgnoreCase(name.trim())) {
+                    return dimension;
+                }
+            }
+            throw new RuntimeException("Unknown cohort dimension: " + name);
+        }
+    }
+
+    private final Map<Long, Integer> rowByUser = new HashMap<>();
+    private final CompressedBitmap allRows = new CompressedBitmap();
+    private final List<Map<String, CompressedBitmap>> bitmaps = new ArrayList<>();
+    private String[][] values = new String[Dimension.VALUES.length][1024];
+
+    // Attempt columns
+    private int[] attempts = new int[1024];
+    private int[] scoredAttempts = new int[1024];
+    private double[] percentSum = new double[1024];
+    private float[] latestPercent = new float[1024];
+    private long[] latestAt = new long[1024];
+    private long[] latestAttemptId = new long[1024];
+    private int rows;
+
+    CohortIndex() {
+        for (int d = 0; d < Dimension.VALUES.length; d++) {
+            bitmaps.add(new HashMap<>());
+        }
+    }
+
+    int size() {
+        return rows;
+    }
+
+    /**
+     * Set a user's attributes, moving its row between value bitmaps as needed
+     */
+    void setUser(long userId, String district, String classLevel, String language, Boolean isGuest) {
+        int row = row(userId);
+        set(Dimension.DISTRICT, row, district);
+        set(Dimension.CLASS_LEVEL, row, classLevel);
+        set(Dimension.LANGUAGE, row, language);
+        set(Dimension.GUEST, row, String.valueOf(Boolean.TRUE.equals(isGuest)));
+    }
+
+    /**
+     * Add one attempt; percent is null when the quiz's maximum is unknown.
+     * The latest attempt by time (then id) decides the stream and latest score.
+     */
+    void addAttempt(long userId, long attemptId, long at, Float percent, String stream) {
+        int row = row(userId);
+        attempts[row]++;
+        if (percent != null) {
+            scoredAttempts[row]++;
+            percentSum[row] += percent;
+        }
+        if (at > latestAt[row] || (at == latestAt[row] && attemptId > latestAttemptId[row])) {
+            latestAt[row] = at;
+            latestAttemptId[row] = attemptId;
+            latestPercent[row] = percent != null ? percent : Float.NaN;
+            set(Dimension.STREAM, row, stream);
+        }
+    }
+
+    CompressedBitmap all() {
+        return allRows;
+    }
+
+    /**
+     * Bitmap of rows with a value, ignoring case (empty for unseen values)
+     */
+    CompressedBitmap bitmap(Dimension dimension, String value) {
+        Map<String, CompressedBitmap> byValue = bitmaps.get(dimension.ordinal());
+        String normalized = normalize(value);
+        CompressedBitmap bitmap = byValue.get(normalized);
+        if (bitmap == null) {
+            for (Map.Entry<String, CompressedBitmap> entry : byValue.entrySet()) {
+                if (entry.getKey().equalsIgnoreCase(normalized)) {
+                    return entry.getValue();
+                }
+            }
+            return new CompressedBitmap();
+        }
+        return bitmap;
+    }
+
+    /**
+     * Values of a dimension that currently have rows
+     */
+    Map<String, CompressedBitmap> bitmaps(Dimension dimension) {
+        return bitmaps.get(dimension.ordinal());
+    }
+
+    /**
+     * Sum the attempt columns over the rows of a cohort
+     */
+    CohortStats aggregate(CompressedBitmap cohort) {
+        CohortStats stats = new CohortStats();
+        cohort.forEach(row -> {
+            stats.users++;
+            int count = attempts[row];
+            if (count > 0) {
+                stats.usersWithAttempts++;
+                stats.attempts += count;
+                stats.scoredAttempts += scoredAttempts[row];
+                stats.percentSum += percentSum[row];
+                float latest = latestPercent[row];
+                if (!Float.isNaN(latest)) {
+                    stats.usersWithLatestScore++;
+                    stats.latestPercentSum += latest;
+                }
+            }
+        });
+        return stats;
+    }
+
+    long sizeInBytes() {
+        long bytes = allRows.sizeInBytes() + attempts.length * (4L + 4L + 8L + 4L + 8L + 8L);
+        for (Map<String, CompressedBitmap> byValue : bitmaps) {
+            for (CompressedBitmap bitmap : byValue.values()) {
+                bytes += bitmap.sizeInBytes();
+            }
+        }
+        return bytes;
+    }
+
+    private int row(long userId) {
+        Integer existing = rowByUser.get(userId);
+        if (existing != null) {
+            return existing;
+        }
+        int row = rows++;
+        if (row == attempts.length) {
+            grow();
+        }
+        rowByUser.put(userId, row);
+        allRows.add(row);
+        latestPercent[row] = Float.NaN;
+        for (Dimension dimension : Dimension.VALUES) {
+            set(dimension, row, null);
+        }
+        return row;
+    }
+
+    private void set(Dimension dimension, int row, String value) {
+        String normalized = normalize(value);
+        String[] column = values[dimension.ordinal()];
+        String current = column[row];
+        if (normalized.equals(current)) {
+            return;
+        }
+        Map<String, CompressedBitmap> byValue = bitmaps.get(dimension.ordinal());
+        if (current != null) {
+            CompressedBitmap old = byValue.get(current);
+            old.remove(row);
+            if (old.isEmpty()) {
+                byValue.remove(current);
+            }
+        }
+        byValue.computeIfAbsent(normalized, v -> new CompressedBitmap()).add(row);
+        column[row] = normalized;
+    }
+
+    private void grow() {
+        int capacity = attempts.length * 2;
+        for (int d = 0; d < values.length; d++) {
+            values[d] = Arrays.copyOf(values[d], capacity);
+        }
+        attempts = Arrays.copyOf(attempts, capacity);
+        scoredAttempts = Arrays.copyOf(scoredAttempts, capacity);
+        percentSum = Arrays.copyOf(percentSum, capacity);
+        latestPercent = Arrays.copyOf(latestPercent, capacity);
+        latestAt = Arrays.copyOf(latestAt, capacity);
+        latestAttemptId = Arrays.copyOf(latestAttemptId, capacity);
+    }
+
+    /**
+     * Values are indexed trimmed; blanks are unknown
+     */
+    static String normalize(String value) {
+        if (value == null || value.isBlank()) {
+            return UNKNOWN;
+        }
+        return value.trim();
+    }
+
+    /**
+     * Sums over a cohort
+     */
+    static final class CohortStats {
+        long users;
+        long usersWithAttempts;
+        long attempts;
+        long scoredAttempts;
+        double percentSum;
+        long usersWithLatestScore;
+        double latestPercentSum;
+    }
+}
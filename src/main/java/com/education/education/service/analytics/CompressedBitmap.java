@@ -0,0 +1,305 @@
+package com.education.education.service.analytics;
+
+import java.util.Arrays;
+
+/**
+ * Compressed bitmap of non-negative ints in the style of Roaring bitmaps:
+ * values are split by their high 16 bits into chunks, and each chunk is a
+ * sorted char array while it holds at most 4096 values, or a 65536-bit
+ * bitmap once it is denser. Sparse cohorts cost two bytes per member and
+ * dense ones one bit; intersections work chunk by chunk.
+ */
+public final class CompressedBitmap {
+
+    private static final int ARRAY_MAX = 4096;
+    private static final int BITMAP_WORDS = 1024;
+
+    private char[] keys = new char[4];
+    private Object[] chunks = new Object[4]; // char[] (sorted, first sizes[i] used) or long[]
+    private int[] sizes = new int[4];
+    private int chunkCount;
+
+    public void add(int value) {
+        char key = (char) (value >>> 16);
+        char low = (char) value;
+        int i = findChunk(key);
+        if (i < 0) {
+            i = -i - 1;
+            insertChunk(i, key, new char[4]);
+        }
+
+        Object chunk = chunks[i];
+        if (chunk instanceof long[]) {
+            long[] words = (long[]) chunk;
+            long bit = 1L << low;
+            if ((words[low >>> 6] & bit) == 0) {
+                words[low >>> 6] |= bit;
+                sizes[i]++;
+            }
+            return;
+        }
+
+        char[] values = (char[]) chunk;
+        int size = sizes[i];
+        int pos = Arrays.binarySearch(values, 0, size, low);
+        if (pos >= 0) {
+            return;
+        }
+        pos = -pos - 1;
+        if (size == ARRAY_MAX) {
+            long[] words = toWords(values, size);
+            words[low >>> 6] |= 1L << low;
+            chunks[i] = words;
+            sizes[i] = size + 1;
+            return;
+        }
+        if (size == values.length) {
+            values = Arrays.copyOf(values, Math.min(ARRAY_MAX, size * 2));
+            chunks[i] = values;
+        }
+        System.arraycopy(values, pos, values, pos + 1, size - pos);
+        values[pos] = low;
+        sizes[i] = size + 1;
+    }
+
+    public void remove(int value) {
+        int i = findChunk((char) (value >>> 16));
+        if (i < 0) {
+            return;
+        }
+        char low = (char) value;
+        Object chunk = chunks[i];
+        if (chunk instanceof long[]) {
+            long[] words = (long[]) chunk;
+            long bit = 1L << low;
+            if ((words[low >>> 6] & bit) != 0) {
+                words[low >>> 6] &= ~bit;
+                sizes[i]--;
+                if (sizes[i] <= ARRAY_MAX) {
+                    chunks[i] = toValues(words, sizes[i]);
+                }
+            }
+        } else {
+            char[] values = (char[]) chunk;
+            int size = sizes[i];
+            int pos = Arrays.binarySearch(values, 0, size, low);
+            if (pos < 0) {
+                return;
+            }
+            System.arraycopy(values, pos + 1, values, pos, size - pos - 1);
+            sizes[i] = size - 1;
+        }
+        if (sizes[i] == 0) {
+            removeChunk(i);
+        }
+    }
+
+    public boolean contains(int value) {
+        int i = findChunk((char) (value >>> 16));
+        if (i < 0) {
+            return false;
+        }
+        char low = (char) value;
+        Object chunk = chunks[i];
+        if (chunk instanceof long[]) {
+            return (((long[]) chunk)[low >>> 6] & (1L << low)) != 0;
+        }
+        return Arrays.binarySearch((char[]) chunk, 0, sizes[i], low) >= 0;
+    }
+
+    public long cardinality() {
+        long total = 0;
+        for (int i = 0; i < chunkCount; i++) {
+            total += sizes[i];
+        }
+        return total;
+    }
+
+    public boolean isEmpty() {
+        return chunkCount == 0;
+    }
+
+    /**
+     * Intersection of two bitmaps as a new bitmap
+     */
+    public static CompressedBitmap and(CompressedBitmap a, CompressedBitmap b) {
+        CompressedBitmap result = new CompressedBitmap();
+        int i = 0;
+        int j = 0;
+        while (i < a.chunkCount && j < b.chunkCount) {
+            if (a.keys[i] < b.keys[j]) {
+                i++;
+            } else if (a.keys[i] > b.keys[j]) {
+                j++;
+            } else {
+                andChunk(result, a.keys[i], a.chunks[i], a.sizes[i], b.chunks[j], b.sizes[j]);
+                i++;
+                j++;
+            }
+        }
+        return result;
+    }
+
+    private static void andChunk(CompressedBitmap result, char key, Object x, int xSize, Object y, int ySize) {
+        if (x instanceof long[] && y instanceof long[]) {
+            long[] xw = (long[]) x;
+            long[] yw = (long[]) y;
+            long[] words = new long[BITMAP_WORDS];
+            int size = 0;
+            for (int w = 0; w < BITMAP_WORDS; w++) {
+                words[w] = xw[w] & yw[w];
+                size += Long.bitCount(words[w]);
+            }
+            if (size > ARRAY_MAX) {
+                result.appendChunk(key, words, size);
+            } else if (size > 0) {
+                result.appendChunk(key, toValues(words, size), size);
+            }
+            return;
+        }
+
+        if (x instanceof long[]) {
+            Object swap = x;
+            x = y;
+            y = swap;
+            int swapSize = xSize;
+            xSize = ySize;
+            ySize = swapSize;
+        }
+        char[] xv = (char[]) x;
+        char[] values = new char[Math.min(xSize, y instanceof long[] ? xSize : ySize)];
+        int size = 0;
+        if (y instanceof long[]) {
+            long[] yw = (long[]) y;
+            for (int k = 0; k < xSize; k++) {
+                char v = xv[k];
+                if ((yw[v >>> 6] & (1L << v)) != 0) {
+                    values[size++] = v;
+                }
+            }
+        } else {
+            char[] yv = (char[]) y;
+            int p = 0;
+            int q = 0;
+            while (p < xSize && q < ySize) {
+                if (xv[p] < yv[q]) {
+                    p++;
+                } else if (xv[p] > yv[q]) {
+                    q++;
+                } else {
+                    values[size++] = xv[p];
+                    p++;
+                    q++;
+                }
+            }
+        }
+        if (size > 0) {
+            result.appendChunk(key, values, size);
+        }
+    }
+
+    /**
+     * Call the visitor with every value in ascending order
+     */
+    public void forEach(IntVisitor visitor) {
+        for (int i = 0; i < chunkCount; i++) {
+            int high = keys[i] << 16;
+            Object chunk = chunks[i];
+            if (chunk instanceof long[]) {
+                long[] words = (long[]) chunk;
+                for (int w = 0; w < BITMAP_WORDS; w++) {
+                    long word = words[w];
+                    while (word != 0) {
+                        visitor.visit(high | (w << 6) | Long.numberOfTrailingZeros(word));
+                        word &= word - 1;
+                    }
+                }
+            } else {
+                char[] values = (char[]) chunk;
+                for (int k = 0; k < sizes[i]; k++) {
+                    visitor.visit(high | values[k]);
+                }
+            }
+        }
+    }
+
+    /**
+     * Approximate heap footprint in bytes
+     */
+    public long sizeInBytes() {
+        long bytes = 16L + keys.length * 2L + chunks.length * 8L + sizes.length * 4L;
+        for (int i = 0; i < chunkCount; i++) {
+            bytes += chunks[i] instanceof long[] ? BITMAP_WORDS * 8L : ((char[]) chunks[i]).length * 2L;
+        }
+        return bytes;
+    }
+
+    public interface IntVisitor {
+        void visit(int value);
+    }
+
+    private int findChunk(char key) {
+        // Appends at the end are the common case (row numbers only grow)
+        if (chunkCount > 0 && keys[chunkCount - 1] == key) {
+            return chunkCount - 1;
+        }
+        return Arrays.binarySearch(keys, 0, chunkCount, key);
+    }
+
+    private void insertChunk(int i, char key, Object chunk) {
+        ensureChunkCapacity();
+        System.arraycopy(keys, i, keys, i + 1, chunkCount - i);
+        System.arraycopy(chunks, i, chunks, i + 1, chunkCount - i);
+        System.arraycopy(sizes, i, sizes, i + 1, chunkCount - i);
+        keys[i] = key;
+        chunks[i] = chunk;
+        sizes[i] = 0;
+        chunkCount++;
+    }
+
+    private void appendChunk(char key, Object chunk, int size) {
+        ensureChunkCapacity();
+        keys[chunkCount] = key;
+        chunks[chunkCount] = chunk;
+        sizes[chunkCount] = size;
+        chunkCount++;
+    }
+
+    private void removeChunk(int i) {
+        System.arraycopy(keys, i + 1, keys, i, chunkCount - i - 1);
+        System.arraycopy(chunks, i + 1, chunks, i, chunkCount - i - 1);
+        System.arraycopy(sizes, i + 1, sizes, i, chunkCount - i - 1);
+        chunkCount--;
+        chunks[chunkCount] = null;
+    }
+
+    private void ensureChunkCapacity() {
+        if (chunkCount == keys.length) {
+            int capacity = keys.length * 2;
+            keys = Arrays.copyOf(keys, capacity);
+            chunks = Arrays.copyOf(chunks, capacity);
+            sizes = Arrays.copyOf(sizes, capacity);
+        }
+    }
+
+    private static long[] toWords(char[] values, int size) {
+        long[] words = new long[BITMAP_WORDS];
+        for (int k = 0; k < size; k++) {
+            words[values[k] >>> 6] |= 1L << values[k];
+        }
+        return words;
+    }
+
+    private static char[] toValues(long[] words, int size) {
+        char[] values = new char[Math.max(size, 1)];
+        int k = 0;
+        for (int w = 0; w < BITMAP_WORDS && k < size; w++) {
+            long word = words[w];
+            while (word != 0) {
+                values[k++] = (char) ((w << 6) | Long.numberOfTrailingZeros(word));
+                word &= word - 1;
+            }
+        }
+        return values;
+    }
+}
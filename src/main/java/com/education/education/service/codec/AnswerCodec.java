@@ -0,0 +1,85 @@
+package com.education.education.service.codec;
+
+import com.education.education.dto.QuizSubmissionDto;
+
+import java.io.ByteArrayOutputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Packed binary form of an attempt's answers (quiz_attempts.answers_bin).
+ * Layout: a format byte, then the answer count and, per answer, the question
+ * id, one option byte and the time spent. Numbers are zigzag varints offset
+ * by one so that 0 means null. Option bytes 1-26 stand for "A"-"Z"; any
+ * other option is written as 0xFF followed by its UTF-8 length and bytes.
+ * A typical 12-answer attempt takes about 40 bytes instead of ~700 of JSON.
+ */
+public final class AnswerCodec {
+
+    private static final int FORMAT = 1;
+    private static final int OPTION_NULL = 0;
+    private static final int OPTION_TEXT = 0xFF;
+
+    private AnswerCodec() {
+    }
+
+    public static byte[] encode(List<QuizSubmissionDto.QuizAnswerDto> answers) {
+        if (answers == null) {
+            return null;
+        }
+        ByteArrayOutputStream out = new ByteArrayOutputStream(2 + answers.size() * 4);
+        out.write(FORMAT);
+        Varints.write(out, answers.size());
+        for (QuizSubmissionDto.QuizAnswerDto answer : answers) {
+            if (answer == null) {
+                answer = new QuizSubmissionDto.QuizAnswerDto();
+            }
+            Varints.writeNullable(out, answer.getQuestionId());
+            writeOption(out, answer.getSelectedOption());
+            Varints.writeNullable(out, answer.getTimeSpent());
+        }
+        return out.toByteArray();
+    }
+
+    public static List<QuizSubmissionDto.QuizAnswerDto> decode(byte[] data) {
+        if (data == null) {
+            return null;
+        }
+        Varints.Reader in = new Varints.Reader(data);
+        int format = in.readByte();
+        if (format != FORMAT) {
+            throw new IllegalArgumentException("Unknown answer encoding: " + format);
+        }
+        int count = in.readInt();
+        List<QuizSubmissionDto.QuizAnswerDto> answers = new ArrayList<>(Math.min(count, data.length)); // count is untrusted
+        for (int i = 0; i < count; i++) {
+            Integer questionId = in.readNullable();
+            String option = readOption(in);
+            Integer timeSpent = in.readNullable();
+            answers.add(new QuizSubmissionDto.QuizAnswerDto(questionId, option, timeSpent));
+        }
+        return answers;
+    }
+
+    private static void writeOption(ByteArrayOutputStream out, String option) {
+        if (option == null) {
+            out.write(OPTION_NULL);
+        } else if (option.length() == 1 && option.charAt(0) >= 'A' && option.charAt(0) <= 'Z') {
+            out.write(option.charAt(0) - 'A' + 1);
+        } else {
+            out.write(OPTION_TEXT);
+            Varints.writeString(out, option);
+        }
+    }
+
+    private static String readOption(Varints.Reader in) {
+        int code = in.readByte();
+        if (code == OPTION_NULL) {
+            return null;
+        }
+        if (code == OPTION_TEXT) {
+            return in.readString();
+        }
+        return String.valueOf((char) ('A' + code - 1));
+    }
+}
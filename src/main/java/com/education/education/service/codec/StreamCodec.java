@@ -0,0 +1,163 @@
+package com.education.education.service.codec;
+
+import java.io.ByteArrayOutputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Binary form of an attempt's recommended streams (quiz_attempts.streams_bin).
+ * Labels such as "Science (85% match)" are stored as the stream name plus a
+ * one-byte match percentage, and "Arts (Based on Verbal strength)" as the name
+ * plus the note; decoding rebuilds the exact labels. The top stream is also
+ * kept in typed columns (primary_stream, primary_match) so readers that only
+ * need it do not decode anything.
+ */
+public final class StreamCodec {
+
+    private static final int FORMAT = 1;
+    private static final int KIND_PLAIN = 0;
+    private static final int KIND_MATCH = 1;
+    private static final int KIND_NOTE = 2;
+    private static final String MATCH_SUFFIX = "% match";
+
+    private StreamCodec() {
+    }
+
+    public static byte[] encode(List<String> labels) {
+        if (labels == null) {
+            return null;
+        }
+        ByteArrayOutputStream out = new ByteArrayOutputStream(2 + labels.size() * 12);
+        out.write(FORMAT);
+        Varints.write(out, labels.size());
+        for (String label : labels) {
+            String name = streamName(label);
+            String note = note(label);
+            Integer match = note != null ? matchPercent(note) : null;
+            if (match != null) {
+                out.write(KIND_MATCH);
+                Varints.writeString(out, name);
+                Varints.write(out, match);
+            } else if (note != null) {
+                out.write(KIND_NOTE);
+                Varints.writeString(out, name);
+                Varints.writeString(out, note);
+            } else {
+                out.write(KIND_PLAIN);
+                Varints.writeString(out, label != null ? label : "");
+            }
+        }
+        return out.toByteArray();
+    }
+
+    public static List<String> decode(byte[] data) {
+        if (data == null) {
+            return new ArrayList<>();
+        }
+        Varints.Reader in = new Varints.Reader(data);
+        int format = in.readByte();
+        if (format != FORMAT) {
+            throw new IllegalArgumentException("Unknown stream encoding: " + format);
+        }
+        int count = in.readInt();
+        List<String> labels = new ArrayList<>(Math.min(count, data.length)); // count is untrusted
+        for (int i = 0; i < count; i++) {
+            int kind = in.readByte();
+            String name = in.readString();
+            switch (kind) {
+                case KIND_MATCH:
+                    labels.add(name + " (" + in.readInt() + MATCH_SUFFIX + ")");
+                    break;
+                case KIND_NOTE:
+                    labels.add(name + " (" + in.readString() + ")");
+                    break;
+                case KIND_PLAIN:
+                    labels.add(name);
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown stream entry kind: " + kind);
+            }
+        }
+        return labels;
+    }
+
+    /**
+     * Stream name of the top recommendation, e.g. "Science"
+     */
+    public static String primaryStream(List<String> labels) {
+        return labels == null || labels.isEmpty() ? null : streamName(labels.get(0));
+    }
+
+    /**
+     * Match percentage of the top recommendation, or null if it has none
+     */
+    public static Integer primaryMatch(List<String> labels) {
+        if (labels == null || labels.isEmpty()) {
+            return null;
+        }
+        String note = note(labels.get(0));
+        return note != null ? matchPercent(note) : null;
+    }
+
+    /**
+     * Top stream name from a legacy JSON array column (["Science (85% match)", ...]),
+     * read without a JSON parser since only the first string is needed
+     */
+    public static String primaryStreamFromLegacy(String json) {
+        if (json == null) {
+            return null;
+        }
+        int start = json.indexOf('"');
+        if (start < 0) {
+            return null;
+        }
+        StringBuilder first = new StringBuilder();
+        for (int i = start + 1; i < json.length(); i++) {
+            char c = json.charAt(i);
+            if (c == '"') {
+                return streamName(first.toString());
+            }
+            if (c == '\\' && i + 1 < json.length()) {
+                c = json.charAt(++i);
+            }
+            first.append(c);
+        }
+        return null;
+    }
+
+    private static String streamName(String label) {
+        if (label == null) {
+            return null;
+        }
+        int open = noteStart(label);
+        return open < 0 ? label : label.substring(0, open);
+    }
+
+    private static String note(String label) {
+        if (label == null) {
+            return null;
+        }
+        int open = noteStart(label);
+        return open < 0 ? null : label.substring(open + 2, label.length() - 1);
+    }
+
+    private static int noteStart(String label) {
+        return label.endsWith(")") ? label.indexOf(" (") : -1;
+    }
+
+    private static Integer matchPercent(String note) {
+        if (!note.endsWith(MATCH_SUFFIX)) {
+            return null;
+        }
+        String digits = note.substring(0, note.length() - MATCH_SUFFIX.length());
+        if (digits.isEmpty() || digits.length() > 3 || (digits.length() > 1 && digits.charAt(0) == '0')) {
+            return null;
+        }
+        for (int i = 0; i < digits.length(); i++) {
+            if (digits.charAt(i) < '0' || digits.charAt(i) > '9') {
+                return null;
+            }
+        }
+        return Integer.parseInt(digits);
+    }
+}
@@ -0,0 +1,87 @@
+package com.education.education.service.codec;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Varint and string helpers shared by the attempt codecs
+ */
+final class Varints {
+
+    private Varints() {
+    }
+
+    static void write(ByteArrayOutputStream out, long value) {
+        while ((value & ~0x7FL) != 0) {
+            out.write((int) (value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out.write((int) value);
+    }
+
+    static void writeNullable(ByteArrayOutputStream out, Integer value) {
+        // Zigzag, then +1 so null can be 0
+        write(out, value == null ? 0 : ((long) value << 1 ^ ((long) value >> 63)) + 1);
+    }
+
+    static void writeString(ByteArrayOutputStream out, String value) {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        write(out, bytes.length);
+        out.write(bytes, 0, bytes.length);
+    }
+
+    static final class Reader {
+        private final byte[] data;
+        private int pos;
+
+        Reader(byte[] data) {
+            this.data = data;
+        }
+
+        int readByte() {
+            if (pos >= data.length) {
+                throw new IllegalArgumentException("Truncated attempt encoding");
+            }
+            return data[pos++] & 0xFF;
+        }
+
+        long readLong() {
+            long value = 0;
+            for (int shift = 0; shift < 64; shift += 7) {
+                int b = readByte();
+                value |= (long) (b & 0x7F) << shift;
+                if ((b & 0x80) == 0) {
+                    return value;
+                }
+            }
+            throw new IllegalArgumentException("Malformed varint in attempt encoding");
+        }
+
+        int readInt() {
+            long value = readLong();
+            if (value < 0 || value > Integer.MAX_VALUE) {
+                throw new IllegalArgumentException("Malformed varint in attempt encoding");
+            }
+            return (int) value;
+        }
+
+        Integer readNullable() {
+            long raw = readLong();
+            if (raw == 0) {
+                return null;
+            }
+            long zigzag = raw - 1;
+            return (int) ((zigzag >>> 1) ^ -(zigzag & 1));
+        }
+
+        String readString() {
+            int length = readInt();
+            if (length < 0 || length > data.length - pos) {
+                throw new IllegalArgumentException("Truncated attempt encoding");
+            }
+            String value = new String(data, pos, length, StandardCharsets.UTF_8);
+            pos += length;
+            return value;
+        }
+    }
+}
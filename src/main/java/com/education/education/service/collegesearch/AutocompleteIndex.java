@@ -0,0 +1,325 @@
+package com.education.education.service.collegesearch;
+
+import com.education.education.entity.College;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Prefix suggestions over college names, districts and states: a compressed
+ * (radix) trie of the normalized text from every word start, so "jos" finds
+ * "St. Joseph's College". Each node keeps its best MAX_SUGGESTIONS entries,
+ * so a lookup is one walk down the trie and never enumerates the subtree.
+ * Colleges weigh by tier, then placement rate; a district or state weighs
+ * just above its best college. The index is immutable: every catalog change
+ * builds a new one, an O(N) rebuild of the whole trie and its top lists.
+ */
+final class AutocompleteIndex {
+
+    static final int MAX_SUGGESTIONS = 10;
+
+    private static final Comparator<Entry> BEST_FIRST = Comparator
+            .comparingDouble((Entry e) -> -e.weight)
+            .thenComparing(e -> e.text)
+            .thenComparingLong(e -> e.collegeId != null ? e.collegeId : -1);
+
+    private final Map<Long, Entry> colleges;
+    private final String[] keys;
+    private final Entry[] keyEntries;
+    private final Entry[] ranked;
+    private final int[] keyRanks;
+    private final Node root;
+
+    private AutocompleteIndex(Map<Long, Entry> colleges, String[] keys, Entry[] keyEntries) {
+        this.colleges = colleges;
+        this.keys = keys;
+        this.keyEntries = keyEntries;
+
+        // Number the distinct entries best first, so nodes merge plain ints
+        Map<Entry, Integer> ranks = new IdentityHashMap<>();
+        for (Entry entry : keyEntries) {
+            ranks.putIfAbsent(entry, 0);
+        }
+        this.ranked = ranks.keySet().toArray(new Entry[0]);
+        Arrays.sort(ranked, BEST_FIRST);
+        for (int r = 0; r < ranked.length; r++) {
+            ranks.put(ranked[r], r);
+        }
+        this.keyRanks = new int[keys.length];
+        for (int i = 0; i < keys.length; i++) {
+            keyRanks[i] = ranks.get(keyEntries[i]);
+        }
+        this.root = keys.length > 0 ? build(0, keys.length, 0) : null;
+    }
+
+    static AutocompleteIndex build(Collection<College> catalog) {
+        Map<Long, Entry> colleges = new HashMap<>(catalog.size() * 2);
+        List<Key> collegeKeys = new ArrayList<>();
+        for (College college : catalog) {
+            Entry entry = Entry.of(college);
+            colleges.put(college.getCollegeId(), entry);
+            addKeys(collegeKeys, entry);
+        }
+        collegeKeys.sort(Key.ORDER);
+        return withPlaces(colleges, collegeKeys, catalog);
+    }
+
+    /**
+     * Index after some colleges changed or left the catalog. This is still a
+     * full rebuild of the trie: it only saves re-tokenizing and re-sorting the
+     * unchanged colleges, whose keys are merged with the changed ones.
+     * Districts and states are re-weighed from the whole catalog, since a
+     * changed college can move their best weight.
+     */
+    AutocompleteIndex update(Collection<College> changed, Collection<Long> removed, Collection<College> catalog) {
+        Set<Long> stale = new HashSet<>(removed);
+        Map<Long, Entry> next = new HashMap<>(colleges);
+        List<Key> fresh = new ArrayList<>();
+        for (College college : changed) {
+            stale.add(college.getCollegeId());
+            Entry entry = Entry.of(college);
+            next.put(college.getCollegeId(), entry);
+            addKeys(fresh, entry);
+        }
+        next.keySet().removeAll(removed);
+        fresh.sort(Key.ORDER);
+
+        List<Key> merged = new ArrayList<>(keys.length + fresh.size());
+        int f = 0;
+        for (int i = 0; i < keys.length; i++) {
+            Entry entry = keyEntries[i];
+            if (entry.type != Type.COLLEGE || stale.contains(entry.collegeId)) {
+                continue;
+            }
+            Key kept = new Key(keys[i], entry);
+            while (f < fresh.size() && Key.ORDER.compare(fresh.get(f), kept) < 0) {
+                merged.add(fresh.get(f++));
+            }
+            merged.add(kept);
+        }
+        merged.addAll(fresh.subList(f, fresh.size()));
+        return withPlaces(next, merged, catalog);
+    }
+
+    private static AutocompleteIndex withPlaces(Map<Long, Entry> colleges, List<Key> collegeKeys,
+            Collection<College> catalog) {
+        Map<String, Entry> districts = new HashMap<>();
+        Map<String, Entry> states = new HashMap<>();
+        for (College college : catalog) {
+            double weight = weight(college) + 1;
+            place(districts, Type.DISTRICT, college.getDistrict(), college.getState(), weight);
+            place(states, Type.STATE, college.getState(), null, weight);
+        }
+        List<Key> placeKeys = new ArrayList<>();
+        for (Entry entry : districts.values()) {
+            addKeys(placeKeys, entry);
+        }
+        for (Entry entry : states.values()) {
+            addKeys(placeKeys, entry);
+        }
+        placeKeys.sort(Key.ORDER);
+
+        // Merge the two sorted runs
+        int total = collegeKeys.size() + placeKeys.size();
+        String[] keys = new String[total];
+        Entry[] entries = new Entry[total];
+        int c = 0;
+        int p = 0;
+        for (int i = 0; i < total; i++) {
+            Key next = p >= placeKeys.size()
+                    || (c < collegeKeys.size() && Key.ORDER.compare(collegeKeys.get(c), placeKeys.get(p)) <= 0)
+                            ? collegeKeys.get(c++)
+                            : placeKeys.get(p++);
+            keys[i] = next.text;
+            entries[i] = next.entry;
+        }
+        return new AutocompleteIndex(colleges, keys, entries);
+    }
+
+    private static void place(Map<String, Entry> places, Type type, String value, String state, double weight) {
+        String key = CollegeIndex.normalize(value);
+        if (key.isEmpty()) {
+            return;
+        }
+        Entry current = places.get(key);
+        if (current == null || weight > current.weight) {
+            String text = current != null ? current.text : value.trim();
+            places.put(key, new Entry(type, text, null, type == Type.DISTRICT ? text : null, state, weight));
+        }
+    }
+
+    /**
+     * The best entries whose text has a word starting with the prefix
+     */
+    List<Entry> suggest(String prefix, int limit) {
+        String key = NameIndex.normalize(prefix);
+        Node node = root;
+        int depth = 0;
+        while (node != null && !key.isEmpty()) {
+            int matched = 0;
+            while (matched < node.label.length() && depth + matched < key.length()
+                    && node.label.charAt(matched) == key.charAt(depth + matched)) {
+                matched++;
+            }
+            depth += matched;
+            if (depth == key.length()) {
+                break; // The prefix ends on this node's edge
+            }
+            if (matched < node.label.length()) {
+                return List.of();
+            }
+            node = node.child(key.charAt(depth));
+        }
+        if (node == null || key.isEmpty()) {
+            return List.of();
+        }
+        List<Entry> top = new ArrayList<>(Math.min(node.top.length, limit));
+        for (int i = 0; i < node.top.length && i < limit; i++) {
+            top.add(ranked[node.top[i]]);
+        }
+        return top;
+    }
+
+    int size() {
+        return keys.length;
+    }
+
+    /**
+     * Node over keys[lo, hi), which share their first depth characters; its
+     * edge label runs from there to the end of the longest prefix the whole
+     * range shares, and starts with the character its parent branches on
+     */
+    private Node build(int lo, int hi, int depth) {
+        String first = keys[lo];
+        String last = keys[hi - 1]; // Sorted, so the range shares what its ends share
+        int end = depth;
+        while (end < first.length() && end < last.length() && first.charAt(end) == last.charAt(end)) {
+            end++;
+        }
+
+        int[] candidates = new int[16];
+        int count = 0;
+        int i = lo;
+        while (i < hi && keys[i].length() == end) {
+            if (count == candidates.length) {
+                candidates = Arrays.copyOf(candidates, count * 2);
+            }
+            candidates[count++] = keyRanks[i++]; // Keys ending here
+        }
+        StringBuilder firsts = new StringBuilder();
+        List<Node> children = new ArrayList<>();
+        while (i < hi) {
+            char c = keys[i].charAt(end);
+            int j = i;
+            while (j < hi && keys[j].charAt(end) == c) {
+                j++;
+            }
+            Node child = build(i, j, end);
+            firsts.append(c);
+            children.add(child);
+            if (count + child.top.length > candidates.length) {
+                candidates = Arrays.copyOf(candidates, (count + child.top.length) * 2);
+            }
+            System.arraycopy(child.top, 0, candidates, count, child.top.length);
+            count += child.top.length;
+            i = j;
+        }
+
+        // Lower rank is better; a college can reach a node through several words
+        Arrays.sort(candidates, 0, count);
+        int[] top = new int[Math.min(count, MAX_SUGGESTIONS)];
+        int size = 0;
+        for (int k = 0; k < count && size < top.length; k++) {
+            if (size == 0 || top[size - 1] != candidates[k]) {
+                top[size++] = candidates[k];
+            }
+        }
+        return new Node(first.substring(depth, end), firsts.toString().toCharArray(),
+                children.toArray(new Node[0]), Arrays.copyOf(top, size));
+    }
+
+    private static void addKeys(List<Key> keys, Entry entry) {
+        String text = NameIndex.normalize(entry.text);
+        for (int i = 0; i < text.length(); i++) {
+            if (i == 0 || text.charAt(i - 1) == ' ') {
+                keys.add(new Key(text.substring(i), entry));
+            }
+        }
+    }
+
+    /**
+     * Tier first (400 for Premier down to 0 for unknown tiers), then
+     * placement rate (0-100)
+     */
+    private static double weight(College college) {
+        int tierGap = CollegeIndex.tierRank(null) - CollegeIndex.tierRank(college.getCollegeTier());
+        double placement = college.getPlacementRate() != null ? college.getPlacementRate() : 0;
+        return tierGap * 100.0 + Math.max(0, Math.min(100, placement));
+    }
+
+    enum Type {
+        COLLEGE, DISTRICT, STATE
+    }
+
+    static final class Entry {
+        final Type type;
+        final String text;
+        final Long collegeId;
+        final String district;
+        final String state;
+        final double weight;
+
+        Entry(Type type, String text, Long collegeId, String district, String state, double weight) {
+            this.type = type;
+            this.text = text;
+            this.collegeId = collegeId;
+            this.district = district;
+            this.state = state;
+            this.weight = weight;
+        }
+
+        static Entry of(College college) {
+            return new Entry(Type.COLLEGE, college.getName() != null ? college.getName() : "",
+                    college.getCollegeId(), college.getDistrict(), college.getState(), weight(college));
+        }
+    }
+
+    private static final class Key {
+        static final Comparator<Key> ORDER = Comparator.comparing((Key k) -> k.text);
+
+        final String text;
+        final Entry entry;
+
+        Key(String text, Entry entry) {
+            this.text = text;
+            this.entry = entry;
+        }
+    }
+
+    private static final class Node {
+        final String label;
+        final char[] firsts;
+        final Node[] children;
+        final int[] top; // Ranks of the best entries below, best first
+
+        Node(String label, char[] firsts, Node[] children, int[] top) {
+            this.label = label;
+            this.firsts = firsts;
+            this.children = children;
+            this.top = top;
+        }
+
+        Node child(char c) {
+            int i = Arrays.binarySearch(firsts, c);
+            return i >= 0 ? children[i] : null;
+        }
+    }
+}
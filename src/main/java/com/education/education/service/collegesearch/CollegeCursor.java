@@ -0,0 +1,68 @@
+package com.education.education.service.collegesearch;
+
+import com.education.education.entity.College;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Keyset cursor of a paged college search: the sort, its direction and the
+ * sort key, name and id of the last college returned. It names a position in
+ * the order rather than an offset, so it stays valid across index rebuilds
+ * and the next page starts strictly after that college even if it was removed.
+ */
+public final class CollegeCursor {
+
+    private final CollegeSort sort;
+    private final boolean descending;
+    private final College after;
+
+    private CollegeCursor(CollegeSort sort, boolean descending, College after) {
+        this.sort = sort;
+        this.descending = descending;
+        this.after = after;
+    }
+
+    /**
+     * Opaque cursor pointing just past a college
+     */
+    public static String encode(CollegeSort sort, boolean descending, College last) {
+        String value = sort.name() + "|" + (descending ? "desc" : "asc") + "|" + last.getCollegeId()
+                + "|" + sort.keyOf(last) + "|" + (last.getName() != null ? last.getName() : "");
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static CollegeCursor decode(String cursor) {
+        try {
+            String value = new String(Base64.getUrlDecoder().decode(cursor.trim()), StandardCharsets.UTF_8);
+            String[] parts = value.split("\\|", 5); // The name may itself contain '|'
+            if (parts.length != 5) {
+                throw new IllegalArgumentException();
+            }
+            CollegeSort sort = CollegeSort.valueOf(parts[0]);
+            College probe = new College();
+            probe.setCollegeId(Long.valueOf(parts[2]));
+            probe.setName(parts[4]);
+            sort.setKey(probe, parts[3]);
+            return new CollegeCursor(sort, "desc".equals(parts[1]), probe);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid college cursor: " + cursor);
+        }
+    }
+
+    public CollegeSort getSort() {
+        return sort;
+    }
+
+    public boolean isDescending() {
+        return descending;
+    }
+
+    /**
+     * Stand-in for the last college of the previous page, carrying only the
+     * fields the sort compares
+     */
+    College after() {
+        return after;
+    }
+}
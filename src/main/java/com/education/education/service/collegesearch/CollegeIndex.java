@@ -0,0 +1,367 @@
+package com.education.education.service.collegesearch;
+
+import com.education.education.entity.College;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Immutable search snapshot of the active college catalog. Colleges get dense
+ * doc ids in tier order (Premier, Excellent, Good, Foundation, other; then by
+ * name), so walking a bitset in ascending order yields results in tier order.
+ * Each attribute value is dictionary-encoded to a bitset of the docs having
+ * it; a query is an intersection of bitsets. Other sort orders are doc
+ * permutations computed on first use.
+ */
+public final class CollegeIndex {
+
+    /**
+     * Indexed attributes; STREAM indexes each entry of streamsOffered
+     */
+    public enum Field {
+        DISTRICT, STATE, TYPE, TIER, STREAM;
+
+        static final Field[] VALUES = values();
+    }
+
+    private static final String[] TIERS = { "premier", "excellent", "good", "foundation" };
+
+    private static final Comparator<College> TIER_ORDER = Comparator
+            .comparingInt((College c) -> tierRank(c.getCollegeTier()))
+            .thenComparing(c -> c.getName() != null ? c.getName().toLowerCase(Locale.ROOT) : "")
+            .thenComparing(College::getCollegeId, Comparator.nullsLast(Comparator.naturalOrder()));
+
+    private final College[] docs;
+    private final Map<Long, Integer> docById;
+    private final List<Map<String, BitSet>> postings;
+    private final List<Map<String, String>> displayValues;
+    private final List<Map<String, long[]>> postingWords;
+    private final NameIndex names;
+    private final GeoIndex geo;
+    private final Map<String, int[][]> sortOrders = new ConcurrentHashMap<>();
+
+    private CollegeIndex(College[] docs) {
+        this.docs = docs;
+        this.docById = new HashMap<>(docs.length * 2);
+        this.postings = new ArrayList<>();
+        this.displayValues = new ArrayList<>();
+        for (int f = 0; f < Field.VALUES.length; f++) {
+            postings.add(new HashMap<>());
+            displayValues.add(new HashMap<>());
+        }
+
+        for (int doc = 0; doc < docs.length; doc++) {
+            College college = docs[doc];
+            docById.put(college.getCollegeId(), doc);
+            post(Field.DISTRICT, college.getDistrict(), doc);
+            post(Field.STATE, college.getState(), doc);
+            post(Field.TYPE, college.getCollegeType(), doc);
+            post(Field.TIER, college.getCollegeTier(), doc);
+            if (college.getStreamsOffered() != null) {
+                for (String stream : college.getStreamsOffered().split(",")) {
+                    post(Field.STREAM, stream, doc);
+                }
+            }
+        }
+
+        this.postingWords = new ArrayList<>();
+        for (Map<String, BitSet> fieldPostings : postings) {
+            Map<String, long[]> words = new HashMap<>(fieldPostings.size() * 2);
+            fieldPostings.forEach((key, bits) -> words.put(key, bits.toLongArray()));
+            postingWords.add(words);
+        }
+
+        String[] docNames = new String[docs.length];
+        double[] lats = new double[docs.length];
+        double[] lons = new double[docs.length];
+        for (int doc = 0; doc < docs.length; doc++) {
+            College college = docs[doc];
+            docNames[doc] = college.getName();
+            lats[doc] = college.getLatitude() != null ? college.getLatitude().doubleValue() : Double.NaN;
+            lons[doc] = college.getLongitude() != null ? college.getLongitude().doubleValue() : Double.NaN;
+        }
+        this.names = new NameIndex(docNames);
+        this.geo = new GeoIndex(lats, lons);
+    }
+
+    /**
+     * Index of the given active colleges
+     */
+    public static CollegeIndex build(Collection<College> colleges) {
+        College[] docs = colleges.toArray(new College[0]);
+        Arrays.sort(docs, TIER_ORDER);
+        return new CollegeIndex(docs);
+    }
+
+    private void post(Field field, String value, int doc) {
+        String key = normalize(value);
+        if (key.isEmpty()) {
+            return;
+        }
+        postings.get(field.ordinal()).computeIfAbsent(key, k -> new BitSet(docs.length)).set(doc);
+        displayValues.get(field.ordinal()).putIfAbsent(key, value.trim());
+    }
+
+    public int size() {
+        return docs.length;
+    }
+
+    public College doc(int doc) {
+        return docs[doc];
+    }
+
+    /**
+     * Doc id of a college, or -1 if it is not in the index
+     */
+    public int docOf(Long collegeId) {
+        Integer doc = docById.get(collegeId);
+        return doc != null ? doc : -1;
+    }
+
+    /**
+     * Every doc (a new bitset the caller may modify)
+     */
+    public BitSet all() {
+        BitSet all = new BitSet(docs.length);
+        all.set(0, docs.length);
+        return all;
+    }
+
+    /**
+     * Docs whose value equals the given one, ignoring case and spacing (a new bitset)
+     */
+    public BitSet equalTo(Field field, String value) {
+        BitSet docs = postings.get(field.ordinal()).get(normalize(value));
+        return docs != null ? (BitSet) docs.clone() : new BitSet();
+    }
+
+    /**
+     * Docs whose value contains the given text, ignoring case: the union of
+     * the postings of every matching dictionary entry (a new bitset)
+     */
+    public BitSet containing(Field field, String text) {
+        String term = normalize(text);
+        BitSet result = new BitSet(docs.length);
+        for (Map.Entry<String, BitSet> entry : postings.get(field.ordinal()).entrySet()) {
+            if (entry.getKey().contains(term)) {
+                result.or(entry.getValue());
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Docs having any of the given values
+     */
+    public BitSet anyOf(Field field, String... values) {
+        BitSet result = new BitSet(docs.length);
+        for (String value : values) {
+            BitSet docs = postings.get(field.ordinal()).get(normalize(value));
+            if (docs != null) {
+                result.or(docs);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Colleges of a bitset in tier order, at most limit of them
+     */
+    public List<College> collect(BitSet matches, int limit) {
+        List<College> colleges = new ArrayList<>(Math.min(matches.cardinality(), limit));
+        for (int doc = matches.nextSetBit(0); doc >= 0 && colleges.size() < limit; doc = matches.nextSetBit(doc + 1)) {
+            colleges.add(docs[doc]);
+        }
+        return colleges;
+    }
+
+    public List<College> collect(BitSet matches) {
+        return collect(matches, Integer.MAX_VALUE);
+    }
+
+    /**
+     * How many docs of a set have each value of a field, by display value:
+     * the intersection cardinality of the set with every posting, read from
+     * the postings' words without building intersections. Values with no
+     * docs are left out; the rest come most frequent first (tiers in tier
+     * order), at most limit of them.
+     */
+    public Map<String, Integer> facetCounts(Field field, BitSet docs, int limit) {
+        long[] base = docs.toLongArray();
+        List<Map.Entry<String, Integer>> counts = new ArrayList<>();
+        for (Map.Entry<String, long[]> entry : postingWords.get(field.ordinal()).entrySet()) {
+            long[] words = entry.getValue();
+            int count = 0;
+            for (int i = 0, n = Math.min(base.length, words.length); i < n; i++) {
+                count += Long.bitCount(base[i] & words[i]);
+            }
+            if (count > 0) {
+                counts.add(Map.entry(entry.getKey(), count));
+            }
+        }
+        if (field == Field.TIER) {
+            counts.sort(Comparator.comparingInt((Map.Entry<String, Integer> e) -> tierRank(e.getKey()))
+                    .thenComparing(Map.Entry::getKey));
+        } else {
+            counts.sort(Comparator.comparingInt((Map.Entry<String, Integer> e) -> -e.getValue())
+                    .thenComparing(Map.Entry::getKey));
+        }
+        Map<String, Integer> facets = new LinkedHashMap<>();
+        for (int i = 0; i < counts.size() && i < limit; i++) {
+            facets.put(display(field, counts.get(i).getKey()), counts.get(i).getValue());
+        }
+        return facets;
+    }
+
+    /**
+     * One page of the matching docs in a sort order, starting just past the
+     * cursor's college (from the start when null). Dense matches are read
+     * off the order permutation; sparse ones are sorted by position and
+     * binary-searched, so no page scans the skipped rows.
+     */
+    public CollegePage page(BitSet matches, CollegeSort sort, boolean descending, CollegeCursor cursor, int limit) {
+        if (cursor != null && (cursor.getSort() != sort || cursor.isDescending() != descending)) {
+            throw new IllegalArgumentException("Cursor belongs to a different sort order");
+        }
+        Comparator<College> comparator = sort.comparator(descending);
+        int[][] sorted = sortOrder(sort, descending);
+        int[] order = sorted[0];
+        int[] position = sorted[1];
+        int total = matches.cardinality();
+
+        List<College> items = new ArrayList<>(Math.min(total, limit));
+        boolean more = false;
+        if (total * 16L < docs.length) {
+            int[] positions = new int[total];
+            int n = 0;
+            for (int doc = matches.nextSetBit(0); doc >= 0; doc = matches.nextSetBit(doc + 1)) {
+                positions[n++] = position[doc];
+            }
+            Arrays.sort(positions);
+            int start = cursor != null ? firstAfter(positions, order, comparator, cursor.after()) : 0;
+            for (int i = start; i < positions.length; i++) {
+                if (items.size() == limit) {
+                    more = true;
+                    break;
+                }
+                items.add(docs[order[positions[i]]]);
+            }
+        } else {
+            int start = cursor != null ? firstAfter(null, order, comparator, cursor.after()) : 0;
+            for (int i = start; i < order.length; i++) {
+                if (!matches.get(order[i])) {
+                    continue;
+                }
+                if (items.size() == limit) {
+                    more = true;
+                    break;
+                }
+                items.add(docs[order[i]]);
+            }
+        }
+        String nextCursor = more ? CollegeCursor.encode(sort, descending, items.get(items.size() - 1)) : null;
+        return new CollegePage(items, nextCursor, total);
+    }
+
+    /**
+     * First index into positions (all of order when null) whose college sorts
+     * after the given one
+     */
+    private int firstAfter(int[] positions, int[] order, Comparator<College> comparator, College after) {
+        int low = 0;
+        int high = positions != null ? positions.length : order.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            int doc = order[positions != null ? positions[mid] : mid];
+            if (comparator.compare(docs[doc], after) <= 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Docs in a sort order, and each doc's position in it
+     */
+    private int[][] sortOrder(CollegeSort sort, boolean descending) {
+        return sortOrders.computeIfAbsent(sort.name() + (descending ? ":desc" : ":asc"), k -> {
+            Comparator<College> comparator = sort.comparator(descending);
+            int[] order = new int[docs.length];
+            if (sort == CollegeSort.TIER && !descending) {
+                for (int doc = 0; doc < docs.length; doc++) {
+                    order[doc] = doc; // Doc ids are already in tier order
+                }
+            } else {
+                Integer[] boxed = new Integer[docs.length];
+                for (int doc = 0; doc < docs.length; doc++) {
+                    boxed[doc] = doc;
+                }
+                Arrays.sort(boxed, (a, b) -> comparator.compare(docs[a], docs[b]));
+                for (int i = 0; i < boxed.length; i++) {
+                    order[i] = boxed[i];
+                }
+            }
+            int[] position = new int[docs.length];
+            for (int i = 0; i < order.length; i++) {
+                position[order[i]] = i;
+            }
+            return new int[][] { order, position };
+        });
+    }
+
+    NameIndex names() {
+        return names;
+    }
+
+    GeoIndex geo() {
+        return geo;
+    }
+
+    /**
+     * Indexed values of a field with the bitset of each (shared; do not modify)
+     */
+    Map<String, BitSet> postings(Field field) {
+        return postings.get(field.ordinal());
+    }
+
+    /**
+     * Original spelling of a normalized value
+     */
+    String display(Field field, String key) {
+        return displayValues.get(field.ordinal()).getOrDefault(key, key);
+    }
+
+    /**
+     * Sort position of a tier: known tiers best first, anything else last
+     */
+    public static int tierRank(String tier) {
+        String key = normalize(tier);
+        for (int i = 0; i < TIERS.length; i++) {
+            if (TIERS[i].equals(key)) {
+                return i;
+            }
+        }
+        return TIERS.length;
+    }
+
+    /**
+     * Lower-cased, trimmed, inner whitespace collapsed; null becomes empty
+     */
+    public static String normalize(String value) {
+        if (value == null) {
+            return "";
+        }
+        return value.trim().replaceAll("\\s+", " ").toLowerCase(Locale.ROOT);
+    }
+}
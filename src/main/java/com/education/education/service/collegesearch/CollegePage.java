@@ -0,0 +1,60 @@
+package com.education.education.service.collegesearch;
+
+import com.education.education.entity.College;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * One page of a sorted college search
+ */
+public final class CollegePage {
+
+    private final List<College> items;
+    private final String nextCursor;
+    private final int total;
+    private final Map<String, Map<String, Integer>> facets;
+
+    CollegePage(List<College> items, String nextCursor, int total) {
+        this(items, nextCursor, total, null);
+    }
+
+    CollegePage(List<College> items, String nextCursor, int total, Map<String, Map<String, Integer>> facets) {
+        this.items = items;
+        this.nextCursor = nextCursor;
+        this.total = total;
+        this.facets = facets;
+    }
+
+    /**
+     * Copy of this page carrying facet counts
+     */
+    CollegePage withFacets(Map<String, Map<String, Integer>> facets) {
+        return new CollegePage(items, nextCursor, total, facets);
+    }
+
+    public List<College> getItems() {
+        return items;
+    }
+
+    /**
+     * Cursor of the following page, or null if this is the last
+     */
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    /**
+     * Number of matching colleges across all pages
+     */
+    public int getTotal() {
+        return total;
+    }
+
+    /**
+     * Counts by facet name and value, or null for searches without facets
+     */
+    public Map<String, Map<String, Integer>> getFacets() {
+        return facets;
+    }
+}
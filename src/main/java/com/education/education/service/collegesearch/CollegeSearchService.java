@@ -0,0 +1,312 @@
+package com.education.education.service.collegesearch;
+
+import com.education.education.entity.College;
+import com.education.education.repository.CollegeRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.core.annotation.Order;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Owns the current CollegeIndex. The catalog is loaded once (after the sample
+ * data initializer) and kept up to date by re-reading only the rows whose
+ * updated_at moved; a drop in the active count (deleted rows) triggers a
+ * full reload. updated_at is stamped at flush, not at commit, so each refresh
+ * re-reads a lag window behind the watermark to catch rows that committed
+ * late. Only the database read is incremental: each change rebuilds the
+ * index and the autocomplete trie in full and publishes them as new
+ * immutable snapshots.
+ */
+@Service
+@Order(4) // After CollegeDataInitializer (Order 3)
+public class CollegeSearchService implements CommandLineRunner {
+
+    private static final int MAX_PAGE_SIZE = 100;
+    private static final CollegeIndex.Field[] FACETS = {
+            CollegeIndex.Field.TYPE, CollegeIndex.Field.TIER, CollegeIndex.Field.STREAM, CollegeIndex.Field.DISTRICT };
+
+    @Autowired
+    private CollegeRepository collegeRepository;
+
+    @Value("${college.search.name-min-similarity:0.45}")
+    private double nameMinSimilarity;
+
+    @Value("${college.search.max-facet-values:50}")
+    private int maxFacetValues;
+
+    @Value("${college.search.refresh-lag-ms:300000}")
+    private long refreshLagMs;
+
+    private final Map<Long, College> catalog = new HashMap<>();
+    private LocalDateTime watermark;
+    private volatile CollegeIndex index;
+    private volatile AutocompleteIndex suggestions;
+
+    @Override
+    public void run(String... args) {
+        refreshIndex();
+    }
+
+    @Scheduled(fixedDelayString = "${college.search.refresh-interval-ms:60000}",
+            initialDelayString = "${college.search.refresh-interval-ms:60000}")
+    public void refreshIndex() {
+        try {
+            refresh();
+        } catch (Exception e) {
+            System.err.println("Error refreshing college search index: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Current snapshot, built on first use if startup could not build it
+     */
+    public CollegeIndex index() {
+        CollegeIndex current = index;
+        if (current == null) {
+            refresh();
+            current = index;
+        }
+        return current;
+    }
+
+    /**
+     * Apply catalog changes since the last refresh
+     */
+    public synchronized void refresh() {
+        LocalDateTime latest = collegeRepository.findLatestUpdate();
+        if (index != null && latest == null && collegeRepository.countActive() == catalog.size()) {
+            return;
+        }
+
+        boolean full = index == null || watermark == null || suggestions == null;
+        List<College> changed = new ArrayList<>();
+        List<Long> removed = new ArrayList<>();
+        if (full) {
+            reloadAll(latest);
+        } else {
+            // Rows already seen come back from the lag window; skip those that did not change
+            LocalDateTime since = watermark.minus(Duration.ofMillis(refreshLagMs));
+            for (College college : collegeRepository.findByUpdatedAtGreaterThanEqual(since)) {
+                College cached = catalog.get(college.getCollegeId());
+                if (Boolean.TRUE.equals(college.getIsActive())) {
+                    if (cached == null || !Objects.equals(cached.getUpdatedAt(), college.getUpdatedAt())) {
+                        catalog.put(college.getCollegeId(), college);
+                        changed.add(college);
+                    }
+                } else if (catalog.remove(college.getCollegeId()) != null) {
+                    removed.add(college.getCollegeId());
+                }
+            }
+            if (collegeRepository.countActive() != catalog.size()) {
+                reloadAll(latest);
+                full = true;
+            } else {
+                if (latest != null && latest.isAfter(watermark)) {
+                    watermark = latest;
+                }
+                if (changed.isEmpty() && removed.isEmpty()) {
+                    return;
+                }
+            }
+        }
+        index = CollegeIndex.build(catalog.values());
+        suggestions = full ? AutocompleteIndex.build(catalog.values())
+                : suggestions.update(changed, removed, catalog.values());
+        System.out.println("College search index built: " + index.size() + " colleges"
+                + (full ? "" : " (" + changed.size() + " changed, " + removed.size() + " removed)"));
+    }
+
+    private void reloadAll(LocalDateTime latest) {
+        catalog.clear();
+        for (College college : collegeRepository.findByIsActiveTrue()) {
+            catalog.put(college.getCollegeId(), college);
+        }
+        watermark = latest;
+    }
+
+    /**
+     * Rebuild now, e.g. after a bulk catalog import
+     */
+    public synchronized void invalidate() {
+        watermark = null;
+        refresh();
+    }
+
+    /**
+     * Advanced search: district, state and type match by contained text
+     * (ignoring case), stream and tier by exact value; null or blank
+     * criteria are ignored. Returns one page in the requested sort with
+     * type, tier, stream and district facet counts. Each facet counts the
+     * matches of the other filters, so a chosen value's alternatives keep
+     * their counts; every count is an intersection cardinality against the
+     * per-filter bitsets built for the page itself.
+     */
+    public CollegePage facetedSearch(String district, String state, String collegeType, String stream, String tier,
+            String sort, String direction, String cursor, int limit) {
+        CollegeIndex index = index();
+        Map<CollegeIndex.Field, BitSet> filters = new EnumMap<>(CollegeIndex.Field.class);
+        if (hasText(district)) {
+            filters.put(CollegeIndex.Field.DISTRICT, index.containing(CollegeIndex.Field.DISTRICT, district));
+        }
+        if (hasText(state)) {
+            filters.put(CollegeIndex.Field.STATE, index.containing(CollegeIndex.Field.STATE, state));
+        }
+        if (hasText(collegeType)) {
+            filters.put(CollegeIndex.Field.TYPE, index.containing(CollegeIndex.Field.TYPE, collegeType));
+        }
+        if (hasText(stream)) {
+            filters.put(CollegeIndex.Field.STREAM, index.equalTo(CollegeIndex.Field.STREAM, stream));
+        }
+        if (hasText(tier)) {
+            filters.put(CollegeIndex.Field.TIER, index.equalTo(CollegeIndex.Field.TIER, tier));
+        }
+
+        BitSet matches = intersect(index, filters, null);
+        Map<String, Map<String, Integer>> facets = new LinkedHashMap<>();
+        for (CollegeIndex.Field field : FACETS) {
+            BitSet base = filters.containsKey(field) ? intersect(index, filters, field) : matches;
+            facets.put(field.name().toLowerCase(Locale.ROOT), index.facetCounts(field, base, maxFacetValues));
+        }
+        return page(index, matches, sort, direction, cursor, limit).withFacets(facets);
+    }
+
+    /**
+     * Intersection of the filters, leaving one out (none when null)
+     */
+    private static BitSet intersect(CollegeIndex index, Map<CollegeIndex.Field, BitSet> filters,
+            CollegeIndex.Field except) {
+        BitSet result = index.all();
+        for (Map.Entry<CollegeIndex.Field, BitSet> filter : filters.entrySet()) {
+            if (filter.getKey() != except) {
+                result.and(filter.getValue());
+            }
+        }
+        return result;
+    }
+
+    /**
+     * One page of matches in the requested sort ("tier" by default) and
+     * direction ("asc" or "desc"; the sort's own default when blank). A
+     * cursor from the previous page must come with the same sort and direction.
+     */
+    public CollegePage page(CollegeIndex index, BitSet matches, String sort, String direction,
+            String cursor, int limit) {
+        CollegeSort order = CollegeSort.parse(sort);
+        boolean descending = order.descending(direction);
+        CollegeCursor after = hasText(cursor) ? CollegeCursor.decode(cursor) : null;
+        return index.page(matches, order, descending, after, Math.max(1, Math.min(limit, MAX_PAGE_SIZE)));
+    }
+
+    /**
+     * Colleges whose names best match a possibly misspelled query, with their
+     * similarity (share of the query's trigrams found in the name), best first
+     */
+    public Map<College, Double> searchByName(String query, int limit) {
+        CollegeIndex index = index();
+        Map<College, Double> results = new LinkedHashMap<>();
+        for (NameIndex.Match match : index.names().search(query, nameMinSimilarity, limit)) {
+            results.put(index.doc(match.doc), Math.round(match.share * 1000) / 1000.0);
+        }
+        return results;
+    }
+
+    /**
+     * Suggestions for a search box prefix: colleges, districts and states
+     * with a word starting with it, best first (tier, then placement rate;
+     * places just above their best college)
+     */
+    public List<Map<String, Object>> autocomplete(String prefix, int limit) {
+        index();
+        List<Map<String, Object>> rows = new ArrayList<>();
+        for (AutocompleteIndex.Entry entry : suggestions.suggest(prefix,
+                Math.max(1, Math.min(limit, AutocompleteIndex.MAX_SUGGESTIONS)))) {
+            Map<String, Object> row = new LinkedHashMap<>();
+            row.put("type", entry.type.name().toLowerCase(Locale.ROOT));
+            row.put("text", entry.text);
+            row.put("collegeId", entry.collegeId);
+            row.put("district", entry.district);
+            row.put("state", entry.state);
+            rows.add(row);
+        }
+        return rows;
+    }
+
+    /**
+     * Colleges nearest to a point, nearest first with their distance in km:
+     * the k nearest, limited to radiusKm when given. Stream, type and tier
+     * filters (exact, ignoring case) are applied while the grid is searched.
+     */
+    public Map<College, Double> nearby(double lat, double lon, Double radiusKm, int k,
+            String stream, String collegeType, String tier) {
+        CollegeIndex index = index();
+        BitSet allowed = null;
+        if (hasText(stream) || hasText(collegeType) || hasText(tier)) {
+            allowed = index.all();
+            if (hasText(stream)) {
+                allowed.and(index.equalTo(CollegeIndex.Field.STREAM, stream));
+            }
+            if (hasText(collegeType)) {
+                allowed.and(index.equalTo(CollegeIndex.Field.TYPE, collegeType));
+            }
+            if (hasText(tier)) {
+                allowed.and(index.equalTo(CollegeIndex.Field.TIER, tier));
+            }
+        }
+
+        Map<College, Double> results = new LinkedHashMap<>();
+        double maxKm = radiusKm != null ? radiusKm : Double.POSITIVE_INFINITY;
+        for (GeoIndex.Hit hit : index.geo().nearest(lat, lon, k, maxKm, allowed)) {
+            results.put(index.doc(hit.doc), Math.round(hit.distanceKm * 100) / 100.0);
+        }
+        return results;
+    }
+
+    /**
+     * Mean position of a district's colleges, or null if none has coordinates
+     */
+    public double[] districtCentre(String district) {
+        CollegeIndex index = index();
+        return index.geo().centroid(index.equalTo(CollegeIndex.Field.DISTRICT, district));
+    }
+
+    /**
+     * Premier and Excellent colleges of districts containing the text
+     */
+    public List<College> topInDistrict(String district) {
+        CollegeIndex index = index();
+        BitSet matches = index.containing(CollegeIndex.Field.DISTRICT, district);
+        matches.and(index.anyOf(CollegeIndex.Field.TIER, "Premier", "Excellent"));
+        return index.collect(matches);
+    }
+
+    /**
+     * Colleges with at least the given placement rate, highest first
+     */
+    public List<College> withPlacementRate(double minPlacementRate) {
+        CollegeIndex index = index();
+        BitSet matches = index.all();
+        return index.collect(matches).stream()
+                .filter(c -> c.getPlacementRate() != null && c.getPlacementRate() >= minPlacementRate)
+                .sorted(Comparator.comparing(College::getPlacementRate).reversed())
+                .toList();
+    }
+
+    static boolean hasText(String value) {
+        return value != null && !value.isBlank();
+    }
+}
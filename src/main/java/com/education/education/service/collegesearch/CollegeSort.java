@@ -0,0 +1,162 @@
+package com.education.education.service.collegesearch;
+
+import com.education.education.entity.College;
+
+import java.util.Comparator;
+import java.util.Locale;
+
+/**
+ * Sort orders for paged college search. Each orders by its key in the chosen
+ * direction (colleges without the key last), then by name and college id, so
+ * every college has a unique position and a page can resume after any of them.
+ */
+public enum CollegeSort {
+
+    TIER(false) {
+        @Override
+        Comparable<?> value(College college) {
+            int rank = CollegeIndex.tierRank(college.getCollegeTier());
+            return rank < CollegeIndex.tierRank(null) ? rank : null;
+        }
+
+        @Override
+        String keyOf(College college) {
+            return college.getCollegeTier() != null ? college.getCollegeTier() : "";
+        }
+
+        @Override
+        void setKey(College probe, String key) {
+            probe.setCollegeTier(key);
+        }
+    },
+    PLACEMENT_RATE(true) {
+        @Override
+        Comparable<?> value(College college) {
+            return college.getPlacementRate();
+        }
+
+        @Override
+        String keyOf(College college) {
+            return college.getPlacementRate() != null ? college.getPlacementRate().toString() : "";
+        }
+
+        @Override
+        void setKey(College probe, String key) {
+            probe.setPlacementRate(key.isEmpty() ? null : Double.valueOf(key));
+        }
+    },
+    NAME(false) {
+        @Override
+        Comparable<?> value(College college) {
+            return null; // The name tie-break is the whole order
+        }
+
+        @Override
+        String keyOf(College college) {
+            return "";
+        }
+
+        @Override
+        void setKey(College probe, String key) {
+        }
+    },
+    ESTABLISHMENT_YEAR(false) {
+        @Override
+        Comparable<?> value(College college) {
+            return college.getEstablishmentYear();
+        }
+
+        @Override
+        String keyOf(College college) {
+            return college.getEstablishmentYear() != null ? college.getEstablishmentYear().toString() : "";
+        }
+
+        @Override
+        void setKey(College probe, String key) {
+            probe.setEstablishmentYear(key.isEmpty() ? null : Integer.valueOf(key));
+        }
+    };
+
+    private static final Comparator<College> BY_NAME = Comparator
+            .comparing((College c) -> c.getName() != null ? c.getName().toLowerCase(Locale.ROOT) : "")
+            .thenComparing(College::getCollegeId, Comparator.nullsLast(Comparator.naturalOrder()));
+
+    private final boolean descendingByDefault;
+
+    CollegeSort(boolean descendingByDefault) {
+        this.descendingByDefault = descendingByDefault;
+    }
+
+    /**
+     * Sort key of a college, or null if it has none (unknown tiers included)
+     */
+    abstract Comparable<?> value(College college);
+
+    /**
+     * Sort key of a college as stored in a cursor
+     */
+    abstract String keyOf(College college);
+
+    /**
+     * Set a cursor's sort key on a probe college
+     */
+    abstract void setKey(College probe, String key);
+
+    /**
+     * Full order for a direction; colleges without the key are last either way
+     */
+    @SuppressWarnings({ "unchecked", "rawtypes" })
+    Comparator<College> comparator(boolean descending) {
+        Comparator<Comparable> direction = descending ? Comparator.reverseOrder() : Comparator.naturalOrder();
+        return Comparator.comparing((College c) -> (Comparable) value(c), Comparator.nullsLast(direction))
+                .thenComparing(BY_NAME);
+    }
+
+    public boolean isDescendingByDefault() {
+        return descendingByDefault;
+    }
+
+    /**
+     * Sort named by a request parameter ("tier", "placementRate",
+     * "placement_rate", "name", "establishmentYear", "year"); tier when blank
+     */
+    public static CollegeSort parse(String value) {
+        if (value == null || value.isBlank()) {
+            return TIER;
+        }
+        String key = value.trim().replaceAll("[-_\\s]", "").toLowerCase(Locale.ROOT);
+        switch (key) {
+            case "tier":
+                return TIER;
+            case "placementrate":
+            case "placement":
+                return PLACEMENT_RATE;
+            case "name":
+                return NAME;
+            case "establishmentyear":
+            case "year":
+                return ESTABLISHMENT_YEAR;
+            default:
+                throw new IllegalArgumentException("Unknown sort: " + value
+                        + " (use tier, placementRate, name or establishmentYear)");
+        }
+    }
+
+    /**
+     * Whether a direction parameter ("asc" or "desc") means descending; the
+     * sort's default when blank
+     */
+    public boolean descending(String direction) {
+        if (direction == null || direction.isBlank()) {
+            return descendingByDefault;
+        }
+        switch (direction.trim().toLowerCase(Locale.ROOT)) {
+            case "asc":
+                return false;
+            case "desc":
+                return true;
+            default:
+                throw new IllegalArgumentException("Unknown direction: " + direction + " (use asc or desc)");
+        }
+    }
+}
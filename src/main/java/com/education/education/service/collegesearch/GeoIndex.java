@@ -0,0 +1,183 @@
+package com.education.education.service.collegesearch;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Grid of fixed-size latitude/longitude cells over the colleges that have
+ * coordinates. A query visits only the cells its search area overlaps, in
+ * rings around the centre cell, and computes haversine distances for the
+ * colleges in those cells alone. Nearest-k stops once no unvisited cell can
+ * hold anything closer than the k-th result.
+ */
+final class GeoIndex {
+
+    static final double EARTH_RADIUS_KM = 6371.0088;
+    private static final double KM_PER_DEGREE = Math.PI * EARTH_RADIUS_KM / 180.0;
+    static final double CELL_DEGREES = 0.25; // About 28 km north-south
+
+    private final Map<Long, int[]> cells = new HashMap<>();
+    private final double[] lats;
+    private final double[] lons;
+    private final BitSet located;
+    private final int locatedCount;
+
+    /**
+     * Coordinates by doc id; NaN for colleges without them
+     */
+    GeoIndex(double[] lats, double[] lons) {
+        this.lats = lats;
+        this.lons = lons;
+        this.located = new BitSet(lats.length);
+        Map<Long, List<Integer>> building = new HashMap<>();
+        for (int doc = 0; doc < lats.length; doc++) {
+            if (Double.isNaN(lats[doc]) || Double.isNaN(lons[doc])) {
+                continue;
+            }
+            located.set(doc);
+            building.computeIfAbsent(cellKey(latCell(lats[doc]), lonCell(lons[doc])), k -> new ArrayList<>()).add(doc);
+        }
+        for (Map.Entry<Long, List<Integer>> entry : building.entrySet()) {
+            cells.put(entry.getKey(), entry.getValue().stream().mapToInt(Integer::intValue).toArray());
+        }
+        this.locatedCount = located.cardinality();
+    }
+
+    /**
+     * Mean position of the located docs of a set, or null if none has coordinates
+     */
+    double[] centroid(BitSet docs) {
+        double lat = 0;
+        double lon = 0;
+        int count = 0;
+        for (int doc = docs.nextSetBit(0); doc >= 0; doc = docs.nextSetBit(doc + 1)) {
+            if (located.get(doc)) {
+                lat += lats[doc];
+                lon += lons[doc];
+                count++;
+            }
+        }
+        return count > 0 ? new double[] { lat / count, lon / count } : null;
+    }
+
+    /**
+     * The k docs nearest to a point among the allowed ones (null for all),
+     * no farther than maxKm (infinite for no limit), nearest first
+     */
+    List<Hit> nearest(double lat, double lon, int k, double maxKm, BitSet allowed) {
+        List<Hit> hits = new ArrayList<>();
+        if (k <= 0 || cells.isEmpty()) {
+            return hits;
+        }
+        Comparator<Hit> byDistance = Comparator.comparingDouble((Hit h) -> h.distanceKm).thenComparingInt(h -> h.doc);
+        int centerLat = latCell(lat);
+        int centerLon = lonCell(lon);
+        int maxRing = (int) Math.round(180.0 / CELL_DEGREES); // Half way round; rings beyond wrap onto themselves
+        int[] seen = { 0 };
+
+        for (int ring = 0; ring <= maxRing && seen[0] < locatedCount; ring++) {
+            // Anything outside rings 0..ring-1 is at least this far away
+            double bound = ringLowerBoundKm(lat, ring);
+            if (bound > maxKm || (hits.size() >= k && bound >= hits.get(k - 1).distanceKm)) {
+                break;
+            }
+            int before = hits.size();
+            visitRing(centerLat, centerLon, ring, doc -> {
+                seen[0]++;
+                if (allowed != null && !allowed.get(doc)) {
+                    return;
+                }
+                double distance = haversineKm(lat, lon, lats[doc], lons[doc]);
+                if (distance <= maxKm) {
+                    hits.add(new Hit(doc, distance));
+                }
+            });
+            if (hits.size() > before) {
+                hits.sort(byDistance);
+                if (hits.size() > k) {
+                    hits.subList(k, hits.size()).clear();
+                }
+            }
+        }
+        return hits;
+    }
+
+    private void visitRing(int centerLat, int centerLon, int ring, DocVisitor visitor) {
+        int lonCells = (int) Math.round(360.0 / CELL_DEGREES);
+        for (int dLat = -ring; dLat <= ring; dLat++) {
+            int latCell = centerLat + dLat;
+            boolean edgeRow = Math.abs(dLat) == ring;
+            // Half way round, -ring and +ring are the same column
+            int lastLon = 2 * ring == lonCells ? ring - 1 : ring;
+            for (int dLon = -ring; dLon <= lastLon; dLon += edgeRow ? 1 : 2 * Math.max(ring, 1)) {
+                // Wrap around the antimeridian
+                int lonCell = Math.floorMod(centerLon + dLon + lonCells / 2, lonCells) - lonCells / 2;
+                int[] docs = cells.get(cellKey(latCell, lonCell));
+                if (docs != null) {
+                    for (int doc : docs) {
+                        visitor.visit(doc);
+                    }
+                }
+                if (ring == 0) {
+                    break;
+                }
+            }
+        }
+    }
+
+    /**
+     * Lower bound on the distance from a point to any cell outside the first
+     * ring rings. Such a cell is at least ring - 1 whole cells away in
+     * latitude, or in longitude; the nearest a point that far off in
+     * longitude can be is its great-circle distance to that meridian,
+     * asin(cos(lat) * sin(gap)), which only grows with the gap up to 90 degrees.
+     */
+    static double ringLowerBoundKm(double lat, int ring) {
+        if (ring <= 1) {
+            return 0;
+        }
+        double reach = (ring - 1) * CELL_DEGREES;
+        double latKm = reach * KM_PER_DEGREE;
+        double gap = Math.toRadians(Math.min(90.0, reach));
+        double lonKm = EARTH_RADIUS_KM * Math.asin(Math.min(1.0, Math.cos(Math.toRadians(lat)) * Math.sin(gap)));
+        return Math.max(0, Math.min(latKm, lonKm));
+    }
+
+    static double haversineKm(double lat1, double lon1, double lat2, double lon2) {
+        double dLat = Math.toRadians(lat2 - lat1);
+        double dLon = Math.toRadians(lon2 - lon1);
+        double a = Math.sin(dLat / 2) * Math.sin(dLat / 2)
+                + Math.cos(Math.toRadians(lat1)) * Math.cos(Math.toRadians(lat2)) * Math.sin(dLon / 2) * Math.sin(dLon / 2);
+        return 2 * EARTH_RADIUS_KM * Math.asin(Math.min(1.0, Math.sqrt(a)));
+    }
+
+    private static int latCell(double lat) {
+        return (int) Math.floor(lat / CELL_DEGREES);
+    }
+
+    private static int lonCell(double lon) {
+        return (int) Math.floor(lon / CELL_DEGREES);
+    }
+
+    private static long cellKey(int latCell, int lonCell) {
+        return ((long) latCell << 32) | (lonCell & 0xffffffffL);
+    }
+
+    private interface DocVisitor {
+        void visit(int doc);
+    }
+
+    static final class Hit {
+        final int doc;
+        final double distanceKm;
+
+        Hit(int doc, double distanceKm) {
+            this.doc = doc;
+            this.distanceKm = distanceKm;
+        }
+    }
+}
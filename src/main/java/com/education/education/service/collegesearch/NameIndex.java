@@ -0,0 +1,155 @@
+package com.education.education.service.collegesearch;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Trigram index over normalized college names for typo-tolerant search.
+ * Each word is padded with a space on both sides before it is cut into
+ * trigrams, so word starts and ends weigh in. A name matches a query by the
+ * share of the query's trigrams it contains. Only docs in the postings of the
+ * rarest query trigrams can reach the minimum share (prefix filtering), so
+ * the candidate set is bounded by those short lists rather than the catalog.
+ */
+final class NameIndex {
+
+    private static final int[] NONE = new int[0];
+
+    private final Map<String, int[]> postings;
+    private final int[] gramCounts;
+
+    NameIndex(String[] names) {
+        Map<String, int[]> building = new HashMap<>();
+        Map<String, Integer> sizes = new HashMap<>();
+        gramCounts = new int[names.length];
+        for (int doc = 0; doc < names.length; doc++) {
+            List<String> grams = trigrams(normalize(names[doc]));
+            gramCounts[doc] = grams.size();
+            for (String gram : grams) {
+                int[] docs = building.get(gram);
+                int size = sizes.getOrDefault(gram, 0);
+                if (docs == null) {
+                    docs = new int[4];
+                } else if (size == docs.length) {
+                    docs = Arrays.copyOf(docs, size * 2);
+                }
+                docs[size] = doc;
+                building.put(gram, docs);
+                sizes.put(gram, size + 1);
+            }
+        }
+        postings = new HashMap<>(building.size() * 2);
+        for (Map.Entry<String, int[]> entry : building.entrySet()) {
+            postings.put(entry.getKey(), Arrays.copyOf(entry.getValue(), sizes.get(entry.getKey())));
+        }
+    }
+
+    /**
+     * Docs containing at least minShare of the query's trigrams, best first:
+     * by share, then by Dice similarity (which favours names of similar
+     * length), then by doc id (tier order)
+     */
+    List<Match> search(String query, double minShare, int limit) {
+        List<String> grams = trigrams(normalize(query));
+        int n = grams.size();
+        if (n == 0 || limit <= 0) {
+            return List.of();
+        }
+        int minOverlap = Math.max(1, (int) Math.ceil(minShare * n - 1e-9));
+
+        int[][] lists = new int[n][];
+        for (int i = 0; i < n; i++) {
+            lists[i] = postings.getOrDefault(grams.get(i), NONE);
+        }
+        Arrays.sort(lists, Comparator.comparingInt(list -> list.length));
+
+        // A doc missing from all of the n - minOverlap + 1 rarest lists has
+        // at most minOverlap - 1 of the query's trigrams
+        int[] counts = new int[gramCounts.length];
+        int[] candidates = new int[16];
+        int candidateCount = 0;
+        int prefix = n - minOverlap + 1;
+        for (int i = 0; i < prefix; i++) {
+            for (int doc : lists[i]) {
+                if (counts[doc]++ == 0) {
+                    if (candidateCount == candidates.length) {
+                        candidates = Arrays.copyOf(candidates, candidateCount * 2);
+                    }
+                    candidates[candidateCount++] = doc;
+                }
+            }
+        }
+        for (int i = prefix; i < n; i++) {
+            for (int c = 0; c < candidateCount; c++) {
+                if (Arrays.binarySearch(lists[i], candidates[c]) >= 0) {
+                    counts[candidates[c]]++;
+                }
+            }
+        }
+
+        List<Match> matches = new ArrayList<>();
+        for (int c = 0; c < candidateCount; c++) {
+            int doc = candidates[c];
+            int common = counts[doc];
+            if (common >= minOverlap) {
+                matches.add(new Match(doc, (double) common / n, 2.0 * common / (n + gramCounts[doc])));
+            }
+        }
+        matches.sort(Comparator.comparingDouble((Match m) -> -m.share)
+                .thenComparingDouble(m -> -m.dice)
+                .thenComparingInt(m -> m.doc));
+        return matches.size() > limit ? matches.subList(0, limit) : matches;
+    }
+
+    /**
+     * Lower case without accents; apostrophes dropped ("St. Joseph's" becomes
+     * "st josephs"), other punctuation treated as spaces
+     */
+    static String normalize(String name) {
+        if (name == null) {
+            return "";
+        }
+        String folded = Normalizer.normalize(name, Normalizer.Form.NFD)
+                .replaceAll("\\p{M}+", "")
+                .toLowerCase(Locale.ROOT)
+                .replaceAll("['’`]", "");
+        return folded.replaceAll("[^\\p{L}\\p{N}]+", " ").trim();
+    }
+
+    /**
+     * Distinct trigrams of the space-padded words of a normalized name
+     */
+    static List<String> trigrams(String normalized) {
+        Set<String> grams = new LinkedHashSet<>();
+        for (String word : normalized.split(" ")) {
+            if (word.isEmpty()) {
+                continue;
+            }
+            String padded = " " + word + " ";
+            for (int i = 0; i + 3 <= padded.length(); i++) {
+                grams.add(padded.substring(i, i + 3));
+            }
+        }
+        return new ArrayList<>(grams);
+    }
+
+    static final class Match {
+        final int doc;
+        final double share;
+        final double dice;
+
+        Match(int doc, double share, double dice) {
+            this.doc = doc;
+            this.share = share;
+            this.dice = dice;
+        }
+    }
+}
@@ -0,0 +1,214 @@
+package com.education.education.service.leaderboard;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Best score of each user on one board. Entries are kept in a skip list
+ * ordered by score (highest first), so top-N walks the head of the list, and
+ * a Fenwick tree of user counts per score gives a user's rank in O(log max
+ * score). Ranks are competition ranks: users with equal scores share a rank.
+ */
+public class Leaderboard {
+
+    private static final Comparator<Entry> ORDER = Comparator.comparingInt((Entry e) -> -e.score)
+            .thenComparingLong(e -> e.userId);
+
+    private final ConcurrentSkipListSet<Entry> ordered = new ConcurrentSkipListSet<>(ORDER);
+    private final Map<Long, Entry> byUser = new HashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // Fenwick tree over scores 0..counts.length-1
+    private int[] counts = new int[64];
+
+    /**
+     * Keep a score if it beats the user's best; returns whether the board changed
+     */
+    public boolean offer(long userId, String name, int score) {
+        score = Math.max(0, score);
+        lock.writeLock().lock();
+        try {
+            Entry current = byUser.get(userId);
+            if (current != null) {
+                if (current.score >= score) {
+                    return false;
+                }
+                ordered.remove(current);
+                update(current.score, -1);
+            }
+            // Count before adding: a resize rebuilds the tree from the ordered entries
+            update(score, 1);
+            Entry entry = new Entry(userId, name, score);
+            byUser.put(userId, entry);
+            ordered.add(entry);
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(long userId) {
+        lock.writeLock().lock();
+        try {
+            Entry current = byUser.remove(userId);
+            if (current != null) {
+                ordered.remove(current);
+                update(current.score, -1);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return byUser.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Best entries, highest first, with their ranks
+     */
+    public List<Ranked> top(int limit) {
+        List<Ranked> top = new ArrayList<>(Math.min(limit, 100));
+        lock.readLock().lock();
+        try {
+            Iterator<Entry> it = ordered.iterator();
+            int position = 0;
+            int rank = 0;
+            int previousScore = Integer.MIN_VALUE;
+            while (it.hasNext() && top.size() < limit) {
+                Entry entry = it.next();
+                position++;
+                if (entry.score != previousScore) {
+                    rank = position;
+                    previousScore = entry.score;
+                }
+                top.add(new Ranked(entry, rank));
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return top;
+    }
+
+    /**
+     * A user's entry and rank, or null if the user is not on the board
+     */
+    public Ranked rank(long userId) {
+        lock.readLock().lock();
+        try {
+            Entry entry = byUser.get(userId);
+            return entry != null ? new Ranked(entry, rankOf(entry.score)) : null;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Rank a score would have: one more than the number of users above it
+     */
+    public int rankOfScore(int score) {
+        lock.readLock().lock();
+        try {
+            return rankOf(Math.max(0, score));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private int rankOf(int score) {
+        return 1 + byUser.size() - countAtMost(score);
+    }
+
+    private void update(int score, int delta) {
+        if (score >= counts.length) {
+            grow(score);
+        }
+        for (int i = score + 1; i <= counts.length; i += i & -i) {
+            counts[i - 1] += delta;
+        }
+    }
+
+    private int countAtMost(int score) {
+        int total = 0;
+        for (int i = Math.min(score + 1, counts.length); i > 0; i -= i & -i) {
+            total += counts[i - 1];
+        }
+        return total;
+    }
+
+    /**
+     * Resize to a power of two above the score and rebuild the tree from the entries
+     */
+    private void grow(int score) {
+        int capacity = counts.length;
+        while (capacity <= score) {
+            capacity *= 2;
+        }
+        counts = new int[capacity];
+        for (Entry entry : ordered) {
+            for (int i = entry.score + 1; i <= capacity; i += i & -i) {
+                counts[i - 1]++;
+            }
+        }
+    }
+
+    /**
+     * A user's best score on the board (immutable)
+     */
+    public static final class Entry {
+        private final long userId;
+        private final String name;
+        private final int score;
+
+        Entry(long userId, String name, int score) {
+            this.userId = userId;
+            this.name = name;
+            this.score = score;
+        }
+
+        public long getUserId() {
+            return userId;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public int getScore() {
+            return score;
+        }
+    }
+
+    /**
+     * An entry with its rank
+     */
+    public static final class Ranked {
+        private final Entry entry;
+        private final int rank;
+
+        Ranked(Entry entry, int rank) {
+            this.entry = entry;
+            this.rank = rank;
+        }
+
+        public Entry getEntry() {
+            return entry;
+        }
+
+        public int getRank() {
+            return rank;
+        }
+    }
+}
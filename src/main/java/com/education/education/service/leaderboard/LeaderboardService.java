@@ -0,0 +1,178 @@
+package com.education.education.service.leaderboard;
+
+import com.education.education.entity.User;
+import com.education.education.repository.LeaderboardRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Per-quiz and per-district-per-quiz leaderboards of registered users' best
+ * scores, held in memory. Boards are rebuilt from the per-user quiz rollup at
+ * startup (and on the optional rebuild cron) and updated on every stored
+ * attempt, so top-N and rank lookups never touch the database.
+ */
+@Service
+public class LeaderboardService implements CommandLineRunner {
+
+    private static final String ALL_DISTRICTS = "";
+
+    @Autowired
+    private LeaderboardRepository leaderboardRepository;
+
+    @Value("${quiz.leaderboard.max-limit:100}")
+    private int maxLimit;
+
+    private volatile Map<String, Leaderboard> boards = new ConcurrentHashMap<>();
+    private volatile Map<String, Leaderboard> rebuilding;
+    private final Map<Long, String> userDistricts = new ConcurrentHashMap<>();
+
+    @Override
+    public void run(String... args) {
+        rebuild();
+    }
+
+    /**
+     * Reload every board from the stored best scores. Attempts recorded while
+     * the rebuild runs go to both the old and the new boards.
+     */
+    @Scheduled(cron = "${quiz.leaderboard.rebuild-cron:-}")
+    public synchronized void rebuild() {
+        Map<String, Leaderboard> fresh = new ConcurrentHashMap<>();
+        rebuilding = fresh;
+        try {
+            int[] rows = { 0 };
+            leaderboardRepository.streamBestScores(rs -> {
+                long userId = rs.getLong("user_id");
+                String district = districtKey(rs.getString("district"));
+                offer(fresh, rs.getLong("quiz_id"), district, userId, rs.getString("name"), rs.getInt("best_score"));
+                userDistricts.put(userId, district);
+                rows[0]++;
+            });
+            boards = fresh;
+            System.out.println("Leaderboards loaded: " + rows[0] + " entries on " + fresh.size() + " boards");
+        } catch (Exception e) {
+            System.err.println("Error loading leaderboards: " + e.getMessage());
+        } finally {
+            rebuilding = null;
+        }
+    }
+
+    /**
+     * Offer a stored attempt's score to the user's quiz and district boards;
+     * guests are not ranked
+     */
+    public void record(User user, Long quizId, int score) {
+        if (user == null || user.getUserId() == null || quizId == null || Boolean.TRUE.equals(user.getIsGuest())) {
+            return;
+        }
+        long userId = user.getUserId();
+        String district = districtKey(user.getDistrict());
+        String previous = userDistricts.put(userId, district);
+        if (previous != null && !previous.equals(district)) {
+            moveUser(userId, previous, district);
+        }
+
+        Map<String, Leaderboard> pending = rebuilding;
+        if (pending != null) {
+            offer(pending, quizId, district, userId, user.getName(), score);
+        }
+        offer(boards, quizId, district, userId, user.getName(), score);
+    }
+
+    /**
+     * Best entries of a board, highest first; district null or blank for the
+     * quiz-wide board
+     */
+    public List<Map<String, Object>> top(Long quizId, String district, int limit) {
+        Leaderboard board = boards.get(key(quizId, districtKey(district)));
+        List<Map<String, Object>> rows = new ArrayList<>();
+        if (board == null) {
+            return rows;
+        }
+        for (Leaderboard.Ranked ranked : board.top(Math.max(1, Math.min(limit, maxLimit)))) {
+            rows.add(toMap(ranked));
+        }
+        return rows;
+    }
+
+    /**
+     * A user's rank on a board, or null if the user has no score there
+     */
+    public Map<String, Object> rank(Long quizId, String district, Long userId) {
+        Leaderboard board = boards.get(key(quizId, districtKey(district)));
+        Leaderboard.Ranked ranked = board != null ? board.rank(userId) : null;
+        if (ranked == null) {
+            return null;
+        }
+        Map<String, Object> row = toMap(ranked);
+        row.put("total", board.size());
+        return row;
+    }
+
+    /**
+     * The user's district board, or null for users without a district
+     */
+    public String districtOf(User user) {
+        String district = user != null ? user.getDistrict() : null;
+        return district != null && !district.isBlank() ? district : null;
+    }
+
+    private static void offer(Map<String, Leaderboard> target, long quizId, String district, long userId,
+            String name, int score) {
+        target.computeIfAbsent(key(quizId, ALL_DISTRICTS), k -> new Leaderboard()).offer(userId, name, score);
+        if (!ALL_DISTRICTS.equals(district)) {
+            target.computeIfAbsent(key(quizId, district), k -> new Leaderboard()).offer(userId, name, score);
+        }
+    }
+
+    /**
+     * Move a user's entries to the boards of a new district, taking each
+     * quiz's best score from the quiz-wide board
+     */
+    private void moveUser(long userId, String from, String to) {
+        for (Map.Entry<String, Leaderboard> entry : boards.entrySet()) {
+            String key = entry.getKey();
+            if (!key.endsWith(":" + ALL_DISTRICTS)) {
+                continue;
+            }
+            Leaderboard.Ranked ranked = entry.getValue().rank(userId);
+            if (ranked == null) {
+                continue;
+            }
+            long quizId = Long.parseLong(key.substring(0, key.indexOf(':')));
+            if (!ALL_DISTRICTS.equals(from)) {
+                Leaderboard old = boards.get(key(quizId, from));
+                if (old != null) {
+                    old.remove(userId);
+                }
+            }
+            offer(boards, quizId, to, userId, ranked.getEntry().getName(), ranked.getEntry().getScore());
+        }
+    }
+
+    private static Map<String, Object> toMap(Leaderboard.Ranked ranked) {
+        Map<String, Object> row = new LinkedHashMap<>();
+        row.put("rank", ranked.getRank());
+        row.put("userId", ranked.getEntry().getUserId());
+        row.put("name", ranked.getEntry().getName());
+        row.put("score", ranked.getEntry().getScore());
+        return row;
+    }
+
+    private static String key(long quizId, String district) {
+        return quizId + ":" + district;
+    }
+
+    private static String districtKey(String district) {
+        return district == null || district.isBlank() ? ALL_DISTRICTS : district.trim().toLowerCase();
+    }
+}
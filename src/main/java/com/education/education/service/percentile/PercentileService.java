@@ -0,0 +1,210 @@
+package com.education.education.service.percentile;
+
+import com.education.education.repository.QuizScoreHistogramRepository;
+import com.education.education.service.scoring.AptitudeCategory;
+import com.education.education.service.scoring.CompiledQuiz;
+import com.education.education.service.scoring.CompiledQuizCache;
+import com.education.education.service.scoring.ScoreCard;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Where a score stands among all recorded attempts of a quiz, overall and per
+ * aptitude category. Each quiz has an in-memory ScoreHistogram updated on
+ * every recorded attempt; histograms are checkpointed to the database
+ * periodically and on shutdown, and pick up other instances' counts then.
+ */
+@Service
+public class PercentileService implements CommandLineRunner {
+
+    public static final String TOTAL = "total";
+
+    @Autowired
+    private QuizScoreHistogramRepository quizScoreHistogramRepository;
+
+    @Autowired
+    private CompiledQuizCache compiledQuizCache;
+
+    private final Map<Long, ScoreHistogram> histograms = new ConcurrentHashMap<>();
+    private volatile boolean loaded;
+
+    @Override
+    public void run(String... args) {
+        load();
+    }
+
+    private synchronized void load() {
+        try {
+            if (quizScoreHistogramRepository.isEmpty()) {
+                seedFromAttempts();
+            }
+            merge(quizScoreHistogramRepository.loadAll(ScoreHistogram.DIMENSIONS, ScoreHistogram.BINS));
+            loaded = true;
+        } catch (Exception e) {
+            System.err.println("Error loading score histograms: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Overall histograms from existing attempts; category scores were never
+     * stored, so category histograms start with new attempts
+     */
+    private void seedFromAttempts() {
+        Map<Long, long[]> seeded = new HashMap<>();
+        for (long[] row : quizScoreHistogramRepository.countAttemptScores()) {
+            CompiledQuiz quiz;
+            try {
+                quiz = compiledQuizCache.get(row[0]);
+            } catch (RuntimeException e) {
+                continue;
+            }
+            int bin = ScoreHistogram.bin((int) row[1], quiz.getMaxScore());
+            if (bin >= 0) {
+                seeded.computeIfAbsent(row[0], id -> new long[ScoreHistogram.DIMENSIONS * ScoreHistogram.BINS])
+                        [ScoreHistogram.TOTAL * ScoreHistogram.BINS + bin] += row[2];
+            }
+        }
+        quizScoreHistogramRepository.addCounts(seeded, ScoreHistogram.BINS);
+        if (!seeded.isEmpty()) {
+            System.out.println("Seeded score histograms for " + seeded.size() + " quizzes");
+        }
+    }
+
+    /**
+     * Add a recorded attempt to its quiz's histogram
+     */
+    public void record(Long quizId, ScoreCard scores) {
+        histogram(quizId).record(scores);
+    }
+
+    /**
+     * Percentile ranks of a score card: "total" and each category's display name
+     */
+    public Map<String, Double> percentiles(Long quizId, ScoreCard scores) {
+        ScoreHistogram histogram = histogram(quizId);
+        Map<String, Double> percentiles = new LinkedHashMap<>();
+        percentiles.put(TOTAL, histogram.percentile(ScoreHistogram.TOTAL,
+                ScoreHistogram.bin(scores.getTotalScore(), scores.getMaxScore())));
+        for (AptitudeCategory category : AptitudeCategory.VALUES) {
+            Double percentile = histogram.percentile(ScoreHistogram.dimension(category),
+                    ScoreHistogram.bin(scores.score(category), scores.max(category)));
+            if (percentile != null) {
+                percentiles.put(category.getDisplayName(), percentile);
+            }
+        }
+        return percentiles;
+    }
+
+    /**
+     * Percentile rank of a raw score in "total" or a category
+     */
+    public Double percentile(Long quizId, String dimensionName, int score) {
+        CompiledQuiz quiz = compiledQuizCache.get(quizId);
+        int dimension = dimension(dimensionName);
+        int max = dimension == ScoreHistogram.TOTAL
+                ? quiz.getMaxScore()
+                : quiz.categoryMax(dimension - 1);
+        return histogram(quizId).percentile(dimension, ScoreHistogram.bin(score, max));
+    }
+
+    /**
+     * Full percentile tables of a quiz: per dimension, the attempt count and
+     * the percentile rank of every percentage score 0-100
+     */
+    public Map<String, Object> percentileTables(Long quizId) {
+        compiledQuizCache.get(quizId); // Fails for unknown quizzes
+        ScoreHistogram histogram = histogram(quizId);
+        Map<String, Object> tables = new LinkedHashMap<>();
+        tables.put(TOTAL, table(histogram, ScoreHistogram.TOTAL));
+        for (AptitudeCategory category : AptitudeCategory.VALUES) {
+            tables.put(category.getDisplayName(), table(histogram, ScoreHistogram.dimension(category)));
+        }
+        return tables;
+    }
+
+    private static Map<String, Object> table(ScoreHistogram histogram, int dimension) {
+        Map<String, Object> table = new LinkedHashMap<>();
+        table.put("count", histogram.count(dimension));
+        table.put("percentileByPercentage", histogram.percentiles(dimension));
+        return table;
+    }
+
+    /**
+     * Flush counts recorded since the last checkpoint and reload the stored totals
+     */
+    @Scheduled(fixedDelayString = "${quiz.percentiles.checkpoint-interval-ms:60000}",
+            initialDelayString = "${quiz.percentiles.checkpoint-interval-ms:60000}")
+    @PreDestroy
+    public synchronized void checkpoint() {
+        if (!loaded) {
+            // Nothing can be merged before the stored totals are known
+            load();
+            if (!loaded) {
+                return;
+            }
+        }
+
+        Map<Long, long[]> pending = new HashMap<>();
+        for (Map.Entry<Long, ScoreHistogram> entry : histograms.entrySet()) {
+            pending.put(entry.getKey(), entry.getValue().beginCheckpoint());
+        }
+        try {
+            quizScoreHistogramRepository.addCounts(pending, ScoreHistogram.BINS);
+        } catch (Exception e) {
+            // Counts stay in the flushing layer and are sent with the next checkpoint
+            System.err.println("Error checkpointing score histograms: " + e.getMessage());
+            return;
+        }
+
+        Map<Long, long[]> stored;
+        try {
+            stored = quizScoreHistogramRepository.loadAll(ScoreHistogram.DIMENSIONS, ScoreHistogram.BINS);
+        } catch (Exception e) {
+            // The counts are stored; keep our own view until the next reload
+            System.err.println("Error reloading score histograms: " + e.getMessage());
+            for (Long quizId : pending.keySet()) {
+                histograms.get(quizId).completeCheckpointLocally();
+            }
+            return;
+        }
+        for (Long quizId : pending.keySet()) {
+            histograms.get(quizId).completeCheckpoint(stored.get(quizId));
+        }
+        merge(stored);
+    }
+
+    /**
+     * Take stored totals for quizzes without a checkpoint in flight
+     */
+    private void merge(Map<Long, long[]> stored) {
+        for (Map.Entry<Long, long[]> entry : stored.entrySet()) {
+            ScoreHistogram existing = histograms.putIfAbsent(entry.getKey(), new ScoreHistogram(entry.getValue()));
+            if (existing != null) {
+                existing.refresh(entry.getValue());
+            }
+        }
+    }
+
+    private ScoreHistogram histogram(Long quizId) {
+        return histograms.computeIfAbsent(quizId, id -> new ScoreHistogram(null));
+    }
+
+    private static int dimension(String name) {
+        if (name == null || name.isBlank() || TOTAL.equalsIgnoreCase(name)) {
+            return ScoreHistogram.TOTAL;
+        }
+        AptitudeCategory category = AptitudeCategory.fromAlias(name);
+        if (category == null) {
+            throw new RuntimeException("Unknown score category: " + name);
+        }
+        return ScoreHistogram.dimension(category);
+    }
+}
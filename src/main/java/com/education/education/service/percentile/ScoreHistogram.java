@@ -0,0 +1,191 @@
+package com.education.education.service.percentile;
+
+import com.education.education.service.scoring.AptitudeCategory;
+import com.education.education.service.scoring.ScoreCard;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Score distribution of one quiz: a 101-bin histogram of percentage scores
+ * for the total (dimension 0) and for each aptitude category. Scores are
+ * bounded, so fixed bins are exact and two histograms merge by adding
+ * counts. Counts are kept in three layers: the last checkpointed totals,
+ * counts being checkpointed, and counts recorded since. Percentile ranks are
+ * read from a table rebuilt after changes, so a lookup is one array read.
+ */
+public class ScoreHistogram {
+
+    public static final int BINS = 101;
+    public static final int DIMENSIONS = 1 + AptitudeCategory.COUNT;
+    public static final int TOTAL = 0;
+
+    private final AtomicLongArray recorded = new AtomicLongArray(DIMENSIONS * BINS);
+    private final AtomicBoolean dirty = new AtomicBoolean(true);
+
+    private long[] checkpointed;
+    private long[] flushing;
+    private volatile Table table;
+
+    public ScoreHistogram(long[] checkpointed) {
+        this.checkpointed = checkpointed != null ? checkpointed : new long[DIMENSIONS * BINS];
+    }
+
+    /**
+     * Dimension of an aptitude category
+     */
+    public static int dimension(AptitudeCategory category) {
+        return 1 + category.ordinal();
+    }
+
+    /**
+     * Percentage bin of a score, or -1 if the maximum is zero
+     */
+    public static int bin(int score, int max) {
+        if (max <= 0) {
+            return -1;
+        }
+        long bin = Math.round(score * 100.0 / max);
+        return (int) Math.max(0, Math.min(BINS - 1, bin));
+    }
+
+    /**
+     * Add one scored attempt; categories the quiz does not cover are skipped
+     */
+    public void record(ScoreCard scores) {
+        add(TOTAL, bin(scores.getTotalScore(), scores.getMaxScore()), 1);
+        for (AptitudeCategory category : AptitudeCategory.VALUES) {
+            add(dimension(category), bin(scores.score(category), scores.max(category)), 1);
+        }
+    }
+
+    /**
+     * Add a number of attempts to one bin
+     */
+    public void add(int dimension, int bin, long count) {
+        if (bin < 0) {
+            return;
+        }
+        recorded.addAndGet(dimension * BINS + bin, count);
+        dirty.set(true);
+    }
+
+    /**
+     * Percentile rank (0-100) of a percentage bin: the share of attempts
+     * scoring below it, counting ties as half. Null with no attempts.
+     */
+    public Double percentile(int dimension, int bin) {
+        if (bin < 0) {
+            return null;
+        }
+        double rank = table().ranks[dimension * BINS + bin];
+        return Double.isNaN(rank) ? null : rank;
+    }
+
+    /**
+     * Percentile ranks of every bin of a dimension (null entries without attempts)
+     */
+    public Double[] percentiles(int dimension) {
+        double[] ranks = table().ranks;
+        Double[] result = new Double[BINS];
+        for (int b = 0; b < BINS; b++) {
+            double rank = ranks[dimension * BINS + b];
+            result[b] = Double.isNaN(rank) ? null : rank;
+        }
+        return result;
+    }
+
+    public long count(int dimension) {
+        return table().counts[dimension];
+    }
+
+    /**
+     * Move recorded counts into the flushing layer and return everything not
+     * yet checkpointed. A failed checkpoint leaves them there to be retried.
+     */
+    public synchronized long[] beginCheckpoint() {
+        if (flushing == null) {
+            flushing = new long[DIMENSIONS * BINS];
+        }
+        for (int i = 0; i < flushing.length; i++) {
+            flushing[i] += recorded.getAndSet(i, 0);
+        }
+        return flushing.clone();
+    }
+
+    /**
+     * Replace the checkpointed layer with the stored totals, which now
+     * include the flushed counts (and those of other instances)
+     */
+    public synchronized void completeCheckpoint(long[] stored) {
+        checkpointed = stored != null ? stored : new long[DIMENSIONS * BINS];
+        flushing = null;
+        dirty.set(true);
+    }
+
+    /**
+     * The flushed counts are stored but the totals could not be read back:
+     * fold them into the checkpointed layer
+     */
+    public synchronized void completeCheckpointLocally() {
+        if (flushing != null) {
+            for (int i = 0; i < flushing.length; i++) {
+                checkpointed[i] += flushing[i];
+            }
+            flushing = null;
+            dirty.set(true);
+        }
+    }
+
+    /**
+     * Take newer stored totals without a checkpoint of our own in flight
+     */
+    public synchronized void refresh(long[] stored) {
+        if (flushing == null) {
+            completeCheckpoint(stored);
+        }
+    }
+
+    private Table table() {
+        if (dirty.compareAndSet(true, false)) {
+            table = build();
+        }
+        Table current = table;
+        return current != null ? current : build();
+    }
+
+    private synchronized Table build() {
+        long[] counts = new long[DIMENSIONS * BINS];
+        for (int i = 0; i < counts.length; i++) {
+            counts[i] = checkpointed[i] + recorded.get(i) + (flushing != null ? flushing[i] : 0);
+        }
+
+        double[] ranks = new double[DIMENSIONS * BINS];
+        long[] totals = new long[DIMENSIONS];
+        for (int d = 0; d < DIMENSIONS; d++) {
+            long total = 0;
+            for (int b = 0; b < BINS; b++) {
+                total += counts[d * BINS + b];
+            }
+            totals[d] = total;
+
+            long below = 0;
+            for (int b = 0; b < BINS; b++) {
+                long here = counts[d * BINS + b];
+                ranks[d * BINS + b] = total > 0 ? (below + here / 2.0) * 100.0 / total : Double.NaN;
+                below += here;
+            }
+        }
+        return new Table(ranks, totals);
+    }
+
+    private static final class Table {
+        private final double[] ranks;
+        private final long[] counts;
+
+        Table(double[] ranks, long[] counts) {
+            this.ranks = ranks;
+            this.counts = counts;
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package com.education.education.service.scoring;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Aptitude categories scored by the quiz engine. Question categories are
+ * resolved to one of these through their aliases when a quiz is compiled.
+ */
+public enum AptitudeCategory {
+
+    MATHEMATICAL("Mathematical", "mathematical", "mathematics", "numerical"),
+    VERBAL("Verbal", "verbal", "language", "english"),
+    ANALYTICAL("Analytical", "analytical", "logical", "reasoning"),
+    TECHNICAL("Technical", "technical", "science", "physics", "chemistry");
+
+    public static final AptitudeCategory[] VALUES = values();
+    public static final int COUNT = VALUES.length;
+
+    private static final Map<String, AptitudeCategory> ALIASES = new HashMap<>();
+
+    static {
+        for (AptitudeCategory category : VALUES) {
+            for (String alias : category.aliases) {
+                ALIASES.put(alias, category);
+            }
+        }
+    }
+
+    private final String displayName;
+    private final String[] aliases;
+
+    AptitudeCategory(String displayName, String... aliases) {
+        this.displayName = displayName;
+        this.aliases = aliases;
+    }
+
+    /**
+     * Resolve a question category name, returns null for unknown categories
+     */
+    public static AptitudeCategory fromAlias(String category) {
+        return category != null ? ALIASES.get(category.toLowerCase()) : null;
+    }
+
+    public String getDisplayName() {
+        return displayName;
+    }
+}
@@ -0,0 +1,276 @@
+package com.education.education.service.scoring;
+
+import com.education.education.entity.Quiz;
+import com.education.education.repository.QuizQuestionRepository;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Answer key of a quiz flattened into parallel primitive arrays.
+ * Built once per quiz version so scoring never touches the JSON tree.
+ */
+public final class CompiledQuiz {
+
+    // Category code for questions outside the known aptitude categories
+    public static final int CATEGORY_NONE = -1;
+
+    // Marker for answer keys that are not a single option letter
+    private static final char TEXT_KEY = '\0';
+
+    // Item parameters for questions that have not been calibrated
+    public static final double DEFAULT_DISCRIMINATION = 1.0;
+
+    // Question ids spread wider than this many slots per question use binary search
+    private static final int MAX_ID_SPREAD = 8;
+
+    private final Long quizId;
+    private final String title;
+    private final LocalDateTime version;
+    private final int[] questionIds;
+    private final char[] correctOptions;
+    private final String[] textKeys;
+    private final int[] categoryCodes;
+    private final int[] points;
+
+    // Item response (2PL) parameters: difficulty b and discrimination a
+    private final double[] difficulty;
+    private final double[] discrimination;
+
+    // Totals that do not depend on the submission
+    private final int maxScore;
+    private final int[] categoryMax;
+
+    // questionId -> question index, either a direct table or sorted ids for binary search
+    private final int minQuestionId;
+    private final int[] indexById;
+    private final int[] sortedIds;
+    private final int[] sortedIndexes;
+
+    private CompiledQuiz(Long quizId, String title, LocalDateTime version, int[] questionIds,
+            char[] correctOptions, String[] textKeys, int[] categoryCodes, int[] points, double[] difficulty,
+            double[] discrimination) {
+        this.quizId = quizId;
+        this.title = title;
+        this.version = version;
+        this.questionIds = questionIds;
+        this.correctOptions = correctOptions;
+        this.textKeys = textKeys;
+        this.categoryCodes = categoryCodes;
+        this.points = points;
+        this.difficulty = difficulty;
+        this.discrimination = discrimination;
+
+        int total = 0;
+        int[] perCategory = new int[AptitudeCategory.COUNT];
+        int minId = Integer.MAX_VALUE, maxId = Integer.MIN_VALUE;
+        for (int i = 0; i < questionIds.length; i++) {
+            total += points[i];
+            if (categoryCodes[i] != CATEGORY_NONE) {
+                perCategory[categoryCodes[i]] += points[i];
+            }
+            minId = Math.min(minId, questionIds[i]);
+            maxId = Math.max(maxId, questionIds[i]);
+        }
+        this.maxScore = total;
+        this.categoryMax = perCategory;
+
+        long spread = questionIds.length == 0 ? 0 : (long) maxId - minId + 1;
+        if (spread <= (long) questionIds.length * MAX_ID_SPREAD + 64) {
+            this.minQuestionId = questionIds.length == 0 ? 0 : minId;
+            this.indexById = new int[(int) spread];
+            Arrays.fill(indexById, -1);
+            // Later duplicates of an id win, matching the old map-based lookup
+            for (int i = 0; i < questionIds.length; i++) {
+                indexById[questionIds[i] - minQuestionId] = i;
+            }
+            this.sortedIds = null;
+            this.sortedIndexes = null;
+        } else {
+            Integer[] order = new Integer[questionIds.length];
+            for (int i = 0; i < order.length; i++) {
+                order[i] = i;
+            }
+            Arrays.sort(order, (a, b) -> Integer.compare(questionIds[a], questionIds[b]));
+            this.minQuestionId = 0;
+            this.indexById = null;
+            this.sortedIds = new int[order.length];
+            this.sortedIndexes = new int[order.length];
+            for (int i = 0; i < order.length; i++) {
+                sortedIds[i] = questionIds[order[i]];
+                sortedIndexes[i] = order[i];
+            }
+        }
+    }
+
+    /**
+     * Parse the questions JSON of a quiz into its compiled form
+     */
+    public static CompiledQuiz compile(Quiz quiz, ObjectMapper objectMapper) throws IOException {
+        JsonNode questionsNode = quiz.getQuestionsJson() != null
+                ? objectMapper.readTree(quiz.getQuestionsJson())
+                : null;
+        int size = questionsNode != null && questionsNode.isArray() ? questionsNode.size() : 0;
+
+        int[] questionIds = new int[size];
+        char[] correctOptions = new char[size];
+        String[] textKeys = new String[size];
+        int[] categoryCodes = new int[size];
+        int[] points = new int[size];
+        double[] difficulty = new double[size];
+        double[] discrimination = new double[size];
+
+        for (int i = 0; i < size; i++) {
+            JsonNode questionNode = questionsNode.get(i);
+            questionIds[i] = questionNode.get("id").asInt();
+            categoryCodes[i] = categoryCode(questionNode.get("category").asText());
+            points[i] = questionNode.has("points") ? questionNode.get("points").asInt() : 1;
+            setAnswerKey(i, questionNode.get("correctAnswer").asText(), correctOptions, textKeys);
+            difficulty[i] = questionNode.has("difficulty") ? questionNode.get("difficulty").asDouble()
+                    : defaultDifficulty(points[i]);
+            discrimination[i] = questionNode.has("discrimination") ? questionNode.get("discrimination").asDouble()
+                    : DEFAULT_DISCRIMINATION;
+        }
+
+        return new CompiledQuiz(quiz.getQuizId(), quiz.getTitle(), quiz.getUpdatedAt(), questionIds,
+                correctOptions, textKeys, categoryCodes, points, difficulty, discrimination);
+    }
+
+    /**
+     * Build the compiled form from question bank rows
+     */
+    public static CompiledQuiz fromAnswerKeys(Long quizId, String title, LocalDateTime version,
+            List<QuizQuestionRepository.AnswerKeyView> keys) {
+        int size = keys.size();
+        int[] questionIds = new int[size];
+        char[] correctOptions = new char[size];
+        String[] textKeys = new String[size];
+        int[] categoryCodes = new int[size];
+        int[] points = new int[size];
+        double[] difficulty = new double[size];
+        double[] discrimination = new double[size];
+
+        for (int i = 0; i < size; i++) {
+            QuizQuestionRepository.AnswerKeyView key = keys.get(i);
+            questionIds[i] = key.getQuestionNumber();
+            categoryCodes[i] = categoryCode(key.getCategory());
+            points[i] = key.getPoints() != null ? key.getPoints() : 1;
+            setAnswerKey(i, key.getCorrectAnswer() != null ? key.getCorrectAnswer() : "", correctOptions, textKeys);
+            difficulty[i] = key.getDifficulty() != null ? key.getDifficulty() : defaultDifficulty(points[i]);
+            discrimination[i] = key.getDiscrimination() != null ? key.getDiscrimination() : DEFAULT_DISCRIMINATION;
+        }
+
+        return new CompiledQuiz(quizId, title, version, questionIds, correctOptions, textKeys, categoryCodes,
+                points, difficulty, discrimination);
+    }
+
+    private static void setAnswerKey(int index, String correctAnswer, char[] correctOptions, String[] textKeys) {
+        if (correctAnswer.length() == 1) {
+            correctOptions[index] = Character.toUpperCase(correctAnswer.charAt(0));
+        } else {
+            correctOptions[index] = TEXT_KEY;
+            textKeys[index] = correctAnswer;
+        }
+    }
+
+    /**
+     * Difficulty of an uncalibrated question: questions worth more points are
+     * assumed harder, with the usual 2-point question at average difficulty
+     */
+    public static double defaultDifficulty(int points) {
+        return Math.max(-3.0, Math.min(3.0, points - 2.0));
+    }
+
+    /**
+     * Map a question category (and its aliases) to an AptitudeCategory ordinal
+     */
+    public static int categoryCode(String category) {
+        AptitudeCategory resolved = AptitudeCategory.fromAlias(category);
+        return resolved != null ? resolved.ordinal() : CATEGORY_NONE;
+    }
+
+    /**
+     * Index of the question with the given id, or -1 if the quiz has no such question
+     */
+    public int indexOf(int questionId) {
+        if (indexById != null) {
+            long slot = (long) questionId - minQuestionId;
+            return slot >= 0 && slot < indexById.length ? indexById[(int) slot] : -1;
+        }
+        int found = Arrays.binarySearch(sortedIds, questionId);
+        if (found < 0) {
+            return -1;
+        }
+        // Last duplicate wins, as with the direct table
+        while (found + 1 < sortedIds.length && sortedIds[found + 1] == questionId) {
+            found++;
+        }
+        return sortedIndexes[found];
+    }
+
+    /**
+     * Check a selected option against the answer key of the question at the given index
+     */
+    public boolean isCorrect(int index, String selectedOption) {
+        if (selectedOption == null) {
+            return false;
+        }
+        char correct = correctOptions[index];
+        if (correct == TEXT_KEY) {
+            return selectedOption.equalsIgnoreCase(textKeys[index]);
+        }
+        return selectedOption.length() == 1 && Character.toUpperCase(selectedOption.charAt(0)) == correct;
+    }
+
+    public boolean isCurrent(LocalDateTime quizUpdatedAt) {
+        return version == null ? quizUpdatedAt == null : version.equals(quizUpdatedAt);
+    }
+
+    public int size() {
+        return questionIds.length;
+    }
+
+    public int questionId(int index) {
+        return questionIds[index];
+    }
+
+    public int categoryCode(int index) {
+        return categoryCodes[index];
+    }
+
+    public int points(int index) {
+        return points[index];
+    }
+
+    public double difficulty(int index) {
+        return difficulty[index];
+    }
+
+    public double discrimination(int index) {
+        return discrimination[index];
+    }
+
+    public int getMaxScore() {
+        return maxScore;
+    }
+
+    public int categoryMax(int categoryCode) {
+        return categoryMax[categoryCode];
+    }
+
+    public Long getQuizId() {
+        return quizId;
+    }
+
+    public String getTitle() {
+        return title;
+    }
+
+    public LocalDateTime getVersion() {
+        return version;
+    }
+}
@@ -0,0 +1,58 @@
+package com.education.education.service.scoring;
+
+import com.education.education.repository.QuizQuestionRepository;
+import com.education.education.repository.QuizRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Keeps one compiled answer key per quiz, recompiled from the question bank
+ * whenever the quiz's updatedAt timestamp changes
+ */
+@Component
+public class CompiledQuizCache {
+
+    @Autowired
+    private QuizRepository quizRepository;
+
+    @Autowired
+    private QuizQuestionRepository quizQuestionRepository;
+
+    private final Map<Long, CompiledQuiz> cache = new ConcurrentHashMap<>();
+
+    /**
+     * Get the compiled form of a quiz by id. Only the quiz header is read to
+     * check the version, and only the answer key columns of its bank rows
+     * when it has to be compiled again.
+     */
+    public CompiledQuiz get(Long quizId) {
+        QuizRepository.QuizHeader header = quizRepository.findHeaderByQuizId(quizId)
+                .orElseThrow(() -> new RuntimeException("Quiz not found with ID: " + quizId));
+
+        CompiledQuiz compiled = cache.get(quizId);
+        if (compiled != null && compiled.isCurrent(header.getUpdatedAt())) {
+            return compiled;
+        }
+
+        List<QuizQuestionRepository.AnswerKeyView> keys = quizQuestionRepository
+                .findAnswerKeyByQuizQuizIdOrderByDisplayOrderAsc(quizId);
+        compiled = CompiledQuiz.fromAnswerKeys(quizId, header.getTitle(), header.getUpdatedAt(), keys);
+        cache.put(quizId, compiled);
+        return compiled;
+    }
+
+    /**
+     * Drop the compiled form of a quiz
+     */
+    public void invalidate(Long quizId) {
+        cache.remove(quizId);
+    }
+
+    public void clear() {
+        cache.clear();
+    }
+}
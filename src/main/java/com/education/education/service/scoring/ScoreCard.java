@@ -0,0 +1,43 @@
+package com.education.education.service.scoring;
+
+/**
+ * Scores of one submission, with per-category totals indexed by AptitudeCategory ordinal
+ */
+public final class ScoreCard {
+
+    private final int totalScore;
+    private final int maxScore;
+    private final int[] categoryScores;
+    private final int[] categoryMax;
+
+    public ScoreCard(int totalScore, int maxScore, int[] categoryScores, int[] categoryMax) {
+        this.totalScore = totalScore;
+        this.maxScore = maxScore;
+        this.categoryScores = categoryScores;
+        this.categoryMax = categoryMax;
+    }
+
+    public int getTotalScore() {
+        return totalScore;
+    }
+
+    public int getMaxScore() {
+        return maxScore;
+    }
+
+    public int score(AptitudeCategory category) {
+        return categoryScores[category.ordinal()];
+    }
+
+    public int max(AptitudeCategory category) {
+        return categoryMax[category.ordinal()];
+    }
+
+    /**
+     * Fraction (0..1) of the category's points the student earned
+     */
+    public double percent(AptitudeCategory category) {
+        int max = categoryMax[category.ordinal()];
+        return max > 0 ? (double) categoryScores[category.ordinal()] / max : 0;
+    }
+}
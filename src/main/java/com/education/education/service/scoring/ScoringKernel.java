@@ -0,0 +1,57 @@
+package com.education.education.service.scoring;
+
+import com.education.education.dto.QuizSubmissionDto;
+
+import java.util.List;
+
+/**
+ * Scores submissions against a compiled quiz. Answers are resolved through the
+ * quiz's id-indexed table and accumulated into int arrays, so the only
+ * allocations per submission are the result arrays and a small seen-bitmap.
+ */
+public final class ScoringKernel {
+
+    private ScoringKernel() {
+    }
+
+    /**
+     * Score a list of answers. When a question is answered more than once the
+     * last answer counts.
+     */
+    public static ScoreCard score(CompiledQuiz quiz, List<QuizSubmissionDto.QuizAnswerDto> answers) {
+        int[] categoryScores = new int[AptitudeCategory.COUNT];
+        int[] categoryMax = new int[AptitudeCategory.COUNT];
+        for (int c = 0; c < AptitudeCategory.COUNT; c++) {
+            categoryMax[c] = quiz.categoryMax(c);
+        }
+
+        int totalScore = 0;
+        if (answers != null && quiz.size() > 0) {
+            long[] seen = new long[(quiz.size() + 63) >>> 6];
+
+            // Walk backwards so the last answer for a question is the one scored
+            for (int a = answers.size() - 1; a >= 0; a--) {
+                QuizSubmissionDto.QuizAnswerDto answer = answers.get(a);
+                if (answer == null || answer.getQuestionId() == null) {
+                    continue;
+                }
+                int index = quiz.indexOf(answer.getQuestionId());
+                if (index < 0 || (seen[index >>> 6] & (1L << index)) != 0) {
+                    continue;
+                }
+                seen[index >>> 6] |= 1L << index;
+
+                if (quiz.isCorrect(index, answer.getSelectedOption())) {
+                    int points = quiz.points(index);
+                    totalScore += points;
+                    int category = quiz.categoryCode(index);
+                    if (category != CompiledQuiz.CATEGORY_NONE) {
+                        categoryScores[category] += points;
+                    }
+                }
+            }
+        }
+
+        return new ScoreCard(totalScore, quiz.getMaxScore(), categoryScores, categoryMax);
+    }
+}
@@ -0,0 +1,203 @@
+package com.education.education.service.scoring;
+
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Stream-by-category weight matrix used to turn aptitude percentages into
+ * stream match scores. Weights come from the quiz.stream-weights property,
+ * e.g. "Science=mathematical:0.4,technical:0.4,analytical:0.2;Arts=verbal:0.6,analytical:0.4".
+ * Adding a stream only adds a row; scoring stays one pass over the matrix.
+ */
+@Component
+public class StreamScoringModel {
+
+    static final String DEFAULT_WEIGHTS = "Science=mathematical:0.4,technical:0.4,analytical:0.2;"
+            + "Commerce=mathematical:0.3,analytical:0.4,verbal:0.3;"
+            + "Arts=verbal:0.6,analytical:0.4";
+
+    @Value("${quiz.stream-weights:" + DEFAULT_WEIGHTS + "}")
+    private String weightsConfig = DEFAULT_WEIGHTS;
+
+    private volatile Matrix matrix;
+
+    @PostConstruct
+    public void init() {
+        load(weightsConfig);
+    }
+
+    /**
+     * Replace the weight matrix, e.g. after reading a new configuration from the DB
+     */
+    public void load(String config) {
+        Map<String, double[]> rows = parse(config);
+        if (rows.isEmpty()) {
+            throw new IllegalArgumentException("Stream weight configuration is empty");
+        }
+
+        String[] names = new String[rows.size()];
+        double[] values = new double[rows.size() * AptitudeCategory.COUNT];
+        int s = 0;
+        for (Map.Entry<String, double[]> row : rows.entrySet()) {
+            names[s] = row.getKey();
+            System.arraycopy(row.getValue(), 0, values, s * AptitudeCategory.COUNT, AptitudeCategory.COUNT);
+            s++;
+        }
+
+        this.matrix = new Matrix(names, values);
+    }
+
+    private static Map<String, double[]> parse(String config) {
+        Map<String, double[]> rows = new LinkedHashMap<>();
+        for (String streamSpec : config.split(";")) {
+            if (streamSpec.isBlank()) {
+                continue;
+            }
+            String[] parts = streamSpec.split("=", 2);
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("Invalid stream weight entry: " + streamSpec);
+            }
+
+            double[] row = new double[AptitudeCategory.COUNT];
+            for (String weightSpec : parts[1].split(",")) {
+                String[] pair = weightSpec.split(":", 2);
+                AptitudeCategory category = pair.length == 2 ? AptitudeCategory.fromAlias(pair[0].trim()) : null;
+                if (category == null) {
+                    throw new IllegalArgumentException("Invalid category weight: " + weightSpec);
+                }
+                row[category.ordinal()] = Double.parseDouble(pair[1].trim());
+            }
+            rows.put(parts[0].trim(), row);
+        }
+        return rows;
+    }
+
+    /**
+     * Percentage vector (0..1) of a score card, indexed by AptitudeCategory ordinal
+     */
+    public static double[] percentVector(ScoreCard scores) {
+        double[] percents = new double[AptitudeCategory.COUNT];
+        for (AptitudeCategory category : AptitudeCategory.VALUES) {
+            percents[category.ordinal()] = scores.percent(category);
+        }
+        return percents;
+    }
+
+    /**
+     * Score every stream against a percentage vector
+     */
+    public double[] scoreAll(double[] percents) {
+        return matrix.scoreAll(percents);
+    }
+
+    /**
+     * Best-matching streams in descending order of score, found in a single pass.
+     * Ties keep configuration order, like a stable sort would.
+     */
+    public List<StreamMatch> topMatches(double[] percents, int limit) {
+        Matrix current = matrix;
+        String[] names = current.streams;
+        double[] scores = current.scoreAll(percents);
+        int k = Math.min(limit, scores.length);
+
+        // Small insertion buffer; k is tiny (2 for recommendations)
+        int[] best = new int[k];
+        int filled = 0;
+        for (int s = 0; s < scores.length; s++) {
+            int pos = filled;
+            while (pos > 0 && scores[s] > scores[best[pos - 1]]) {
+                pos--;
+            }
+            if (pos >= k) {
+                continue;
+            }
+            int last = Math.min(filled, k - 1);
+            System.arraycopy(best, pos, best, pos + 1, last - pos);
+            best[pos] = s;
+            if (filled < k) {
+                filled++;
+            }
+        }
+
+        List<StreamMatch> matches = new ArrayList<>(filled);
+        for (int i = 0; i < filled; i++) {
+            matches.add(new StreamMatch(names[best[i]], scores[best[i]]));
+        }
+        return matches;
+    }
+
+    /**
+     * Human-readable weights per stream, e.g. "40% Mathematical + 40% Technical + 20% Analytical"
+     */
+    public Map<String, String> describe() {
+        Matrix current = matrix;
+        String[] names = current.streams;
+        double[] weights = current.weights;
+        Map<String, String> descriptions = new LinkedHashMap<>();
+        for (int s = 0; s < names.length; s++) {
+            StringBuilder description = new StringBuilder();
+            for (AptitudeCategory category : AptitudeCategory.VALUES) {
+                double weight = weights[s * AptitudeCategory.COUNT + category.ordinal()];
+                if (weight > 0) {
+                    if (description.length() > 0) {
+                        description.append(" + ");
+                    }
+                    description.append(Math.round(weight * 100)).append("% ").append(category.getDisplayName());
+                }
+            }
+            descriptions.put(names[s], description.toString());
+        }
+        return descriptions;
+    }
+
+    public List<String> getStreams() {
+        return List.of(matrix.streams);
+    }
+
+    // Stream names with their row-major [stream][category] weights, swapped as one unit
+    private static final class Matrix {
+        private final String[] streams;
+        private final double[] weights;
+
+        Matrix(String[] streams, double[] weights) {
+            this.streams = streams;
+            this.weights = weights;
+        }
+
+        double[] scoreAll(double[] percents) {
+            double[] scores = new double[streams.length];
+            for (int s = 0, base = 0; s < streams.length; s++, base += AptitudeCategory.COUNT) {
+                double score = 0;
+                for (int c = 0; c < AptitudeCategory.COUNT; c++) {
+                    score += weights[base + c] * percents[c];
+                }
+                scores[s] = score;
+            }
+            return scores;
+        }
+    }
+
+    public static final class StreamMatch {
+        private final String stream;
+        private final double score;
+
+        public StreamMatch(String stream, double score) {
+            this.stream = stream;
+            this.score = score;
+        }
+
+        public String getStream() {
+            return stream;
+        }
+
+        public double getScore() {
+            return score;
+        }
+    }
+}
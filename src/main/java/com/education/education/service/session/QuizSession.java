@@ -0,0 +1,202 @@
+package com.education.education.service.session;
+
+import com.education.education.dto.QuizSubmissionDto;
+import com.education.education.service.scoring.AptitudeCategory;
+import com.education.education.service.scoring.CompiledQuiz;
+import com.education.education.service.scoring.ScoreCard;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Server-side state of a quiz being taken. Answers are applied to running
+ * totals as they arrive, so finishing the session does no scoring work.
+ * Per-question state is kept in flat arrays indexed like the compiled quiz.
+ */
+public class QuizSession {
+
+    // No answer recorded for the question
+    private static final char NO_ANSWER = '\0';
+    // Answer recorded but not a single option letter, see textAnswers
+    private static final char TEXT_ANSWER = '\1';
+
+    private final String sessionId;
+    private final Long userId;
+    private final CompiledQuiz quiz;
+    private final long startedAtMillis;
+    private final long deadlineMillis;
+    private final int maxSecondsPerQuestion;
+
+    private final char[] selected;
+    private final short[] timeSpent;
+    private final long[] correct;
+    private String[] textAnswers;
+
+    private final int[] categoryScores = new int[AptitudeCategory.COUNT];
+    private int totalScore;
+    private int answeredCount;
+    private int timedOutCount;
+    private boolean finished;
+
+    public QuizSession(String sessionId, Long userId, CompiledQuiz quiz, long startedAtMillis, long deadlineMillis,
+            int maxSecondsPerQuestion) {
+        this.sessionId = sessionId;
+        this.userId = userId;
+        this.quiz = quiz;
+        this.startedAtMillis = startedAtMillis;
+        this.deadlineMillis = deadlineMillis;
+        this.maxSecondsPerQuestion = maxSecondsPerQuestion;
+        this.selected = new char[quiz.size()];
+        this.timeSpent = new short[quiz.size()];
+        this.correct = new long[(quiz.size() + 63) >>> 6];
+    }
+
+    /**
+     * Apply one answer to the running totals. Re-answering a question replaces
+     * the earlier answer. Returns false, changing nothing, if the question is
+     * not part of the quiz or the reported time exceeds the per-question limit.
+     */
+    public synchronized boolean answer(QuizSubmissionDto.QuizAnswerDto answer) {
+        if (answer == null || answer.getQuestionId() == null) {
+            return false;
+        }
+        int index = quiz.indexOf(answer.getQuestionId());
+        if (index < 0) {
+            return false;
+        }
+
+        // Checked before anything changes, so a rejected re-answer keeps the earlier answer
+        Integer seconds = answer.getTimeSpent();
+        if (seconds != null && maxSecondsPerQuestion > 0 && seconds > maxSecondsPerQuestion) {
+            timedOutCount++;
+            return false;
+        }
+
+        // Undo the earlier answer to this question, if any
+        if (selected[index] != NO_ANSWER) {
+            answeredCount--;
+            if ((correct[index >>> 6] & (1L << index)) != 0) {
+                correct[index >>> 6] &= ~(1L << index);
+                adjust(index, -1);
+            }
+            selected[index] = NO_ANSWER;
+            if (textAnswers != null) {
+                textAnswers[index] = null;
+            }
+        }
+
+        String option = answer.getSelectedOption();
+        if (option == null || option.isEmpty()) {
+            return true;
+        }
+        if (option.length() == 1 && option.charAt(0) > TEXT_ANSWER) {
+            selected[index] = option.charAt(0);
+        } else {
+            if (textAnswers == null) {
+                textAnswers = new String[selected.length];
+            }
+            selected[index] = TEXT_ANSWER;
+            textAnswers[index] = option;
+        }
+        timeSpent[index] = seconds != null ? (short) Math.max(0, Math.min(seconds, Short.MAX_VALUE)) : 0;
+        answeredCount++;
+
+        if (quiz.isCorrect(index, option)) {
+            correct[index >>> 6] |= 1L << index;
+            adjust(index, 1);
+        }
+        return true;
+    }
+
+    private void adjust(int index, int sign) {
+        int points = quiz.points(index) * sign;
+        totalScore += points;
+        int category = quiz.categoryCode(index);
+        if (category != CompiledQuiz.CATEGORY_NONE) {
+            categoryScores[category] += points;
+        }
+    }
+
+    /**
+     * Snapshot of the running totals
+     */
+    public synchronized ScoreCard toScoreCard() {
+        int[] categoryMax = new int[AptitudeCategory.COUNT];
+        for (int c = 0; c < AptitudeCategory.COUNT; c++) {
+            categoryMax[c] = quiz.categoryMax(c);
+        }
+        return new ScoreCard(totalScore, quiz.getMaxScore(), categoryScores.clone(), categoryMax);
+    }
+
+    /**
+     * Recorded answers in question order, for storing with the attempt
+     */
+    public synchronized List<QuizSubmissionDto.QuizAnswerDto> toAnswers() {
+        List<QuizSubmissionDto.QuizAnswerDto> answers = new ArrayList<>(answeredCount);
+        for (int i = 0; i < selected.length; i++) {
+            if (selected[i] != NO_ANSWER) {
+                String option = selected[i] == TEXT_ANSWER ? textAnswers[i] : String.valueOf(selected[i]);
+                answers.add(new QuizSubmissionDto.QuizAnswerDto(quiz.questionId(i), option, (int) timeSpent[i]));
+            }
+        }
+        return answers;
+    }
+
+    /**
+     * Mark the session finished; returns false if it already was
+     */
+    public synchronized boolean finish() {
+        if (finished) {
+            return false;
+        }
+        finished = true;
+        return true;
+    }
+
+    /**
+     * Undo finish() after a failed attempt to record the result
+     */
+    public synchronized void reopen() {
+        finished = false;
+    }
+
+    public synchronized boolean isFinished() {
+        return finished;
+    }
+
+    public boolean isExpired(long nowMillis) {
+        return nowMillis > deadlineMillis;
+    }
+
+    public String getSessionId() {
+        return sessionId;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public CompiledQuiz getQuiz() {
+        return quiz;
+    }
+
+    public long getStartedAtMillis() {
+        return startedAtMillis;
+    }
+
+    public long getDeadlineMillis() {
+        return deadlineMillis;
+    }
+
+    public synchronized int getAnsweredCount() {
+        return answeredCount;
+    }
+
+    public synchronized int getTimedOutCount() {
+        return timedOutCount;
+    }
+
+    public synchronized int getTotalScore() {
+        return totalScore;
+    }
+}
@@ -0,0 +1,106 @@
+package com.education.education.service.session;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Hashed timing wheel: deadlines are dropped into one of a fixed ring of slots
+ * and a single ticker thread expires a slot per tick. Scheduling is O(1) and
+ * there is no per-key scheduled task. Cancellation is lazy; the expiry callback
+ * is expected to check whether the key is still live.
+ */
+public class TimingWheel<K> {
+
+    private final long tickMillis;
+    private final int mask;
+    private final List<Queue<Entry<K>>> slots;
+    private final long startMillis;
+    private final Consumer<K> onExpire;
+    private final ScheduledExecutorService ticker;
+
+    // Next tick to process; written only by the ticker thread
+    private volatile long currentTick;
+
+    public TimingWheel(String name, long tickMillis, int slotCount, Consumer<K> onExpire) {
+        if (Integer.bitCount(slotCount) != 1) {
+            throw new IllegalArgumentException("Slot count must be a power of two");
+        }
+        this.tickMillis = tickMillis;
+        this.mask = slotCount - 1;
+        this.slots = new ArrayList<>(slotCount);
+        for (int i = 0; i < slotCount; i++) {
+            slots.add(new ConcurrentLinkedQueue<>());
+        }
+        this.startMillis = System.currentTimeMillis();
+        this.onExpire = onExpire;
+        this.ticker = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, name);
+            thread.setDaemon(true);
+            return thread;
+        });
+        ticker.scheduleAtFixedRate(this::advance, tickMillis, tickMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Expire the key at (or shortly after) the given wall-clock time
+     */
+    public void schedule(K key, long deadlineMillis) {
+        long tick = Math.max((deadlineMillis - startMillis + tickMillis - 1) / tickMillis, currentTick + 1);
+        slots.get((int) (tick & mask)).add(new Entry<>(key, tick));
+    }
+
+    private void advance() {
+        advanceTo(System.currentTimeMillis());
+    }
+
+    /**
+     * Expire every slot up to the given wall-clock time; called by the ticker
+     * thread only, or directly by tests whose ticks are too long to fire
+     */
+    void advanceTo(long nowMillis) {
+        long nowTick = (nowMillis - startMillis) / tickMillis;
+        long tick = currentTick;
+        while (tick <= nowTick) {
+            Iterator<Entry<K>> entries = slots.get((int) (tick & mask)).iterator();
+            while (entries.hasNext()) {
+                Entry<K> entry = entries.next();
+                // Entries for later rounds of the wheel stay in the slot
+                if (entry.tick <= tick) {
+                    entries.remove();
+                    try {
+                        onExpire.accept(entry.key);
+                    } catch (RuntimeException e) {
+                        System.err.println("Error expiring " + entry.key + ": " + e.getMessage());
+                    }
+                }
+            }
+            tick++;
+            currentTick = tick;
+        }
+    }
+
+    long getStartMillis() {
+        return startMillis;
+    }
+
+    public void shutdown() {
+        ticker.shutdownNow();
+    }
+
+    private static final class Entry<K> {
+        private final K key;
+        private final long tick;
+
+        Entry(K key, long tick) {
+            this.key = key;
+            this.tick = tick;
+        }
+    }
+}
@@ -0,0 +1,137 @@
+package com.education.education.service.writebehind;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Append-only journal of newline-delimited records split into segment files
+ * named by the sequence number of their first record. Callers append a
+ * group of records and force it to disk in one call (group commit). Segments
+ * whose records are all checkpointed in the database are deleted. The
+ * directory is locked while open, so two processes never share a journal.
+ */
+public class AttemptJournal {
+
+    private static final String PREFIX = "attempts-";
+    private static final String SUFFIX = ".log";
+
+    private final Path directory;
+    private final long segmentBytes;
+
+    private final FileChannel lockChannel;
+    private final FileLock lock;
+
+    private FileChannel active;
+    private long activeSize;
+
+    public AttemptJournal(Path directory, long segmentBytes) throws IOException {
+        this.directory = directory;
+        this.segmentBytes = segmentBytes;
+        Files.createDirectories(directory);
+        lockChannel = FileChannel.open(directory.resolve(".lock"), StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+        lock = lockChannel.tryLock();
+        if (lock == null) {
+            lockChannel.close();
+            throw new IOException("Attempt journal " + directory + " is in use by another process");
+        }
+    }
+
+    /**
+     * Write a group of records (the first has sequence firstSeq) and fsync them
+     */
+    public synchronized void append(long firstSeq, List<String> lines) throws IOException {
+        if (active == null || activeSize >= segmentBytes) {
+            roll(firstSeq);
+        }
+
+        StringBuilder group = new StringBuilder();
+        for (String line : lines) {
+            group.append(line).append('\n');
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(group.toString().getBytes(StandardCharsets.UTF_8));
+        while (buffer.hasRemaining()) {
+            activeSize += active.write(buffer);
+        }
+        active.force(false);
+    }
+
+    private void roll(long firstSeq) throws IOException {
+        if (active != null) {
+            active.close();
+        }
+        active = FileChannel.open(segmentPath(firstSeq), StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.APPEND);
+        activeSize = active.size();
+    }
+
+    /**
+     * Feed every line of every segment, oldest first, to the consumer
+     */
+    public synchronized void replay(Consumer<String> consumer) throws IOException {
+        for (Path segment : segments()) {
+            try (BufferedReader reader = Files.newBufferedReader(segment, StandardCharsets.UTF_8)) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    if (!line.isBlank()) {
+                        consumer.accept(line);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Delete closed segments that only hold records up to the checkpoint
+     */
+    public synchronized void truncate(long checkpointSeq) throws IOException {
+        List<Path> segments = segments();
+        for (int i = 0; i + 1 < segments.size(); i++) {
+            // A closed segment ends just before the next one starts
+            if (firstSeqOf(segments.get(i + 1)) - 1 <= checkpointSeq) {
+                Files.deleteIfExists(segments.get(i));
+            }
+        }
+    }
+
+    public synchronized void close() throws IOException {
+        if (active != null) {
+            active.close();
+            active = null;
+        }
+        if (lock.isValid()) {
+            lock.release();
+        }
+        lockChannel.close();
+    }
+
+    private List<Path> segments() throws IOException {
+        List<Path> segments = new ArrayList<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, PREFIX + "*" + SUFFIX)) {
+            for (Path path : stream) {
+                segments.add(path);
+            }
+        }
+        segments.sort((a, b) -> Long.compare(firstSeqOf(a), firstSeqOf(b)));
+        return segments;
+    }
+
+    private Path segmentPath(long firstSeq) {
+        return directory.resolve(PREFIX + String.format("%019d", firstSeq) + SUFFIX);
+    }
+
+    private static long firstSeqOf(Path segment) {
+        String name = segment.getFileName().toString();
+        return Long.parseLong(name.substring(PREFIX.length(), name.length() - SUFFIX.length()));
+    }
+}
@@ -0,0 +1,456 @@
+package com.education.education.service.writebehind;
+
+import com.education.education.entity.Quiz;
+import com.education.education.entity.QuizAttempt;
+import com.education.education.entity.User;
+import com.education.education.entity.WriteBehindCheckpoint;
+import com.education.education.repository.QuizAttemptBatchRepository;
+import com.education.education.repository.WriteBehindCheckpointRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Optional write-behind path for quiz attempts (quiz.write-behind.enabled).
+ * An attempt is appended to a local journal and acknowledged once the
+ * journal group commit has been fsync'd; a background writer then drains
+ * journaled attempts to quiz_attempts in JDBC batches. Attempts not yet in
+ * the database are replayed from the journal on restart. When too many
+ * attempts are pending, submit() refuses and the caller saves synchronously.
+ */
+@Component
+public class AttemptWriteBehind {
+
+    @Value("${quiz.write-behind.enabled:false}")
+    private boolean enabled;
+
+    @Value("${quiz.write-behind.journal-dir:./data/attempt-journal}")
+    private String journalDir;
+
+    // Checkpoint row of this instance's journal; blank derives it from host and journal dir
+    @Value("${quiz.write-behind.journal-name:}")
+    private String journalName;
+
+    @Value("${quiz.write-behind.max-pending:10000}")
+    private int maxPending;
+
+    @Value("${quiz.write-behind.batch-size:200}")
+    private int batchSize;
+
+    @Value("${quiz.write-behind.segment-bytes:67108864}")
+    private long segmentBytes;
+
+    @Autowired
+    private QuizAttemptBatchRepository quizAttemptBatchRepository;
+
+    @Autowired
+    private WriteBehindCheckpointRepository writeBehindCheckpointRepository;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private final BlockingQueue<PendingAppend> appendQueue = new LinkedBlockingQueue<>();
+    private final BlockingQueue<JournalRecord> drainQueue = new LinkedBlockingQueue<>();
+    private final AtomicInteger pending = new AtomicInteger();
+
+    private AttemptJournal journal;
+    private long nextSeq;
+    private volatile boolean running;
+    private Thread journalWriter;
+    private Thread databaseWriter;
+
+    @PostConstruct
+    public void init() throws IOException {
+        if (!enabled) {
+            return;
+        }
+
+        Path directory = Paths.get(journalDir).toAbsolutePath().normalize();
+        journal = new AttemptJournal(directory, segmentBytes); // Locks the directory to this process
+        if (journalName == null || journalName.isBlank()) {
+            journalName = "attempts@" + InetAddress.getLocalHost().getHostName() + "/"
+                    + Integer.toHexString(directory.toString().hashCode());
+        }
+        System.out.println("Attempt journal " + directory + " checkpoints as " + journalName);
+        long checkpoint = storedCheckpoint();
+
+        // Replay attempts that were journaled but never reached the database
+        long[] maxSeq = { checkpoint };
+        journal.replay(line -> {
+            try {
+                JournalRecord record = objectMapper.readValue(line, JournalRecord.class);
+                maxSeq[0] = Math.max(maxSeq[0], record.getSeq());
+                if (record.getSeq() > checkpoint) {
+                    drainQueue.add(record);
+                    pending.incrementAndGet();
+                }
+            } catch (JsonProcessingException e) {
+                // Torn tail of a group that was never acknowledged
+                System.err.println("Skipping unreadable journal record: " + e.getMessage());
+            }
+        });
+        nextSeq = maxSeq[0] + 1;
+        if (pending.get() > 0) {
+            System.out.println("Replaying " + pending.get() + " journaled quiz attempts");
+        }
+
+        running = true;
+        journalWriter = new Thread(this::runJournalWriter, "attempt-journal-writer");
+        journalWriter.setDaemon(true);
+        journalWriter.start();
+        databaseWriter = new Thread(this::runDatabaseWriter, "attempt-database-writer");
+        databaseWriter.setDaemon(true);
+        databaseWriter.start();
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException, IOException {
+        if (!enabled || !running) {
+            return;
+        }
+        // No interrupts for the journal writer: interrupting FileChannel I/O closes the channel
+        running = false;
+        journalWriter.join(5000);
+        // Give the database writer a moment; anything left is replayed on the next start
+        databaseWriter.join(10000);
+        databaseWriter.interrupt();
+        if (journalWriter.isAlive()) {
+            // Closing under a group still being appended could tear it; the OS releases the files on exit
+            System.err.println("Attempt journal writer still busy at shutdown; leaving the journal open");
+            return;
+        }
+        journal.close();
+    }
+
+    public boolean isEnabled() {
+        return enabled && running;
+    }
+
+    /**
+     * Journal an attempt (with its timestamp set) for a later database write.
+     * Returns false, without journaling, if write-behind is off or the backlog
+     * is full; the caller must then save the attempt itself.
+     */
+    public boolean submit(QuizAttempt attempt) {
+        if (!isEnabled()) {
+            return false;
+        }
+        if (pending.incrementAndGet() > maxPending) {
+            pending.decrementAndGet();
+            return false;
+        }
+
+        JournalRecord record = new JournalRecord();
+        record.setUserId(attempt.getUser().getUserId());
+        record.setQuizId(attempt.getQuiz().getQuizId());
+        record.setAnswersJson(attempt.getAnswersJson());
+        record.setScore(attempt.getScore());
+        record.setRecommendedStreams(attempt.getRecommendedStreams());
+        record.setAnswersBin(attempt.getAnswersBin());
+        record.setStreamsBin(attempt.getStreamsBin());
+        record.setPrimaryStream(attempt.getPrimaryStream());
+        record.setPrimaryMatch(attempt.getPrimaryMatch());
+        record.setTimestamp(attempt.getTimestamp().toString());
+
+        PendingAppend append = new PendingAppend(record);
+        appendQueue.add(append);
+        // The writer may have made its last pass over the queue already; whoever takes the append answers it
+        if (!running && appendQueue.remove(append)) {
+            append.done.complete(false);
+        }
+        if (!append.done.join()) {
+            pending.decrementAndGet();
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Group commit: write everything queued since the last fsync, fsync once,
+     * then acknowledge the whole group
+     */
+    private void runJournalWriter() {
+        List<PendingAppend> group = new ArrayList<>();
+        while (running || !appendQueue.isEmpty()) {
+            try {
+                PendingAppend first = appendQueue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                group.add(first);
+                appendQueue.drainTo(group);
+            } catch (InterruptedException e) {
+                break;
+            }
+
+            long firstSeq = nextSeq;
+            try {
+                List<String> lines = new ArrayList<>(group.size());
+                for (PendingAppend append : group) {
+                    append.record.setSeq(nextSeq++);
+                    lines.add(objectMapper.writeValueAsString(append.record));
+                }
+                journal.append(firstSeq, lines);
+                for (PendingAppend append : group) {
+                    drainQueue.add(append.record);
+                    append.done.complete(true);
+                }
+            } catch (IOException e) {
+                System.err.println("Error writing attempt journal: " + e.getMessage());
+                for (PendingAppend append : group) {
+                    append.done.complete(false);
+                }
+            }
+            group.clear();
+        }
+
+        // Refuse anything that arrived after shutdown started
+        PendingAppend late;
+        while ((late = appendQueue.poll()) != null) {
+            late.done.complete(false);
+        }
+    }
+
+    /**
+     * Drain journaled attempts to the database in batches, retrying a failed
+     * batch until it succeeds. Before a retry the batch is cut down to the
+     * records past the stored checkpoint, since part of it may have been
+     * committed before the failure.
+     */
+    private void runDatabaseWriter() {
+        List<JournalRecord> batch = new ArrayList<>(batchSize);
+        long backoffMillis = 100;
+        boolean retrying = false;
+        while (running || !drainQueue.isEmpty() || !batch.isEmpty()) {
+            try {
+                if (batch.isEmpty()) {
+                    JournalRecord first = drainQueue.poll(100, TimeUnit.MILLISECONDS);
+                    if (first == null) {
+                        continue;
+                    }
+                    batch.add(first);
+                    drainQueue.drainTo(batch, batchSize - 1);
+                }
+                if (retrying) {
+                    long checkpoint = storedCheckpoint();
+                    int before = batch.size();
+                    batch.removeIf(record -> record.getSeq() <= checkpoint);
+                    pending.addAndGet(batch.size() - before);
+                    retrying = false;
+                    if (batch.isEmpty()) {
+                        continue;
+                    }
+                }
+
+                try {
+                    write(batch);
+                } catch (DataIntegrityViolationException e) {
+                    // A record the database will never accept (e.g. its user was deleted):
+                    // write the rest one by one and drop only the offending records
+                    for (JournalRecord record : batch) {
+                        try {
+                            write(List.of(record));
+                        } catch (DataIntegrityViolationException rejected) {
+                            System.err.println("Dropping journaled quiz attempt " + record.getSeq() + ": "
+                                    + rejected.getMessage());
+                            quizAttemptBatchRepository.insertAllWithCheckpoint(List.of(), journalName,
+                                    record.getSeq());
+                        }
+                    }
+                }
+                long lastSeq = batch.get(batch.size() - 1).getSeq();
+                pending.addAndGet(-batch.size());
+                batch.clear();
+                backoffMillis = 100;
+                truncateJournal(lastSeq);
+            } catch (InterruptedException e) {
+                return;
+            } catch (Exception e) {
+                System.err.println("Error writing journaled quiz attempts: " + e.getMessage());
+                retrying = true;
+                try {
+                    Thread.sleep(backoffMillis);
+                } catch (InterruptedException interrupted) {
+                    return;
+                }
+                backoffMillis = Math.min(backoffMillis * 2, 10000);
+            }
+        }
+    }
+
+    private void write(List<JournalRecord> records) {
+        List<QuizAttempt> attempts = new ArrayList<>(records.size());
+        long lastSeq = 0;
+        for (JournalRecord record : records) {
+            attempts.add(toAttempt(record));
+            lastSeq = Math.max(lastSeq, record.getSeq());
+        }
+        quizAttemptBatchRepository.insertAllWithCheckpoint(attempts, journalName, lastSeq);
+    }
+
+    /**
+     * Delete journal segments the database has checkpointed. A failure only
+     * leaves old segments behind (replay skips them), so it is never retried
+     * as a database write.
+     */
+    private void truncateJournal(long checkpointSeq) {
+        try {
+            journal.truncate(checkpointSeq);
+        } catch (IOException e) {
+            System.err.println("Error truncating attempt journal: " + e.getMessage());
+        }
+    }
+
+    private long storedCheckpoint() {
+        return writeBehindCheckpointRepository.findById(journalName)
+                .map(WriteBehindCheckpoint::getLastSeq)
+                .orElse(0L);
+    }
+
+    private static QuizAttempt toAttempt(JournalRecord record) {
+        User user = new User();
+        user.setUserId(record.getUserId());
+        Quiz quiz = new Quiz();
+        quiz.setQuizId(record.getQuizId());
+
+        QuizAttempt attempt = new QuizAttempt(user, quiz, record.getAnswersJson(), record.getScore(),
+                record.getRecommendedStreams());
+        attempt.setAnswersBin(record.getAnswersBin());
+        attempt.setStreamsBin(record.getStreamsBin());
+        attempt.setPrimaryStream(record.getPrimaryStream());
+        attempt.setPrimaryMatch(record.getPrimaryMatch());
+        attempt.setTimestamp(LocalDateTime.parse(record.getTimestamp()));
+        return attempt;
+    }
+
+    private static final class PendingAppend {
+        private final JournalRecord record;
+        private final CompletableFuture<Boolean> done = new CompletableFuture<>();
+
+        PendingAppend(JournalRecord record) {
+            this.record = record;
+        }
+    }
+
+    /**
+     * One journal line
+     */
+    public static class JournalRecord {
+        private long seq;
+        private Long userId;
+        private Long quizId;
+        private String answersJson;
+        private Integer score;
+        private String recommendedStreams;
+        private byte[] answersBin; // base64 in the journal line
+        private byte[] streamsBin;
+        private String primaryStream;
+        private Short primaryMatch;
+        private String timestamp;
+
+        public long getSeq() {
+            return seq;
+        }
+
+        public void setSeq(long seq) {
+            this.seq = seq;
+        }
+
+        public Long getUserId() {
+            return userId;
+        }
+
+        public void setUserId(Long userId) {
+            this.userId = userId;
+        }
+
+        public Long getQuizId() {
+            return quizId;
+        }
+
+        public void setQuizId(Long quizId) {
+            this.quizId = quizId;
+        }
+
+        public String getAnswersJson() {
+            return answersJson;
+        }
+
+        public void setAnswersJson(String answersJson) {
+            this.answersJson = answersJson;
+        }
+
+        public Integer getScore() {
+            return score;
+        }
+
+        public void setScore(Integer score) {
+            this.score = score;
+        }
+
+        public String getRecommendedStreams() {
+            return recommendedStreams;
+        }
+
+        public void setRecommendedStreams(String recommendedStreams) {
+            this.recommendedStreams = recommendedStreams;
+        }
+
+        public byte[] getAnswersBin() {
+            return answersBin;
+        }
+
+        public void setAnswersBin(byte[] answersBin) {
+            this.answersBin = answersBin;
+        }
+
+        public byte[] getStreamsBin() {
+            return streamsBin;
+        }
+
+        public void setStreamsBin(byte[] streamsBin) {
+            this.streamsBin = streamsBin;
+        }
+
+        public String getPrimaryStream() {
+            return primaryStream;
+        }
+
+        public void setPrimaryStream(String primaryStream) {
+            this.primaryStream = primaryStream;
+        }
+
+        public Short getPrimaryMatch() {
+            return primaryMatch;
+        }
+
+        public void setPrimaryMatch(Short primaryMatch) {
+            this.primaryMatch = primaryMatch;
+        }
+
+        public String getTimestamp() {
+            return timestamp;
+        }
+
+        public void setTimestamp(String timestamp) {
+            this.timestamp = timestamp;
+        }
+    }
+}
@@ -0,0 +1,141 @@
+package com.education.education.service.analytics;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CompressedBitmapTest {
+
+    private static final int CHUNK = 1 << 16;
+
+    /**
+     * Chunk 0 sparse (array), chunk 1 dense (bitmap), chunk 3 with the given
+     * density, so every pairing of container kinds meets in some chunk
+     */
+    private static BitSet sample(Random random, double chunk1Density, double chunk3Density) {
+        BitSet values = new BitSet();
+        for (int i = 0; i < 500; i++) {
+            values.set(random.nextInt(CHUNK));
+        }
+        for (int v = CHUNK; v < 2 * CHUNK; v++) {
+            if (random.nextDouble() < chunk1Density) {
+                values.set(v);
+            }
+        }
+        for (int v = 3 * CHUNK; v < 4 * CHUNK; v++) {
+            if (random.nextDouble() < chunk3Density) {
+                values.set(v);
+            }
+        }
+        return values;
+    }
+
+    private static CompressedBitmap of(BitSet values) {
+        CompressedBitmap bitmap = new CompressedBitmap();
+        values.stream().forEach(bitmap::add);
+        return bitmap;
+    }
+
+    private static void assertSame(BitSet expected, CompressedBitmap actual) {
+        assertEquals(expected.cardinality(), actual.cardinality());
+        List<Integer> visited = new ArrayList<>();
+        actual.forEach(visited::add);
+        List<Integer> wanted = new ArrayList<>();
+        expected.stream().forEach(wanted::add);
+        assertEquals(wanted, visited);
+    }
+
+    @Test
+    void addContainsAndCardinalityAcrossTheArrayToBitmapSwitch() {
+        CompressedBitmap bitmap = new CompressedBitmap();
+        assertTrue(bitmap.isEmpty());
+        for (int v = 0; v < 8192; v += 2) {
+            bitmap.add(v); // Exactly 4096 values: still an array
+        }
+        bitmap.add(0); // Duplicate
+        assertEquals(4096, bitmap.cardinality());
+
+        bitmap.add(1); // 4097th value turns the chunk into a bitmap
+        bitmap.add(1);
+        assertEquals(4097, bitmap.cardinality());
+        assertTrue(bitmap.contains(1));
+        assertTrue(bitmap.contains(8190));
+        assertFalse(bitmap.contains(3));
+        assertFalse(bitmap.contains(CHUNK + 1));
+    }
+
+    @Test
+    void removeShrinksBackToAnArrayAndDropsEmptyChunks() {
+        BitSet expected = new BitSet();
+        CompressedBitmap bitmap = new CompressedBitmap();
+        for (int v = 0; v < 5000; v++) {
+            bitmap.add(v);
+            expected.set(v);
+        }
+        bitmap.add(5 * CHUNK);
+        expected.set(5 * CHUNK);
+
+        for (int v = 0; v < 5000; v += 3) {
+            bitmap.remove(v);
+            expected.clear(v);
+        }
+        bitmap.remove(123_456); // Absent chunk
+        bitmap.remove(1);
+        bitmap.remove(1); // Second removal is a no-op
+        expected.clear(1);
+        assertSame(expected, bitmap);
+
+        bitmap.remove(5 * CHUNK);
+        expected.clear(5 * CHUNK);
+        assertSame(expected, bitmap);
+        assertFalse(bitmap.contains(5 * CHUNK));
+    }
+
+    @Test
+    void intersectionMatchesBitSetForEveryContainerPairing() {
+        Random random = new Random(42);
+        double[][] densities = { { 0.9, 0.9 }, { 0.9, 0.01 }, { 0.01, 0.9 }, { 0.08, 0.08 } };
+        for (double[] x : densities) {
+            for (double[] y : densities) {
+                BitSet a = sample(random, x[0], x[1]);
+                BitSet b = sample(random, y[0], y[1]);
+
+                BitSet expected = (BitSet) a.clone();
+                expected.and(b);
+
+                assertSame(expected, CompressedBitmap.and(of(a), of(b)));
+                assertSame(expected, CompressedBitmap.and(of(b), of(a)));
+            }
+        }
+    }
+
+    @Test
+    void intersectionOfDisjointChunksIsEmpty() {
+        CompressedBitmap low = new CompressedBitmap();
+        CompressedBitmap high = new CompressedBitmap();
+        low.add(7);
+        high.add(CHUNK + 7);
+
+        CompressedBitmap result = CompressedBitmap.and(low, high);
+        assertTrue(result.isEmpty());
+        assertEquals(0, result.cardinality());
+    }
+
+    @Test
+    void valuesInTheTopChunkKeepTheirSign() {
+        CompressedBitmap bitmap = new CompressedBitmap();
+        bitmap.add(Integer.MAX_VALUE);
+        bitmap.add(Integer.MAX_VALUE - 1);
+
+        List<Integer> visited = new ArrayList<>();
+        bitmap.forEach(visited::add);
+        assertEquals(List.of(Integer.MAX_VALUE - 1, Integer.MAX_VALUE), visited);
+    }
+}
@@ -0,0 +1,65 @@
+package com.education.education.service.codec;
+
+import com.education.education.dto.QuizSubmissionDto.QuizAnswerDto;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AnswerCodecTest {
+
+    @Test
+    void answersRoundTrip() {
+        List<QuizAnswerDto> answers = Arrays.asList(
+                new QuizAnswerDto(1, "A", 12),
+                new QuizAnswerDto(2, "Z", 0),
+                new QuizAnswerDto(-3, "b", -7),
+                new QuizAnswerDto(Integer.MAX_VALUE, "Paris", Integer.MIN_VALUE),
+                new QuizAnswerDto(4, "", null),
+                new QuizAnswerDto(null, null, null));
+
+        List<QuizAnswerDto> decoded = AnswerCodec.decode(AnswerCodec.encode(answers));
+
+        assertEquals(answers.size(), decoded.size());
+        for (int i = 0; i < answers.size(); i++) {
+            assertEquals(answers.get(i).getQuestionId(), decoded.get(i).getQuestionId());
+            assertEquals(answers.get(i).getSelectedOption(), decoded.get(i).getSelectedOption());
+            assertEquals(answers.get(i).getTimeSpent(), decoded.get(i).getTimeSpent());
+        }
+    }
+
+    @Test
+    void nullAnswerDecodesAsEmptyAnswer() {
+        QuizAnswerDto decoded = AnswerCodec.decode(AnswerCodec.encode(Arrays.asList((QuizAnswerDto) null))).get(0);
+
+        assertNull(decoded.getQuestionId());
+        assertNull(decoded.getSelectedOption());
+        assertNull(decoded.getTimeSpent());
+    }
+
+    @Test
+    void letterOptionsTakeOneByte() {
+        byte[] data = AnswerCodec.encode(List.of(new QuizAnswerDto(1, "C", 30)));
+
+        assertEquals(5, data.length); // Format, count, id, option, time
+        assertTrue(AnswerCodec.decode(AnswerCodec.encode(List.of())).isEmpty());
+        assertNull(AnswerCodec.encode(null));
+        assertNull(AnswerCodec.decode(null));
+    }
+
+    @Test
+    void rejectsUnknownFormatAndTruncatedData() {
+        byte[] data = AnswerCodec.encode(List.of(new QuizAnswerDto(1, "Paris", 30)));
+
+        assertThrows(IllegalArgumentException.class, () -> AnswerCodec.decode(new byte[] { 9, 0 }));
+        assertThrows(IllegalArgumentException.class, () -> AnswerCodec.decode(Arrays.copyOf(data, data.length - 2)));
+        // A huge count must not be trusted for allocation
+        assertThrows(IllegalArgumentException.class,
+                () -> AnswerCodec.decode(new byte[] { 1, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, 0x07 }));
+    }
+}
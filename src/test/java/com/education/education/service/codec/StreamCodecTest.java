@@ -0,0 +1,57 @@
+package com.education.education.service.codec;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class StreamCodecTest {
+
+    @Test
+    void labelsRoundTripExactly() {
+        List<String> labels = List.of(
+                "Science (85% match)",
+                "Commerce (0% match)",
+                "Arts (Based on Verbal strength)",
+                "Vocational",
+                "Science (085% match)",
+                "Science (1000% match)",
+                "Arts (x) (y)",
+                " ()",
+                "");
+
+        assertEquals(labels, StreamCodec.decode(StreamCodec.encode(labels)));
+    }
+
+    @Test
+    void matchLabelsStoreNameAndPercentOnly() {
+        byte[] data = StreamCodec.encode(List.of("Science (85% match)"));
+
+        assertEquals(1 + 1 + 1 + 1 + "Science".length() + 1, data.length);
+    }
+
+    @Test
+    void primaryStreamAndMatch() {
+        List<String> labels = List.of("Commerce (72% match)", "Arts (60% match)");
+
+        assertEquals("Commerce", StreamCodec.primaryStream(labels));
+        assertEquals(72, StreamCodec.primaryMatch(labels));
+        assertNull(StreamCodec.primaryMatch(List.of("Arts (Based on Verbal strength)")));
+        assertNull(StreamCodec.primaryStream(List.of()));
+        assertEquals("Science", StreamCodec.primaryStreamFromLegacy("[\"Science (85% match)\", \"Arts\"]"));
+        assertEquals("Say \"hi\"", StreamCodec.primaryStreamFromLegacy("[\"Say \\\"hi\\\"\"]"));
+        assertNull(StreamCodec.primaryStreamFromLegacy("[]"));
+    }
+
+    @Test
+    void nullDecodesEmptyAndBadKindsAreRejected() {
+        assertTrue(StreamCodec.decode(null).isEmpty());
+        assertNull(StreamCodec.encode(null));
+        assertThrows(IllegalArgumentException.class, () -> StreamCodec.decode(new byte[] { 1, 1, 7, 0 }));
+        assertThrows(IllegalArgumentException.class, () -> StreamCodec.decode(new byte[] { 2, 0 }));
+    }
+}
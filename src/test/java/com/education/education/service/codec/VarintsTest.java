@@ -0,0 +1,85 @@
+package com.education.education.service.codec;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class VarintsTest {
+
+    @Test
+    void longsRoundTripIncludingNegatives() {
+        long[] values = { 0, 1, 127, 128, 16_383, 16_384, Integer.MAX_VALUE, Long.MAX_VALUE, -1, Long.MIN_VALUE };
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        for (long value : values) {
+            Varints.write(out, value);
+        }
+
+        Varints.Reader in = new Varints.Reader(out.toByteArray());
+        for (long value : values) {
+            assertEquals(value, in.readLong());
+        }
+    }
+
+    @Test
+    void smallValuesTakeOneByte() {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        Varints.write(out, 127);
+        assertArrayEquals(new byte[] { 0x7F }, out.toByteArray());
+
+        out.reset();
+        Varints.write(out, 128);
+        assertArrayEquals(new byte[] { (byte) 0x80, 0x01 }, out.toByteArray());
+    }
+
+    @Test
+    void nullableIntsUseZigzagOffsetByOne() {
+        Integer[] values = { null, 0, -1, 1, -64, 63, Integer.MIN_VALUE, Integer.MAX_VALUE };
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        for (Integer value : values) {
+            Varints.writeNullable(out, value);
+        }
+
+        byte[] bytes = out.toByteArray();
+        assertEquals(0, bytes[0]); // null
+        assertEquals(1, bytes[1]); // 0
+        assertEquals(2, bytes[2]); // -1
+        assertEquals(3, bytes[3]); // 1
+
+        Varints.Reader in = new Varints.Reader(bytes);
+        for (Integer value : values) {
+            assertEquals(value, in.readNullable());
+        }
+    }
+
+    @Test
+    void stringsRoundTripAsUtf8() {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        Varints.writeString(out, "");
+        Varints.writeString(out, "विज्ञान");
+
+        Varints.Reader in = new Varints.Reader(out.toByteArray());
+        assertEquals("", in.readString());
+        assertEquals("विज्ञान", in.readString());
+    }
+
+    @Test
+    void rejectsTruncatedAndOversizedInput() {
+        assertThrows(IllegalArgumentException.class, () -> new Varints.Reader(new byte[] { (byte) 0x80 }).readLong());
+        assertThrows(IllegalArgumentException.class, () -> new Varints.Reader(new byte[] { 5, 'a' }).readString());
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        Varints.write(out, Integer.MAX_VALUE + 1L);
+        assertThrows(IllegalArgumentException.class, () -> new Varints.Reader(out.toByteArray()).readInt());
+
+        byte[] tooLong = new byte[11];
+        Arrays.fill(tooLong, (byte) 0x80);
+        assertThrows(IllegalArgumentException.class, () -> new Varints.Reader(tooLong).readLong());
+        assertNull(new Varints.Reader(new byte[] { 0 }).readNullable());
+    }
+}
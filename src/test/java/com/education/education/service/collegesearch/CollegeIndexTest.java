@@ -0,0 +1,106 @@
+package com.education.education.service.collegesearch;
+
+import com.education.education.entity.College;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CollegeIndexTest {
+
+    private static final String[] DISTRICTS = { "Srinagar", "Jammu", "Anantnag", "Baramulla", "Kathua" };
+    private static final String[] TYPES = { "Government", "Private", "Aided" };
+    private static final String[] TIERS = { "Premier", "Excellent", "Good", "Foundation", "Unrated" };
+    private static final String[] STREAMS = { "Science", "Commerce", "Arts", "Vocational" };
+
+    static College college(long id, String name, String district, String type, String tier, String streams) {
+        College college = new College();
+        college.setCollegeId(id);
+        college.setName(name);
+        college.setDistrict(district);
+        college.setState("Jammu and Kashmir");
+        college.setCollegeType(type);
+        college.setCollegeTier(tier);
+        college.setStreamsOffered(streams);
+        return college;
+    }
+
+    @Test
+    void facetCountsUseDisplayValuesAndOrdering() {
+        CollegeIndex index = CollegeIndex.build(List.of(
+                college(1, "A", " srinagar ", "Government", "Good", "Science, Arts"),
+                college(2, "B", "Srinagar", "Private", "Premier", "Science"), // First in tier order: its spelling shows
+                college(3, "C", "Jammu", "Government", "Foundation", "Commerce"),
+                college(4, "D", "Kathua", "Government", "Good", null)));
+
+        BitSet all = index.all();
+        assertEquals(Map.of("Srinagar", 2, "Jammu", 1, "Kathua", 1), index.facetCounts(CollegeIndex.Field.DISTRICT, all, 10));
+        assertEquals(List.of("Srinagar", "Jammu", "Kathua"),
+                new ArrayList<>(index.facetCounts(CollegeIndex.Field.DISTRICT, all, 10).keySet()));
+        assertEquals(List.of("Premier", "Good", "Foundation"),
+                new ArrayList<>(index.facetCounts(CollegeIndex.Field.TIER, all, 10).keySet()));
+        assertEquals(Map.of("Science", 2, "Arts", 1, "Commerce", 1), index.facetCounts(CollegeIndex.Field.STREAM, all, 10));
+        assertEquals(List.of("Government"),
+                new ArrayList<>(index.facetCounts(CollegeIndex.Field.TYPE, all, 1).keySet()));
+        assertTrue(index.facetCounts(CollegeIndex.Field.TYPE, new BitSet(), 10).isEmpty());
+    }
+
+    @Test
+    void facetCountsMatchABruteForceCount() {
+        Random random = new Random(3);
+        List<College> colleges = new ArrayList<>();
+        for (int i = 0; i < 700; i++) {
+            StringBuilder streams = new StringBuilder();
+            for (String stream : STREAMS) {
+                if (random.nextInt(3) == 0) {
+                    streams.append(streams.length() > 0 ? "," : "").append(stream);
+                }
+            }
+            colleges.add(college(i + 1, "College " + i, DISTRICTS[random.nextInt(DISTRICTS.length)],
+                    TYPES[random.nextInt(TYPES.length)], TIERS[random.nextInt(TIERS.length)], streams.toString()));
+        }
+        CollegeIndex index = CollegeIndex.build(colleges);
+
+        for (int trial = 0; trial < 20; trial++) {
+            BitSet docs = new BitSet();
+            int upTo = 1 + random.nextInt(index.size()); // Sets shorter than the postings too
+            for (int doc = 0; doc < upTo; doc++) {
+                if (random.nextInt(4) != 0) {
+                    docs.set(doc);
+                }
+            }
+
+            for (CollegeIndex.Field field : new CollegeIndex.Field[] {
+                    CollegeIndex.Field.DISTRICT, CollegeIndex.Field.TYPE, CollegeIndex.Field.TIER, CollegeIndex.Field.STREAM }) {
+                Map<String, Integer> expected = new HashMap<>();
+                for (int doc = docs.nextSetBit(0); doc >= 0; doc = docs.nextSetBit(doc + 1)) {
+                    for (String value : values(field, index.doc(doc))) {
+                        expected.merge(value, 1, Integer::sum);
+                    }
+                }
+                assertEquals(expected, index.facetCounts(field, docs, 100), field.name());
+            }
+        }
+    }
+
+    private static List<String> values(CollegeIndex.Field field, College college) {
+        switch (field) {
+            case DISTRICT:
+                return List.of(college.getDistrict());
+            case TYPE:
+                return List.of(college.getCollegeType());
+            case TIER:
+                return List.of(college.getCollegeTier());
+            default:
+                return college.getStreamsOffered().isEmpty() ? List.of()
+                        : List.of(college.getStreamsOffered().split(","));
+        }
+    }
+}
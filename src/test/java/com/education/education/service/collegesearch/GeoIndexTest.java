@@ -0,0 +1,138 @@
+package com.education.education.service.collegesearch;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class GeoIndexTest {
+
+    private static final double NONE = Double.NaN;
+
+    @Test
+    void ringBoundNeverExceedsTheTrueDistance() {
+        Random random = new Random(5);
+        int lonCells = (int) Math.round(360.0 / GeoIndex.CELL_DEGREES);
+        for (int trial = 0; trial < 200_000; trial++) {
+            double lat = random.nextDouble() * 178 - 89;
+            double lon = random.nextDouble() * 360 - 180;
+            double otherLat = random.nextBoolean() ? random.nextDouble() * 178 - 89
+                    : Math.max(-89.9, Math.min(89.9, lat + random.nextGaussian() * 10));
+            double otherLon = random.nextBoolean() ? random.nextDouble() * 360 - 180
+                    : lon + random.nextGaussian() * 40;
+            otherLon = ((otherLon + 540) % 360) - 180;
+
+            int dLat = Math.abs(cell(otherLat) - cell(lat));
+            int dLon = Math.abs(Math.floorMod(cell(otherLon) - cell(lon) + lonCells / 2, lonCells) - lonCells / 2);
+            int ring = Math.max(dLat, dLon); // The other point lies in this ring, outside the ones before it
+
+            double distance = GeoIndex.haversineKm(lat, lon, otherLat, otherLon);
+            assertTrue(GeoIndex.ringLowerBoundKm(lat, ring) <= distance + 1e-6,
+                    lat + "," + lon + " to " + otherLat + "," + otherLon + " in ring " + ring);
+        }
+    }
+
+    @Test
+    void nearestMatchesBruteForce() {
+        Random random = new Random(9);
+        int n = 3000;
+        double[] lats = new double[n];
+        double[] lons = new double[n];
+        for (int doc = 0; doc < n; doc++) {
+            boolean clustered = doc % 3 != 0; // Mostly around Jammu and Kashmir, some worldwide
+            lats[doc] = clustered ? 32 + random.nextDouble() * 5 : random.nextDouble() * 170 - 85;
+            lons[doc] = clustered ? 73 + random.nextDouble() * 6 : random.nextDouble() * 360 - 180;
+            if (doc % 50 == 0) {
+                lats[doc] = NONE;
+            }
+        }
+        GeoIndex index = new GeoIndex(lats, lons);
+        BitSet allowed = new BitSet();
+        for (int doc = 0; doc < n; doc += 2) {
+            allowed.set(doc);
+        }
+
+        for (int q = 0; q < 60; q++) {
+            double lat = q % 2 == 0 ? 32 + random.nextDouble() * 5 : random.nextDouble() * 170 - 85;
+            double lon = q % 2 == 0 ? 73 + random.nextDouble() * 6 : random.nextDouble() * 360 - 180;
+            int k = 1 + random.nextInt(20);
+            double maxKm = q % 3 == 0 ? 150 : Double.POSITIVE_INFINITY;
+            BitSet filter = q % 4 == 0 ? allowed : null;
+
+            assertEquals(bruteForce(lats, lons, lat, lon, k, maxKm, filter),
+                    docs(index.nearest(lat, lon, k, maxKm, filter)), "query " + lat + "," + lon);
+        }
+    }
+
+    @Test
+    void searchWrapsAroundTheAntimeridian() {
+        GeoIndex index = new GeoIndex(new double[] { -17.0, -17.5, 10.0 }, new double[] { 179.95, -179.6, 0.0 });
+
+        List<GeoIndex.Hit> hits = index.nearest(-17.2, -179.9, 2, 100, null);
+
+        assertEquals(List.of(0, 1), docs(hits));
+        assertTrue(hits.get(0).distanceKm < 30);
+        assertTrue(hits.get(1).distanceKm < 50);
+    }
+
+    @Test
+    @Timeout(10)
+    void ringsStopOnceEveryLocatedDocIsSeen() {
+        GeoIndex index = new GeoIndex(new double[] { 34.0, NONE }, new double[] { 74.8, 75.0 });
+        BitSet nothing = new BitSet();
+
+        // The only college is on the far side of the globe, and then filtered out
+        List<GeoIndex.Hit> antipode = index.nearest(-34.0, -105.2, 5, Double.POSITIVE_INFINITY, null);
+        assertEquals(List.of(0), docs(antipode));
+        assertTrue(index.nearest(-34.0, -105.2, 5, Double.POSITIVE_INFINITY, nothing).isEmpty());
+        assertTrue(index.nearest(34.0, 74.8, 0, 10, null).isEmpty());
+        assertTrue(new GeoIndex(new double[] { NONE }, new double[] { NONE }).nearest(0, 0, 3, 10, null).isEmpty());
+    }
+
+    @Test
+    void centroidSkipsDocsWithoutCoordinates() {
+        GeoIndex index = new GeoIndex(new double[] { 30, 34, NONE }, new double[] { 74, 76, 80 });
+        BitSet docs = new BitSet();
+        docs.set(0, 3);
+
+        double[] centroid = index.centroid(docs);
+        assertEquals(32, centroid[0], 1e-9);
+        assertEquals(75, centroid[1], 1e-9);
+
+        BitSet unlocated = new BitSet();
+        unlocated.set(2);
+        assertNull(index.centroid(unlocated));
+    }
+
+    private static int cell(double degrees) {
+        return (int) Math.floor(degrees / GeoIndex.CELL_DEGREES);
+    }
+
+    private static List<Integer> bruteForce(double[] lats, double[] lons, double lat, double lon, int k, double maxKm,
+            BitSet allowed) {
+        List<GeoIndex.Hit> hits = new ArrayList<>();
+        for (int doc = 0; doc < lats.length; doc++) {
+            if (Double.isNaN(lats[doc]) || (allowed != null && !allowed.get(doc))) {
+                continue;
+            }
+            double distance = GeoIndex.haversineKm(lat, lon, lats[doc], lons[doc]);
+            if (distance <= maxKm) {
+                hits.add(new GeoIndex.Hit(doc, distance));
+            }
+        }
+        hits.sort(Comparator.comparingDouble((GeoIndex.Hit h) -> h.distanceKm).thenComparingInt(h -> h.doc));
+        return docs(hits.subList(0, Math.min(k, hits.size())));
+    }
+
+    private static List<Integer> docs(List<GeoIndex.Hit> hits) {
+        return hits.stream().map(h -> h.doc).toList();
+    }
+}
@@ -0,0 +1,100 @@
+package com.education.education.service.collegesearch;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class NameIndexTest {
+
+    private static final String[] WORDS = { "government", "college", "institute", "technology", "arts", "science",
+            "commerce", "engineering", "st", "josephs", "national", "womens", "degree", "polytechnic", "srinagar" };
+
+    @Test
+    void normalizesCaseAccentsAndPunctuation() {
+        assertEquals("st josephs college", NameIndex.normalize("St. Joseph's  College"));
+        assertEquals("ecole superieure", NameIndex.normalize("École Supérieure"));
+        assertEquals("a b", NameIndex.normalize(" A-B! "));
+        assertEquals("", NameIndex.normalize(null));
+    }
+
+    @Test
+    void trigramsArePaddedPerWordAndDistinct() {
+        assertEquals(List.of(" ab", "ab "), NameIndex.trigrams("ab"));
+        assertEquals(List.of(" aa", "aaa", "aa "), NameIndex.trigrams("aaaa"));
+        assertEquals(List.of(" a "), NameIndex.trigrams("a a"));
+        assertTrue(NameIndex.trigrams("").isEmpty());
+    }
+
+    @Test
+    void toleratesTyposAndRanksCloserNamesFirst() {
+        NameIndex index = new NameIndex(new String[] {
+                "Government Arts College", "Government Arts and Science College", "National Institute of Technology" });
+
+        List<NameIndex.Match> matches = index.search("govt arts colege", 0.45, 10);
+        assertEquals(List.of(0, 1), matches.stream().map(m -> m.doc).toList());
+        assertEquals(2, index.search("instute of technolgy", 0.45, 10).get(0).doc);
+        assertTrue(index.search("xyz", 0.45, 10).isEmpty());
+        assertTrue(index.search("", 0.45, 10).isEmpty());
+        assertEquals(1, index.search("government", 0.5, 1).size());
+    }
+
+    @Test
+    void prefixFilterFindsEveryDocAtTheMinimumShare() {
+        Random random = new Random(11);
+        String[] names = new String[400];
+        for (int i = 0; i < names.length; i++) {
+            names[i] = randomName(random, 2 + random.nextInt(4));
+        }
+        NameIndex index = new NameIndex(names);
+
+        for (int q = 0; q < 200; q++) {
+            String query = typo(random, randomName(random, 1 + random.nextInt(3)));
+            double minShare = new double[] { 0.2, 0.45, 0.7, 1.0 }[q % 4];
+            List<String> grams = NameIndex.trigrams(NameIndex.normalize(query));
+
+            Set<Integer> expected = new HashSet<>();
+            for (int doc = 0; doc < names.length; doc++) {
+                Set<String> docGrams = new HashSet<>(NameIndex.trigrams(NameIndex.normalize(names[doc])));
+                long common = grams.stream().filter(docGrams::contains).count();
+                if (!grams.isEmpty() && common >= Math.max(1, Math.ceil(minShare * grams.size() - 1e-9))) {
+                    expected.add(doc);
+                }
+            }
+
+            List<NameIndex.Match> matches = index.search(query, minShare, names.length);
+            Set<Integer> found = new HashSet<>();
+            double previous = Double.MAX_VALUE;
+            for (NameIndex.Match match : matches) {
+                found.add(match.doc);
+                assertTrue(match.share >= minShare - 1e-9);
+                assertTrue(match.share <= previous);
+                previous = match.share;
+            }
+            assertEquals(expected, found, query + " at " + minShare);
+        }
+    }
+
+    private static String randomName(Random random, int words) {
+        List<String> parts = new ArrayList<>();
+        for (int w = 0; w < words; w++) {
+            parts.add(WORDS[random.nextInt(WORDS.length)]);
+        }
+        return String.join(" ", parts);
+    }
+
+    private static String typo(Random random, String text) {
+        StringBuilder out = new StringBuilder(text);
+        int at = random.nextInt(out.length());
+        if (out.charAt(at) != ' ') {
+            out.setCharAt(at, (char) ('a' + random.nextInt(26)));
+        }
+        return out.toString();
+    }
+}
@@ -0,0 +1,109 @@
+package com.education.education.service.leaderboard;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LeaderboardTest {
+
+    @Test
+    void tiedScoresShareACompetitionRank() {
+        Leaderboard board = new Leaderboard();
+        board.offer(1, "a", 90);
+        board.offer(2, "b", 80);
+        board.offer(3, "c", 80);
+        board.offer(4, "d", 70);
+
+        assertEquals(1, board.rank(1).getRank());
+        assertEquals(2, board.rank(2).getRank());
+        assertEquals(2, board.rank(3).getRank());
+        assertEquals(4, board.rank(4).getRank());
+        assertNull(board.rank(5));
+
+        List<Leaderboard.Ranked> top = board.top(10);
+        assertEquals(List.of(1L, 2L, 3L, 4L), top.stream().map(r -> r.getEntry().getUserId()).toList());
+        assertEquals(List.of(1, 2, 2, 4), top.stream().map(Leaderboard.Ranked::getRank).toList());
+        assertEquals(2, board.top(2).size());
+    }
+
+    @Test
+    void rankOfScoreCountsOnlyHigherScores() {
+        Leaderboard board = new Leaderboard();
+        assertEquals(1, board.rankOfScore(50));
+
+        board.offer(1, "a", 90);
+        board.offer(2, "b", 80);
+        board.offer(3, "c", 80);
+
+        assertEquals(1, board.rankOfScore(95));
+        assertEquals(1, board.rankOfScore(90)); // Ties the leader
+        assertEquals(2, board.rankOfScore(85));
+        assertEquals(2, board.rankOfScore(80));
+        assertEquals(4, board.rankOfScore(-10));
+    }
+
+    @Test
+    void onlyABetterScoreReplacesTheBest() {
+        Leaderboard board = new Leaderboard();
+        assertTrue(board.offer(1, "a", 60));
+        assertFalse(board.offer(1, "a", 60));
+        assertFalse(board.offer(1, "a", 40));
+        assertTrue(board.offer(1, "a", 75));
+
+        assertEquals(1, board.size());
+        assertEquals(75, board.rank(1).getEntry().getScore());
+        assertEquals(2, board.rankOfScore(60));
+
+        board.remove(1);
+        board.remove(1);
+        assertEquals(0, board.size());
+        assertEquals(1, board.rankOfScore(0));
+    }
+
+    @Test
+    void scoresBeyondTheInitialTreeSizeKeepRanksExact() {
+        Leaderboard board = new Leaderboard();
+        board.offer(1, "a", 10);
+        board.offer(2, "b", 63);
+        board.offer(3, "c", 64); // Grows the tree
+        board.offer(4, "d", 1000); // Grows it again
+        board.offer(2, "b", 5000); // Moves an existing user past the new end
+
+        assertEquals(1, board.rank(2).getRank());
+        assertEquals(2, board.rank(4).getRank());
+        assertEquals(3, board.rank(3).getRank());
+        assertEquals(4, board.rank(1).getRank());
+    }
+
+    @Test
+    void ranksMatchABruteForceCount() {
+        Random random = new Random(7);
+        Leaderboard board = new Leaderboard();
+        Map<Long, Integer> best = new HashMap<>();
+        for (int i = 0; i < 2000; i++) {
+            long user = random.nextInt(300);
+            if (random.nextInt(10) == 0) {
+                board.remove(user);
+                best.remove(user);
+                continue;
+            }
+            int score = random.nextInt(random.nextBoolean() ? 50 : 500);
+            board.offer(user, "u" + user, score);
+            best.merge(user, score, Math::max);
+        }
+
+        assertEquals(best.size(), board.size());
+        for (Map.Entry<Long, Integer> entry : best.entrySet()) {
+            long higher = best.values().stream().filter(s -> s > entry.getValue()).count();
+            assertEquals(higher + 1, board.rank(entry.getKey()).getRank());
+        }
+    }
+}
@@ -0,0 +1,112 @@
+package com.education.education.service.percentile;
+
+import com.education.education.service.scoring.AptitudeCategory;
+import com.education.education.service.scoring.ScoreCard;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class ScoreHistogramTest {
+
+    private static final int T = ScoreHistogram.TOTAL;
+
+    private static long[] counts(int... binsAndCounts) {
+        long[] counts = new long[ScoreHistogram.DIMENSIONS * ScoreHistogram.BINS];
+        for (int i = 0; i < binsAndCounts.length; i += 2) {
+            counts[binsAndCounts[i]] = binsAndCounts[i + 1];
+        }
+        return counts;
+    }
+
+    @Test
+    void binsRoundToWholePercentAndClamp() {
+        assertEquals(-1, ScoreHistogram.bin(3, 0));
+        assertEquals(0, ScoreHistogram.bin(0, 7));
+        assertEquals(33, ScoreHistogram.bin(1, 3));
+        assertEquals(67, ScoreHistogram.bin(2, 3));
+        assertEquals(100, ScoreHistogram.bin(9, 7));
+        assertEquals(0, ScoreHistogram.bin(-2, 7));
+    }
+
+    @Test
+    void percentileCountsTiesAsHalf() {
+        ScoreHistogram histogram = new ScoreHistogram(null);
+        assertNull(histogram.percentile(T, 50));
+
+        histogram.add(T, 20, 1);
+        histogram.add(T, 50, 2);
+        histogram.add(T, 80, 1);
+
+        assertEquals(12.5, histogram.percentile(T, 20));
+        assertEquals(50.0, histogram.percentile(T, 50));
+        assertEquals(87.5, histogram.percentile(T, 80));
+        assertEquals(25.0, histogram.percentile(T, 30)); // Empty bin: everyone below it
+        assertEquals(100.0, histogram.percentile(T, 100));
+        assertNull(histogram.percentile(T, -1));
+        assertEquals(4, histogram.count(T));
+    }
+
+    @Test
+    void recordSkipsCategoriesTheQuizDoesNotCover() {
+        ScoreHistogram histogram = new ScoreHistogram(null);
+        int[] scores = new int[AptitudeCategory.COUNT];
+        int[] max = new int[AptitudeCategory.COUNT];
+        scores[AptitudeCategory.VERBAL.ordinal()] = 1;
+        max[AptitudeCategory.VERBAL.ordinal()] = 2;
+
+        histogram.record(new ScoreCard(1, 2, scores, max));
+
+        assertEquals(1, histogram.count(T));
+        assertEquals(1, histogram.count(ScoreHistogram.dimension(AptitudeCategory.VERBAL)));
+        assertEquals(0, histogram.count(ScoreHistogram.dimension(AptitudeCategory.TECHNICAL)));
+        assertEquals(50.0, histogram.percentile(ScoreHistogram.dimension(AptitudeCategory.VERBAL), 50));
+    }
+
+    @Test
+    void mergingCountsMatchesOneHistogramOfAllAttempts() {
+        ScoreHistogram merged = new ScoreHistogram(counts(10, 3, 90, 1));
+        merged.add(T, 10, 1);
+        merged.add(T, 50, 4);
+
+        ScoreHistogram single = new ScoreHistogram(null);
+        single.add(T, 10, 4);
+        single.add(T, 50, 4);
+        single.add(T, 90, 1);
+
+        assertArrayEquals(single.percentiles(T), merged.percentiles(T));
+        assertEquals(9, merged.count(T));
+    }
+
+    @Test
+    void checkpointKeepsCountsRecordedMeanwhileAndRetriesFailures() {
+        ScoreHistogram histogram = new ScoreHistogram(null);
+        histogram.add(T, 40, 2);
+
+        long[] first = histogram.beginCheckpoint();
+        assertEquals(2, first[40]);
+        histogram.add(T, 60, 1); // Recorded while the checkpoint is in flight
+
+        // The write failed; the next checkpoint carries both
+        long[] retry = histogram.beginCheckpoint();
+        assertEquals(2, retry[40]);
+        assertEquals(1, retry[60]);
+        assertEquals(3, histogram.count(T));
+
+        // Stored totals include the flush and another instance's 5 attempts
+        histogram.add(T, 70, 1);
+        histogram.completeCheckpoint(counts(40, 2, 60, 1, 20, 5));
+        assertEquals(9, histogram.count(T));
+
+        // No checkpoint in flight, so a refresh takes the stored totals as is
+        histogram.refresh(counts(40, 2, 60, 1, 20, 6));
+        assertEquals(10, histogram.count(T));
+
+        long[] local = histogram.beginCheckpoint();
+        assertEquals(1, local[70]);
+        histogram.refresh(counts(0, 100)); // Ignored while flushing
+        histogram.completeCheckpointLocally();
+        assertEquals(10, histogram.count(T));
+    }
+}
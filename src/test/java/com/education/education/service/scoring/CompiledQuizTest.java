@@ -0,0 +1,68 @@
+package com.education.education.service.scoring;
+
+import com.education.education.entity.Quiz;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CompiledQuizTest {
+
+    static CompiledQuiz compile(String questionsJson) throws IOException {
+        Quiz quiz = new Quiz("Aptitude", null, questionsJson, "10");
+        quiz.setQuizId(7L);
+        quiz.setUpdatedAt(LocalDateTime.of(2024, 1, 1, 0, 0));
+        return CompiledQuiz.compile(quiz, new ObjectMapper());
+    }
+
+    @Test
+    void compilesKeysPointsAndCategoryTotals() throws IOException {
+        CompiledQuiz quiz = compile("["
+                + "{\"id\":1,\"category\":\"mathematics\",\"correctAnswer\":\"b\",\"points\":2},"
+                + "{\"id\":2,\"category\":\"English\",\"correctAnswer\":\"Paris\"},"
+                + "{\"id\":3,\"category\":\"art\",\"correctAnswer\":\"C\",\"points\":3}]");
+
+        assertEquals(3, quiz.size());
+        assertEquals(6, quiz.getMaxScore());
+        assertEquals(2, quiz.categoryMax(AptitudeCategory.MATHEMATICAL.ordinal()));
+        assertEquals(1, quiz.categoryMax(AptitudeCategory.VERBAL.ordinal()));
+        assertEquals(CompiledQuiz.CATEGORY_NONE, quiz.categoryCode(2));
+
+        assertTrue(quiz.isCorrect(0, "B"));
+        assertTrue(quiz.isCorrect(0, "b"));
+        assertFalse(quiz.isCorrect(0, "BB"));
+        assertTrue(quiz.isCorrect(1, "paris"));
+        assertFalse(quiz.isCorrect(1, null));
+    }
+
+    @Test
+    void lastDuplicateIdWinsInBothLookupTables() throws IOException {
+        String dense = "[{\"id\":1,\"category\":\"verbal\",\"correctAnswer\":\"A\"},"
+                + "{\"id\":1,\"category\":\"verbal\",\"correctAnswer\":\"B\"}]";
+        String sparse = "[{\"id\":5,\"category\":\"verbal\",\"correctAnswer\":\"A\"},"
+                + "{\"id\":1000000,\"category\":\"verbal\",\"correctAnswer\":\"B\"},"
+                + "{\"id\":5,\"category\":\"verbal\",\"correctAnswer\":\"C\"}]";
+
+        assertEquals(1, compile(dense).indexOf(1));
+        CompiledQuiz spread = compile(sparse);
+        assertEquals(2, spread.indexOf(5));
+        assertEquals(1, spread.indexOf(1000000));
+        assertEquals(-1, spread.indexOf(6));
+        assertEquals(-1, spread.indexOf(Integer.MIN_VALUE));
+    }
+
+    @Test
+    void versionFollowsQuizUpdatedAt() throws IOException {
+        CompiledQuiz quiz = compile("[]");
+
+        assertEquals(0, quiz.size());
+        assertTrue(quiz.isCurrent(LocalDateTime.of(2024, 1, 1, 0, 0)));
+        assertFalse(quiz.isCurrent(LocalDateTime.of(2024, 1, 1, 0, 1)));
+        assertFalse(quiz.isCurrent(null));
+    }
+}
@@ -0,0 +1,60 @@
+package com.education.education.service.scoring;
+
+import com.education.education.dto.QuizSubmissionDto.QuizAnswerDto;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class ScoringKernelTest {
+
+    private static final String QUESTIONS = "["
+            + "{\"id\":1,\"category\":\"mathematical\",\"correctAnswer\":\"A\",\"points\":2},"
+            + "{\"id\":2,\"category\":\"verbal\",\"correctAnswer\":\"B\"},"
+            + "{\"id\":3,\"category\":\"logical\",\"correctAnswer\":\"C\",\"points\":3}]";
+
+    @Test
+    void lastAnswerForAQuestionWins() throws IOException {
+        CompiledQuiz quiz = CompiledQuizTest.compile(QUESTIONS);
+
+        ScoreCard rightThenWrong = ScoringKernel.score(quiz, List.of(
+                new QuizAnswerDto(1, "A", 5), new QuizAnswerDto(1, "D", 5)));
+        ScoreCard wrongThenRight = ScoringKernel.score(quiz, List.of(
+                new QuizAnswerDto(1, "D", 5), new QuizAnswerDto(1, "A", 5)));
+
+        assertEquals(0, rightThenWrong.getTotalScore());
+        assertEquals(2, wrongThenRight.getTotalScore());
+        assertEquals(2, wrongThenRight.score(AptitudeCategory.MATHEMATICAL));
+    }
+
+    @Test
+    void sumsCategoriesAndSkipsUnknownOrEmptyAnswers() throws IOException {
+        CompiledQuiz quiz = CompiledQuizTest.compile(QUESTIONS);
+
+        ScoreCard card = ScoringKernel.score(quiz, Arrays.asList(
+                new QuizAnswerDto(2, "b", 5),
+                new QuizAnswerDto(3, "C", 5),
+                new QuizAnswerDto(99, "A", 5),
+                new QuizAnswerDto(null, "A", 5),
+                null));
+
+        assertEquals(4, card.getTotalScore());
+        assertEquals(6, card.getMaxScore());
+        assertEquals(1, card.score(AptitudeCategory.VERBAL));
+        assertEquals(3, card.score(AptitudeCategory.ANALYTICAL));
+        assertEquals(0, card.score(AptitudeCategory.MATHEMATICAL));
+        assertEquals(1.0, card.percent(AptitudeCategory.ANALYTICAL));
+        assertEquals(0.0, card.percent(AptitudeCategory.TECHNICAL));
+    }
+
+    @Test
+    void noAnswersScoresZero() throws IOException {
+        CompiledQuiz quiz = CompiledQuizTest.compile(QUESTIONS);
+
+        assertEquals(0, ScoringKernel.score(quiz, null).getTotalScore());
+        assertEquals(6, ScoringKernel.score(quiz, List.of()).getMaxScore());
+    }
+}
@@ -0,0 +1,69 @@
+package com.education.education.service.session;
+
+import com.education.education.dto.QuizSubmissionDto;
+import com.education.education.entity.Quiz;
+import com.education.education.service.scoring.CompiledQuiz;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class QuizSessionTest {
+
+    static QuizSession session(int maxSecondsPerQuestion) throws IOException {
+        Quiz quiz = new Quiz("Aptitude", null, "["
+                + "{\"id\":1,\"category\":\"mathematical\",\"correctAnswer\":\"A\",\"points\":2},"
+                + "{\"id\":2,\"category\":\"verbal\",\"correctAnswer\":\"B\",\"points\":3}]", "10");
+        quiz.setQuizId(7L);
+        quiz.setUpdatedAt(LocalDateTime.of(2024, 1, 1, 0, 0));
+        CompiledQuiz compiled = CompiledQuiz.compile(quiz, new ObjectMapper());
+        return new QuizSession("s1", 1L, compiled, 0, 60_000, maxSecondsPerQuestion);
+    }
+
+    static QuizSubmissionDto.QuizAnswerDto answer(int questionId, String option, Integer seconds) {
+        return new QuizSubmissionDto.QuizAnswerDto(questionId, option, seconds);
+    }
+
+    @Test
+    void reAnswerReplacesEarlierAnswer() throws IOException {
+        QuizSession session = session(30);
+
+        assertTrue(session.answer(answer(1, "A", 5)));
+        assertEquals(2, session.getTotalScore());
+        assertTrue(session.answer(answer(1, "C", 5)));
+        assertEquals(0, session.getTotalScore());
+        assertEquals(1, session.getAnsweredCount());
+        assertEquals("C", session.toAnswers().get(0).getSelectedOption());
+    }
+
+    @Test
+    void tooSlowReAnswerKeepsEarlierAnswer() throws IOException {
+        QuizSession session = session(30);
+
+        assertTrue(session.answer(answer(1, "A", 5)));
+        assertFalse(session.answer(answer(1, "C", 45)));
+
+        assertEquals(2, session.getTotalScore());
+        assertEquals(1, session.getAnsweredCount());
+        assertEquals(1, session.getTimedOutCount());
+        List<QuizSubmissionDto.QuizAnswerDto> answers = session.toAnswers();
+        assertEquals("A", answers.get(0).getSelectedOption());
+        assertEquals(5, answers.get(0).getTimeSpent());
+    }
+
+    @Test
+    void unknownQuestionIsRejected() throws IOException {
+        QuizSession session = session(0);
+
+        assertFalse(session.answer(answer(9, "A", 5)));
+        assertTrue(session.answer(answer(2, "b", 500)));
+        assertEquals(3, session.getTotalScore());
+        assertEquals(0, session.getTimedOutCount());
+    }
+}
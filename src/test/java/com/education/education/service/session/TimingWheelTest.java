@@ -0,0 +1,76 @@
+package com.education.education.service.session;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class TimingWheelTest {
+
+    // Ticks are an hour long, so the ticker thread never fires during a test
+    private static final long TICK = 3_600_000L;
+
+    private final List<String> expired = new ArrayList<>();
+    private TimingWheel<String> wheel;
+    private long start;
+
+    @BeforeEach
+    void setUp() {
+        wheel = new TimingWheel<>("test-wheel", TICK, 4, expired::add);
+        start = wheel.getStartMillis();
+    }
+
+    @AfterEach
+    void tearDown() {
+        wheel.shutdown();
+    }
+
+    @Test
+    void keysInTheSameSlotWaitForTheirRound() {
+        wheel.schedule("first-round", start + TICK);
+        wheel.schedule("second-round", start + 5 * TICK); // Slot 1 again, one turn later
+
+        wheel.advanceTo(start + TICK);
+        assertEquals(List.of("first-round"), expired);
+
+        wheel.advanceTo(start + 4 * TICK);
+        assertEquals(List.of("first-round"), expired);
+
+        wheel.advanceTo(start + 5 * TICK);
+        assertEquals(List.of("first-round", "second-round"), expired);
+    }
+
+    @Test
+    void deadlinesRoundUpToTheNextTick() {
+        wheel.schedule("late", start + TICK + 1);
+
+        wheel.advanceTo(start + TICK);
+        assertEquals(List.of(), expired);
+
+        wheel.advanceTo(start + 2 * TICK);
+        assertEquals(List.of("late"), expired);
+    }
+
+    @Test
+    void pastDeadlinesGoToASlotNotYetProcessed() {
+        wheel.advanceTo(start + 10 * TICK);
+        wheel.schedule("overdue", start);
+
+        wheel.advanceTo(start + 10 * TICK);
+        assertEquals(List.of(), expired);
+
+        wheel.advanceTo(start + 12 * TICK);
+        assertEquals(List.of("overdue"), expired);
+    }
+
+    @Test
+    void slotCountMustBeAPowerOfTwo() {
+        assertThrows(IllegalArgumentException.class, () -> new TimingWheel<String>("bad", TICK, 6, key -> {
+        }));
+    }
+}